@@ -63,4 +63,30 @@ public interface Dictionary<K, V> {
      * @return a Set of keys present in the dictionary.
      */
     Set<K> keySet();
+
+    /**
+     * Enumeration of the available implementations of Dictionary, for use where the implementation is selectable
+     * (for example, the memo tables of the dynamic programming classes).
+     */
+    enum Backend {
+        /**
+         * Dictionary_Hash, which delegates to HashMap.
+         */
+        HASH,
+        /**
+         * Dictionary_Cuckoo, which uses bucketized cuckoo hashing.
+         */
+        CUCKOO;
+
+        /**
+         * Create a new, empty Dictionary of this kind.
+         *
+         * @param <K> the key type
+         * @param <V> the value type
+         * @return a new Dictionary.
+         */
+        public <K, V> Dictionary<K, V> create() {
+            return this == CUCKOO ? new Dictionary_Cuckoo<>() : new Dictionary_Hash<>();
+        }
+    }
 }
\ No newline at end of file
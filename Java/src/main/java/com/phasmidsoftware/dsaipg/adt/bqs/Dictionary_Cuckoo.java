@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This is an implementation of Dictionary which uses bucketized cuckoo hashing.
+ * <p>
+ * The table is an array of buckets, each of which has four slots.
+ * Every key has two candidate buckets, so a lookup examines at most eight slots plus a small stash:
+ * lookup is O(1) in the worst case, not merely on average.
+ * Each slot has a one-byte fingerprint (zero means empty) and the four fingerprints of a bucket are packed into one int.
+ * A lookup compares all four fingerprints of a bucket at once (SIMD within a register)
+ * and only calls equals on the keys whose fingerprints match.
+ * <p>
+ * The alternate bucket is derived from the current bucket and the fingerprint alone (partial-key cuckoo hashing),
+ * so an entry can be evicted to its other bucket without recomputing the hash of its key.
+ * An insertion which finds both buckets full evicts entries along a random walk;
+ * if the walk is too long, the homeless entry goes to the stash; if the stash is full, the table is doubled
+ * (unless it is less than half full, in which case the hashCode of the keys must be poor and the stash is enlarged instead).
+ * With four-way buckets, load factors above 90% are routinely achieved.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class Dictionary_Cuckoo<K, V> implements Dictionary<K, V> {
+
+    /**
+     * Inserts the specified key-value pair.
+     * If the dictionary previously contained a mapping for the key, the old value is replaced.
+     *
+     * @param k the key with which the specified value is to be associated
+     * @param v the value to be associated with the specified key
+     */
+    public void put(K k, V v) {
+        if (k == null) {
+            if (!hasNullKey) size++;
+            hasNullKey = true;
+            nullValue = v;
+            return;
+        }
+        int h = hash(k);
+        int slot = find(k, h);
+        if (slot >= 0) {
+            values[slot] = v;
+            return;
+        }
+        if (slot != NOT_FOUND) {
+            stashValues[-2 - slot] = v;
+            return;
+        }
+        if (size + 1 > maxLoad * slots()) resize(buckets() * 2);
+        insert(k, v, h);
+        size++;
+    }
+
+    /**
+     * Retrieves the value associated with the specified key.
+     *
+     * @param k the key whose associated value is to be returned
+     * @return the value associated with the specified key, or null if there is no mapping for the key
+     */
+    public V get(K k) {
+        if (k == null) return nullValue;
+        int slot = find(k, hash(k));
+        if (slot >= 0) return values[slot];
+        return slot != NOT_FOUND ? stashValues[-2 - slot] : null;
+    }
+
+    /**
+     * Returns the number of key-value mappings.
+     *
+     * @return the size of this dictionary
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if this dictionary is empty.
+     *
+     * @return true if there are no key-value mappings, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines if this dictionary contains a mapping for the specified key.
+     *
+     * @param key the key whose presence is to be tested
+     * @return true if there is a mapping for the specified key, false otherwise
+     */
+    public boolean containsKey(Object key) {
+        if (key == null) return hasNullKey;
+        return find(key, hash(key)) != NOT_FOUND;
+    }
+
+    /**
+     * Removes all mappings, leaving this dictionary empty (but with its current capacity).
+     */
+    public void clear() {
+        Arrays.fill(tags, 0);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(stashKeys, null);
+        Arrays.fill(stashValues, null);
+        stashSize = 0;
+        hasNullKey = false;
+        nullValue = null;
+        size = 0;
+    }
+
+    /**
+     * Returns a read-only Set view of the keys.
+     * If the dictionary is modified while an iteration over the set is in progress, the results of the iteration are undefined.
+     *
+     * @return a Set view of the keys
+     */
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            public Iterator<K> iterator() {
+                return new KeyIterator();
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    /**
+     * @return the number of slots in the table (excluding the stash).
+     */
+    public int capacity() {
+        return slots();
+    }
+
+    /**
+     * @return the proportion of the slots (excluding the stash) which are occupied.
+     */
+    public double loadFactor() {
+        return (double) (size - stashSize - (hasNullKey ? 1 : 0)) / slots();
+    }
+
+    @Override
+    public String toString() {
+        return "Dictionary_Cuckoo{size=" + size + ", capacity=" + capacity() + ", stash=" + stashSize + "}";
+    }
+
+    /**
+     * Constructor for a Dictionary_Cuckoo which can hold expected entries without resizing.
+     *
+     * @param expected the expected number of entries.
+     * @param maxLoad  the load factor (between 0.5 and 1) at which the table is doubled.
+     */
+    public Dictionary_Cuckoo(int expected, double maxLoad) {
+        if (maxLoad < 0.5 || maxLoad > 1)
+            throw new IllegalArgumentException("Dictionary_Cuckoo: maxLoad must be between 0.5 and 1: " + maxLoad);
+        this.maxLoad = maxLoad;
+        allocate(Math.max(2, Integer.highestOneBit((int) Math.ceil(expected / maxLoad / SLOTS) * 2 - 1)));
+    }
+
+    /**
+     * Constructor for a Dictionary_Cuckoo which can hold expected entries without resizing.
+     *
+     * @param expected the expected number of entries.
+     */
+    public Dictionary_Cuckoo(int expected) {
+        this(expected, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * Constructor for an empty Dictionary_Cuckoo with a default capacity.
+     */
+    public Dictionary_Cuckoo() {
+        this(16);
+    }
+
+    /**
+     * The number of slots in each bucket.
+     */
+    static final int SLOTS = 4;
+
+    /**
+     * The initial number of entries which may be held in the stash before the table is doubled.
+     */
+    static final int STASH_SIZE = 8;
+
+    /**
+     * The maximum number of evictions in one insertion.
+     */
+    static final int MAX_KICKS = 500;
+
+    /**
+     * The default load factor at which the table is doubled.
+     */
+    static final double DEFAULT_MAX_LOAD = 0.95;
+
+    /**
+     * Find the slot of key k, whose hash is h.
+     *
+     * @return the slot index (if found in the table), or -2 - i if found at position i of the stash, or NOT_FOUND.
+     */
+    private int find(Object k, int h) {
+        int fp = fingerprint(h);
+        int b1 = h & mask;
+        int slot = findInBucket(k, b1, fp);
+        if (slot >= 0) return slot;
+        slot = findInBucket(k, alternate(b1, fp), fp);
+        if (slot >= 0) return slot;
+        for (int i = 0; i < stashSize; i++) if (k.equals(stashKeys[i])) return -2 - i;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Compare fp with all four fingerprints of bucket b at once and check the key of each match.
+     *
+     * @return the slot index, or NOT_FOUND.
+     */
+    private int findInBucket(Object k, int b, int fp) {
+        long matches = matchBytes(tags[b], fp);
+        while (matches != 0) {
+            int slot = b * SLOTS + (Long.numberOfTrailingZeros(matches) >>> 3);
+            if (k.equals(keys[slot])) return slot;
+            matches &= matches - 1;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Insert an entry which is known to be absent. There is room for it, either in the table or in the stash,
+     * or else the table is doubled.
+     */
+    private void insert(K k, V v, int h) {
+        int fp = fingerprint(h);
+        int b = h & mask;
+        if (placeInBucket(b, fp, k, v) || placeInBucket(alternate(b, fp), fp, k, v)) return;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) b = alternate(b, fp);
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            // Evict a random victim from bucket b and put the homeless entry in its place.
+            int i = random.nextInt(SLOTS);
+            int slot = b * SLOTS + i;
+            int victimFp = getTag(b, i);
+            K victimKey = keys[slot];
+            V victimValue = values[slot];
+            setTag(b, i, fp);
+            keys[slot] = k;
+            values[slot] = v;
+            fp = victimFp;
+            k = victimKey;
+            v = victimValue;
+            b = alternate(b, fp);
+            if (placeInBucket(b, fp, k, v)) return;
+        }
+        if (stashSize == stashKeys.length && size > slots() / 2) {
+            resize(buckets() * 2);
+            insert(k, v, hash(k));
+            return;
+        }
+        if (stashSize == stashKeys.length) {
+            // The table is less than half full, so the collisions are due to a poor hashCode: doubling would not help.
+            stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+            stashValues = Arrays.copyOf(stashValues, stashSize * 2);
+        }
+        stashKeys[stashSize] = k;
+        stashValues[stashSize++] = v;
+    }
+
+    /**
+     * Place the entry in a free slot of bucket b, if there is one.
+     *
+     * @return true if the entry was placed.
+     */
+    private boolean placeInBucket(int b, int fp, K k, V v) {
+        long free = matchBytes(tags[b], 0);
+        if (free == 0) return false;
+        int i = Long.numberOfTrailingZeros(free) >>> 3;
+        setTag(b, i, fp);
+        keys[b * SLOTS + i] = k;
+        values[b * SLOTS + i] = v;
+        return true;
+    }
+
+    /**
+     * Rehash every entry (including those in the stash) into a table of n buckets.
+     */
+    private void resize(int n) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldTags = tags;
+        K[] oldStashKeys = Arrays.copyOf(stashKeys, stashSize);
+        V[] oldStashValues = Arrays.copyOf(stashValues, stashSize);
+        allocate(n);
+        for (int slot = 0; slot < oldKeys.length; slot++)
+            if (((oldTags[slot / SLOTS] >>> (8 * (slot % SLOTS))) & 0xFF) != 0)
+                insert(oldKeys[slot], oldValues[slot], hash(oldKeys[slot]));
+        for (int i = 0; i < oldStashKeys.length; i++) insert(oldStashKeys[i], oldStashValues[i], hash(oldStashKeys[i]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int n) {
+        mask = n - 1;
+        tags = new int[n];
+        keys = (K[]) new Object[n * SLOTS];
+        values = (V[]) new Object[n * SLOTS];
+        stashKeys = (K[]) new Object[STASH_SIZE];
+        stashValues = (V[]) new Object[STASH_SIZE];
+        stashSize = 0;
+    }
+
+    private int getTag(int b, int i) {
+        return (tags[b] >>> (8 * i)) & 0xFF;
+    }
+
+    private void setTag(int b, int i, int fp) {
+        tags[b] = (tags[b] & ~(0xFF << (8 * i))) | (fp << (8 * i));
+    }
+
+    private int buckets() {
+        return mask + 1;
+    }
+
+    private int slots() {
+        return buckets() * SLOTS;
+    }
+
+    /**
+     * Partial-key cuckoo hashing: the alternate of the alternate of b is b.
+     */
+    private int alternate(int b, int fp) {
+        return (b ^ (fp * 0x5BD1E995)) & mask;
+    }
+
+    /**
+     * Yield a bit mask which has the high bit set in each byte of word which equals fp (and possibly some false positives,
+     * but only in bytes above a true match, which the callers resolve by checking the tag or key).
+     * The result is a long so that the borrow out of the top byte is not lost.
+     */
+    private static long matchBytes(int word, int fp) {
+        long x = (word ^ (fp * 0x01010101)) & 0xFFFFFFFFL;
+        long matches = (x - 0x01010101L) & ~x & 0x80808080L;
+        // Discard false positives: keep only the bytes which really do match.
+        long result = 0;
+        while (matches != 0) {
+            int shift = Long.numberOfTrailingZeros(matches) - 7;
+            if (((x >>> shift) & 0xFF) == 0) result |= 0x80L << shift;
+            matches &= matches - 1;
+        }
+        return result;
+    }
+
+    /**
+     * The fingerprint is taken from the high bits of the hash (the bucket index comes from the low bits).
+     * It is never zero, because zero marks an empty slot.
+     */
+    private static int fingerprint(int h) {
+        int fp = h >>> 24;
+        return fp != 0 ? fp : 1;
+    }
+
+    private static int hash(Object k) {
+        int h = k.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private class KeyIterator implements Iterator<K> {
+        public boolean hasNext() {
+            while (slot < keys.length && getTag(slot / SLOTS, slot % SLOTS) == 0) slot++;
+            return slot < keys.length || stashIndex < stashSize || nullPending;
+        }
+
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (slot < keys.length) return keys[slot++];
+            if (stashIndex < stashSize) return stashKeys[stashIndex++];
+            nullPending = false;
+            return null;
+        }
+
+        private int slot = 0;
+        private int stashIndex = 0;
+        private boolean nullPending = hasNullKey;
+    }
+
+    private static final int NOT_FOUND = -1;
+
+    private final double maxLoad;
+    private int mask;
+    private int[] tags;
+    private K[] keys;
+    private V[] values;
+    private K[] stashKeys;
+    private V[] stashValues;
+    private int stashSize;
+    private boolean hasNullKey;
+    private V nullValue;
+    private int size;
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+/**
+ * Interface for an addressable (min) priority queue: give returns a handle by which the element may later be
+ * re-prioritized (decreaseKey) or removed, as required by Dijkstra's and Prim's algorithms.
+ * <p>
+ * A handle is a small non-negative int (an index into a node pool).
+ * It is valid from the time it is returned by give until its element is taken or removed,
+ * after which the handle may be reused for a different element.
+ *
+ * @param <K> the key (priority) type.
+ */
+public interface AddressablePQ<K> {
+
+    /**
+     * @return true if this priority queue is empty.
+     */
+    boolean isEmpty();
+
+    /**
+     * @return the number of elements in this priority queue.
+     */
+    int size();
+
+    /**
+     * Insert a key.
+     *
+     * @param key the key.
+     * @return the handle of the new element.
+     */
+    int give(K key);
+
+    /**
+     * Remove the element with the smallest key.
+     *
+     * @return the smallest key.
+     * @throws PQException if this priority queue is empty.
+     */
+    K take() throws PQException;
+
+    /**
+     * Yield the handle of the element with the smallest key, without removing it.
+     * This is typically used to look up the item associated with the element before calling take.
+     *
+     * @return the handle of the minimum element.
+     * @throws PQException if this priority queue is empty.
+     */
+    int peekHandle() throws PQException;
+
+    /**
+     * Yield the key of the element with the given handle.
+     *
+     * @param handle a valid handle.
+     * @return the key.
+     */
+    K key(int handle);
+
+    /**
+     * Reduce the key of the element with the given handle.
+     *
+     * @param handle a valid handle.
+     * @param key    the new key, which must not be greater than the current key.
+     * @throws IllegalArgumentException if key is greater than the current key.
+     */
+    void decreaseKey(int handle, K key);
+
+    /**
+     * Remove the element with the given handle.
+     *
+     * @param handle a valid handle.
+     */
+    void remove(int handle);
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * Calendar queue (R. Brown, 1988): a min-priority queue for events whose priorities are (nearly) monotone times.
+ * <p>
+ * The time of each event is obtained from a key-to-long extractor.
+ * The events are kept in an array of buckets (the "days" of a "year"), each a list sorted by time:
+ * an event with time t belongs in bucket (t / width) mod nBuckets.
+ * take scans forward from the current day, taking the first event in a bucket whose time falls within the current year;
+ * if a whole year passes without finding one, it finds the earliest event by direct search.
+ * <p>
+ * The number of buckets is doubled (or halved) when the number of events exceeds twice (or falls below half) the number of buckets.
+ * At each resize, the bucket width is recomputed as three times the mean separation of the earliest events (ignoring outliers),
+ * so that each day holds only a few events and give and take are amortized O(1).
+ * Events with the same time are taken in the order in which they were given.
+ * <p>
+ * An event earlier than the current day is handled exactly: the scan is simply restarted from its day.
+ * The events are held in a pool of parallel arrays with the bucket lists threaded through them, so give does not allocate.
+ *
+ * @param <K> the key (event) type.
+ */
+public class CalendarQueue<K> implements PriorityQueueInterface<K> {
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Schedule an event.
+     *
+     * @param key the event, whose time is given by the extractor.
+     */
+    public void give(K key) {
+        long t = time.applyAsLong(key);
+        link(allocate(key, t));
+        n++;
+        if (n > 2 * heads.length && heads.length < MAX_BUCKETS) resize(heads.length * 2);
+    }
+
+    /**
+     * Remove the earliest event.
+     *
+     * @return the event with the earliest time (of those with the same time, the first to have been given).
+     * @throws PQException if this queue is empty.
+     */
+    public K take() throws PQException {
+        if (n == 0) throw new PQException("Priority queue is empty");
+        int h = removeFirst();
+        K result = items[h];
+        free(h);
+        n--;
+        if (n < heads.length / 2 - 2 && heads.length > MIN_BUCKETS) resize(heads.length / 2);
+        return result;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the initial size of the event pool (it will grow as necessary).
+     * @param time     the function which yields the time of an event.
+     */
+    @SuppressWarnings("unchecked")
+    public CalendarQueue(int capacity, ToLongFunction<K> time) {
+        this.time = time;
+        capacity = Math.max(2, capacity);
+        items = (K[]) new Object[capacity];
+        times = new long[capacity];
+        next = new int[capacity];
+        initBuckets(MIN_BUCKETS, 1L, 0L);
+    }
+
+    /**
+     * @return the number of buckets (days per year).
+     */
+    public int buckets() {
+        return heads.length;
+    }
+
+    /**
+     * @return the width of each bucket (in units of time).
+     */
+    public long width() {
+        return width;
+    }
+
+    /**
+     * Unlink and return the earliest event (n must be positive).
+     */
+    private int removeFirst() {
+        int mask = heads.length - 1;
+        int i = lastBucket;
+        for (int days = 0; days < heads.length; days++) {
+            int h = heads[i];
+            if (h != NONE && times[h] < bucketTop) return unlinkHead(i);
+            i = (i + 1) & mask;
+            bucketTop += width;
+        }
+        // A whole year has passed with no event: find the earliest event directly.
+        int best = NONE;
+        for (int b = 0; b < heads.length; b++)
+            if (heads[b] != NONE && (best == NONE || times[heads[b]] < times[heads[best]])) best = b;
+        setDay(times[heads[best]]);
+        return unlinkHead(best);
+    }
+
+    private int unlinkHead(int b) {
+        int h = heads[b];
+        heads[b] = next[h];
+        lastBucket = b;
+        return h;
+    }
+
+    /**
+     * Insert event h into its bucket, after any events with the same or an earlier time.
+     * If it is earlier than the current day, the scan is restarted from its day.
+     */
+    private void link(int h) {
+        long t = times[h];
+        if (t < bucketTop - width) setDay(t);
+        int b = bucket(t);
+        int x = heads[b];
+        if (x == NONE || t < times[x]) {
+            next[h] = x;
+            heads[b] = h;
+            if (x == NONE) tails[b] = h;
+        } else if (t >= times[tails[b]]) {
+            next[h] = NONE;
+            next[tails[b]] = h;
+            tails[b] = h;
+        } else {
+            while (next[x] != NONE && times[next[x]] <= t) x = next[x];
+            next[h] = next[x];
+            next[x] = h;
+        }
+    }
+
+    /**
+     * Rebuild the calendar with the given number of buckets and a width estimated from the earliest events.
+     */
+    private void resize(int nBuckets) {
+        long day = bucketTop - width;
+        // Sample the earliest events (by taking them) to estimate the separation of events.
+        int samples = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[samples];
+        for (int i = 0; i < samples; i++) sample[i] = removeFirst();
+        long newWidth = estimateWidth(sample);
+        // Collect the remaining events and re-link everything.
+        int[] all = Arrays.copyOf(sample, n);
+        int k = samples;
+        for (int b = 0; b < heads.length; b++)
+            for (int h = heads[b]; h != NONE; h = next[h]) all[k++] = h;
+        initBuckets(nBuckets, newWidth, samples > 0 ? times[sample[0]] : day);
+        for (int h : all) link(h);
+    }
+
+    /**
+     * Estimate the bucket width as three times the mean separation of the sampled (consecutive) events,
+     * after discarding separations greater than twice the initial mean.
+     */
+    private long estimateWidth(int[] sample) {
+        if (sample.length < 2) return width;
+        long total = times[sample[sample.length - 1]] - times[sample[0]];
+        double mean = (double) total / (sample.length - 1);
+        double sum = 0;
+        int count = 0;
+        for (int i = 1; i < sample.length; i++) {
+            long separation = times[sample[i]] - times[sample[i - 1]];
+            if (separation <= 2 * mean) {
+                sum += separation;
+                count++;
+            }
+        }
+        return count == 0 ? Math.max(1L, (long) (3 * mean)) : Math.max(1L, (long) (3 * sum / count));
+    }
+
+    private void initBuckets(int nBuckets, long width, long start) {
+        this.width = width;
+        heads = new int[nBuckets];
+        tails = new int[nBuckets];
+        Arrays.fill(heads, NONE);
+        setDay(start);
+    }
+
+    /**
+     * Make the day which contains time t the current day.
+     */
+    private void setDay(long t) {
+        lastBucket = bucket(t);
+        bucketTop = (Math.floorDiv(t, width) + 1) * width;
+    }
+
+    private int bucket(long t) {
+        return (int) (Math.floorDiv(t, width) & (heads.length - 1));
+    }
+
+    private int allocate(K key, long t) {
+        int h;
+        if (freeList != NONE) {
+            h = freeList;
+            freeList = next[h];
+        } else {
+            if (used == items.length) grow();
+            h = used++;
+        }
+        items[h] = key;
+        times[h] = t;
+        return h;
+    }
+
+    private void free(int h) {
+        items[h] = null; // prevent loitering
+        next[h] = freeList;
+        freeList = h;
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        times = Arrays.copyOf(times, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    private static final int NONE = -1;
+    private static final int MIN_BUCKETS = 2;
+    private static final int MAX_BUCKETS = 1 << 30;
+    private static final int SAMPLE_SIZE = 25;
+
+    private final ToLongFunction<K> time;
+    private int[] heads;
+    private int[] tails;
+    private long width;
+    private int lastBucket;
+    /**
+     * The (exclusive) upper bound of the current day: the current day covers times in [bucketTop - width, bucketTop).
+     */
+    private long bucketTop;
+    private K[] items;
+    private long[] times;
+    private int[] next;
+    private int freeList = NONE;
+    private int used = 0;
+    private int n = 0;
+}
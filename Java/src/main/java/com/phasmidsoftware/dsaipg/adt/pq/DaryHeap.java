@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Priority Queue Data Structure which uses a d-ary heap, where the arity d is chosen at construction time.
+ * <p/>
+ * A binary heap (d = 2) minimizes the number of comparisons, but a wider heap (d = 4 or d = 8) is shallower,
+ * so each operation touches fewer cache lines: the children of a node are adjacent in memory.
+ * give is cheaper (O(log_d n)) while take examines d children at each of its O(log_d n) levels.
+ * <p/>
+ * The root is at index 0 and the children of the element at index k are at indices d*k+1 through d*k+d.
+ * The array grows automatically (by doubling) so, unlike PriorityQueue, no element is ever discarded.
+ * <p/>
+ * It can serve as a minPQ or a maxPQ (define "max" as either false or true, respectively).
+ * If floyd is true, take uses Floyd's "bounce" (aka snake): the hole left at the root is moved down to a leaf
+ * by promoting the best child at each level (without comparing against the displaced last element),
+ * and then the last element is swum up from that leaf.
+ * <p/>
+ * Elements are moved into a hole rather than swapped, halving the number of array writes.
+ * See IntHeap and LongDoubleHeap for specializations which avoid boxing altogether.
+ *
+ * @param <K> the type of elements held in this heap
+ */
+public class DaryHeap<K> implements PriorityQueueInterface<K>, Iterable<K> {
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @return the number of elements actually stored in this heap.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds a key to this heap, growing the underlying array if necessary.
+     *
+     * @param key the element to be inserted.
+     */
+    public void give(K key) {
+        if (n == heap.length) heap = Arrays.copyOf(heap, Math.max(2, heap.length * 2));
+        swimUp(n++, key);
+    }
+
+    /**
+     * Remove the root element from this heap.
+     * If max is true, then the result will be the maximum element, else the minimum element.
+     *
+     * @return If max is true, then the maximum element, otherwise the minimum element.
+     * @throws PQException if this heap is empty.
+     */
+    public K take() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        K result = heap[0];
+        K last = heap[--n];
+        heap[n] = null; // prevent loitering
+        if (n > 0) {
+            if (floyd) swimUp(bounce(), last);
+            else sink(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * Yield the root element without removing it.
+     *
+     * @return the root element.
+     * @throws PQException if this heap is empty.
+     */
+    public K peek() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return heap[0];
+    }
+
+    /**
+     * @return the arity (d) of this heap.
+     */
+    public int getArity() {
+        return d;
+    }
+
+    /**
+     * Non-mutating iterator over all values of this DaryHeap.
+     * NOTE: after the first element, there is no definite ordering of the remaining elements.
+     *
+     * @return an iterator based on a copy of the underlying array.
+     */
+    @NotNull
+    public Iterator<K> iterator() {
+        return new ArrayList<>(Arrays.asList(heap).subList(0, n)).iterator();
+    }
+
+    /**
+     * Primary constructor.
+     *
+     * @param d          the arity of the heap (typically 2, 4, or 8).
+     * @param n          the initial capacity (the heap will grow as necessary).
+     * @param max        whether this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     * @param comparator a comparator for the type K.
+     * @param floyd      true if take uses Floyd's bounce.
+     */
+    @SuppressWarnings("unchecked")
+    public DaryHeap(int d, int n, boolean max, Comparator<K> comparator, boolean floyd) {
+        if (d < 2) throw new IllegalArgumentException("DaryHeap: arity must be at least 2: " + d);
+        this.d = d;
+        this.comparator = max ? comparator.reversed() : comparator;
+        this.floyd = floyd;
+        this.heap = (K[]) new Object[Math.max(1, n)];
+    }
+
+    /**
+     * Secondary constructor for a min-heap without Floyd's bounce.
+     *
+     * @param d          the arity of the heap (typically 2, 4, or 8).
+     * @param comparator a comparator for the type K.
+     */
+    public DaryHeap(int d, Comparator<K> comparator) {
+        this(d, DEFAULT_CAPACITY, false, comparator, false);
+    }
+
+    /**
+     * Place key in the hole at index k and swim it up.
+     *
+     * @return the final index of key.
+     */
+    int swimUp(int k, K key) {
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (comparator.compare(key, heap[parent]) >= 0) break;
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = key;
+        return k;
+    }
+
+    /**
+     * Place key in the hole at index k and sink it down.
+     */
+    void sink(int k, K key) {
+        while (true) {
+            int child = bestChild(k);
+            if (child < 0 || comparator.compare(heap[child], key) >= 0) break;
+            heap[k] = heap[child];
+            k = child;
+        }
+        heap[k] = key;
+    }
+
+    /**
+     * Floyd's bounce: move the hole at the root down to a leaf by promoting the best child at each level.
+     *
+     * @return the index of the hole (a leaf).
+     */
+    int bounce() {
+        int k = 0;
+        int child;
+        while ((child = bestChild(k)) >= 0) {
+            heap[k] = heap[child];
+            k = child;
+        }
+        return k;
+    }
+
+    /**
+     * @return the index of the most eligible child of the element at index k, or -1 if it has no children.
+     */
+    private int bestChild(int k) {
+        int first = d * k + 1;
+        if (first >= n) return -1;
+        int last = Math.min(first + d, n);
+        int best = first;
+        for (int j = first + 1; j < last; j++) if (comparator.compare(heap[j], heap[best]) < 0) best = j;
+        return best;
+    }
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    private final int d;
+    /**
+     * The comparator such that the most eligible element compares lowest (it is reversed for a max-heap).
+     */
+    private final Comparator<K> comparator;
+    private final boolean floyd;
+    private K[] heap;
+    private int n;
+}
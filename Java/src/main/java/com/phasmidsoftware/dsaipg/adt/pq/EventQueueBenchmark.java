@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Class to compare the priority queues which are suitable for scheduling timestamped events,
+ * using the classic "hold" model of discrete-event simulation:
+ * the queue is prefilled with pending events and each hold operation takes the earliest event
+ * and gives a new event at that time plus a random (exponentially-distributed) increment.
+ * The number of pending events therefore stays constant and the times are monotone.
+ */
+public class EventQueueBenchmark {
+
+    /**
+     * The main method is the entry point for the EventQueueBenchmark application.
+     *
+     * @param args the number of pending events (default ten million) and the number of hold operations per run (default one million).
+     */
+    public static void main(String[] args) {
+        int pending = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int holds = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        new EventQueueBenchmark(pending, holds).run(5);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pending the number of pending events.
+     * @param holds   the number of hold operations in each run.
+     */
+    public EventQueueBenchmark(int pending, int holds) {
+        this.pending = pending;
+        this.holds = holds;
+    }
+
+    /**
+     * Time hold operations on each kind of priority queue.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each kind of priority queue.
+     */
+    void run(int nRuns) {
+        logger.info("EventQueueBenchmark: " + pending + " pending events with " + holds + " holds per run");
+        Comparator<Long> comparator = Long::compare;
+        doBenchmark("HierarchicalTimingWheel", () -> new HierarchicalTimingWheel<>(pending, Long::longValue), nRuns);
+        doBenchmark("CalendarQueue", () -> new CalendarQueue<>(pending, Long::longValue), nRuns);
+        doBenchmark("PriorityQueue_BinaryHeap", () -> new PriorityQueue_BinaryHeap<>(pending, false, comparator), nRuns);
+        doBenchmark("FibonacciHeap", () -> new FibonacciHeap<>(pending, false, comparator), nRuns);
+    }
+
+    /**
+     * Prefill a new queue, then time hold operations on it.
+     *
+     * @return the mean time per hold operation (nanoseconds).
+     */
+    private double doBenchmark(String description, Supplier<PriorityQueueInterface<Long>> supplier, int nRuns) {
+        PriorityQueueInterface<Long> pq = supplier.get();
+        Random random = new Random(0L);
+        for (int i = 0; i < pending; i++) pq.give(increment(random));
+        Benchmark<PriorityQueueInterface<Long>> benchmark = new Benchmark_Timer<>("hold with " + description, q -> hold(q, random));
+        double time = benchmark.runFromSupplier(() -> pq, nRuns);
+        double nanos = time * 1_000_000 / holds;
+        logger.info(description + ": " + String.format("%.1f", nanos) + " nSec per hold");
+        return nanos;
+    }
+
+    private void hold(PriorityQueueInterface<Long> pq, Random random) {
+        try {
+            for (int i = 0; i < holds; i++) pq.give(pq.take() + increment(random));
+        } catch (PQException e) {
+            throw new RuntimeException(e); // cannot happen: the queue is prefilled.
+        }
+    }
+
+    /**
+     * @return an exponentially-distributed increment with a mean of MEAN_INCREMENT time units.
+     */
+    private static long increment(Random random) {
+        return (long) (-MEAN_INCREMENT * Math.log(1.0 - random.nextDouble()));
+    }
+
+    final static LazyLogger logger = new LazyLogger(EventQueueBenchmark.class);
+
+    private static final double MEAN_INCREMENT = 1_000_000;
+
+    private final int pending;
+    private final int holds;
+}
@@ -63,6 +63,42 @@ public class HeapBenchmark {
         System.out.println();
     }
 
+    /**
+     * Runs the insertion/removal benchmark for a primitive IntHeap (which is a min-heap).
+     *
+     * @param heap      the heap instance
+     * @param heapName  the name of the heap (for reporting)
+     * @param numInsert number of insertions to perform
+     * @param numRemove number of removals to perform
+     */
+    public static void benchmarkIntHeap(IntHeap heap, String heapName, int numInsert, int numRemove) {
+        Random rand = new Random();
+        Benchmark_Timer<IntHeap> insertTimer = new Benchmark_Timer<>(
+                heapName + " - Insertion",
+                (IntHeap h) -> {
+                    for (int i = 0; i < numInsert; i++) h.give(rand.nextInt());
+                },
+                null
+        );
+        double insertTime = insertTimer.runFromSupplier(() -> heap, 1);
+        System.out.println(heapName + " (n=" + numInsert + ") Insertion time: " + insertTime + " seconds");
+
+        Benchmark_Timer<IntHeap> removeTimer = new Benchmark_Timer<>(
+                heapName + " - Removal",
+                (IntHeap h) -> {
+                    try {
+                        for (int i = 0; i < numRemove && !h.isEmpty(); i++) h.take();
+                    } catch (PQException e) {
+                        e.printStackTrace();
+                    }
+                },
+                null
+        );
+        double removeTime = removeTimer.runFromSupplier(() -> heap, 1);
+        System.out.println(heapName + " (n=" + numInsert + ") Removal time: " + removeTime + " seconds");
+        System.out.println();
+    }
+
     public static void main(String[] args) {
         // Define different input sizes (number of insertions) for the benchmark.
         int[] inputSizes = {16000, 32000, 48000, 64000};
@@ -85,6 +121,8 @@ public class HeapBenchmark {
             PriorityQueueInterface<Integer> basic4aryHeap = new FourAryHeap<>(capacity, max, comparator, false);
             PriorityQueueInterface<Integer> fouraryFloydHeap = new FourAryHeap<>(capacity, max, comparator, true);
             PriorityQueueInterface<Integer> fibonacciHeap = new FibonacciHeap<>(capacity, max, comparator);
+            PriorityQueueInterface<Integer> eightAryHeap = new DaryHeap<>(8, capacity, max, comparator, false);
+            PriorityQueueInterface<Integer> eightAryFloydHeap = new DaryHeap<>(8, capacity, max, comparator, true);
 
             // Run the benchmark for each implementation.
             benchmarkHeap(basicBinaryHeap, "Basic Binary Heap", size, numRemove);
@@ -92,6 +130,16 @@ public class HeapBenchmark {
             benchmarkHeap(basic4aryHeap, "Basic 4-ary Heap", size, numRemove);
             benchmarkHeap(fouraryFloydHeap, "4-ary Heap with Floyd's Trick", size, numRemove);
             benchmarkHeap(fibonacciHeap, "Fibonacci Heap", size, numRemove);
+            benchmarkHeap(eightAryHeap, "Basic 8-ary Heap", size, numRemove);
+            benchmarkHeap(eightAryFloydHeap, "8-ary Heap with Floyd's Trick", size, numRemove);
+        }
+
+        // Primitive (unboxed) heaps: find the arity which best suits the cache line size of this hardware.
+        for (int size : inputSizes) {
+            for (int d : new int[]{2, 4, 8}) {
+                benchmarkIntHeap(new IntHeap(d, capacity, false), d + "-ary IntHeap", size, numRemove);
+                benchmarkIntHeap(new IntHeap(d, capacity, true), d + "-ary IntHeap with Floyd's Trick", size, numRemove);
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hierarchical timing wheel: a min-priority queue for events whose priorities are (nearly) monotone times.
+ * <p>
+ * The time of each event is obtained from a key-to-long extractor.
+ * There are eleven wheels (levels) of 64 slots each: level l covers bits 6l through 6l+5 of a time.
+ * An event with time t is placed on the lowest level l such that t agrees with the current time ("now")
+ * in all bits above those covered by level l, in the slot given by t's bits for that level.
+ * Thus, level 0 holds the events due in the current tick-block (one distinct time per slot)
+ * and each higher level holds events further in the future, progressively more coarsely.
+ * <p>
+ * take removes the first event from the first occupied slot of level 0 (found with one bit-scan of an occupancy mask)
+ * and advances now to its time. If level 0 is empty, the first occupied slot of the next occupied level is "cascaded":
+ * now advances to its earliest time and its events are redistributed to lower levels.
+ * An event can only move down, so each is cascaded at most ten times and give and take are amortized O(1).
+ * Events with the same time are taken in the order in which they were given.
+ * <p>
+ * An event whose time is earlier than now (a "late" event) cannot be placed on the wheels,
+ * so it is kept in a small binary heap which take consults first: the queue is therefore exact for any times,
+ * but it is only O(1) when late events are rare (and late events with the same time may be taken in any order).
+ * <p>
+ * The events are held in a pool of parallel arrays with slot lists threaded through them, so give does not allocate.
+ *
+ * @param <K> the key (event) type.
+ */
+public class HierarchicalTimingWheel<K> implements PriorityQueueInterface<K> {
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return n + late.size();
+    }
+
+    /**
+     * Schedule an event.
+     *
+     * @param key the event, whose time is given by the extractor.
+     */
+    public void give(K key) {
+        long u = unsigned(time.applyAsLong(key));
+        if (Long.compareUnsigned(u, now) < 0) {
+            late.give(key);
+            return;
+        }
+        int h = allocate(key, u);
+        link(h, u);
+        n++;
+    }
+
+    /**
+     * Remove the earliest event.
+     *
+     * @return the event with the earliest time.
+     * @throws PQException if this queue is empty.
+     */
+    public K take() throws PQException {
+        if (n == 0) return late.take();
+        int slot = firstSlot();
+        if (!late.isEmpty() && Long.compareUnsigned(unsigned(time.applyAsLong(late.peek(1))), times[heads[slot]]) <= 0)
+            return late.take();
+        int h = heads[slot];
+        heads[slot] = next[h];
+        if (heads[slot] == NONE) occupied[0] &= ~(1L << slot);
+        now = times[h];
+        K result = items[h];
+        free(h);
+        n--;
+        return result;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the initial size of the event pool (it will grow as necessary).
+     * @param time     the function which yields the time of an event.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(int capacity, ToLongFunction<K> time) {
+        this.time = time;
+        capacity = Math.max(2, capacity);
+        items = (K[]) new Object[capacity];
+        times = new long[capacity];
+        next = new int[capacity];
+        Arrays.fill(heads, NONE);
+        late = new PriorityQueue_BinaryHeap<>(16, 1, false, Comparator.comparingLong(time), false);
+    }
+
+    /**
+     * Find the first occupied slot of level 0, cascading from a higher level if necessary.
+     * NOTE: n must be positive.
+     *
+     * @return the index of the slot.
+     */
+    private int firstSlot() {
+        if (occupied[0] == 0) {
+            int level = 1;
+            while (occupied[level] == 0) level++;
+            int slot = level * SLOTS + Long.numberOfTrailingZeros(occupied[level]);
+            int h = heads[slot];
+            heads[slot] = NONE;
+            occupied[level] &= ~(1L << (slot - level * SLOTS));
+            long min = times[h];
+            for (int x = next[h]; x != NONE; x = next[x])
+                if (Long.compareUnsigned(times[x], min) < 0) min = times[x];
+            now = min;
+            while (h != NONE) {
+                int following = next[h];
+                link(h, times[h]);
+                h = following;
+            }
+        }
+        return Long.numberOfTrailingZeros(occupied[0]);
+    }
+
+    /**
+     * Append event h (with time u, which is not earlier than now) to the tail of its slot.
+     */
+    private void link(int h, long u) {
+        long x = u ^ now;
+        int level = x == 0 ? 0 : (63 - Long.numberOfLeadingZeros(x)) / BITS;
+        int index = (int) (u >>> (BITS * level)) & (SLOTS - 1);
+        int slot = level * SLOTS + index;
+        next[h] = NONE;
+        if (heads[slot] == NONE) {
+            heads[slot] = h;
+            occupied[level] |= 1L << index;
+        } else next[tails[slot]] = h;
+        tails[slot] = h;
+    }
+
+    /**
+     * Map a signed time to a long whose unsigned order is the same as the signed order of the times.
+     */
+    private static long unsigned(long t) {
+        return t ^ Long.MIN_VALUE;
+    }
+
+    private int allocate(K key, long u) {
+        int h;
+        if (freeList != NONE) {
+            h = freeList;
+            freeList = next[h];
+        } else {
+            if (used == items.length) grow();
+            h = used++;
+        }
+        items[h] = key;
+        times[h] = u;
+        return h;
+    }
+
+    private void free(int h) {
+        items[h] = null; // prevent loitering
+        next[h] = freeList;
+        freeList = h;
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        times = Arrays.copyOf(times, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    private static final int NONE = -1;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = (64 + BITS - 1) / BITS;
+
+    private final ToLongFunction<K> time;
+    private final PriorityQueue_BinaryHeap<K> late;
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] tails = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private K[] items;
+    /**
+     * The (unsigned-ordered) times of the events: see unsigned.
+     */
+    private long[] times;
+    private int[] next;
+    /**
+     * The (unsigned-ordered) time of the most recently taken or cascaded event.
+     */
+    private long now = unsigned(Long.MIN_VALUE);
+    private int freeList = NONE;
+    private int used = 0;
+    private int n = 0;
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed min-priority queue with primitive double keys: the primitive specialization of
+ * graphs.dijkstra.IndexMinPQ for algorithms such as Dijkstra's and Prim's, where each index is a vertex
+ * and the key is its tentative distance.
+ * <p>
+ * Unlike IndexMinPQ&lt;Double&gt;, no key is ever boxed and keys are compared with the primitive less-than
+ * operator (NaN keys are therefore not supported), so insert, decreaseKey and delMin never allocate.
+ * The heap is 4-ary (rather than binary): it is half as deep and the four children of a node are
+ * adjacent in memory, which suits sift-down-heavy workloads such as Dijkstra's.
+ * Sifting moves a "hole" rather than swapping, so each level costs one write to pq and one to qp.
+ * <p>
+ * The API follows IndexMinPQ: indices are between 0 and maxN - 1, and a missing or duplicate index
+ * results in NoSuchElementException or IllegalArgumentException, respectively.
+ */
+public class IndexMinPQDouble {
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1.
+     *
+     * @param maxN the number of indices.
+     * @throws IllegalArgumentException if maxN is negative.
+     */
+    public IndexMinPQDouble(int maxN) {
+        if (maxN < 0) throw new IllegalArgumentException("maxN is negative: " + maxN);
+        this.maxN = maxN;
+        keys = new double[maxN];
+        pq = new int[maxN];
+        qp = new int[maxN];
+        Arrays.fill(qp, -1);
+    }
+
+    /**
+     * @return true if this priority queue is empty.
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @return the number of keys on this priority queue.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Is i an index on this priority queue?
+     *
+     * @param i an index.
+     * @return true if i is on this priority queue.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN.
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    /**
+     * Associates key with index i.
+     *
+     * @param i   an index.
+     * @param key the key to associate with index i.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN, or if i is already on this priority queue.
+     */
+    public void insert(int i, double key) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        keys[i] = key;
+        swim(n++, i);
+    }
+
+    /**
+     * @return an index associated with a minimum key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[0];
+    }
+
+    /**
+     * @return a minimum key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[pq[0]];
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index.
+     *
+     * @return an index associated with a minimum key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[0];
+        qp[min] = -1;
+        if (--n > 0) sink(0, pq[n]);
+        return min;
+    }
+
+    /**
+     * Returns the key associated with index i.
+     *
+     * @param i an index.
+     * @return the key associated with index i.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN.
+     * @throws NoSuchElementException   if i is not on this priority queue.
+     */
+    public double keyOf(int i) {
+        checkContains(i);
+        return keys[i];
+    }
+
+    /**
+     * Change the key associated with index i to the specified value.
+     *
+     * @param i   an index.
+     * @param key the new key.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN.
+     * @throws NoSuchElementException   if i is not on this priority queue.
+     */
+    public void changeKey(int i, double key) {
+        checkContains(i);
+        double old = keys[i];
+        keys[i] = key;
+        if (key < old) swim(qp[i], i);
+        else sink(qp[i], i);
+    }
+
+    /**
+     * Decrease the key associated with index i to the specified value.
+     *
+     * @param i   an index.
+     * @param key the new key, which must be less than the current key.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN, or if key is not less than the current key.
+     * @throws NoSuchElementException   if i is not on this priority queue.
+     */
+    public void decreaseKey(int i, double key) {
+        checkContains(i);
+        if (!(key < keys[i]))
+            throw new IllegalArgumentException("Calling decreaseKey() with a key " + key + " which is not less than " + keys[i]);
+        keys[i] = key;
+        swim(qp[i], i);
+    }
+
+    /**
+     * Increase the key associated with index i to the specified value.
+     *
+     * @param i   an index.
+     * @param key the new key, which must be greater than the current key.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN, or if key is not greater than the current key.
+     * @throws NoSuchElementException   if i is not on this priority queue.
+     */
+    public void increaseKey(int i, double key) {
+        checkContains(i);
+        if (!(key > keys[i]))
+            throw new IllegalArgumentException("Calling increaseKey() with a key " + key + " which is not greater than " + keys[i]);
+        keys[i] = key;
+        sink(qp[i], i);
+    }
+
+    /**
+     * Remove the key associated with index i.
+     *
+     * @param i an index.
+     * @throws IllegalArgumentException unless 0 &lt;= i &lt; maxN.
+     * @throws NoSuchElementException   if i is not on this priority queue.
+     */
+    public void delete(int i) {
+        checkContains(i);
+        int k = qp[i];
+        qp[i] = -1;
+        if (--n == k) return;
+        int last = pq[n];
+        if (keys[last] < keys[i]) swim(k, last);
+        else sink(k, last);
+    }
+
+    /**
+     * Move the hole at position k up towards the root until index i can be placed in it.
+     */
+    private void swim(int k, int i) {
+        double key = keys[i];
+        while (k > 0) {
+            int parent = (k - 1) >>> 2;
+            int p = pq[parent];
+            if (!(key < keys[p])) break;
+            pq[k] = p;
+            qp[p] = k;
+            k = parent;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+
+    /**
+     * Move the hole at position k down towards the leaves until index i can be placed in it.
+     */
+    private void sink(int k, int i) {
+        double key = keys[i];
+        int child;
+        while ((child = 4 * k + 1) < n) {
+            int best = child;
+            double bestKey = keys[pq[child]];
+            int end = Math.min(child + 4, n);
+            for (int j = child + 1; j < end; j++) {
+                double x = keys[pq[j]];
+                if (x < bestKey) {
+                    best = j;
+                    bestKey = x;
+                }
+            }
+            if (!(bestKey < key)) break;
+            int b = pq[best];
+            pq[k] = b;
+            qp[b] = k;
+            k = best;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+
+    private void checkContains(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+    private final int maxN;
+    private final int[] pq;        // 4-ary heap of indices, with the root at position 0
+    private final int[] qp;        // inverse of pq: qp[pq[k]] = k (or -1 if the index is not on the queue)
+    private final double[] keys;   // keys[i] = priority of i
+    private int n = 0;
+}
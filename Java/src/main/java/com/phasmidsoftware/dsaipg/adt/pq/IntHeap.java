@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap of int values stored in a flat int array: the primitive specialization of DaryHeap.
+ * There is no boxing and no Comparator, so each comparison is a single machine instruction.
+ * <p/>
+ * The arity d is chosen at construction time; the root is at index 0
+ * and the children of the element at index k are at indices d*k+1 through d*k+d.
+ * The array grows automatically.
+ * If floyd is true, take uses Floyd's bounce (see DaryHeap).
+ * For a max-heap, simply negate the values (taking care with Integer.MIN_VALUE).
+ */
+public class IntHeap {
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @return the number of values in this heap.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Add a value to this heap, growing the underlying array if necessary.
+     *
+     * @param x the value.
+     */
+    public void give(int x) {
+        if (n == heap.length) heap = Arrays.copyOf(heap, Math.max(2, heap.length * 2));
+        int k = n++;
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (x >= heap[parent]) break;
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = x;
+    }
+
+    /**
+     * Remove the smallest value.
+     *
+     * @return the smallest value.
+     * @throws PQException if this heap is empty.
+     */
+    public int take() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        int result = heap[0];
+        int last = heap[--n];
+        if (n > 0) {
+            if (floyd) {
+                int k = 0;
+                int child;
+                while ((child = bestChild(k)) >= 0) {
+                    heap[k] = heap[child];
+                    k = child;
+                }
+                while (k > 0) {
+                    int parent = (k - 1) / d;
+                    if (last >= heap[parent]) break;
+                    heap[k] = heap[parent];
+                    k = parent;
+                }
+                heap[k] = last;
+            } else {
+                int k = 0;
+                int child;
+                while ((child = bestChild(k)) >= 0 && heap[child] < last) {
+                    heap[k] = heap[child];
+                    k = child;
+                }
+                heap[k] = last;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the smallest value (without removing it).
+     * @throws PQException if this heap is empty.
+     */
+    public int peek() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return heap[0];
+    }
+
+    /**
+     * Remove all values.
+     */
+    public void clear() {
+        n = 0;
+    }
+
+    /**
+     * @return the arity (d) of this heap.
+     */
+    public int getArity() {
+        return d;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param d     the arity of the heap (typically 2, 4, or 8).
+     * @param n     the initial capacity (the heap will grow as necessary).
+     * @param floyd true if take uses Floyd's bounce.
+     */
+    public IntHeap(int d, int n, boolean floyd) {
+        if (d < 2) throw new IllegalArgumentException("IntHeap: arity must be at least 2: " + d);
+        this.d = d;
+        this.floyd = floyd;
+        this.heap = new int[Math.max(1, n)];
+    }
+
+    /**
+     * Constructor for a 4-ary heap without Floyd's bounce.
+     */
+    public IntHeap() {
+        this(4, DaryHeap.DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * @return the index of the smallest child of the value at index k, or -1 if it has no children.
+     */
+    private int bestChild(int k) {
+        int first = d * k + 1;
+        if (first >= n) return -1;
+        int last = Math.min(first + d, n);
+        int best = first;
+        for (int j = first + 1; j < last; j++) if (heap[j] < heap[best]) best = j;
+        return best;
+    }
+
+    private final int d;
+    private final boolean floyd;
+    private int[] heap;
+    private int n;
+}
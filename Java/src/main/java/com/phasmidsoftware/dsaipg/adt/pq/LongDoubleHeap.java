@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap of (priority, payload) pairs where the priority is a double and the payload is a long,
+ * stored in two parallel flat arrays: the primitive specialization of DaryHeap for algorithms such as Dijkstra's,
+ * where the payload is typically a vertex number (or several small numbers packed into a long).
+ * <p/>
+ * The arity d is chosen at construction time; the root is at index 0
+ * and the children of the element at index k are at indices d*k+1 through d*k+d.
+ * The arrays grow automatically.
+ * If floyd is true, take uses Floyd's bounce (see DaryHeap).
+ * Priorities are compared with Double.compare, so NaN is the least eligible priority.
+ */
+public class LongDoubleHeap {
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @return the number of pairs in this heap.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Add a pair to this heap, growing the underlying arrays if necessary.
+     *
+     * @param priority the priority (smaller is more eligible).
+     * @param payload  the payload.
+     */
+    public void give(double priority, long payload) {
+        if (n == priorities.length) {
+            int length = Math.max(2, priorities.length * 2);
+            priorities = Arrays.copyOf(priorities, length);
+            payloads = Arrays.copyOf(payloads, length);
+        }
+        swimUp(n++, priority, payload);
+    }
+
+    /**
+     * Remove the pair with the smallest priority.
+     *
+     * @return the payload of the removed pair (its priority is available from peekPriority before calling take).
+     * @throws PQException if this heap is empty.
+     */
+    public long take() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        long result = payloads[0];
+        double lastPriority = priorities[--n];
+        long lastPayload = payloads[n];
+        if (n > 0) {
+            if (floyd) {
+                int k = 0;
+                int child;
+                while ((child = bestChild(k)) >= 0) {
+                    move(child, k);
+                    k = child;
+                }
+                swimUp(k, lastPriority, lastPayload);
+            } else {
+                int k = 0;
+                int child;
+                while ((child = bestChild(k)) >= 0 && Double.compare(priorities[child], lastPriority) < 0) {
+                    move(child, k);
+                    k = child;
+                }
+                priorities[k] = lastPriority;
+                payloads[k] = lastPayload;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the smallest priority (without removing it).
+     * @throws PQException if this heap is empty.
+     */
+    public double peekPriority() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return priorities[0];
+    }
+
+    /**
+     * @return the payload of the pair with the smallest priority (without removing it).
+     * @throws PQException if this heap is empty.
+     */
+    public long peekPayload() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return payloads[0];
+    }
+
+    /**
+     * Remove all pairs.
+     */
+    public void clear() {
+        n = 0;
+    }
+
+    /**
+     * @return the arity (d) of this heap.
+     */
+    public int getArity() {
+        return d;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param d     the arity of the heap (typically 2, 4, or 8).
+     * @param n     the initial capacity (the heap will grow as necessary).
+     * @param floyd true if take uses Floyd's bounce.
+     */
+    public LongDoubleHeap(int d, int n, boolean floyd) {
+        if (d < 2) throw new IllegalArgumentException("LongDoubleHeap: arity must be at least 2: " + d);
+        this.d = d;
+        this.floyd = floyd;
+        this.priorities = new double[Math.max(1, n)];
+        this.payloads = new long[Math.max(1, n)];
+    }
+
+    /**
+     * Constructor for a 4-ary heap without Floyd's bounce.
+     */
+    public LongDoubleHeap() {
+        this(4, DaryHeap.DEFAULT_CAPACITY, false);
+    }
+
+    private void swimUp(int k, double priority, long payload) {
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (Double.compare(priority, priorities[parent]) >= 0) break;
+            move(parent, k);
+            k = parent;
+        }
+        priorities[k] = priority;
+        payloads[k] = payload;
+    }
+
+    private void move(int from, int to) {
+        priorities[to] = priorities[from];
+        payloads[to] = payloads[from];
+    }
+
+    /**
+     * @return the index of the child with the smallest priority of the pair at index k, or -1 if it has no children.
+     */
+    private int bestChild(int k) {
+        int first = d * k + 1;
+        if (first >= n) return -1;
+        int last = Math.min(first + d, n);
+        int best = first;
+        for (int j = first + 1; j < last; j++) if (Double.compare(priorities[j], priorities[best]) < 0) best = j;
+        return best;
+    }
+
+    private final int d;
+    private final boolean floyd;
+    private double[] priorities;
+    private long[] payloads;
+    private int n;
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent, relaxed priority queue (a "MultiQueue", after Rihani, Sanders and Dementiev).
+ * <p>
+ * The elements are spread over c * p sequential binary heaps (where p is the expected number of threads),
+ * each guarded by its own lock. give inserts into a randomly chosen heap (whose lock it can acquire);
+ * take samples two heaps at random and removes the top of whichever has the better top.
+ * Locks are only ever acquired with tryLock, except as a last resort, so threads rarely wait for each other
+ * and throughput scales almost linearly with the number of threads.
+ * <p>
+ * The price is that ordering is relaxed: take yields an element which is close to, but not necessarily,
+ * the best in the queue. The expected rank error is O(c * p), independent of the number of elements
+ * (see MultiQueueBenchmark, which measures it).
+ * Similarly, size and isEmpty are only snapshots, and take may throw PQException if every heap is empty
+ * at the moment it scans them, even though another thread's give is in progress.
+ *
+ * @param <K> the key type.
+ */
+public class MultiQueue<K> implements PriorityQueueInterface<K> {
+
+    /**
+     * @return true if every heap is (momentarily) empty.
+     */
+    public boolean isEmpty() {
+        for (Shard<K> shard : shards) if (shard.top != null) return false;
+        return true;
+    }
+
+    /**
+     * @return the total number of elements in the heaps (a snapshot, which is exact only when quiescent).
+     */
+    public int size() {
+        int result = 0;
+        for (Shard<K> shard : shards) result += shard.size;
+        return result;
+    }
+
+    /**
+     * Insert a key into a randomly chosen heap.
+     *
+     * @param key the key.
+     */
+    public void give(K key) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<K> shard = shards[random.nextInt(shards.length)];
+            if (shard.lock.tryLock()) try {
+                shard.give(key);
+                return;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove the better of the tops of two randomly chosen heaps.
+     * If repeated sampling finds only empty heaps, every heap is scanned in turn.
+     *
+     * @return a key which is (approximately) the best in this queue.
+     * @throws PQException if every heap is empty.
+     */
+    public K take() throws PQException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int misses = 0;
+        while (misses < shards.length) {
+            Shard<K> a = shards[random.nextInt(shards.length)];
+            Shard<K> b = shards[random.nextInt(shards.length)];
+            K topA = a.top;
+            K topB = b.top;
+            Shard<K> shard = topA == null ? b : topB == null || !better(topB, topA) ? a : b;
+            if (shard.top == null) {
+                misses++;
+                continue;
+            }
+            if (shard.lock.tryLock()) try {
+                if (shard.size > 0) return shard.take();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        for (Shard<K> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.size > 0) return shard.take();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        throw new PQException("Priority queue is empty");
+    }
+
+    /**
+     * Primary constructor.
+     *
+     * @param c          the number of heaps per thread (at least 2 is recommended).
+     * @param p          the expected number of threads.
+     * @param max        whether this is a maximum priority queue, as opposed to a minimum priority queue.
+     * @param comparator a comparator for the type K.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueue(int c, int p, boolean max, Comparator<K> comparator) {
+        if (c < 1 || p < 1) throw new IllegalArgumentException("MultiQueue: c and p must be positive");
+        this.max = max;
+        this.comparator = comparator;
+        shards = (Shard<K>[]) new Shard<?>[c * p];
+        for (int i = 0; i < shards.length; i++) shards[i] = new Shard<>(max, comparator);
+    }
+
+    /**
+     * Secondary constructor with two heaps per thread.
+     *
+     * @param p          the expected number of threads.
+     * @param max        whether this is a maximum priority queue, as opposed to a minimum priority queue.
+     * @param comparator a comparator for the type K.
+     */
+    public MultiQueue(int p, boolean max, Comparator<K> comparator) {
+        this(DEFAULT_C, p, max, comparator);
+    }
+
+    /**
+     * @return the number of internal heaps.
+     */
+    public int heaps() {
+        return shards.length;
+    }
+
+    private boolean better(K x, K y) {
+        int cf = comparator.compare(x, y);
+        return max ? cf > 0 : cf < 0;
+    }
+
+    /**
+     * One of the sequential heaps, together with its lock.
+     * The top and size fields are written only while the lock is held,
+     * but they are volatile so that take can sample them without locking.
+     */
+    private static class Shard<K> {
+        Shard(boolean max, Comparator<K> comparator) {
+            heap = new PriorityQueue_BinaryHeap<>(INITIAL_CAPACITY, 1, max, comparator, false);
+        }
+
+        void give(K key) {
+            heap.give(key);
+            size = heap.size();
+            top = heap.peek(1);
+        }
+
+        K take() throws PQException {
+            K result = heap.take();
+            size = heap.size();
+            top = heap.isEmpty() ? null : heap.peek(1);
+            return result;
+        }
+
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue_BinaryHeap<K> heap;
+        volatile K top;
+        volatile int size;
+    }
+
+    private static final int DEFAULT_C = 2;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final boolean max;
+    private final Comparator<K> comparator;
+    private final Shard<K>[] shards;
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Class to compare the MultiQueue with a SynchronizedPriorityQueue wrapping a PriorityQueue_BinaryHeap.
+ * <p>
+ * For 1, 2, 4, ... threads, it measures the throughput of a workload of alternating gives and takes
+ * on a prefilled queue, and the rank error of take: the number of elements in the queue which are better
+ * than the element which is actually taken (this is always zero for the baseline).
+ */
+public class MultiQueueBenchmark {
+
+    /**
+     * The main method is the entry point for the MultiQueueBenchmark application.
+     *
+     * @param args the maximum number of threads (default: twice the number of processors)
+     *             and the number of operations per thread (default one million).
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * Runtime.getRuntime().availableProcessors();
+        int nOps = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        new MultiQueueBenchmark(1_000_000).run(maxThreads, nOps);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param prefill the number of elements in the queue before each run.
+     */
+    public MultiQueueBenchmark(int prefill) {
+        this.prefill = prefill;
+    }
+
+    /**
+     * Measure throughput and rank error for each number of threads.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param maxThreads the maximum number of threads.
+     * @param nOps       the number of operations performed by each thread.
+     */
+    void run(int maxThreads, int nOps) {
+        logger.info("MultiQueueBenchmark: " + prefill + " elements with " + nOps + " operations per thread");
+        for (int nThreads = 1; nThreads <= maxThreads; nThreads *= 2) {
+            doBenchmark("MultiQueue", p -> new MultiQueue<>(p, false, Comparator.<Integer>naturalOrder()), nThreads, nOps);
+            doBenchmark("SynchronizedPriorityQueue(PriorityQueue_BinaryHeap)", p -> new SynchronizedPriorityQueue<>(new PriorityQueue_BinaryHeap<>(prefill, false, Comparator.<Integer>naturalOrder())), nThreads, nOps);
+        }
+    }
+
+    /**
+     * Build a prefilled queue for nThreads threads, then measure its throughput and (sequentially) its rank error.
+     *
+     * @return the throughput (operations per microsecond).
+     */
+    private double doBenchmark(String description, IntFunction<PriorityQueueInterface<Integer>> factory, int nThreads, int nOps) {
+        PriorityQueueInterface<Integer> pq = factory.apply(nThreads);
+        Random random = new Random(0L);
+        for (int i = 0; i < prefill; i++) pq.give(random.nextInt());
+        double throughput = throughput(pq, nThreads, nOps);
+        double[] rankError = rankError(factory.apply(nThreads), prefill, random);
+        logger.info(description + " with " + nThreads + " threads: " + String.format("%.2f", throughput) +
+                " operations per microsecond; rank error: mean " + String.format("%.2f", rankError[0]) + ", max " + (int) rankError[1]);
+        return throughput;
+    }
+
+    private static double throughput(PriorityQueueInterface<Integer> pq, int nThreads, int nOps) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < nOps; i++) {
+                        if ((i & 1) == 0) pq.give(random.nextInt());
+                        else pq.take();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (PQException e) {
+                    throw new RuntimeException(e); // cannot happen: the queue is prefilled and each thread gives before it takes.
+                } finally {
+                    finish.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            finish.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        return 1000.0 * nOps * nThreads / (System.nanoTime() - begin);
+    }
+
+    /**
+     * Measure the rank error of a (minimum) priority queue: give it a random permutation of 0 through n-1,
+     * then take everything, counting for each take how many smaller keys remain in the queue
+     * (using a Fenwick tree over the keys).
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param pq     an empty minimum priority queue.
+     * @param n      the number of keys.
+     * @param random the source of randomness.
+     * @return an array of the mean and the maximum rank error.
+     */
+    static double[] rankError(PriorityQueueInterface<Integer> pq, int n, Random random) {
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) keys[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+        }
+        int[] tree = new int[n + 1];
+        for (int key : keys) {
+            pq.give(key);
+            for (int i = key + 1; i <= n; i += i & -i) tree[i]++;
+        }
+        long total = 0;
+        int worst = 0;
+        try {
+            for (int k = 0; k < n; k++) {
+                int key = pq.take();
+                int rank = 0;
+                for (int i = key; i > 0; i -= i & -i) rank += tree[i];
+                for (int i = key + 1; i <= n; i += i & -i) tree[i]--;
+                total += rank;
+                worst = Math.max(worst, rank);
+            }
+        } catch (PQException e) {
+            throw new RuntimeException(e); // cannot happen: exactly n keys were given.
+        }
+        return new double[]{n == 0 ? 0 : (double) total / n, worst};
+    }
+
+    final static LazyLogger logger = new LazyLogger(MultiQueueBenchmark.class);
+
+    private final int prefill;
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Pairing heap implementation of AddressablePQ.
+ * <p>
+ * A pairing heap is a heap-ordered multiway tree in which each node points to its first (leftmost) child
+ * and to its next sibling. give and decreaseKey are O(1) (they simply meld a single-node or cut-off tree
+ * with the root) and take is O(log n) amortized, using the standard two-pass pairing of the root's children.
+ * In practice, it is one of the fastest addressable heaps for Dijkstra's algorithm.
+ * <p>
+ * The nodes are held in a pool of parallel arrays (the handle of an element is its index in the pool),
+ * so no object is allocated per element and freed slots are reused.
+ *
+ * @param <K> the key type.
+ */
+public class PairingHeap<K> implements AddressablePQ<K> {
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int give(K key) {
+        int h = allocate(key);
+        root = root == NONE ? h : meld(root, h);
+        n++;
+        return h;
+    }
+
+    public K take() throws PQException {
+        int h = peekHandle();
+        K result = keys[h];
+        root = combine(child[h]);
+        if (root != NONE) prev[root] = NONE;
+        free(h);
+        n--;
+        return result;
+    }
+
+    public int peekHandle() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return root;
+    }
+
+    public K key(int handle) {
+        return keys[handle];
+    }
+
+    public void decreaseKey(int handle, K key) {
+        if (comparator.compare(key, keys[handle]) > 0)
+            throw new IllegalArgumentException("decreaseKey: new key " + key + " is greater than " + keys[handle]);
+        keys[handle] = key;
+        if (handle == root) return;
+        cut(handle);
+        root = meld(root, handle);
+    }
+
+    public void remove(int handle) {
+        if (handle == root) {
+            try {
+                take();
+            } catch (PQException e) {
+                throw new RuntimeException(e); // cannot happen: the heap is not empty.
+            }
+            return;
+        }
+        cut(handle);
+        int subtree = combine(child[handle]);
+        if (subtree != NONE) {
+            prev[subtree] = NONE;
+            root = meld(root, subtree);
+        }
+        free(handle);
+        n--;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity   the initial size of the node pool (it will grow as necessary).
+     * @param comparator the comparator for keys.
+     */
+    @SuppressWarnings("unchecked")
+    public PairingHeap(int capacity, Comparator<K> comparator) {
+        this.comparator = comparator;
+        capacity = Math.max(2, capacity);
+        keys = (K[]) new Object[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    /**
+     * Meld two (root) trees.
+     *
+     * @return the root of the result: the other tree becomes its first child.
+     */
+    private int meld(int a, int b) {
+        if (comparator.compare(keys[b], keys[a]) < 0) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != NONE) prev[first] = b;
+        prev[b] = a;
+        child[a] = b;
+        sibling[a] = NONE;
+        return a;
+    }
+
+    /**
+     * Detach the subtree rooted at h (which is not the root) from its parent or left sibling.
+     */
+    private void cut(int h) {
+        int p = prev[h];
+        if (child[p] == h) child[p] = sibling[h];
+        else sibling[p] = sibling[h];
+        if (sibling[h] != NONE) prev[sibling[h]] = p;
+        sibling[h] = NONE;
+        prev[h] = NONE;
+    }
+
+    /**
+     * Two-pass pairing of a sibling list: meld pairs from left to right, then meld the results from right to left.
+     *
+     * @return the root of the combined tree (or NONE if the list is empty).
+     */
+    private int combine(int first) {
+        if (first == NONE) return NONE;
+        int count = 0;
+        for (int x = first; x != NONE; ) {
+            int a = x;
+            int b = sibling[a];
+            if (b == NONE) {
+                x = NONE;
+                sibling[a] = NONE;
+                push(count++, a);
+            } else {
+                x = sibling[b];
+                sibling[a] = NONE;
+                sibling[b] = NONE;
+                push(count++, meld(a, b));
+            }
+        }
+        int result = pairs[--count];
+        while (count > 0) result = meld(pairs[--count], result);
+        return result;
+    }
+
+    private void push(int i, int h) {
+        if (i == pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        pairs[i] = h;
+    }
+
+    private int allocate(K key) {
+        int h;
+        if (freeList != NONE) {
+            h = freeList;
+            freeList = sibling[h];
+        } else {
+            if (next == keys.length) grow();
+            h = next++;
+        }
+        keys[h] = key;
+        child[h] = NONE;
+        sibling[h] = NONE;
+        prev[h] = NONE;
+        return h;
+    }
+
+    private void free(int h) {
+        keys[h] = null; // prevent loitering
+        sibling[h] = freeList;
+        freeList = h;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        child = Arrays.copyOf(child, capacity);
+        sibling = Arrays.copyOf(sibling, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    private static final int NONE = -1;
+
+    private final Comparator<K> comparator;
+    private K[] keys;
+    private int[] child;
+    private int[] sibling;
+    /**
+     * For the first child of a node, prev is its parent; for any other node, prev is its left sibling.
+     */
+    private int[] prev;
+    private int[] pairs = new int[16];
+    private int root = NONE;
+    private int freeList = NONE;
+    private int next = 0;
+    private int n = 0;
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Fibonacci heap implementation of AddressablePQ, with decreaseKey in O(1) amortized time.
+ * <p>
+ * Unlike FibonacciHeap, which allocates a six-reference Node for every key and offers no handles,
+ * the nodes here are held in a pool of parallel int arrays (the handle of an element is its index in the pool),
+ * so no object is allocated per element and freed slots are reused.
+ * The consolidation table is also allocated once and reused.
+ *
+ * @param <K> the key type.
+ */
+public class PooledFibonacciHeap<K> implements AddressablePQ<K> {
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int give(K key) {
+        int h = allocate(key);
+        addToRoots(h);
+        if (comparator.compare(key, keys[min]) < 0) min = h;
+        n++;
+        return h;
+    }
+
+    public K take() throws PQException {
+        int z = peekHandle();
+        K result = keys[z];
+        // Move the children of z to the root list.
+        int c = child[z];
+        if (c != NONE) {
+            int x = c;
+            do {
+                parent[x] = NONE;
+                x = right[x];
+            } while (x != c);
+            splice(z, c);
+        }
+        unlink(z);
+        min = right[z] == z ? NONE : right[z];
+        free(z);
+        n--;
+        if (min != NONE) consolidate();
+        return result;
+    }
+
+    public int peekHandle() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return min;
+    }
+
+    public K key(int handle) {
+        return keys[handle];
+    }
+
+    public void decreaseKey(int handle, K key) {
+        if (comparator.compare(key, keys[handle]) > 0)
+            throw new IllegalArgumentException("decreaseKey: new key " + key + " is greater than " + keys[handle]);
+        keys[handle] = key;
+        int p = parent[handle];
+        if (p != NONE && comparator.compare(key, keys[p]) < 0) {
+            cut(handle, p);
+            cascadingCut(p);
+        }
+        if (comparator.compare(key, keys[min]) < 0) min = handle;
+    }
+
+    public void remove(int handle) {
+        int p = parent[handle];
+        if (p != NONE) {
+            cut(handle, p);
+            cascadingCut(p);
+        }
+        min = handle; // treat it as minus infinity.
+        try {
+            take();
+        } catch (PQException e) {
+            throw new RuntimeException(e); // cannot happen: the heap is not empty.
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity   the initial size of the node pool (it will grow as necessary).
+     * @param comparator the comparator for keys.
+     */
+    @SuppressWarnings("unchecked")
+    public PooledFibonacciHeap(int capacity, Comparator<K> comparator) {
+        this.comparator = comparator;
+        capacity = Math.max(2, capacity);
+        keys = (K[]) new Object[capacity];
+        parent = new int[capacity];
+        child = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        degree = new int[capacity];
+        marked = new boolean[capacity];
+    }
+
+    /**
+     * Link together the roots of equal degree until all roots have distinct degrees, and find the new minimum.
+     */
+    private void consolidate() {
+        Arrays.fill(table, NONE);
+        // Walk the old root list: the right reference of a root is not changed until that root has been visited.
+        int start = min;
+        int x = start;
+        min = NONE;
+        while (x != NONE) {
+            int next = right[x] == start ? NONE : right[x];
+            int d = degree[x];
+            while (table[d] != NONE) {
+                int y = table[d];
+                if (comparator.compare(keys[y], keys[x]) < 0) {
+                    int t = x;
+                    x = y;
+                    y = t;
+                }
+                makeChild(y, x);
+                table[d++] = NONE;
+            }
+            table[d] = x;
+            x = next;
+        }
+        for (int h : table)
+            if (h != NONE) {
+                addToRoots(h);
+                if (comparator.compare(keys[h], keys[min]) < 0) min = h;
+            }
+    }
+
+    /**
+     * Make y (a root which is being consolidated) a child of x.
+     */
+    private void makeChild(int y, int x) {
+        parent[y] = x;
+        marked[y] = false;
+        int c = child[x];
+        if (c == NONE) {
+            child[x] = y;
+            left[y] = right[y] = y;
+        } else {
+            insertAfter(c, y);
+        }
+        degree[x]++;
+    }
+
+    /**
+     * Move x (a child of p) to the root list.
+     */
+    private void cut(int x, int p) {
+        if (right[x] == x) child[p] = NONE;
+        else {
+            if (child[p] == x) child[p] = right[x];
+            unlink(x);
+        }
+        degree[p]--;
+        parent[x] = NONE;
+        marked[x] = false;
+        addToRoots(x);
+    }
+
+    private void cascadingCut(int y) {
+        int p;
+        while ((p = parent[y]) != NONE) {
+            if (!marked[y]) {
+                marked[y] = true;
+                return;
+            }
+            cut(y, p);
+            y = p;
+        }
+    }
+
+    /**
+     * Add h to the root list (as a singleton if there is no root list, in which case h becomes min).
+     */
+    private void addToRoots(int h) {
+        if (min == NONE) {
+            left[h] = right[h] = h;
+            min = h;
+        } else insertAfter(min, h);
+    }
+
+    private void insertAfter(int a, int h) {
+        left[h] = a;
+        right[h] = right[a];
+        left[right[a]] = h;
+        right[a] = h;
+    }
+
+    private void unlink(int h) {
+        right[left[h]] = right[h];
+        left[right[h]] = left[h];
+    }
+
+    /**
+     * Join the circular list which contains c into the circular list which contains z.
+     */
+    private void splice(int z, int c) {
+        int zRight = right[z];
+        int cLeft = left[c];
+        right[z] = c;
+        left[c] = z;
+        right[cLeft] = zRight;
+        left[zRight] = cLeft;
+    }
+
+    private int allocate(K key) {
+        int h;
+        if (freeList != NONE) {
+            h = freeList;
+            freeList = right[h];
+        } else {
+            if (next == keys.length) grow();
+            h = next++;
+        }
+        keys[h] = key;
+        parent[h] = NONE;
+        child[h] = NONE;
+        degree[h] = 0;
+        marked[h] = false;
+        return h;
+    }
+
+    private void free(int h) {
+        keys[h] = null; // prevent loitering
+        right[h] = freeList;
+        freeList = h;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        child = Arrays.copyOf(child, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        degree = Arrays.copyOf(degree, capacity);
+        marked = Arrays.copyOf(marked, capacity);
+    }
+
+    private static final int NONE = -1;
+
+    /**
+     * The maximum degree of a node in a Fibonacci heap of n nodes is log_phi(n) < 45 for any int n.
+     */
+    private static final int MAX_DEGREE = 46;
+
+    private final Comparator<K> comparator;
+    private final int[] table = new int[MAX_DEGREE];
+    private K[] keys;
+    private int[] parent;
+    private int[] child;
+    private int[] left;
+    private int[] right;
+    private int[] degree;
+    private boolean[] marked;
+    private int min = NONE;
+    private int freeList = NONE;
+    private int next = 0;
+    private int n = 0;
+}
@@ -1,5 +1,7 @@
 package com.phasmidsoftware.dsaipg.adt.pq;
 
+import com.phasmidsoftware.dsaipg.sort.Instrument;
+import com.phasmidsoftware.dsaipg.sort.InstrumenterDummy;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -9,7 +11,7 @@ import java.util.function.Consumer;
 /**
  * Priority Queue Data Structure which uses a binary heap.
  * <p/>
- * It is unlimited in capacity, although there is no code to grow it after it has been constructed.
+ * It is unlimited in capacity: the array is doubled whenever it is full.
  * It can serve as a minPQ or a maxPQ (define "max" as either false or true, respectively).
  * <p/>
  * It can support the root at index 1 or the root at index 0 variants.
@@ -21,7 +23,7 @@ import java.util.function.Consumer;
  *
  * @param <K>
  */
-public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K> {
+public class PriorityQueue_BinaryHeap<K> implements PriorityQueueInterface<K>, Iterable<K> {
 
     /**
      * @return true if the current size is zero.
@@ -38,15 +40,12 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
     }
 
     /**
-     * Adds a key to the priority queue. If the priority queue is at its capacity,
-     * the last element is removed to make space for the new key.
-     * CONSIDER we can prevent the new element displacing a higher-priority element but at the cost of an extra comparison.
-     * Is that worth it?
+     * Adds a key to the priority queue. If the priority queue is at its capacity, the array is doubled in size.
      *
      * @param key the element to be inserted into the priority queue
      */
     public void give(K key) {
-        if (m == binHeap.length - first) m--;
+        if (m == binHeap.length - first) binHeap = Arrays.copyOf(binHeap, Math.max(first + 1, 2 * binHeap.length));
         binHeap[++m + first - 1] = key;
         swimUp(m + first - 1);
     }
@@ -120,6 +119,109 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
         for (int k = parent(m + first); k >= first; k--) sink(k);
     }
 
+    /**
+     * Adds a batch of keys to this priority queue.
+     * <p>
+     * If the batch is small relative to the heap, each key is simply swum up (as in give).
+     * Otherwise, the keys are appended and the heap is repaired bottom-up (in the manner of heapConstructor),
+     * but only for the ancestors of the new keys, level by level: this costs O(b + log m . log b) compares for a batch of size b,
+     * rather than O(b log m).
+     *
+     * @param ks the keys to be added.
+     */
+    public void giveAll(Collection<K> ks) {
+        int b = ks.size();
+        if (b == 0) return;
+        ensureCapacity(m + b);
+        int m0 = m;
+        if (b < BULK_THRESHOLD || (long) b * log2(m + b) < m) {
+            for (K k : ks) give(k);
+            return;
+        }
+        for (K k : ks) binHeap[m++ + first] = k;
+        reheapify(m0);
+    }
+
+    /**
+     * Adds all of the keys of another priority queue to this priority queue in O(n + m) time
+     * (the other keys are appended and the heap is repaired bottom-up, as in giveAll).
+     * The other priority queue is not modified.
+     *
+     * @param other a priority queue with the same ordering (max or min) as this.
+     * @throws IllegalArgumentException if other is a max-PQ and this is a min-PQ (or vice versa).
+     */
+    public void merge(PriorityQueue_BinaryHeap<K> other) {
+        if (other.max != max) throw new IllegalArgumentException("merge: priority queues have different orderings");
+        if (other.m == 0) return;
+        ensureCapacity(m + other.m);
+        int m0 = m;
+        System.arraycopy(other.binHeap, other.first, binHeap, m + first, other.m);
+        m += other.m;
+        reheapify(m0);
+    }
+
+    /**
+     * Remove the k best elements from this priority queue.
+     * <p>
+     * The k best elements of a heap always form a subtree which includes the root,
+     * so they are selected using a secondary (candidate) heap of indices, which starts with the root:
+     * each time the best candidate is taken, its children become candidates.
+     * This requires O(k log k) compares, regardless of the size of this heap.
+     * The vacated positions are then filled from the end of the array and sunk (deepest first),
+     * which is cheaper than performing k individual takes, each of which sinks from the root.
+     *
+     * @param k the number of elements to be taken.
+     * @return a list of the k best elements, best first.
+     * @throws PQException if this priority queue has fewer than k elements.
+     */
+    public List<K> takeN(int k) throws PQException {
+        if (k > m) throw new PQException("Priority queue has fewer than " + k + " elements");
+        List<K> result = new ArrayList<>(k);
+        if (k <= 0) return result;
+        int last = m + first - 1;
+        PriorityQueue_BinaryHeap<Integer> candidates = new PriorityQueue_BinaryHeap<>(2 * k, 1, max, (i, j) -> {
+            instrumenter.incrementCompares();
+            return comparator.compare(binHeap[i], binHeap[j]);
+        }, false);
+        int[] taken = new int[k];
+        candidates.give(first);
+        for (int i = 0; i < k; i++) {
+            int index = candidates.take();
+            taken[i] = index;
+            result.add(binHeap[index]);
+            int child = firstChild(index);
+            if (child <= last) candidates.give(child);
+            if (child + 1 <= last) candidates.give(child + 1);
+        }
+        // Fill each vacated position below the new end of the heap with a surviving element from beyond the new end.
+        Arrays.sort(taken);
+        m -= k;
+        int end = m + first;
+        int source = last;
+        int t = k - 1;
+        for (int i = 0; i < k && taken[i] < end; i++) {
+            while (taken[t] == source) {
+                t--;
+                source--;
+            }
+            binHeap[taken[i]] = binHeap[source--];
+        }
+        for (int i = end; i <= last; i++) binHeap[i] = null; // prevent loitering
+        // Every ancestor of a vacated position was also vacated, so sinking them (deepest first) restores the heap.
+        for (int i = k - 1; i >= 0; i--) if (taken[i] < end) sink(taken[i]);
+        return result;
+    }
+
+    /**
+     * Set the instrumenter which is used to count compares.
+     * By default, compares are not counted.
+     *
+     * @param instrumenter an Instrument, for example an Instrumenter with countCompares set.
+     */
+    public void setInstrumenter(Instrument instrumenter) {
+        this.instrumenter = instrumenter;
+    }
+
     /**
      * Compare the elements at indices i and j.
      * We expect the first index (the smaller one) to be greater than the second, assuming that max is true.
@@ -130,6 +232,7 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
      * @return true if the values are out of order.
      */
     boolean inverted(int i, int j) {
+        instrumenter.incrementCompares();
         return (comparator.compare(binHeap[i], binHeap[j]) > 0) ^ max;
     }
 
@@ -277,6 +380,39 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
         return doHeapify(k, (a, b) -> !inverted(a, b));
     }
 
+    /**
+     * Repair the heap after elements have been appended at positions m0 onwards (relative to first):
+     * sink the parents of the new elements, then their parents, and so on up to the root.
+     * Each level's range of ancestors is contiguous, and each range is sunk from right to left,
+     * so every node is sunk only after all of its children's subtrees are heaps.
+     *
+     * @param m0 the number of elements which were in the heap before the new elements were appended.
+     */
+    private void reheapify(int m0) {
+        if (m0 == 0) {
+            heapConstructor();
+            return;
+        }
+        int lo = m0 + first;
+        int hi = m + first - 1;
+        while (lo > first) {
+            lo = parent(lo);
+            hi = parent(hi);
+            for (int k = hi; k >= lo; k--) sink(k);
+        }
+    }
+
+    /**
+     * Ensure that the array can hold n elements (it is at least doubled if it must grow).
+     */
+    private void ensureCapacity(int n) {
+        if (n + first > binHeap.length) binHeap = Arrays.copyOf(binHeap, Math.max(n + first, 2 * binHeap.length));
+    }
+
+    private static int log2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(1, n));
+    }
+
     /**
      * Exchange the values at indices i and j
      */
@@ -352,10 +488,10 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
      * This array is structured to maintain the properties of a binary heap,
      * either as a max-heap or a min-heap, depending on the configuration of the priority queue.
      * The first index may not always contain an element, as it depends on the initialization parameters.
-     * The array has a capacity determined at the creation of the PriorityQueue_BinaryHeap and
-     * may include a single extra space for reorganization purposes.
+     * The array has an initial capacity determined at the creation of the PriorityQueue_BinaryHeap
+     * and is doubled by give whenever it is full.
      */
-    private final K[] binHeap;
+    private K[] binHeap;
 
     /**
      * The current number of elements in the binary heap used by this priority queue.
@@ -371,4 +507,13 @@ public class PriorityQueue_BinaryHeap<K> implements PriorityQueue<K>, Iterable<K
      */
     private final boolean floyd;
 
+    /**
+     * The instrumenter which counts compares (by default, an InstrumenterDummy, which counts nothing).
+     */
+    private Instrument instrumenter = new InstrumenterDummy();
+
+    /**
+     * Batches smaller than this are always inserted one key at a time.
+     */
+    private static final int BULK_THRESHOLD = 8;
 }
\ No newline at end of file
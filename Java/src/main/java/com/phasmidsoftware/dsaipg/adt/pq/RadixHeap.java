@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+
+/**
+ * Monotone radix heap implementation of AddressablePQ for non-negative long keys.
+ * <p>
+ * A radix heap requires that no key is ever smaller than the most recently taken key ("last"),
+ * which is always the case for Dijkstra's algorithm with non-negative integer edge weights.
+ * An element with key k is kept in bucket b(k) = the number of significant bits in (k XOR last),
+ * so bucket 0 holds keys equal to last and bucket i holds keys which first differ from last in bit i-1.
+ * When bucket 0 is empty, take finds the first non-empty bucket, makes its smallest key the new last,
+ * and redistributes that bucket's elements into lower buckets: each element can only move down,
+ * so the total cost is O(log C) per element, where C is the largest key, and no key comparisons are needed
+ * other than those for finding a minimum.
+ * <p>
+ * Each bucket is a doubly-linked list threaded through a pool of parallel arrays,
+ * so decreaseKey and remove are O(1). The primitive methods (giveLong, takeLong, decreaseKey(int, long))
+ * avoid boxing; the AddressablePQ methods box and unbox.
+ */
+public class RadixHeap implements AddressablePQ<Long> {
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int give(Long key) {
+        return giveLong(key);
+    }
+
+    /**
+     * Insert a key.
+     *
+     * @param key the key, which must not be less than the last key taken.
+     * @return the handle of the new element.
+     * @throws IllegalArgumentException if key is less than the last key taken.
+     */
+    public int giveLong(long key) {
+        checkMonotone(key);
+        int h = allocate(key);
+        link(h, bucket(key));
+        n++;
+        return h;
+    }
+
+    public Long take() throws PQException {
+        return takeLong();
+    }
+
+    /**
+     * Remove the element with the smallest key.
+     *
+     * @return the smallest key.
+     * @throws PQException if this heap is empty.
+     */
+    public long takeLong() throws PQException {
+        int h = peekHandle();
+        long result = keys[h];
+        unlink(h);
+        free(h);
+        n--;
+        return result;
+    }
+
+    /**
+     * Yield the handle of the element with the smallest key, without removing it.
+     * NOTE: this advances last to the smallest key, so subsequent keys must be no less than that.
+     *
+     * @return the handle of the minimum element.
+     * @throws PQException if this heap is empty.
+     */
+    public int peekHandle() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        if (heads[0] == NONE) redistribute();
+        return heads[0];
+    }
+
+    public Long key(int handle) {
+        return keys[handle];
+    }
+
+    /**
+     * Yield the key of the element with the given handle (without boxing).
+     *
+     * @param handle a valid handle.
+     * @return the key.
+     */
+    public long keyLong(int handle) {
+        return keys[handle];
+    }
+
+    public void decreaseKey(int handle, Long key) {
+        decreaseKey(handle, key.longValue());
+    }
+
+    /**
+     * Reduce the key of the element with the given handle.
+     *
+     * @param handle a valid handle.
+     * @param key    the new key, which must not be greater than the current key nor less than the last key taken.
+     * @throws IllegalArgumentException if key is out of range.
+     */
+    public void decreaseKey(int handle, long key) {
+        if (key > keys[handle])
+            throw new IllegalArgumentException("decreaseKey: new key " + key + " is greater than " + keys[handle]);
+        checkMonotone(key);
+        unlink(handle);
+        keys[handle] = key;
+        link(handle, bucket(key));
+    }
+
+    public void remove(int handle) {
+        unlink(handle);
+        free(handle);
+        n--;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the initial size of the node pool (it will grow as necessary).
+     */
+    public RadixHeap(int capacity) {
+        capacity = Math.max(2, capacity);
+        keys = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        bucketOf = new byte[capacity];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Bucket 0 is empty: find the first non-empty bucket, make its minimum the new last, and redistribute it.
+     */
+    private void redistribute() {
+        int b = 1;
+        while (heads[b] == NONE) b++;
+        long min = Long.MAX_VALUE;
+        for (int h = heads[b]; h != NONE; h = next[h]) min = Math.min(min, keys[h]);
+        last = min;
+        int h = heads[b];
+        heads[b] = NONE;
+        while (h != NONE) {
+            int following = next[h];
+            link(h, bucket(keys[h]));
+            h = following;
+        }
+    }
+
+    private int bucket(long key) {
+        return 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void checkMonotone(long key) {
+        if (key < last) throw new IllegalArgumentException("RadixHeap: key " + key + " is less than last key " + last);
+    }
+
+    private void link(int h, int b) {
+        bucketOf[h] = (byte) b;
+        prev[h] = NONE;
+        next[h] = heads[b];
+        if (heads[b] != NONE) prev[heads[b]] = h;
+        heads[b] = h;
+    }
+
+    private void unlink(int h) {
+        int b = bucketOf[h];
+        if (prev[h] == NONE) heads[b] = next[h];
+        else next[prev[h]] = next[h];
+        if (next[h] != NONE) prev[next[h]] = prev[h];
+    }
+
+    private int allocate(long key) {
+        int h;
+        if (freeList != NONE) {
+            h = freeList;
+            freeList = next[h];
+        } else {
+            if (used == keys.length) grow();
+            h = used++;
+        }
+        keys[h] = key;
+        return h;
+    }
+
+    private void free(int h) {
+        next[h] = freeList;
+        freeList = h;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+    }
+
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[65];
+    private long[] keys;
+    private int[] next;
+    private int[] prev;
+    private byte[] bucketOf;
+    private long last = 0;
+    private int freeList = NONE;
+    private int used = 0;
+    private int n = 0;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+/**
+ * Thread-safe priority queue which holds a single lock (the monitor of this object) for the whole of each operation
+ * on the underlying priority queue.
+ * <p>
+ * So, unlike MultiQueue, ordering is strict: take always yields the best element in the queue at that instant.
+ * But each operation is atomic only on its own: a caller which calls isEmpty and then take
+ * (or which needs several takes to be consecutive) must itself synchronize on this object around the calls.
+ * Every give and take, from every thread, contends for the same lock, so throughput does not grow with the number of threads.
+ *
+ * @param <K> the key type.
+ */
+public class SynchronizedPriorityQueue<K> implements PriorityQueueInterface<K> {
+
+    /**
+     * Constructor to wrap a priority queue.
+     *
+     * @param pq the priority queue to be wrapped (which should not be accessed other than through this wrapper).
+     */
+    public SynchronizedPriorityQueue(PriorityQueueInterface<K> pq) {
+        this.pq = pq;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pq.isEmpty();
+    }
+
+    public synchronized int size() {
+        return pq.size();
+    }
+
+    public synchronized void give(K key) {
+        pq.give(key);
+    }
+
+    public synchronized K take() throws PQException {
+        return pq.take();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SynchronizedPriorityQueue{" + pq + "}";
+    }
+
+    private final PriorityQueueInterface<K> pq;
+}
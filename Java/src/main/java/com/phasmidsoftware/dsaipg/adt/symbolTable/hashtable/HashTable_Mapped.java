@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import com.phasmidsoftware.dsaipg.adt.symbolTable.ST;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Disk-backed, open-addressed (linear probing) symbol table from String to Long, held in a memory-mapped file.
+ * <p>
+ * The file consists of a fixed header, followed by a heap which holds the keys and the (current) array of fixed-width slots:
+ * <ul>
+ *     <li>header: magic, version, capacity (number of slots: a power of 2), file offset of the slot array, size, end of heap;</li>
+ *     <li>slot (16 bytes): hash of key (int), file offset of key in the heap (int, 0 for an empty slot), value (long);</li>
+ *     <li>key: length of key in bytes (int) followed by the UTF-8 bytes of the key.</li>
+ * </ul>
+ * Because every field is addressed by offset, opening an existing table simply maps the file:
+ * there is no deserialization pass and the pages are read lazily by the operating system.
+ * <p>
+ * When the table grows, the larger slot array is built (and forced to the file) at the end of the heap,
+ * and only then does the table switch to it, by a single write of the capacity and slot offset in the header.
+ * So, if the process dies during a resize, the file still holds the table as it was before the resize.
+ * The space of the superseded slot arrays is not reclaimed (it amounts to less than that of the current array).
+ * <p>
+ * NOTE: the file is limited to 2GB (the maximum size of a single MappedByteBuffer).
+ * This class is not thread-safe.
+ */
+public class HashTable_Mapped implements ST<String, Long>, Closeable {
+
+    /**
+     * Create a new, empty table in the given file, replacing any existing content.
+     *
+     * @param path     the file.
+     * @param expected the number of keys expected (the table will grow if necessary).
+     * @return a new HashTable_Mapped.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public static HashTable_Mapped create(Path path, int expected) throws IOException {
+        int capacity = capacityFor(expected);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int heapEnd = slotOffset(HEADER_SIZE, capacity);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, heapEnd + (long) capacity * AVERAGE_KEY_BYTES);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SLOTS_OFFSET, HEADER_SIZE);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putInt(HEAP_END_OFFSET, heapEnd);
+        return new HashTable_Mapped(path, channel, buffer);
+    }
+
+    /**
+     * Open an existing table by mapping its file.
+     *
+     * @param path the file.
+     * @return a HashTable_Mapped backed by the given file.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public static HashTable_Mapped open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+            channel.close();
+            throw new MappedTableException("not a mapped symbol table: " + path);
+        }
+        return new HashTable_Mapped(path, channel, buffer);
+    }
+
+    /**
+     * Create a new table in the given file, containing the counts of a FrequencyCounter.
+     *
+     * @param path    the file.
+     * @param counter the FrequencyCounter.
+     * @return a new HashTable_Mapped (the caller is responsible for closing it).
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public static HashTable_Mapped build(Path path, FrequencyCounter<String> counter) throws IOException {
+        HashTable_Mapped result = create(path, counter.size());
+        for (String key : counter.keys()) result.put(key, (long) counter.get(key));
+        result.force();
+        return result;
+    }
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public Long get(String key) {
+        int slot = findSlot(key.getBytes(StandardCharsets.UTF_8), hash(key));
+        return buffer.getInt(slot + KEY_REF) != 0 ? buffer.getLong(slot + VALUE) : null;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value (which may not be null).
+     * @return the previous value, if key was present, else null.
+     */
+    public Long put(String key, Long value) {
+        if (value == null) throw new MappedTableException("null values are not supported");
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        int slot = findSlot(bytes, hash);
+        if (buffer.getInt(slot + KEY_REF) != 0) {
+            long result = buffer.getLong(slot + VALUE);
+            buffer.putLong(slot + VALUE, value);
+            return result;
+        }
+        if (size() + 1 > capacity * LOAD_FACTOR) {
+            commitSlots(capacity * 2, buildSlots(capacity * 2));
+            slot = findSlot(bytes, hash);
+        }
+        int ref = appendKey(bytes);
+        buffer.putInt(slot + HASH, hash);
+        buffer.putInt(slot + KEY_REF, ref);
+        buffer.putLong(slot + VALUE, value);
+        buffer.putInt(SIZE_OFFSET, size() + 1);
+        return null;
+    }
+
+    /**
+     * Add delta to the value for key (treating a missing key as zero).
+     *
+     * @param key   the key.
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public long increment(String key, long delta) {
+        Long current = get(key);
+        long result = (current != null ? current : 0L) + delta;
+        put(key, result);
+        return result;
+    }
+
+    /**
+     * Get the set of keys in this symbol table.
+     * NOTE: this decodes every key from the heap.
+     *
+     * @return the Set of keys.
+     */
+    public Set<String> keys() {
+        Set<String> result = new TreeSet<>();
+        for (int i = 0; i < capacity; i++) {
+            int ref = buffer.getInt(slotOffset(slots, i) + KEY_REF);
+            if (ref != 0) result.add(readKey(ref));
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of keys in this table.
+     */
+    public int size() {
+        return buffer.getInt(SIZE_OFFSET);
+    }
+
+    /**
+     * @return the number of slots in this table.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Write any changes through to the file.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flush this table and release the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    public void close() throws IOException {
+        if (!channel.isOpen()) return;
+        force();
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "HashTable_Mapped{" + path + ": size=" + size() + ", capacity=" + capacity + "}";
+    }
+
+    /**
+     * Exception thrown when a mapped table cannot be read or updated.
+     */
+    public static class MappedTableException extends RuntimeException {
+        public MappedTableException(String s) {
+            super(s);
+        }
+
+        public MappedTableException(String s, Throwable cause) {
+            super(s, cause);
+        }
+    }
+
+    private HashTable_Mapped(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.slots = buffer.getInt(SLOTS_OFFSET);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Find the slot for a key: either the slot which holds it or the empty slot where it belongs.
+     *
+     * @param bytes the UTF-8 encoding of the key.
+     * @param hash  the hash of the key.
+     * @return the file offset of the slot.
+     */
+    private int findSlot(byte[] bytes, int hash) {
+        int i = hash & mask;
+        while (true) {
+            int slot = slotOffset(slots, i);
+            int ref = buffer.getInt(slot + KEY_REF);
+            if (ref == 0 || buffer.getInt(slot + HASH) == hash && keyEquals(ref, bytes)) return slot;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int ref, byte[] bytes) {
+        if (buffer.getInt(ref) != bytes.length) return false;
+        for (int j = 0; j < bytes.length; j++)
+            if (buffer.get(ref + 4 + j) != bytes[j]) return false;
+        return true;
+    }
+
+    private String readKey(int ref) {
+        byte[] bytes = new byte[buffer.getInt(ref)];
+        buffer.get(ref + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append a key to the string heap, growing the file if necessary.
+     *
+     * @param bytes the UTF-8 encoding of the key.
+     * @return the file offset of the new heap entry.
+     */
+    private int appendKey(byte[] bytes) {
+        int ref = buffer.getInt(HEAP_END_OFFSET);
+        long end = (long) ref + 4 + bytes.length;
+        if (end > buffer.capacity()) remap(Math.max(end, 2L * buffer.capacity()));
+        buffer.putInt(ref, bytes.length);
+        buffer.put(ref + 4, bytes);
+        buffer.putInt(HEAP_END_OFFSET, (int) end);
+        return ref;
+    }
+
+    private void remap(long newSize) {
+        if (newSize > Integer.MAX_VALUE) throw new MappedTableException("table file would exceed 2GB: " + path);
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        } catch (IOException e) {
+            throw new MappedTableException("unable to grow " + path, e);
+        }
+    }
+
+    /**
+     * Build a slot array of the given capacity, holding all the current entries, at the (8-byte aligned) end of the heap.
+     * The heap is extended to include the new array and the file is forced, but the table does not yet use the new array.
+     * NOTE: this is package-private because it is used by unit tests (to simulate a resize which is interrupted before commitSlots).
+     *
+     * @param newCapacity the number of slots (a power of 2).
+     * @return the file offset of the new slot array.
+     */
+    int buildSlots(int newCapacity) {
+        int newSlots = (buffer.getInt(HEAP_END_OFFSET) + 7) & ~7;
+        long end = newSlots + (long) newCapacity * SLOT_SIZE;
+        if (end > buffer.capacity()) remap(end + (long) size() * AVERAGE_KEY_BYTES);
+        byte[] zeros = new byte[SLOT_SIZE * 256];
+        for (int offset = newSlots; offset < end; offset += zeros.length)
+            buffer.put(offset, zeros, 0, (int) Math.min(zeros.length, end - offset));
+        int newMask = newCapacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            int slot = slotOffset(slots, i);
+            int ref = buffer.getInt(slot + KEY_REF);
+            if (ref == 0) continue;
+            int hash = buffer.getInt(slot + HASH);
+            int j = hash & newMask;
+            while (buffer.getInt(slotOffset(newSlots, j) + KEY_REF) != 0) j = (j + 1) & newMask;
+            int newSlot = slotOffset(newSlots, j);
+            buffer.putInt(newSlot + HASH, hash);
+            buffer.putInt(newSlot + KEY_REF, ref);
+            buffer.putLong(newSlot + VALUE, buffer.getLong(slot + VALUE));
+        }
+        buffer.putInt(HEAP_END_OFFSET, (int) end);
+        buffer.force();
+        return newSlots;
+    }
+
+    /**
+     * Switch the table to a slot array built by buildSlots, by a single (8-byte) write of the capacity and slot offset.
+     *
+     * @param newCapacity the number of slots in the new array.
+     * @param newSlots    the file offset of the new array.
+     */
+    private void commitSlots(int newCapacity, int newSlots) {
+        buffer.putLong(CAPACITY_OFFSET, (long) newCapacity << 32 | newSlots);
+        buffer.force();
+        capacity = newCapacity;
+        slots = newSlots;
+        mask = capacity - 1;
+    }
+
+    private static int slotOffset(int slots, int i) {
+        return slots + i * SLOT_SIZE;
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expected) capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * Spread the bits of the key's hashCode (the finalizer of MurmurHash3) so that linear probing behaves well.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int slots;
+    private int mask;
+
+    private static final int MAGIC = 0x53544D4D; // "STMM"
+    private static final int VERSION = 2;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SLOTS_OFFSET = 12; // NOTE: must immediately follow CAPACITY_OFFSET (see commitSlots).
+    private static final int SIZE_OFFSET = 16;
+    private static final int HEAP_END_OFFSET = 20;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int HASH = 0;
+    private static final int KEY_REF = 4;
+    private static final int VALUE = 8;
+    private static final int AVERAGE_KEY_BYTES = 12;
+    private static final double LOAD_FACTOR = 0.5;
+}
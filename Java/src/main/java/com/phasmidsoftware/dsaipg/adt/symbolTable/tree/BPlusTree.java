@@ -0,0 +1,629 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import com.phasmidsoftware.dsaipg.sort.NonInstrumentingComparableHelper;
+import com.phasmidsoftware.dsaipg.sort.linearithmic.TimSort;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory B+-tree implementation of BST.
+ * <p>
+ * Unlike BSTSimple and BSTOptimisedDeletion, each node holds up to <code>order</code> keys in a contiguous array,
+ * so that a lookup touches only O(log_order n) nodes and the keys within a node are binary-searched in place.
+ * All key-value pairs live in the leaves, which are linked together in key order:
+ * a range scan (or an iteration over keySet) therefore descends the tree once and then walks the leaf chain sequentially.
+ * <p>
+ * Deletion is relaxed: nodes are allowed to become under-full, but empty nodes are always removed.
+ * The separator keys in the internal nodes remain valid bounds after a deletion, so searches and range scans are unaffected.
+ *
+ * @param <Key>   the key type (which must be comparable).
+ * @param <Value> the value type.
+ */
+public class BPlusTree<Key extends Comparable<Key>, Value> implements BST<Key, Value> {
+
+    /**
+     * Build a new BPlusTree, bottom-up, from keys which are already in strictly ascending order.
+     * Each leaf (and each internal node) is packed full, and the leaves are linked as they are created.
+     *
+     * @param keys   the keys, in strictly ascending order.
+     * @param values the values, such that values[i] corresponds to keys[i].
+     * @param order  the maximum number of keys in a node (at least 3).
+     * @param <K>    the key type.
+     * @param <V>    the value type.
+     * @return a new BPlusTree containing all the given key-value pairs.
+     * @throws IllegalArgumentException if the keys are not strictly ascending or if the arrays differ in length.
+     */
+    public static <K extends Comparable<K>, V> BPlusTree<K, V> bulkLoad(K[] keys, V[] values, int order) {
+        BPlusTree<K, V> result = new BPlusTree<>(order);
+        result.load(keys, values);
+        return result;
+    }
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public Value get(Key key) {
+        Leaf<Key, Value> leaf = findLeaf(key);
+        int i = leaf.search(key);
+        return i >= 0 ? leaf.values[i] : null;
+    }
+
+    /**
+     * Determine if this BPlusTree contains key.
+     * Unlike <code>get(key) != null</code>, this is true for a key which is mapped to null.
+     *
+     * @param key the key to find.
+     * @return true if this contains key.
+     */
+    public boolean containsKey(Key key) {
+        return findLeaf(key).search(key) >= 0;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value associated with key, or null if there was none.
+     */
+    public Value put(Key key, Value value) {
+        int depth = descend(key);
+        Leaf<Key, Value> leaf = leafAtBottom(depth);
+        int i = leaf.search(key);
+        if (i >= 0) {
+            Value result = leaf.values[i];
+            leaf.values[i] = value;
+            return result;
+        }
+        leaf.insert(-i - 1, key, value);
+        count++;
+        if (leaf.n > order) propagateSplit(depth, leaf.split(order));
+        return null;
+    }
+
+    /**
+     * Insert all the key-value pairs of map.
+     * If this BPlusTree is empty, the keys are sorted (using TimSort from the sort package) and the tree is bulk-loaded.
+     * Otherwise, the pairs are inserted one at a time.
+     *
+     * @param map the given map.
+     */
+    public void putAll(Map<Key, Value> map) {
+        if (count > 0) {
+            for (Map.Entry<Key, Value> entry : map.entrySet()) put(entry.getKey(), entry.getValue());
+            return;
+        }
+        Key[] keys = asKeyArray(map.keySet());
+        new TimSort<Key>(NonInstrumentingComparableHelper.getHelper(BPlusTree.class)).mutatingSort(keys);
+        @SuppressWarnings("unchecked") Value[] values = (Value[]) new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) values[i] = map.get(keys[i]);
+        load(keys, values);
+    }
+
+    /**
+     * Delete the given key.
+     * If the key is not present, this method has no effect.
+     *
+     * @param key the key to be deleted.
+     */
+    public void delete(Key key) {
+        int depth = descend(key);
+        Leaf<Key, Value> leaf = leafAtBottom(depth);
+        int i = leaf.search(key);
+        if (i < 0) return;
+        leaf.remove(i);
+        count--;
+        if (leaf.n == 0 && depth > 0) removeEmptyLeaf(depth, leaf);
+    }
+
+    /**
+     * @return the number of key-value pairs in this BPlusTree.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Yield a view of the keys of this BPlusTree, in ascending order.
+     * Nothing is copied: iterating (or streaming) the result walks the linked leaves.
+     *
+     * @return the Set of all keys.
+     */
+    public Set<Key> keySet() {
+        return new AbstractSet<>() {
+            public Iterator<Key> iterator() {
+                return new KeyIterator(head, 0, null);
+            }
+
+            public Spliterator<Key> spliterator() {
+                return Spliterators.spliterator(iterator(), count, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+            }
+
+            public int size() {
+                return count;
+            }
+
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof Comparable && containsKey((Key) o);
+            }
+        };
+    }
+
+    /**
+     * Yield the keys k such that lo &lt;= k &lt;= hi, in ascending order.
+     * The tree is descended once (to find lo) and then the leaves are walked until a key greater than hi is found.
+     *
+     * @param lo the lowest key of the range (inclusive).
+     * @param hi the highest key of the range (inclusive).
+     * @return an Iterable of keys.
+     */
+    public Iterable<Key> keys(Key lo, Key hi) {
+        return () -> {
+            Leaf<Key, Value> leaf = findLeaf(lo);
+            int i = leaf.search(lo);
+            return new KeyIterator(leaf, i >= 0 ? i : -i - 1, hi);
+        };
+    }
+
+    /**
+     * Invoke f on each key-value pair such that lo &lt;= key &lt;= hi, in ascending order of key.
+     *
+     * @param lo the lowest key of the range (inclusive).
+     * @param hi the highest key of the range (inclusive).
+     * @param f  the function to invoke for each pair.
+     */
+    public void forEachInRange(Key lo, Key hi, BiConsumer<Key, Value> f) {
+        Leaf<Key, Value> leaf = findLeaf(lo);
+        int i = leaf.search(lo);
+        if (i < 0) i = -i - 1;
+        for (; leaf != null; leaf = leaf.next, i = 0)
+            for (; i < leaf.n; i++) {
+                if (leaf.keys[i].compareTo(hi) > 0) return;
+                f.accept(leaf.keys[i], leaf.values[i]);
+            }
+    }
+
+    /**
+     * @return the smallest key in this BPlusTree, or null if it is empty.
+     */
+    public Key min() {
+        for (Leaf<Key, Value> leaf = head; leaf != null; leaf = leaf.next)
+            if (leaf.n > 0) return leaf.keys[0];
+        return null;
+    }
+
+    /**
+     * @return the largest key in this BPlusTree, or null if it is empty.
+     */
+    public Key max() {
+        Node<Key, Value> node = root;
+        while (node instanceof Internal) {
+            Internal<Key, Value> internal = (Internal<Key, Value>) node;
+            node = internal.children[internal.n];
+        }
+        Leaf<Key, Value> leaf = (Leaf<Key, Value>) node;
+        return leaf.n > 0 ? leaf.keys[leaf.n - 1] : null;
+    }
+
+    /**
+     * @return the number of levels of internal nodes above the leaves (0 if the root is a leaf).
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the maximum number of keys in a node.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "BPlusTree{order=" + order + ", size=" + count + ", height=" + height + "}";
+    }
+
+    /**
+     * Primary constructor which yields an empty BPlusTree.
+     *
+     * @param order the maximum number of keys in a node (at least 3).
+     */
+    public BPlusTree(int order) {
+        if (order < 3) throw new IllegalArgumentException("BPlusTree: order must be at least 3: " + order);
+        this.order = order;
+        this.root = new Leaf<>(order);
+        this.head = (Leaf<Key, Value>) root;
+    }
+
+    /**
+     * Secondary constructor which yields an empty BPlusTree of the default order.
+     */
+    public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * The default maximum number of keys in a node.
+     * With compressed references, 64 keys occupy 256 bytes: four cache lines.
+     */
+    public static final int DEFAULT_ORDER = 64;
+
+    /**
+     * Validate the invariants of this BPlusTree (used by unit tests).
+     * Keys must be ascending within each node and along the leaf chain, each child must respect its separators,
+     * and the number of keys in the leaf chain must equal size().
+     */
+    void validate() {
+        validate(root, null, null);
+        int n = 0;
+        Key previous = null;
+        for (Leaf<Key, Value> leaf = head; leaf != null; leaf = leaf.next)
+            for (int i = 0; i < leaf.n; i++) {
+                assert previous == null || previous.compareTo(leaf.keys[i]) < 0 : "leaf chain out of order at " + leaf.keys[i];
+                previous = leaf.keys[i];
+                n++;
+            }
+        assert n == count : "leaf chain has " + n + " keys but count is " + count;
+    }
+
+    /**
+     * Abstract base class of the two kinds of node.
+     * Keys are stored in an array of capacity order+1 so that a node can overflow by one before it is split.
+     */
+    private static abstract class Node<K extends Comparable<K>, V> {
+        @SuppressWarnings("unchecked")
+        Node(int order) {
+            keys = (K[]) new Comparable[order + 1];
+        }
+
+        final K[] keys;
+        int n;
+    }
+
+    /**
+     * A leaf node, which holds the key-value pairs and is doubly-linked to its neighbors.
+     */
+    private static final class Leaf<K extends Comparable<K>, V> extends Node<K, V> {
+        @SuppressWarnings("unchecked")
+        Leaf(int order) {
+            super(order);
+            values = (V[]) new Object[order + 1];
+        }
+
+        /**
+         * Binary search for key in this leaf.
+         *
+         * @param key the key.
+         * @return the index of key, if present; otherwise -(insertion point) - 1.
+         */
+        int search(K key) {
+            int lo = 0, hi = n - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cf = keys[mid].compareTo(key);
+                if (cf < 0) lo = mid + 1;
+                else if (cf > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -lo - 1;
+        }
+
+        void insert(int i, K key, V value) {
+            System.arraycopy(keys, i, keys, i + 1, n - i);
+            System.arraycopy(values, i, values, i + 1, n - i);
+            keys[i] = key;
+            values[i] = value;
+            n++;
+        }
+
+        void remove(int i) {
+            System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+            System.arraycopy(values, i + 1, values, i, n - i - 1);
+            n--;
+            keys[n] = null;
+            values[n] = null;
+        }
+
+        /**
+         * Move the upper half of this (over-full) leaf into a new leaf, which is linked in after this.
+         *
+         * @param order the order of the tree.
+         * @return the new right-hand sibling.
+         */
+        Leaf<K, V> split(int order) {
+            Leaf<K, V> right = new Leaf<>(order);
+            int mid = n / 2;
+            right.n = n - mid;
+            System.arraycopy(keys, mid, right.keys, 0, right.n);
+            System.arraycopy(values, mid, right.values, 0, right.n);
+            Arrays.fill(keys, mid, n, null);
+            Arrays.fill(values, mid, n, null);
+            n = mid;
+            right.next = next;
+            right.previous = this;
+            if (next != null) next.previous = right;
+            next = right;
+            return right;
+        }
+
+        final V[] values;
+        Leaf<K, V> next;
+        Leaf<K, V> previous;
+    }
+
+    /**
+     * An internal node with n keys and n+1 children.
+     * All keys in children[i] are at least keys[i-1] and less than keys[i].
+     */
+    private static final class Internal<K extends Comparable<K>, V> extends Node<K, V> {
+        @SuppressWarnings("unchecked")
+        Internal(int order) {
+            super(order);
+            children = (Node<K, V>[]) new Node[order + 2];
+        }
+
+        /**
+         * @param key the key.
+         * @return the index of the child whose range includes key.
+         */
+        int childIndex(K key) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key.compareTo(keys[mid]) < 0) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
+        /**
+         * Insert a separator key and its right-hand child, such that the child goes at index i+1.
+         */
+        void insert(int i, K key, Node<K, V> child) {
+            System.arraycopy(keys, i, keys, i + 1, n - i);
+            System.arraycopy(children, i + 1, children, i + 2, n - i);
+            keys[i] = key;
+            children[i + 1] = child;
+            n++;
+        }
+
+        /**
+         * Remove the child at index i together with one of its adjacent separator keys.
+         * This node must have at least two children.
+         */
+        void removeChild(int i) {
+            int k = i == 0 ? 0 : i - 1;
+            System.arraycopy(keys, k + 1, keys, k, n - k - 1);
+            System.arraycopy(children, i + 1, children, i, n - i);
+            children[n] = null;
+            keys[n - 1] = null;
+            n--;
+        }
+
+        /**
+         * Move the upper half of this (over-full) node into a new node.
+         * The middle key is removed from both and is left in <code>keys[n]</code> for the caller to promote.
+         *
+         * @param order the order of the tree.
+         * @return the new right-hand sibling.
+         */
+        Internal<K, V> split(int order) {
+            Internal<K, V> right = new Internal<>(order);
+            int mid = n / 2;
+            right.n = n - mid - 1;
+            System.arraycopy(keys, mid + 1, right.keys, 0, right.n);
+            System.arraycopy(children, mid + 1, right.children, 0, right.n + 1);
+            Arrays.fill(keys, mid + 1, n, null);
+            Arrays.fill(children, mid + 1, n + 1, null);
+            n = mid;
+            return right;
+        }
+
+        final Node<K, V>[] children;
+    }
+
+    /**
+     * Iterator over the keys of the leaf chain, starting at a given position and (optionally) stopping after hi.
+     */
+    private class KeyIterator implements Iterator<Key> {
+        KeyIterator(Leaf<Key, Value> leaf, int i, Key hi) {
+            this.leaf = leaf;
+            this.i = i;
+            this.hi = hi;
+            advance();
+        }
+
+        public boolean hasNext() {
+            return leaf != null && (hi == null || leaf.keys[i].compareTo(hi) <= 0);
+        }
+
+        public Key next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Key result = leaf.keys[i++];
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            while (leaf != null && i >= leaf.n) {
+                leaf = leaf.next;
+                i = 0;
+            }
+        }
+
+        private Leaf<Key, Value> leaf;
+        private int i;
+        private final Key hi;
+    }
+
+    /**
+     * Replace the contents of this (empty) BPlusTree with the given sorted key-value pairs.
+     */
+    private void load(Key[] keys, Value[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("BPlusTree: keys and values differ in length: " + keys.length + ", " + values.length);
+        for (int i = 1; i < keys.length; i++)
+            if (keys[i - 1].compareTo(keys[i]) >= 0)
+                throw new IllegalArgumentException("BPlusTree: keys are not strictly ascending at index " + i);
+        if (keys.length == 0) return;
+        int nLeaves = (keys.length + order - 1) / order;
+        List<Node<Key, Value>> level = new ArrayList<>(nLeaves);
+        List<Key> lowest = new ArrayList<>(nLeaves);
+        Leaf<Key, Value> previous = null;
+        for (int from = 0; from < keys.length; from += order) {
+            Leaf<Key, Value> leaf = new Leaf<>(order);
+            leaf.n = Math.min(order, keys.length - from);
+            System.arraycopy(keys, from, leaf.keys, 0, leaf.n);
+            System.arraycopy(values, from, leaf.values, 0, leaf.n);
+            if (previous != null) previous.next = leaf;
+            else head = leaf;
+            leaf.previous = previous;
+            previous = leaf;
+            level.add(leaf);
+            lowest.add(leaf.keys[0]);
+        }
+        int levels = 0;
+        while (level.size() > 1) {
+            List<Node<Key, Value>> parents = new ArrayList<>(level.size() / (order + 1) + 1);
+            List<Key> parentLowest = new ArrayList<>(parents.size());
+            for (int from = 0; from < level.size(); from += order + 1) {
+                Internal<Key, Value> parent = new Internal<>(order);
+                int to = Math.min(level.size(), from + order + 1);
+                parent.children[0] = level.get(from);
+                for (int j = from + 1; j < to; j++) {
+                    parent.keys[parent.n] = lowest.get(j);
+                    parent.children[++parent.n] = level.get(j);
+                }
+                parents.add(parent);
+                parentLowest.add(lowest.get(from));
+            }
+            level = parents;
+            lowest = parentLowest;
+            levels++;
+        }
+        root = level.get(0);
+        height = levels;
+        count = keys.length;
+    }
+
+    /**
+     * Descend from the root towards key, recording the path in pathNodes/pathIndex.
+     *
+     * @param key the key.
+     * @return the depth of the leaf reached (equal to height).
+     */
+    @SuppressWarnings("unchecked")
+    private int descend(Key key) {
+        if (pathNodes.length < height + 1) {
+            pathNodes = (Internal<Key, Value>[]) new Internal[height + 1];
+            pathIndex = new int[height + 1];
+        }
+        Node<Key, Value> node = root;
+        int depth = 0;
+        while (node instanceof Internal) {
+            Internal<Key, Value> internal = (Internal<Key, Value>) node;
+            int i = internal.childIndex(key);
+            pathNodes[depth] = internal;
+            pathIndex[depth++] = i;
+            node = internal.children[i];
+        }
+        return depth;
+    }
+
+    private Leaf<Key, Value> leafAtBottom(int depth) {
+        return (Leaf<Key, Value>) (depth == 0 ? root : pathNodes[depth - 1].children[pathIndex[depth - 1]]);
+    }
+
+    private Leaf<Key, Value> findLeaf(Key key) {
+        Node<Key, Value> node = root;
+        while (node instanceof Internal) {
+            Internal<Key, Value> internal = (Internal<Key, Value>) node;
+            node = internal.children[internal.childIndex(key)];
+        }
+        return (Leaf<Key, Value>) node;
+    }
+
+    /**
+     * Insert the new right-hand sibling of a split leaf into its parent, splitting ancestors as necessary.
+     */
+    private void propagateSplit(int depth, Leaf<Key, Value> sibling) {
+        Key separator = sibling.keys[0];
+        Node<Key, Value> right = sibling;
+        for (int d = depth - 1; d >= 0; d--) {
+            Internal<Key, Value> parent = pathNodes[d];
+            parent.insert(pathIndex[d], separator, right);
+            if (parent.n <= order) return;
+            Internal<Key, Value> split = parent.split(order);
+            separator = parent.keys[parent.n];
+            parent.keys[parent.n] = null;
+            right = split;
+        }
+        Internal<Key, Value> newRoot = new Internal<>(order);
+        newRoot.children[0] = root;
+        newRoot.keys[0] = separator;
+        newRoot.children[1] = right;
+        newRoot.n = 1;
+        root = newRoot;
+        height++;
+    }
+
+    /**
+     * Unlink an empty leaf and remove it from its parent, removing any ancestors which thereby become empty.
+     * Finally, collapse the root while it has only one child.
+     */
+    private void removeEmptyLeaf(int depth, Leaf<Key, Value> leaf) {
+        if (leaf.previous != null) leaf.previous.next = leaf.next;
+        else head = leaf.next;
+        if (leaf.next != null) leaf.next.previous = leaf.previous;
+        for (int d = depth - 1; d >= 0; d--) {
+            Internal<Key, Value> parent = pathNodes[d];
+            if (parent.n > 0) {
+                parent.removeChild(pathIndex[d]);
+                break;
+            }
+            // parent has lost its only child: it will itself be removed from its parent.
+        }
+        while (root instanceof Internal && ((Internal<Key, Value>) root).n == 0) {
+            root = ((Internal<Key, Value>) root).children[0];
+            height--;
+        }
+    }
+
+    private void validate(Node<Key, Value> node, Key lo, Key hi) {
+        for (int i = 0; i < node.n; i++) {
+            assert lo == null || node.keys[i].compareTo(lo) >= 0 : "key " + node.keys[i] + " is below its bound " + lo;
+            assert hi == null || node.keys[i].compareTo(hi) < 0 : "key " + node.keys[i] + " is not below its bound " + hi;
+            assert i == 0 || node.keys[i - 1].compareTo(node.keys[i]) < 0 : "keys out of order at " + node.keys[i];
+        }
+        if (node instanceof Internal) {
+            Internal<Key, Value> internal = (Internal<Key, Value>) node;
+            for (int i = 0; i <= internal.n; i++)
+                validate(internal.children[i], i == 0 ? lo : internal.keys[i - 1], i == internal.n ? hi : internal.keys[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> K[] asKeyArray(Collection<K> ks) {
+        return ks.toArray((K[]) new Comparable[0]);
+    }
+
+    private final int order;
+    private Node<Key, Value> root;
+    private Leaf<Key, Value> head;
+    private int height = 0;
+    private int count = 0;
+    @SuppressWarnings("unchecked")
+    private Internal<Key, Value>[] pathNodes = (Internal<Key, Value>[]) new Internal[1];
+    private int[] pathIndex = new int[1];
+}
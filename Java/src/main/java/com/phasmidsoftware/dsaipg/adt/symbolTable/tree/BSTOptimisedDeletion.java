@@ -5,17 +5,23 @@
 package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiFunction;
 
 /**
  * Binary Search Tree that is not simple and which has optimized deletion mechanism.
+ * <p>
+ * Each node maintains the count of its subtree, which supports the order-statistic operations
+ * (rank, select, countRange) as well as split, join and the (parallel) set operations union and intersection.
  *
  * @param <Key>   the key type (which must be comparable).
  * @param <Value> the value type.
  * @author Robin Hillyard
  * @author Abhishek Ravindra Satbhai;
  */
-public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements OrderStatisticBST<Key, Value> {
 
     public Value get(Key key) {
         BiFunction<Node, Node, Node> doGet = (node1, node2) -> node2;
@@ -83,14 +89,142 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
     }
 
     /**
-     * This implementation of putAll ensures that the keys are inserted into this BST in random order.
+     * This implementation of putAll builds a perfectly balanced BST from the keys of map in O(n)
+     * (plus O(n log n) to sort the keys if map is not a SortedMap in natural order).
+     * If this BST is not empty, the balanced BST is then merged into it using union,
+     * such that the values in map take precedence.
      *
      * @param map a map of key value pairs
      */
     public void putAll(Map<Key, Value> map) {
+        if (map.isEmpty()) return;
         List<Key> ks = new ArrayList<>(map.keySet());
-        Collections.shuffle(ks);
-        for (Key k : ks) put(k, map.get(k));
+        if (!(map instanceof SortedMap && ((SortedMap<Key, Value>) map).comparator() == null)) ks.sort(null);
+        List<Value> vs = new ArrayList<>(ks.size());
+        for (Key k : ks) vs.add(map.get(k));
+        Node balanced = buildBalanced(ks, vs, 0, ks.size() - 1, 0);
+        if (root == null) root = balanced;
+        else {
+            root = ForkJoinPool.commonPool().invoke(new UnionTask(root, balanced, false));
+            depthsValid = false;
+        }
+    }
+
+    /**
+     * Method to yield the rank of a key, i.e. the number of keys in this BST which are less than key.
+     *
+     * @param key the key.
+     * @return the number of keys less than key.
+     */
+    public int rank(Key key) {
+        int result = 0;
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf < 0) x = x.smaller;
+            else {
+                result += count(x.smaller);
+                if (cf == 0) break;
+                result++;
+                x = x.larger;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield the key of a given rank.
+     *
+     * @param i the rank (0 for the smallest key).
+     * @return the key k such that rank(k) == i.
+     * @throws IllegalArgumentException if i is not in the range 0 to size()-1.
+     */
+    public Key select(int i) {
+        if (i < 0 || i >= size()) throw new IllegalArgumentException("select: rank " + i + " is out of range for size " + size());
+        Node x = root;
+        while (true) {
+            int t = count(x.smaller);
+            if (i < t) x = x.smaller;
+            else if (i > t) {
+                i -= t + 1;
+                x = x.larger;
+            } else return x.key;
+        }
+    }
+
+    /**
+     * Method to count the keys k such that lo &lt;= k &lt;= hi.
+     *
+     * @param lo the lowest key of the range (inclusive).
+     * @param hi the highest key of the range (inclusive).
+     * @return the number of keys in the range.
+     */
+    public int countRange(Key lo, Key hi) {
+        if (lo.compareTo(hi) > 0) return 0;
+        return rank(hi) - rank(lo) + (find(hi) != null ? 1 : 0);
+    }
+
+    /**
+     * Split this BST at key: this BST retains the keys less than key and the other keys are moved to the result.
+     * This takes time proportional to the height of the tree.
+     *
+     * @param key the key at which to split.
+     * @return a new BST (with the same deletion mode) containing all keys greater than or equal to key.
+     */
+    public BSTOptimisedDeletion<Key, Value> split(Key key) {
+        BSTOptimisedDeletion<Key, Value> result = new BSTOptimisedDeletion<>(mode);
+        if (root == null) return result;
+        Split s = split(root, key);
+        root = s.less;
+        if (s.match != null) {
+            s.match.larger = s.greater;
+            result.root = recount(s.match);
+        } else result.root = s.greater;
+        depthsValid = false;
+        result.depthsValid = false;
+        return result;
+    }
+
+    /**
+     * Join other to this BST, where every key of other is greater than every key of this.
+     * The join is randomized (weighted by subtree counts) so that a random BST remains random.
+     * On return, other is empty.
+     *
+     * @param other a BST whose keys are all greater than the keys of this BST.
+     * @throws IllegalArgumentException if the keys of the two BSTs overlap.
+     */
+    public void join(BSTOptimisedDeletion<Key, Value> other) {
+        if (root != null && other.root != null && max(root).key.compareTo(min(other.root).key) >= 0)
+            throw new IllegalArgumentException("join: keys of other must all be greater than keys of this");
+        root = join(root, other.root);
+        other.root = null;
+        depthsValid = false;
+    }
+
+    /**
+     * Merge all the key-value pairs of other into this BST, such that the values of other take precedence.
+     * The two subtrees resulting from each split are merged in parallel (using fork-join) when they are large enough.
+     * On return, other is empty.
+     *
+     * @param other another BST.
+     */
+    public void union(BSTOptimisedDeletion<Key, Value> other) {
+        root = ForkJoinPool.commonPool().invoke(new UnionTask(root, other.root, false));
+        other.root = null;
+        depthsValid = false;
+    }
+
+    /**
+     * Retain only those key-value pairs of this BST whose keys are also in other.
+     * The two subtrees resulting from each split are processed in parallel (using fork-join) when they are large enough.
+     * On return, other is empty.
+     *
+     * @param other another BST.
+     */
+    public void intersection(BSTOptimisedDeletion<Key, Value> other) {
+        root = ForkJoinPool.commonPool().invoke(new IntersectionTask(root, other.root));
+        other.root = null;
+        depthsValid = false;
     }
 
     /**
@@ -197,6 +331,7 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
      * @return the mean depth of the nodes in the BST as a double. If the tree is empty, the result may be undefined.
      */
     public double meanDepth() {
+        ensureDepths();
         final Depth depth = new Depth();
         root.navigate(null, (node1, node2) -> {
             depth.increment(node1.depth);
@@ -216,11 +351,13 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
      * at depth zero. If the BST violates its structural constraints or properties, assertions are thrown.
      */
     void validate() {
+        ensureDepths();
         root.validate(0);
     }
 
     @Override
     public String toString() {
+        ensureDepths();
         StringBuffer sb = new StringBuffer();
         show(root, sb, 0);
         return sb.toString();
@@ -442,6 +579,201 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
     private Node root = null;
     private final int mode;
 
+    /**
+     * The depth fields of the nodes are not maintained by split, join, union and intersection (which would make them
+     * linear in the size of the tree). Instead, this flag is cleared and the depths are recomputed when next required.
+     */
+    private boolean depthsValid = true;
+
+    /**
+     * The minimum size of the two trees being merged such that union and intersection will fork a subtask.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * The result of splitting a subtree at a key: the nodes less than the key, the node matching the key (if any),
+     * and the nodes greater than the key.
+     */
+    private class Split {
+        Node less;
+        Node match;
+        Node greater;
+    }
+
+    /**
+     * Fork-join task to form the union of two subtrees: if both contain a key, the value from b takes precedence
+     * (or from a, if swapped is true).
+     */
+    private class UnionTask extends RecursiveTask<Node> {
+        UnionTask(Node a, Node b, boolean swapped) {
+            this.a = a;
+            this.b = b;
+            this.swapped = swapped;
+        }
+
+        protected Node compute() {
+            if (a == null) return b;
+            if (b == null) return a;
+            // Keep the root of the larger subtree so that the result stays balanced.
+            if (b.count > a.count) return new UnionTask(b, a, !swapped).compute();
+            boolean parallel = a.count + b.count >= PARALLEL_THRESHOLD;
+            Split s = split(b, a.key);
+            if (s.match != null && !swapped) a.value = s.match.value;
+            UnionTask left = new UnionTask(a.smaller, s.less, swapped);
+            UnionTask right = new UnionTask(a.larger, s.greater, swapped);
+            if (parallel) {
+                left.fork();
+                a.larger = right.compute();
+                a.smaller = left.join();
+            } else {
+                a.smaller = left.compute();
+                a.larger = right.compute();
+            }
+            return recount(a);
+        }
+
+        private final Node a;
+        private final Node b;
+        private final boolean swapped;
+    }
+
+    /**
+     * Fork-join task to form the intersection of two subtrees, retaining the nodes (and values) of a.
+     */
+    private class IntersectionTask extends RecursiveTask<Node> {
+        IntersectionTask(Node a, Node b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        protected Node compute() {
+            if (a == null || b == null) return null;
+            boolean parallel = a.count + b.count >= PARALLEL_THRESHOLD;
+            Split s = split(b, a.key);
+            IntersectionTask left = new IntersectionTask(a.smaller, s.less);
+            IntersectionTask right = new IntersectionTask(a.larger, s.greater);
+            Node smaller, larger;
+            if (parallel) {
+                left.fork();
+                larger = right.compute();
+                smaller = left.join();
+            } else {
+                smaller = left.compute();
+                larger = right.compute();
+            }
+            if (s.match == null) return BSTOptimisedDeletion.this.join(smaller, larger);
+            a.smaller = smaller;
+            a.larger = larger;
+            return recount(a);
+        }
+
+        private final Node a;
+        private final Node b;
+    }
+
+    /**
+     * Split the subtree rooted at x into the nodes less than key, the node matching key, and the nodes greater than key.
+     *
+     * @param x   the root of a subtree (not null).
+     * @param key the key at which to split.
+     * @return a Split.
+     */
+    private Split split(Node x, Key key) {
+        int cf = key.compareTo(x.key);
+        Split result;
+        if (cf == 0) {
+            result = new Split();
+            result.less = x.smaller;
+            result.greater = x.larger;
+            x.smaller = null;
+            x.larger = null;
+            result.match = recount(x);
+        } else if (cf < 0) {
+            result = x.smaller != null ? split(x.smaller, key) : new Split();
+            x.smaller = result.greater;
+            result.greater = recount(x);
+        } else {
+            result = x.larger != null ? split(x.larger, key) : new Split();
+            x.larger = result.less;
+            result.less = recount(x);
+        }
+        return result;
+    }
+
+    /**
+     * Join two subtrees, where every key of a is less than every key of b.
+     * The root is chosen at random, weighted by the counts of the subtrees.
+     *
+     * @param a the subtree with smaller keys (may be null).
+     * @param b the subtree with larger keys (may be null).
+     * @return the root of the joined subtree.
+     */
+    private Node join(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (ThreadLocalRandom.current().nextInt(a.count + b.count) < a.count) {
+            a.larger = join(a.larger, b);
+            return recount(a);
+        } else {
+            b.smaller = join(a, b.smaller);
+            return recount(b);
+        }
+    }
+
+    /**
+     * Build a perfectly balanced subtree from the sorted keys (and corresponding values) between lo and hi inclusive.
+     */
+    private Node buildBalanced(List<Key> keys, List<Value> values, int lo, int hi, int depth) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node result = makeNode(keys.get(mid), values.get(mid), depth);
+        result.smaller = buildBalanced(keys, values, lo, mid - 1, depth + 1);
+        result.larger = buildBalanced(keys, values, mid + 1, hi, depth + 1);
+        result.count = hi - lo + 1;
+        return result;
+    }
+
+    /**
+     * Recompute the depth fields of all nodes if they have been invalidated.
+     */
+    private void ensureDepths() {
+        if (depthsValid) return;
+        setDepths(root, 0);
+        depthsValid = true;
+    }
+
+    private void setDepths(Node x, int depth) {
+        if (x == null) return;
+        x.depth = depth;
+        setDepths(x.smaller, depth + 1);
+        setDepths(x.larger, depth + 1);
+    }
+
+    /**
+     * Update the count of x from the counts of its children.
+     *
+     * @param x a node.
+     * @return x.
+     */
+    private Node recount(Node x) {
+        x.count = 1 + count(x.smaller) + count(x.larger);
+        return x;
+    }
+
+    private static int count(BSTOptimisedDeletion<?, ?>.Node x) {
+        return x != null ? x.count : 0;
+    }
+
+    private Node find(Key key) {
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf == 0) return x;
+            x = cf < 0 ? x.smaller : x.larger;
+        }
+        return null;
+    }
+
     /**
      * Produces a BiFunction to handle the insertion of a key-value pair into the binary search tree (BST).
      * The BiFunction operates on two nodes and returns the result of the insertion or update operation.
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+/**
+ * Interface for a BST which is augmented with subtree counts and can therefore answer order-statistic queries
+ * in time proportional to its height.
+ *
+ * @param <Key>   the type of keys, which must be Comparable.
+ * @param <Value> the type of values associated with the keys.
+ */
+public interface OrderStatisticBST<Key extends Comparable<Key>, Value> extends BstDetail<Key, Value> {
+
+    /**
+     * Method to yield the rank of a key, i.e. the number of keys in this BST which are less than key.
+     * The key itself need not be present.
+     *
+     * @param key the key.
+     * @return the number of keys less than key.
+     */
+    int rank(Key key);
+
+    /**
+     * Method to yield the key of a given rank.
+     *
+     * @param i the rank (0 for the smallest key).
+     * @return the key k such that rank(k) == i.
+     * @throws IllegalArgumentException if i is not in the range 0 to size()-1.
+     */
+    Key select(int i);
+
+    /**
+     * Method to count the keys k such that lo &lt;= k &lt;= hi.
+     *
+     * @param lo the lowest key of the range (inclusive).
+     * @param hi the highest key of the range (inclusive).
+     * @return the number of keys in the range.
+     */
+    int countRange(Key lo, Key hi);
+
+    /**
+     * Method to yield the key at quantile p, for example the median (p = 0.5) or the 99th percentile (p = 0.99).
+     *
+     * @param p a probability between 0 and 1.
+     * @return the key whose rank is floor(p * size()), or the largest key if p is 1.
+     * @throws IllegalArgumentException if this BST is empty or if p is not between 0 and 1.
+     */
+    default Key quantile(double p) {
+        if (p < 0 || p > 1) throw new IllegalArgumentException("quantile: p must be between 0 and 1: " + p);
+        if (size() == 0) throw new IllegalArgumentException("quantile: BST is empty");
+        return select(Math.min(size() - 1, (int) Math.floor(p * size())));
+    }
+}
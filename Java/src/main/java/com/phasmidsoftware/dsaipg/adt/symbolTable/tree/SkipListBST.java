@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free concurrent skip list implementation of BST, suitable for read-mostly workloads.
+ * <p>
+ * The structure follows the lock-free skip list of Herlihy and Shavit (The Art of Multiprocessor Programming, ch. 14):
+ * each level is a lock-free linked list whose next references carry a "marked" bit meaning "this node is being removed".
+ * The value of a node is held in a volatile field, which is the linearization point of put and delete:
+ * <ul>
+ *     <li>get is wait-free: it never modifies the structure and never retries;</li>
+ *     <li>put of an existing key replaces the value by CAS; put of a new key splices in a node, bottom level first;</li>
+ *     <li>delete clears the value by CAS (the logical deletion), then marks the node's next references
+ *     and finally snips the node out of each level (any traversing thread may help with the snipping).</li>
+ * </ul>
+ * Iteration (including keySet) is weakly consistent and yields keys in ascending order.
+ * <p>
+ * NOTE: null values are permitted, but (as for all ST implementations) get cannot distinguish a null value from absence.
+ *
+ * @param <Key>   the key type (which must be comparable).
+ * @param <Value> the value type.
+ */
+public class SkipListBST<Key extends Comparable<Key>, Value> implements BST<Key, Value> {
+
+    /**
+     * Retrieve the value for a given key.
+     * This method is wait-free.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public Value get(Key key) {
+        Node<Key> node = findNode(key);
+        return node != null ? unwrap(node.value) : null;
+    }
+
+    /**
+     * Determine if this SkipListBST contains key.
+     * This method is wait-free.
+     *
+     * @param key the key to find.
+     * @return true if key is present (even if it is mapped to null).
+     */
+    public boolean containsKey(Key key) {
+        Node<Key> node = findNode(key);
+        return node != null && node.value != null;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     * This method is lock-free.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value, if key was present, else null.
+     */
+    public Value put(Key key, Value value) {
+        Object wrapped = value != null ? value : NULL;
+        @SuppressWarnings("unchecked") Node<Key>[] preds = (Node<Key>[]) new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked") Node<Key>[] succs = (Node<Key>[]) new Node[MAX_LEVEL + 1];
+        int topLevel = randomLevel();
+        // Raise the level hint before any node can be linked at topLevel, so that find never misses a level.
+        levelHint.accumulateAndGet(topLevel, Math::max);
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<Key> node = succs[0];
+                Object current = node.value;
+                if (current == null) markForDeletion(node); // help the deleting thread so that find can snip node.
+                else if (VALUE.compareAndSet(node, current, wrapped)) return unwrap(current);
+                continue;
+            }
+            Node<Key> node = new Node<>(key, wrapped, topLevel);
+            for (int level = 0; level <= topLevel; level++) node.next[level].set(succs[level], false);
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) continue;
+            count.increment();
+            linkUpperLevels(node, preds, succs);
+            return null;
+        }
+    }
+
+    /**
+     * Delete the given key.
+     * If the key is not present, this method has no effect.
+     * This method is lock-free.
+     *
+     * @param key the key to be deleted.
+     */
+    public void delete(Key key) {
+        @SuppressWarnings("unchecked") Node<Key>[] preds = (Node<Key>[]) new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked") Node<Key>[] succs = (Node<Key>[]) new Node[MAX_LEVEL + 1];
+        while (true) {
+            if (!find(key, preds, succs)) return;
+            Node<Key> node = succs[0];
+            Object current = node.value;
+            if (current == null) return; // another thread is deleting this key.
+            if (!VALUE.compareAndSet(node, current, null)) continue;
+            count.decrement();
+            markForDeletion(node);
+            find(key, preds, succs); // snip node out of every level.
+            return;
+        }
+    }
+
+    /**
+     * Find the greatest key less than or equal to key.
+     * This method is lock-free.
+     *
+     * @param key the key.
+     * @return the floor of key, or null if there is none.
+     */
+    public Key floor(Key key) {
+        boolean inclusive = true;
+        while (true) {
+            Node<Key> node = findPredecessor(key, inclusive);
+            if (node == head) return null;
+            if (node.value != null) return node.key;
+            // node was deleted after we found it: look for a key which is strictly smaller.
+            key = node.key;
+            inclusive = false;
+        }
+    }
+
+    /**
+     * Find the least key greater than or equal to key.
+     * This method is lock-free.
+     *
+     * @param key the key.
+     * @return the ceiling of key, or null if there is none.
+     */
+    public Key ceiling(Key key) {
+        Node<Key> node = findPredecessor(key, false).next[0].getReference();
+        while (node != tail && node.value == null) node = node.next[0].getReference();
+        return node != tail ? node.key : null;
+    }
+
+    /**
+     * @return the smallest key, or null if this SkipListBST is empty.
+     */
+    public Key min() {
+        Node<Key> node = head.next[0].getReference();
+        while (node != tail && node.value == null) node = node.next[0].getReference();
+        return node != tail ? node.key : null;
+    }
+
+    /**
+     * Yield a weakly-consistent view of the keys, in ascending order.
+     *
+     * @return the Set of all keys.
+     */
+    public Set<Key> keySet() {
+        return new AbstractSet<>() {
+            public Iterator<Key> iterator() {
+                return new KeyIterator();
+            }
+
+            public int size() {
+                return SkipListBST.this.size();
+            }
+
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof Comparable && containsKey((Key) o);
+            }
+        };
+    }
+
+    /**
+     * NOTE: while other threads are updating this SkipListBST, the result is only an estimate.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return (int) count.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SkipListBST{size=" + size() + "}";
+    }
+
+    /**
+     * Constructor for an empty SkipListBST.
+     */
+    public SkipListBST() {
+        tail = new Node<>(null, null, MAX_LEVEL);
+        head = new Node<>(null, null, MAX_LEVEL);
+        for (int level = 0; level <= MAX_LEVEL; level++) head.next[level].set(tail, false);
+    }
+
+    /**
+     * The maximum level of any node: with a promotion probability of 1/2 this suffices for billions of keys.
+     */
+    static final int MAX_LEVEL = 31;
+
+    /**
+     * A node of the skip list. The value is null once the node has been logically deleted.
+     */
+    private static final class Node<K> {
+        @SuppressWarnings("unchecked")
+        Node(K key, Object value, int topLevel) {
+            this.key = key;
+            this.value = value;
+            this.topLevel = topLevel;
+            next = (AtomicMarkableReference<Node<K>>[]) new AtomicMarkableReference[topLevel + 1];
+            for (int level = 0; level <= topLevel; level++) next[level] = new AtomicMarkableReference<>(null, false);
+        }
+
+        final K key;
+        volatile Object value;
+        final int topLevel;
+        final AtomicMarkableReference<Node<K>>[] next;
+    }
+
+    /**
+     * Weakly-consistent iterator over the bottom level of the skip list.
+     */
+    private class KeyIterator implements Iterator<Key> {
+        KeyIterator() {
+            node = head;
+            advance();
+        }
+
+        public boolean hasNext() {
+            return node != tail;
+        }
+
+        public Key next() {
+            if (node == tail) throw new NoSuchElementException();
+            Key result = node.key;
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            do node = node.next[0].getReference();
+            while (node != tail && node.value == null);
+        }
+
+        private Node<Key> node;
+    }
+
+    /**
+     * Lock-free search which snips out any marked nodes that it passes.
+     * On return, preds[level] and succs[level] bracket key at each level.
+     *
+     * @return true if succs[0] has the given key.
+     */
+    private boolean find(Key key, Node<Key>[] preds, Node<Key>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<Key> pred = head;
+            Node<Key> curr = null;
+            int top = levelHint.get();
+            for (int level = MAX_LEVEL; level > top; level--) {
+                preds[level] = head;
+                succs[level] = head.next[level].getReference();
+            }
+            for (int level = top; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (true) {
+                    Node<Key> succ = curr.next[level].get(marked);
+                    while (marked[0]) {
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) continue retry;
+                        curr = succ;
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (less(curr, key)) {
+                        pred = curr;
+                        curr = succ;
+                    } else break;
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != tail && key.compareTo(curr.key) == 0;
+        }
+    }
+
+    /**
+     * Wait-free search which skips over (but does not snip) marked nodes.
+     *
+     * @return the node with the given key, or null if there is none.
+     */
+    private Node<Key> findNode(Key key) {
+        Node<Key> curr = findPredecessor(key, false).next[0].getReference();
+        while (curr != tail && curr.next[0].isMarked()) curr = curr.next[0].getReference();
+        return curr != tail && key.compareTo(curr.key) == 0 ? curr : null;
+    }
+
+    /**
+     * Wait-free search for the last unmarked node whose key is less than key (or less than or equal, if inclusive).
+     *
+     * @return the predecessor node (possibly head).
+     */
+    private Node<Key> findPredecessor(Key key, boolean inclusive) {
+        boolean[] marked = {false};
+        Node<Key> pred = head;
+        for (int level = levelHint.get(); level >= 0; level--) {
+            Node<Key> curr = pred.next[level].getReference();
+            while (curr != tail) {
+                Node<Key> succ = curr.next[level].get(marked);
+                if (!marked[0]) {
+                    int cf = curr.key.compareTo(key);
+                    if (cf > 0 || cf == 0 && !inclusive) break;
+                    pred = curr;
+                }
+                curr = succ;
+            }
+        }
+        return pred;
+    }
+
+    /**
+     * Mark the next references of a logically deleted node, from the top level down.
+     * This is idempotent, so any thread may call it.
+     */
+    private static <K> void markForDeletion(Node<K> node) {
+        boolean[] marked = {false};
+        for (int level = node.topLevel; level >= 0; level--) {
+            Node<K> succ = node.next[level].get(marked);
+            while (!marked[0]) {
+                node.next[level].attemptMark(succ, true);
+                succ = node.next[level].get(marked);
+            }
+        }
+    }
+
+    /**
+     * Link a newly inserted node into levels 1 to topLevel, stopping early if the node is deleted meanwhile.
+     */
+    private void linkUpperLevels(Node<Key> node, Node<Key>[] preds, Node<Key>[] succs) {
+        Key key = node.key;
+        boolean[] marked = {false};
+        for (int level = 1; level <= node.topLevel; level++) {
+            while (true) {
+                Node<Key> pred = preds[level];
+                Node<Key> succ = succs[level];
+                Node<Key> next = node.next[level].get(marked);
+                if (marked[0]) return;
+                if (next != succ && !node.next[level].compareAndSet(next, succ, false, false)) continue;
+                if (pred.next[level].compareAndSet(succ, node, false, false)) break;
+                find(key, preds, succs);
+                if (node.value == null) return;
+            }
+        }
+    }
+
+    private boolean less(Node<Key> node, Key key) {
+        return node != tail && (node == head || node.key.compareTo(key) < 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Value unwrap(Object value) {
+        return value == NULL ? null : (Value) value;
+    }
+
+    private static int randomLevel() {
+        return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | Integer.MIN_VALUE));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE = AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+    /**
+     * Stands in for a null value, because a null in Node.value signifies a deleted node.
+     */
+    private static final Object NULL = new Object();
+
+    private final Node<Key> head;
+    private final Node<Key> tail;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The highest level at which any node has been linked: searches begin here rather than at MAX_LEVEL.
+     */
+    private final AtomicInteger levelHint = new AtomicInteger();
+}
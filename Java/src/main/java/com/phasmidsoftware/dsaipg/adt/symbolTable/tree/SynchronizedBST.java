@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import java.util.Set;
+
+/**
+ * Thread-safe wrapper around a BST in which every method synchronizes on the wrapper
+ * (in the manner of java.util.Collections.synchronizedMap).
+ * This serves as a baseline for concurrent implementations such as SkipListBST.
+ *
+ * @param <Key>   the key type (which must be comparable).
+ * @param <Value> the value type.
+ */
+public class SynchronizedBST<Key extends Comparable<Key>, Value> implements BST<Key, Value> {
+
+    /**
+     * Constructor to wrap a BST.
+     *
+     * @param bst the BST to be wrapped (which should not be accessed other than through this wrapper).
+     */
+    public SynchronizedBST(BST<Key, Value> bst) {
+        this.bst = bst;
+    }
+
+    public synchronized Value get(Key key) {
+        return bst.get(key);
+    }
+
+    public synchronized Value put(Key key, Value value) {
+        return bst.put(key, value);
+    }
+
+    public synchronized void delete(Key key) {
+        bst.delete(key);
+    }
+
+    public synchronized Set<Key> keySet() {
+        return bst.keySet();
+    }
+
+    public synchronized int size() {
+        return bst.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SynchronizedBST{" + bst + "}";
+    }
+
+    private final BST<Key, Value> bst;
+}
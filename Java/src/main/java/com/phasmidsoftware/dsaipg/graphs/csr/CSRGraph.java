@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import com.phasmidsoftware.dsaipg.graphs.dag.DiGraph;
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.DirectedEdge;
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.EdgeWeightedDigraph;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable graph in compressed sparse row (CSR) form.
+ * <p>
+ * The vertices are dense ids 0 through V-1 (a CSRGraph also remembers the vertex object for each id).
+ * The arcs leaving vertex v are numbered offsets[v] through offsets[v+1]-1, and arc a goes to targets[a] with weight weights[a].
+ * So a traversal of the whole graph reads three flat arrays sequentially, rather than chasing a pointer per edge
+ * (as it must for a HashMap of Bags of edge objects, for example).
+ * <p>
+ * An undirected graph is represented with two arcs for each edge (one in each direction), so E counts arcs, not edges.
+ * <p>
+ * A CSRGraph is created by a Builder, directly from arrays of int vertices by fromArcs,
+ * or frozen from one of the mutable graph types by fromEdgeGraph, fromDiGraph or fromEdgeWeightedDigraph.
+ * The typical loop over the neighbors of v is:
+ * <pre>
+ *     for (int a = graph.begin(v); a &lt; graph.end(v); a++) visit(graph.target(a), graph.weight(a));
+ * </pre>
+ *
+ * @param <V> the vertex type.
+ */
+public class CSRGraph<V> {
+
+    /**
+     * @return the number of vertices.
+     */
+    public int V() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return the number of arcs (twice the number of edges if this graph is undirected).
+     */
+    public int E() {
+        return targets.length;
+    }
+
+    /**
+     * @return true if this graph is directed.
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the number of arcs leaving v.
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the number of the first arc leaving v.
+     */
+    public int begin(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return one more than the number of the last arc leaving v.
+     */
+    public int end(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * @param a an arc number.
+     * @return the id of the vertex at the head of arc a.
+     */
+    public int target(int a) {
+        return targets[a];
+    }
+
+    /**
+     * @param a an arc number.
+     * @return the weight of arc a.
+     */
+    public double weight(int a) {
+        return weights[a];
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the vertex object with id v.
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int v) {
+        if (vertices == null) {
+            Objects.checkIndex(v, V());
+            return (V) Integer.valueOf(v);
+        }
+        return vertices.get(v);
+    }
+
+    /**
+     * @param vertex a vertex object.
+     * @return the id of vertex (or -1 if it is not in this graph).
+     */
+    public int id(V vertex) {
+        if (ids == null) return vertex instanceof Integer v && v >= 0 && v < V() ? v : -1;
+        Integer result = ids.get(vertex);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Yield the graph with every arc reversed (the transpose).
+     * For an undirected graph, this is the same graph.
+     *
+     * @return the reverse of this graph, which shares its vertices with this graph.
+     */
+    public CSRGraph<V> reverse() {
+        if (!directed) return this;
+        int n = V();
+        int[] froms = new int[E()];
+        for (int v = 0; v < n; v++)
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) froms[a] = v;
+        return build(n, targets, froms, weights, true, vertices, ids);
+    }
+
+    @Override
+    public String toString() {
+        return "CSRGraph{" + (directed ? "directed" : "undirected") + ", V=" + V() + ", E=" + E() + "}";
+    }
+
+    /**
+     * Freeze an EdgeGraph (which is undirected) into a CSRGraph, with unit weights.
+     *
+     * @param graph the graph.
+     * @param <V>   the vertex type.
+     * @param <E>   the edge-attribute type.
+     * @return a new undirected CSRGraph.
+     */
+    public static <V, E> CSRGraph<V> fromEdgeGraph(EdgeGraph<V, E> graph) {
+        return fromEdgeGraph(graph, e -> 1.0);
+    }
+
+    /**
+     * Freeze an EdgeGraph (which is undirected) into a CSRGraph.
+     *
+     * @param graph  the graph.
+     * @param weight a function which yields the weight of an edge from its attribute.
+     * @param <V>    the vertex type.
+     * @param <E>    the edge-attribute type.
+     * @return a new undirected CSRGraph.
+     */
+    public static <V, E> CSRGraph<V> fromEdgeGraph(EdgeGraph<V, E> graph, ToDoubleFunction<E> weight) {
+        Builder<V> builder = new Builder<>(false);
+        for (V v : graph.vertices()) builder.addVertex(v);
+        for (Edge<V, E> e : graph.edges()) {
+            V v = e.get();
+            builder.addEdge(v, e.getOther(v), weight.applyAsDouble(e.getAttribute()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Freeze a DiGraph into a CSRGraph.
+     *
+     * @param graph  the graph.
+     * @param weight a function which yields the weight of an edge from its attributes.
+     * @param <V>    the vertex type.
+     * @param <E>    the edge-attribute type.
+     * @return a new directed CSRGraph.
+     */
+    public static <V, E> CSRGraph<V> fromDiGraph(DiGraph<V, E> graph, ToDoubleFunction<E> weight) {
+        Builder<V> builder = new Builder<>(true);
+        for (V v : graph.vertices()) builder.addVertex(v);
+        for (com.phasmidsoftware.dsaipg.graphs.dag.Edge<V, E> e : graph.edges())
+            builder.addEdge(e.getFrom(), e.getTo(), weight.applyAsDouble(e.getAttributes()));
+        return builder.build();
+    }
+
+    /**
+     * Freeze an EdgeWeightedDigraph into a CSRGraph.
+     * The id of each vertex is the same as its number in graph.
+     *
+     * @param graph the graph.
+     * @return a new directed CSRGraph whose vertex objects are Integers.
+     */
+    public static CSRGraph<Integer> fromEdgeWeightedDigraph(EdgeWeightedDigraph graph) {
+        int[] froms = new int[graph.E()];
+        int[] tos = new int[graph.E()];
+        double[] weights = new double[graph.E()];
+        int a = 0;
+        for (int v = 0; v < graph.V(); v++)
+            for (DirectedEdge e : graph.adj(v)) {
+                froms[a] = e.from();
+                tos[a] = e.to();
+                weights[a++] = e.weight();
+            }
+        return fromArcs(graph.V(), froms, tos, weights, true);
+    }
+
+    /**
+     * Create a CSRGraph whose vertices are simply the ints 0 through n-1 (the vertex object for id v is v itself).
+     * No map of vertex objects is built, so this is the way to create very large graphs.
+     *
+     * @param n        the number of vertices.
+     * @param froms    the from vertex of each edge.
+     * @param tos      the to vertex of each edge.
+     * @param weights  the weight of each edge (or null for unit weights).
+     * @param directed true if the graph is directed; false if each edge should yield an arc in each direction.
+     * @return a new CSRGraph whose vertex objects are Integers.
+     * @throws IllegalArgumentException if the arrays differ in length or any vertex is not in the range 0 through n-1.
+     */
+    public static CSRGraph<Integer> fromArcs(int n, int[] froms, int[] tos, double[] weights, boolean directed) {
+        int m = froms.length;
+        if (tos.length != m || (weights != null && weights.length != m))
+            throw new IllegalArgumentException("CSRGraph.fromArcs: arrays differ in length");
+        for (int i = 0; i < m; i++)
+            if (froms[i] < 0 || froms[i] >= n || tos[i] < 0 || tos[i] >= n)
+                throw new IllegalArgumentException("CSRGraph.fromArcs: no such vertex: " + froms[i] + " or " + tos[i]);
+        double[] ws = weights != null ? weights : new double[m];
+        if (weights == null) Arrays.fill(ws, 1.0);
+        if (directed) return build(n, froms, tos, ws, true, null, null);
+        int[] fs = Arrays.copyOf(froms, 2 * m);
+        int[] ts = Arrays.copyOf(tos, 2 * m);
+        double[] xs = Arrays.copyOf(ws, 2 * m);
+        System.arraycopy(tos, 0, fs, m, m);
+        System.arraycopy(froms, 0, ts, m, m);
+        System.arraycopy(ws, 0, xs, m, m);
+        return build(n, fs, ts, xs, false, null, null);
+    }
+
+    /**
+     * Builder for a CSRGraph: vertices and edges may be added in any order,
+     * then build sorts the arcs by source vertex (with a counting sort, in O(V + E) time).
+     * Vertices are given ids in the order in which they are first seen.
+     *
+     * @param <V> the vertex type.
+     */
+    public static class Builder<V> {
+
+        /**
+         * Constructor.
+         *
+         * @param directed true if the graph is directed; false if each edge should yield an arc in each direction.
+         * @param edges    the expected number of edges (the arrays will grow as necessary).
+         */
+        public Builder(boolean directed, int edges) {
+            this.directed = directed;
+            int capacity = Math.max(16, directed ? edges : 2 * edges);
+            froms = new int[capacity];
+            tos = new int[capacity];
+            weights = new double[capacity];
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param directed true if the graph is directed; false if each edge should yield an arc in each direction.
+         */
+        public Builder(boolean directed) {
+            this(directed, 16);
+        }
+
+        /**
+         * Add a vertex, if it is not already present.
+         *
+         * @param vertex the vertex.
+         * @return the id of the vertex.
+         */
+        public int addVertex(V vertex) {
+            Integer id = ids.get(vertex);
+            if (id != null) return id;
+            ids.put(vertex, vertices.size());
+            vertices.add(vertex);
+            return vertices.size() - 1;
+        }
+
+        /**
+         * Add an edge (and its vertices, if necessary).
+         *
+         * @param from   the from vertex.
+         * @param to     the to vertex.
+         * @param weight the weight.
+         * @return this Builder.
+         */
+        public Builder<V> addEdge(V from, V to, double weight) {
+            return addEdgeByIds(addVertex(from), addVertex(to), weight);
+        }
+
+        /**
+         * Add an edge between vertices which have already been added.
+         *
+         * @param from   the id of the from vertex.
+         * @param to     the id of the to vertex.
+         * @param weight the weight.
+         * @return this Builder.
+         * @throws IllegalArgumentException if either id is not that of a vertex.
+         */
+        public Builder<V> addEdgeByIds(int from, int to, double weight) {
+            if (from < 0 || from >= vertices.size() || to < 0 || to >= vertices.size())
+                throw new IllegalArgumentException("CSRGraph.Builder: no such vertex: " + from + " or " + to);
+            addArc(from, to, weight);
+            if (!directed) addArc(to, from, weight);
+            return this;
+        }
+
+        /**
+         * @return a new immutable CSRGraph.
+         */
+        public CSRGraph<V> build() {
+            return CSRGraph.build(vertices.size(), Arrays.copyOf(froms, arcs), Arrays.copyOf(tos, arcs), Arrays.copyOf(weights, arcs), directed, new ArrayList<>(vertices), new HashMap<>(ids));
+        }
+
+        private void addArc(int from, int to, double weight) {
+            if (arcs == froms.length) {
+                int capacity = 2 * arcs;
+                froms = Arrays.copyOf(froms, capacity);
+                tos = Arrays.copyOf(tos, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            froms[arcs] = from;
+            tos[arcs] = to;
+            weights[arcs++] = weight;
+        }
+
+        private final boolean directed;
+        private final List<V> vertices = new ArrayList<>();
+        private final Map<V, Integer> ids = new HashMap<>();
+        private int[] froms;
+        private int[] tos;
+        private double[] weights;
+        private int arcs = 0;
+    }
+
+    /**
+     * Sort the arcs (froms[i], tos[i], ws[i]) by their from vertex (stably), using a counting sort.
+     */
+    private static <V> CSRGraph<V> build(int n, int[] froms, int[] tos, double[] ws, boolean directed, List<V> vertices, Map<V, Integer> ids) {
+        int[] offsets = new int[n + 1];
+        for (int from : froms) offsets[from + 1]++;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[froms.length];
+        double[] weights = new double[froms.length];
+        for (int i = 0; i < froms.length; i++) {
+            int a = next[froms[i]]++;
+            targets[a] = tos[i];
+            weights[a] = ws[i];
+        }
+        return new CSRGraph<>(offsets, targets, weights, directed, vertices, ids);
+    }
+
+    private CSRGraph(int[] offsets, int[] targets, double[] weights, boolean directed, List<V> vertices, Map<V, Integer> ids) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+        this.vertices = vertices;
+        this.ids = ids;
+    }
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final boolean directed;
+    /**
+     * The vertex objects and their ids (both null if the vertex objects are the ids themselves: see fromArcs).
+     */
+    private final List<V> vertices;
+    private final Map<V, Integer> ids;
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Direction-optimizing breadth-first search (S. Beamer, K. Asanović and D. Patterson, 2012) over a CSRGraph,
+ * with each level expanded in parallel by fork-join.
+ * <p>
+ * The search proceeds level by level, in one of two ways:
+ * <dl>
+ *     <dt>top-down</dt>
+ *     <dd>each vertex of the frontier (an array of vertex ids) examines its out-arcs
+ *     and claims each unvisited target (by compare-and-set on a bitset of visited vertices);</dd>
+ *     <dt>bottom-up</dt>
+ *     <dd>each unvisited vertex examines its in-arcs (the arcs of the reverse graph)
+ *     and stops as soon as it finds one from the frontier (now a bitset).</dd>
+ * </dl>
+ * Top-down is best while the frontier is small; bottom-up is far better when the frontier is a large fraction of the graph
+ * (as it quickly becomes in a small-world graph), because most unvisited vertices find a parent after examining only a few arcs.
+ * Beamer's heuristic switches to bottom-up when the number of arcs leaving the frontier exceeds 1/ALPHA of the arcs leaving
+ * unvisited vertices, and back to top-down when the frontier has shrunk to fewer than 1/BETA of the vertices.
+ * <p>
+ * The results are the distance (number of arcs) from the source and the parent in a BFS tree of every vertex,
+ * as int arrays (with -1 for vertices which are not reachable).
+ *
+ * @see CSRGraph
+ */
+public class ParallelBFS {
+
+    /**
+     * Constructor which searches from s in graph.
+     * NOTE: if graph is directed, this computes its reverse: use the other constructor for repeated searches.
+     *
+     * @param graph the graph.
+     * @param s     the id of the source vertex.
+     * @throws IllegalArgumentException if s is not a vertex of graph.
+     */
+    public ParallelBFS(CSRGraph<?> graph, int s) {
+        this(graph, graph.reverse(), s);
+    }
+
+    /**
+     * Constructor which searches from s in graph.
+     *
+     * @param graph   the graph.
+     * @param reverse the reverse of graph (see CSRGraph.reverse).
+     * @param s       the id of the source vertex.
+     * @throws IllegalArgumentException if s is not a vertex of graph or reverse has a different number of vertices.
+     */
+    public ParallelBFS(CSRGraph<?> graph, CSRGraph<?> reverse, int s) {
+        n = graph.V();
+        if (reverse.V() != n) throw new IllegalArgumentException("ParallelBFS: reverse has " + reverse.V() + " vertices, not " + n);
+        if (s < 0 || s >= n) throw new IllegalArgumentException("ParallelBFS: no such vertex: " + s);
+        this.graph = graph;
+        this.reverse = reverse;
+        this.s = s;
+        distances = new int[n];
+        parents = new int[n];
+        Arrays.fill(distances, -1);
+        Arrays.fill(parents, -1);
+        visited = new AtomicLongArray(words(n));
+        search();
+    }
+
+    /**
+     * @return the distance from the source of each vertex (-1 if it is not reachable).
+     * NOTE: the array itself is returned (not a copy) so that very large results can be used without copying.
+     */
+    public int[] distances() {
+        return distances;
+    }
+
+    /**
+     * @return the parent of each vertex in the BFS tree (the source is its own parent; -1 if a vertex is not reachable).
+     * NOTE: the array itself is returned (not a copy) so that very large results can be used without copying.
+     */
+    public int[] parents() {
+        return parents;
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return true if there is a path from the source to v.
+     */
+    public boolean hasPathTo(int v) {
+        return distances[v] >= 0;
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the number of arcs in a shortest path from the source to v (-1 if there is none).
+     */
+    public int distTo(int v) {
+        return distances[v];
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the vertex ids of a shortest path from the source to v (empty if there is none).
+     */
+    public List<Integer> pathTo(int v) {
+        List<Integer> result = new ArrayList<>();
+        if (!hasPathTo(v)) return result;
+        for (int x = v; x != s; x = parents[x]) result.add(x);
+        result.add(s);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * @return the number of vertices reachable from the source (including the source).
+     */
+    public int reached() {
+        return reached;
+    }
+
+    /**
+     * @return the number of levels which were expanded bottom-up.
+     */
+    public int bottomUpLevels() {
+        return bottomUpLevels;
+    }
+
+    private void search() {
+        distances[s] = 0;
+        parents[s] = s;
+        visited.set(s >>> 6, 1L << s);
+        reached = 1;
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        frontier[0] = s;
+        long[] frontierBits = null;
+        long[] nextBits = null;
+        int nf = 1;
+        long mf = graph.degree(s);
+        long mu = graph.E() - mf;
+        boolean bottomUp = false;
+        for (int depth = 0; nf > 0; depth++) {
+            if (!bottomUp && mf > mu / ALPHA) {
+                if (frontierBits == null) {
+                    frontierBits = new long[words(n)];
+                    nextBits = new long[words(n)];
+                } else Arrays.fill(frontierBits, 0L);
+                for (int i = 0; i < nf; i++) frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+                bottomUp = true;
+            } else if (bottomUp && nf < n / BETA) {
+                nf = toList(frontierBits, frontier);
+                bottomUp = false;
+            }
+            count.set(0);
+            arcs.set(0L);
+            if (bottomUp) {
+                pool.invoke(new BottomUp(frontierBits, nextBits, depth + 1, 0, frontierBits.length));
+                long[] bits = frontierBits;
+                frontierBits = nextBits;
+                nextBits = bits;
+                bottomUpLevels++;
+            } else {
+                pool.invoke(new TopDown(frontier, next, depth + 1, 0, nf));
+                int[] list = frontier;
+                frontier = next;
+                next = list;
+            }
+            nf = count.get();
+            mf = arcs.get();
+            mu -= mf;
+            reached += nf;
+        }
+    }
+
+    /**
+     * Claim vertex w (atomically).
+     *
+     * @return true if w was not already visited.
+     */
+    private boolean claim(int w) {
+        int i = w >>> 6;
+        long bit = 1L << w;
+        long x;
+        do {
+            x = visited.get(i);
+            if ((x & bit) != 0) return false;
+        } while (!visited.compareAndSet(i, x, x | bit));
+        return true;
+    }
+
+    /**
+     * Expand the frontier vertices frontier[lo..hi) top-down, appending the newly-visited vertices to the next frontier.
+     */
+    private class TopDown extends RecursiveAction {
+        TopDown(int[] frontier, int[] next, int depth, int lo, int hi) {
+            this.frontier = frontier;
+            this.next = next;
+            this.depth = depth;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDown(frontier, next, depth, lo, mid), new TopDown(frontier, next, depth, mid, hi));
+                return;
+            }
+            int[] buffer = new int[16];
+            int k = 0;
+            long degrees = 0;
+            for (int i = lo; i < hi; i++) {
+                int v = frontier[i];
+                for (int a = graph.begin(v), end = graph.end(v); a < end; a++) {
+                    int w = graph.target(a);
+                    if ((visited.get(w >>> 6) & (1L << w)) == 0 && claim(w)) {
+                        parents[w] = v;
+                        distances[w] = depth;
+                        degrees += graph.degree(w);
+                        if (k == buffer.length) buffer = Arrays.copyOf(buffer, 2 * k);
+                        buffer[k++] = w;
+                    }
+                }
+            }
+            if (k > 0) {
+                System.arraycopy(buffer, 0, next, count.getAndAdd(k), k);
+                arcs.addAndGet(degrees);
+            }
+        }
+
+        private final int[] frontier;
+        private final int[] next;
+        private final int depth;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Expand bottom-up for the vertices in words [lo..hi) of the bitsets.
+     * Each task owns its words of visited and next, so no synchronization is needed (other than the fork-join itself).
+     */
+    private class BottomUp extends RecursiveAction {
+        BottomUp(long[] frontier, long[] next, int depth, int lo, int hi) {
+            this.frontier = frontier;
+            this.next = next;
+            this.depth = depth;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN / 64) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUp(frontier, next, depth, lo, mid), new BottomUp(frontier, next, depth, mid, hi));
+                return;
+            }
+            int k = 0;
+            long degrees = 0;
+            for (int i = lo; i < hi; i++) {
+                long found = 0L;
+                long unvisited = ~visited.get(i);
+                if (i == frontier.length - 1 && (n & 63) != 0) unvisited &= (1L << n) - 1;
+                while (unvisited != 0) {
+                    int v = (i << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    for (int a = reverse.begin(v), end = reverse.end(v); a < end; a++) {
+                        int u = reverse.target(a);
+                        if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                            parents[v] = u;
+                            distances[v] = depth;
+                            degrees += graph.degree(v);
+                            found |= 1L << v;
+                            k++;
+                            break;
+                        }
+                    }
+                }
+                next[i] = found;
+                if (found != 0) visited.set(i, visited.get(i) | found);
+            }
+            if (k > 0) {
+                count.addAndGet(k);
+                arcs.addAndGet(degrees);
+            }
+        }
+
+        private final long[] frontier;
+        private final long[] next;
+        private final int depth;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Convert a frontier bitset into a list of vertex ids.
+     *
+     * @return the number of vertices.
+     */
+    private static int toList(long[] bits, int[] list) {
+        int k = 0;
+        for (int i = 0; i < bits.length; i++)
+            for (long x = bits[i]; x != 0; x &= x - 1) list[k++] = (i << 6) + Long.numberOfTrailingZeros(x);
+        return k;
+    }
+
+    private static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    /**
+     * Switch to bottom-up when the arcs leaving the frontier exceed 1/ALPHA of the arcs leaving unvisited vertices.
+     */
+    private static final int ALPHA = 14;
+    /**
+     * Switch back to top-down when the frontier holds fewer than 1/BETA of the vertices.
+     */
+    private static final int BETA = 24;
+    /**
+     * The number of vertices below which a task is not split.
+     */
+    private static final int GRAIN = 1 << 11;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final CSRGraph<?> graph;
+    private final CSRGraph<?> reverse;
+    private final int n;
+    private final int s;
+    private final int[] distances;
+    private final int[] parents;
+    private final AtomicLongArray visited;
+    /**
+     * The number of vertices (and the number of arcs leaving them) visited at the current level.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong arcs = new AtomicLong();
+    private int reached;
+    private int bottomUpLevels = 0;
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Class to compare ParallelBFS with a simple sequential (queue-based) BFS over the same CSRGraph,
+ * on a large random digraph.
+ */
+public class ParallelBFSBenchmark {
+
+    /**
+     * The main method is the entry point for the ParallelBFSBenchmark application.
+     *
+     * @param args the number of vertices (default ten million) and the mean out-degree (default 8).
+     */
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        new ParallelBFSBenchmark(randomGraph(vertices, degree, true, new Random())).run(5);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param graph the graph to search.
+     */
+    public ParallelBFSBenchmark(CSRGraph<?> graph) {
+        this.graph = graph;
+        this.reverse = graph.reverse();
+    }
+
+    /**
+     * Time each kind of BFS, searching from the same nRuns random source vertices for each,
+     * and then check that ParallelBFS finds the same distances as the sequential BFS from those sources.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each kind of BFS.
+     * @return the number of (source, vertex) pairs for which the two kinds of BFS disagree on the distance.
+     */
+    int run(int nRuns) {
+        logger.info("ParallelBFSBenchmark: " + graph + " with " + nRuns + " runs");
+        Random random = new Random(0L);
+        int[] sources = new int[nRuns];
+        for (int i = 0; i < nRuns; i++) sources[i] = random.nextInt(graph.V());
+        int[] next = new int[2];
+        Benchmark<Integer> sequential = new Benchmark_Timer<>("sequential BFS", s -> sequentialBFS(graph, s));
+        logger.info("sequential BFS: " + sequential.runFromSupplier(() -> sources[next[0]++ % nRuns], nRuns) + " mSec");
+        Benchmark<Integer> parallel = new Benchmark_Timer<>("ParallelBFS", s -> new ParallelBFS(graph, reverse, s));
+        logger.info("ParallelBFS: " + parallel.runFromSupplier(() -> sources[next[1]++ % nRuns], nRuns) + " mSec");
+        int result = 0;
+        for (int s : sources) {
+            int[] expected = sequentialBFS(graph, s), actual = new ParallelBFS(graph, reverse, s).distances();
+            for (int v = 0; v < expected.length; v++) if (expected[v] != actual[v]) result++;
+        }
+        return result;
+    }
+
+    /**
+     * Simple BFS with a queue of boxed vertex ids, for comparison.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @return the distance from s of each vertex (-1 if it is not reachable).
+     */
+    static int[] sequentialBFS(CSRGraph<?> graph, int s) {
+        int[] result = new int[graph.V()];
+        Arrays.fill(result, -1);
+        Queue<Integer> queue = new ArrayDeque<>();
+        result[s] = 0;
+        queue.add(s);
+        while (!queue.isEmpty()) {
+            int v = queue.remove();
+            for (int a = graph.begin(v); a < graph.end(v); a++) {
+                int w = graph.target(a);
+                if (result[w] < 0) {
+                    result[w] = result[v] + 1;
+                    queue.add(w);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build a random (small-world) graph with unit weights.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param vertices the number of vertices.
+     * @param degree   the mean out-degree.
+     * @param directed true for a digraph; false for an undirected graph (each edge yielding an arc each way).
+     * @param random   the source of randomness.
+     * @return a new CSRGraph.
+     */
+    static CSRGraph<Integer> randomGraph(int vertices, int degree, boolean directed, Random random) {
+        int m = vertices * degree;
+        int[] froms = new int[m];
+        int[] tos = new int[m];
+        for (int i = 0; i < m; i++) {
+            froms[i] = random.nextInt(vertices);
+            tos[i] = random.nextInt(vertices);
+        }
+        return CSRGraph.fromArcs(vertices, froms, tos, null, directed);
+    }
+
+    final static LazyLogger logger = new LazyLogger(ParallelBFSBenchmark.class);
+
+    private final CSRGraph<?> graph;
+    private final CSRGraph<?> reverse;
+}
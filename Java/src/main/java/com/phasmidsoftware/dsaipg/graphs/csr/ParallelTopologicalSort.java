@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Topological sort of a directed CSRGraph by Kahn's algorithm, with each level processed in parallel by fork-join.
+ * <p>
+ * The in-degree of every vertex is counted (in parallel); then the vertices of in-degree zero form the first level.
+ * Each vertex of a level decrements the in-degree of each of its targets (atomically),
+ * and a target whose in-degree reaches zero joins the next level.
+ * The levels are appended, one after another, to a single array which is the result:
+ * a vertex is never placed before any of its predecessors, although the order within a level is not deterministic.
+ * <p>
+ * If the graph has a cycle, the vertices on (or reachable from) the cycle never reach in-degree zero,
+ * and so the graph is not a DAG.
+ *
+ * @see CSRGraph
+ */
+public class ParallelTopologicalSort {
+
+    /**
+     * Constructor which sorts graph.
+     *
+     * @param graph a directed graph.
+     * @throws IllegalArgumentException if graph is undirected.
+     */
+    public ParallelTopologicalSort(CSRGraph<?> graph) {
+        if (!graph.isDirected()) throw new IllegalArgumentException("ParallelTopologicalSort: graph is undirected");
+        this.graph = graph;
+        int n = graph.V();
+        inDegree = new AtomicIntegerArray(n);
+        order = new int[n];
+        sort();
+    }
+
+    /**
+     * @return true if the graph is acyclic (so that every vertex has been sorted).
+     */
+    public boolean isDAG() {
+        return sorted == order.length;
+    }
+
+    /**
+     * @return the vertex ids in topological order.
+     * @throws IllegalStateException if the graph has a cycle.
+     */
+    public int[] order() {
+        if (!isDAG()) throw new IllegalStateException("ParallelTopologicalSort: graph has a cycle");
+        return Arrays.copyOf(order, sorted);
+    }
+
+    /**
+     * @return the number of levels (the number of vertices on a longest path, if the graph is a DAG).
+     */
+    public int levels() {
+        return levels;
+    }
+
+    private void sort() {
+        int n = graph.V();
+        pool.invoke(new Count(0, n));
+        cursor.set(0);
+        pool.invoke(new Sources(0, n));
+        int lo = 0, hi = cursor.get();
+        while (lo < hi) {
+            levels++;
+            pool.invoke(new Expand(lo, hi));
+            lo = hi;
+            hi = cursor.get();
+        }
+        sorted = hi;
+    }
+
+    /**
+     * Count the in-degrees of the targets of the arcs of vertices [lo..hi).
+     */
+    private class Count extends RecursiveAction {
+        Count(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Count(lo, mid), new Count(mid, hi));
+                return;
+            }
+            for (int a = graph.begin(lo), end = graph.begin(hi); a < end; a++) inDegree.incrementAndGet(graph.target(a));
+        }
+
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Append the vertices of [lo..hi) which have no predecessors to the order.
+     */
+    private class Sources extends RecursiveAction {
+        Sources(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Sources(lo, mid), new Sources(mid, hi));
+                return;
+            }
+            int[] buffer = new int[hi - lo];
+            int k = 0;
+            for (int v = lo; v < hi; v++) if (inDegree.get(v) == 0) buffer[k++] = v;
+            if (k > 0) System.arraycopy(buffer, 0, order, cursor.getAndAdd(k), k);
+        }
+
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Remove the vertices order[lo..hi) (the current level) from the graph,
+     * appending each target which thereby loses its last predecessor to the order.
+     */
+    private class Expand extends RecursiveAction {
+        Expand(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Expand(lo, mid), new Expand(mid, hi));
+                return;
+            }
+            int[] buffer = new int[16];
+            int k = 0;
+            for (int i = lo; i < hi; i++) {
+                int v = order[i];
+                for (int a = graph.begin(v), end = graph.end(v); a < end; a++) {
+                    int w = graph.target(a);
+                    if (inDegree.decrementAndGet(w) == 0) {
+                        if (k == buffer.length) buffer = Arrays.copyOf(buffer, 2 * k);
+                        buffer[k++] = w;
+                    }
+                }
+            }
+            if (k > 0) System.arraycopy(buffer, 0, order, cursor.getAndAdd(k), k);
+        }
+
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * The number of vertices below which a task is not split.
+     */
+    private static final int GRAIN = 1 << 11;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final CSRGraph<?> graph;
+    /**
+     * The number of predecessors of each vertex which have not yet been sorted.
+     */
+    private final AtomicIntegerArray inDegree;
+    /**
+     * The sorted vertices, level by level.
+     */
+    private final int[] order;
+    /**
+     * The end of the sorted vertices (while a level is being expanded, the next level is appended at the cursor).
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+    private int sorted;
+    private int levels = 0;
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import java.util.Arrays;
+
+/**
+ * Tarjan's algorithm for the strongly connected components of a directed CSRGraph, in O(V + E) time.
+ * <p>
+ * The depth-first search is iterative: it keeps its own stack of vertices, together with the next arc to be explored
+ * from each of them (which is simply an arc number, because the arcs of each vertex are contiguous in a CSRGraph),
+ * so that it cannot overflow the Java stack on a deep graph (such as a long path).
+ * <p>
+ * The components are numbered in topological order of the condensation:
+ * every arc which joins two different components goes from the lower-numbered one to the higher-numbered one.
+ * (Tarjan's algorithm completes the components in reverse topological order, so they are simply numbered backwards.)
+ *
+ * @see CSRGraph
+ */
+public class StronglyConnectedComponents {
+
+    /**
+     * Constructor which finds the strongly connected components of graph.
+     *
+     * @param graph the graph (if it is undirected, the components are its connected components).
+     */
+    public StronglyConnectedComponents(CSRGraph<?> graph) {
+        int n = graph.V();
+        component = new int[n];
+        solve(graph);
+    }
+
+    /**
+     * @return the number of strongly connected components.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param v a vertex id.
+     * @return the component of v (between 0 and count()-1).
+     */
+    public int component(int v) {
+        return component[v];
+    }
+
+    /**
+     * @return the component of each vertex.
+     * NOTE: the array itself is returned (not a copy) so that very large results can be used without copying.
+     */
+    public int[] components() {
+        return component;
+    }
+
+    /**
+     * @param v a vertex id.
+     * @param w another vertex id.
+     * @return true if v and w are strongly connected (each is reachable from the other).
+     */
+    public boolean stronglyConnected(int v, int w) {
+        return component[v] == component[w];
+    }
+
+    /**
+     * @return the number of vertices in each component.
+     */
+    public int[] sizes() {
+        int[] result = new int[count];
+        for (int c : component) result[c]++;
+        return result;
+    }
+
+    private void solve(CSRGraph<?> graph) {
+        int n = graph.V();
+        // index[v] is the preorder number of v (or -1 if v has not been visited); low[v] is the lowest preorder number
+        // reachable from v through its subtree and at most one other arc (while v is on the stack).
+        int[] index = new int[n];
+        int[] low = new int[n];
+        // The next arc to explore from each vertex on the call stack.
+        int[] next = new int[n];
+        int[] calls = new int[n];
+        int[] stack = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        int preorder = 0, nCalls = 0, nStack = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] >= 0) continue;
+            index[s] = low[s] = preorder++;
+            next[s] = graph.begin(s);
+            stack[nStack++] = s;
+            calls[nCalls++] = s;
+            while (nCalls > 0) {
+                int v = calls[nCalls - 1];
+                if (next[v] < graph.end(v)) {
+                    int w = graph.target(next[v]++);
+                    if (index[w] < 0) {
+                        index[w] = low[w] = preorder++;
+                        next[w] = graph.begin(w);
+                        stack[nStack++] = w;
+                        calls[nCalls++] = w;
+                    } else if (component[w] < 0 && index[w] < low[v]) low[v] = index[w];
+                    continue;
+                }
+                nCalls--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--nStack];
+                        component[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+                if (nCalls > 0) {
+                    int u = calls[nCalls - 1];
+                    if (low[v] < low[u]) low[u] = low[v];
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) component[v] = count - 1 - component[v];
+    }
+
+    private final int[] component;
+    private int count = 0;
+}
@@ -8,6 +8,8 @@ import com.phasmidsoftware.dsaipg.adt.bqs.Bag;
 import com.phasmidsoftware.dsaipg.adt.bqs.Bag_Array;
 import com.phasmidsoftware.dsaipg.adt.bqs.Stack;
 import com.phasmidsoftware.dsaipg.adt.bqs.Stack_LinkedList;
+import com.phasmidsoftware.dsaipg.graphs.csr.CSRGraph;
+import com.phasmidsoftware.dsaipg.graphs.csr.StronglyConnectedComponents;
 import com.phasmidsoftware.dsaipg.graphs.undirected.AbstractGraph;
 import com.phasmidsoftware.dsaipg.util.SizedIterable;
 
@@ -46,20 +48,26 @@ public class DiGraph<V, E> extends AbstractGraph<V, Edge<V, E>> {
         return postOrderStack;
     }
 
+    /**
+     * Condense this graph into a DAG of its strongly connected components ("kernels"), in O(V + E) time.
+     * The kernels are found by (iterative) Tarjan over a CSR copy of this graph (see StronglyConnectedComponents)
+     * and are added to the DAG in topological order;
+     * each edge which joins two different kernels yields an edge between them.
+     *
+     * @return the kernel DAG.
+     */
     DAG<Kernel<V>, E> kernelDAG() {
         final DAG_Impl<Kernel<V>, E> result = new DAG_Impl<>(new Random(0L));
-        final TreeSet<V> marked = new TreeSet<>();
-        for (V vertex : reverse().reversePostOrderDFS()) {
-            Kernel<V> kernel = new Kernel<>();
-            new DepthFirstSearch(marked, kernel::add, null).innerDfs(vertex);
-            if (!kernel.vertices.isEmpty())
-                result.addVertex(kernel);
-        }
-        final List<Kernel<V>> kernels = result.vertices().toList();
+        final CSRGraph<V> graph = CSRGraph.fromDiGraph(this, e -> 1.0);
+        final StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        final List<Kernel<V>> kernels = new ArrayList<>(components.count());
+        for (int c = 0; c < components.count(); c++) kernels.add(new Kernel<>());
+        for (int v = 0; v < graph.V(); v++) kernels.get(components.component(v)).add(graph.vertex(v));
+        for (Kernel<V> kernel : kernels) result.addVertex(kernel);
         for (Edge<V, E> edge : edges()) {
-            final Kernel<V> from = kernels.stream().filter((k) -> k.vertices.contains(edge.getFrom())).findAny().orElse(null);
-            final Kernel<V> to = kernels.stream().filter((k) -> k.vertices.contains(edge.getTo())).findAny().orElse(null);
-            if (from != null && to != null && from != to)
+            final Kernel<V> from = kernels.get(components.component(graph.id(edge.getFrom())));
+            final Kernel<V> to = kernels.get(components.component(graph.id(edge.getTo())));
+            if (from != to)
                 result.addEdge(new Edge<>(from, to, edge.getAttributes()));
         }
         return result;
@@ -84,16 +92,34 @@ public class DiGraph<V, E> extends AbstractGraph<V, Edge<V, E>> {
             for (V v : vertices()) innerDfs(v);
         }
 
+        /**
+         * Depth-first search from v, visiting the vertices in the same order as the obvious recursive method,
+         * but with an explicit stack (of the vertices and their remaining edges), so that it cannot overflow on a deep graph.
+         */
         void innerDfs(V v) {
             // TODO create a HashMap of V and Boolean
             if (marked.contains(v)) return;
+            Deque<V> vertices = new ArrayDeque<>();
+            Deque<Iterator<Edge<V, E>>> edges = new ArrayDeque<>();
+            visit(v, vertices, edges);
+            while (!vertices.isEmpty()) {
+                Iterator<Edge<V, E>> iterator = edges.peek();
+                if (iterator.hasNext()) {
+                    V v1 = iterator.next().getTo();
+                    if (!marked.contains(v1)) visit(v1, vertices, edges);
+                } else {
+                    edges.pop();
+                    V v0 = vertices.pop();
+                    if (post != null) post.accept(v0);
+                }
+            }
+        }
+
+        private void visit(V v, Deque<V> vertices, Deque<Iterator<Edge<V, E>>> edges) {
             marked.add(v);
             if (pre != null) pre.accept(v);
-            for (Edge<V, E> e : adjacentEdges.get(v)) {
-                V v1 = e.getTo();
-                if (!marked.contains(v1)) innerDfs(v1);
-            }
-            if (post != null) post.accept(v);
+            vertices.push(v);
+            edges.push(adjacentEdges.get(v).iterator());
         }
 
         private final TreeSet<V> marked;
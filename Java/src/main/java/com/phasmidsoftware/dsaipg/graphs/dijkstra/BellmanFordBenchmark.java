@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Class to compare the modes of BellmanFordSP, searching an arbitrage graph (see arbitrageGraph) for a negative cycle,
+ * both with and without an arbitrage opportunity, and (without) finding shortest paths.
+ */
+public class BellmanFordBenchmark {
+
+    /**
+     * The main method is the entry point for the BellmanFordBenchmark application.
+     *
+     * @param args the number of currencies (default ten thousand) and the number of exchange rates of each (default 10).
+     */
+    public static void main(String[] args) {
+        int currencies = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Random random = new Random();
+        BellmanFordBenchmark noArbitrage = new BellmanFordBenchmark("no arbitrage", arbitrageGraph(currencies, degree, false, random));
+        noArbitrage.runNegativeCycle(10);
+        noArbitrage.runShortestPaths(10);
+        new BellmanFordBenchmark("arbitrage", arbitrageGraph(currencies, degree, true, random)).runNegativeCycle(10);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param description a description of the graph.
+     * @param graph       the graph in which to find a negative cycle.
+     */
+    public BellmanFordBenchmark(String description, EdgeWeightedDigraph graph) {
+        this.description = description;
+        this.graph = graph;
+    }
+
+    /**
+     * Time BellmanFordSP.negativeCycle in each mode.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each mode.
+     * @return the weight of the negative cycle found in each mode (in the order of Mode.values()),
+     * or NaN if none was found (or if its edges do not form a cycle).
+     */
+    double[] runNegativeCycle(int nRuns) {
+        logger.info("BellmanFordBenchmark: " + description + " graph with " + graph.V() + " vertices and " + graph.E() + " edges");
+        BellmanFordSP bellmanFord = new BellmanFordSP(graph);
+        BellmanFordSP.Mode[] modes = BellmanFordSP.Mode.values();
+        double[] result = new double[modes.length];
+        for (int i = 0; i < modes.length; i++) {
+            BellmanFordSP.Mode mode = modes[i];
+            doBenchmark("BellmanFordSP.negativeCycle " + mode, x -> bellmanFord.negativeCycle(mode), Object::new, nRuns);
+            result[i] = cycleWeight(bellmanFord.negativeCycle(mode));
+        }
+        return result;
+    }
+
+    /**
+     * Time BellmanFordSP.shortestPaths in each mode, from the same nRuns random source vertices,
+     * and then check that every mode yields the same distances as FIFO from those sources.
+     * The graph must have no negative cycle.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each mode.
+     * @return the greatest difference between a distance found in any mode and that found in FIFO mode.
+     */
+    double runShortestPaths(int nRuns) {
+        BellmanFordSP bellmanFord = new BellmanFordSP(graph);
+        int[] sources = DijkstraBenchmark.sources(graph.V(), nRuns, new Random(0L));
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values())
+            doBenchmark("BellmanFordSP.shortestPaths " + mode, s -> bellmanFord.shortestPaths(s, mode), DijkstraBenchmark.supplier(sources), nRuns);
+        double result = 0;
+        for (int s : sources) {
+            BellmanFordSP.ShortestPaths expected = bellmanFord.shortestPaths(s, BellmanFordSP.Mode.FIFO);
+            for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values())
+                result = Math.max(result, DijkstraBenchmark.maxDifference(graph.V(), expected::distTo, bellmanFord.shortestPaths(s, mode)::distTo));
+        }
+        return result;
+    }
+
+    private <T> void doBenchmark(String description, Consumer<T> solver, Supplier<T> supplier, int nRuns) {
+        Benchmark<T> benchmark = new Benchmark_Timer<>(description, solver);
+        double time = benchmark.runFromSupplier(supplier, nRuns);
+        logger.info(description + ": " + time + " mSec");
+    }
+
+    /**
+     * @return the total weight of the given edges, provided that they form a cycle (in order), else NaN (as also if cycle is null).
+     */
+    private static double cycleWeight(Iterable<DirectedEdge> cycle) {
+        if (cycle == null) return Double.NaN;
+        double result = 0;
+        DirectedEdge first = null, last = null;
+        for (DirectedEdge e : cycle) {
+            if (first == null) first = e;
+            else if (last.to() != e.from()) return Double.NaN;
+            result += e.weight();
+            last = e;
+        }
+        return first != null && last.to() == first.from() ? result : Double.NaN;
+    }
+
+    /**
+     * Build a graph of exchange rates between currencies, in which the weight of each edge is minus the logarithm of its rate,
+     * so that a cycle of negative weight is a sequence of exchanges which ends up with more money than it started with.
+     * <p>
+     * Each currency has a random price, and each rate is the ratio of the prices, less a small commission;
+     * so there is no negative cycle unless arbitrage is true, in which case three of the rates are made a little too generous.
+     *
+     * @param currencies the number of currencies (at least 3).
+     * @param degree     the number of rates from each currency (each currency has a rate to the next one, and degree-1 others).
+     * @param arbitrage  true if there should be a negative cycle.
+     * @param random     the source of randomness.
+     * @return a new EdgeWeightedDigraph.
+     */
+    static EdgeWeightedDigraph arbitrageGraph(int currencies, int degree, boolean arbitrage, Random random) {
+        double[] logPrice = new double[currencies];
+        for (int v = 0; v < currencies; v++) logPrice[v] = random.nextDouble() * 10;
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(currencies);
+        for (int v = 0; v < currencies; v++) {
+            graph.addEdge(new DirectedEdge(v, (v + 1) % currencies, rate(logPrice, v, (v + 1) % currencies, random)));
+            for (int i = 1; i < degree; i++) {
+                int w = random.nextInt(currencies);
+                graph.addEdge(new DirectedEdge(v, w, rate(logPrice, v, w, random)));
+            }
+        }
+        if (arbitrage) {
+            int a = random.nextInt(currencies), b = (a + currencies / 3) % currencies, c = (b + currencies / 3) % currencies;
+            graph.addEdge(new DirectedEdge(a, b, logPrice[b] - logPrice[a] - 0.001));
+            graph.addEdge(new DirectedEdge(b, c, logPrice[c] - logPrice[b] - 0.001));
+            graph.addEdge(new DirectedEdge(c, a, logPrice[a] - logPrice[c] - 0.001));
+        }
+        return graph;
+    }
+
+    /**
+     * @return minus the logarithm of the rate from currency v to currency w (which is priced in units of v),
+     * with a commission of between 0.1% and 1%.
+     */
+    private static double rate(double[] logPrice, int v, int w, Random random) {
+        return logPrice[w] - logPrice[v] + 0.001 + random.nextDouble() * 0.009;
+    }
+
+    final static LazyLogger logger = new LazyLogger(BellmanFordBenchmark.class);
+
+    private final String description;
+    private final EdgeWeightedDigraph graph;
+}
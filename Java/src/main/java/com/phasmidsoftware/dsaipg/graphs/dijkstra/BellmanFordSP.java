@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code BellmanFordSP} class solves the single-source shortest paths problem in edge-weighted digraphs
+ * whose weights may be negative, using the Bellman-Ford algorithm; or, if there is a negative cycle, finds one.
+ * <p>
+ * There are three modes:
+ * <ul>
+ *     <li>FIFO: the queue-based version (sometimes called SPFA), in which only the vertices whose distance has changed
+ *     are relaxed, each at most once per pass (a vertex which is already on the queue is not added again);</li>
+ *     <li>SLF (small label first): the same, except that a vertex is added to the front of the queue (rather than the back)
+ *     if its distance is less than that of the vertex at the front (this usually saves a good many relaxations);</li>
+ *     <li>JACOBI: rounds in which every vertex (in parallel, by fork-join) takes the best of its incoming edges,
+ *     using only the distances of the previous round (so the rounds are independent of the order of the vertices).
+ *     Only the edges whose source changed in the previous round are considered.</li>
+ * </ul>
+ * In every mode, the algorithm stops as soon as nothing changes (so that it can take far fewer than V passes).
+ * <p>
+ * A negative cycle (reachable from the source) is detected by searching the graph of edgeTo (the last edge on
+ * the current path to each vertex) for a cycle: after every V relaxations in the queue-based modes (which costs only
+ * O(1) amortized per relaxation), and after every round in which anything changed in the JACOBI mode.
+ * Any such cycle is a negative cycle, and the path to a vertex on a negative cycle always has one eventually.
+ * <p>
+ * The negativeCycle methods search the whole graph (as if from a virtual source with an edge of weight zero to each vertex),
+ * which is how arbitrage opportunities are found (when each weight is minus the logarithm of an exchange rate).
+ * <p>
+ * A ShortestPaths object has the same API as Dijkstra.ShortestPaths (and also that of a negative cycle).
+ * The graph is copied into flat arrays, so a BellmanFordSP should be constructed once and then used for many sources.
+ */
+public class BellmanFordSP {
+
+    public enum Mode {FIFO, SLF, JACOBI}
+
+    /**
+     * Constructor.
+     *
+     * @param G the graph.
+     */
+    public BellmanFordSP(EdgeWeightedDigraph G) {
+        n = G.V();
+        int m = G.E();
+        offsets = new int[n + 1];
+        targets = new int[m];
+        weights = new double[m];
+        edges = new DirectedEdge[m];
+        inOffsets = new int[n + 1];
+        inArcs = new int[m];
+        int a = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = a;
+            for (DirectedEdge e : G.adj(v)) {
+                targets[a] = e.to();
+                weights[a] = e.weight();
+                edges[a++] = e;
+                inOffsets[e.to() + 1]++;
+            }
+        }
+        offsets[n] = a;
+        // The incoming arcs of each vertex (for the JACOBI mode), by counting sort.
+        for (int v = 0; v < n; v++) inOffsets[v + 1] += inOffsets[v];
+        int[] next = Arrays.copyOf(inOffsets, n);
+        for (int x = 0; x < a; x++) inArcs[next[targets[x]]++] = x;
+    }
+
+    /**
+     * Method to solve the shortest paths problem for the starting point s (in SLF mode).
+     *
+     * @param s the starting point.
+     * @return a ShortestPaths object.
+     * @throws IllegalArgumentException if s is not a vertex.
+     */
+    public ShortestPaths shortestPaths(int s) {
+        return shortestPaths(s, Mode.SLF);
+    }
+
+    /**
+     * Method to solve the shortest paths problem for the starting point s.
+     *
+     * @param s    the starting point.
+     * @param mode the mode.
+     * @return a ShortestPaths object.
+     * @throws IllegalArgumentException if s is not a vertex.
+     */
+    public ShortestPaths shortestPaths(int s, Mode mode) {
+        validateVertex(s);
+        ShortestPaths result = new ShortestPaths();
+        result.solve(s, mode);
+        return result;
+    }
+
+    /**
+     * Method to find a negative cycle anywhere in the graph (in SLF mode).
+     *
+     * @return the edges of a negative cycle, in order, or null if there is none.
+     */
+    public Iterable<DirectedEdge> negativeCycle() {
+        return negativeCycle(Mode.SLF);
+    }
+
+    /**
+     * Method to find a negative cycle anywhere in the graph.
+     *
+     * @param mode the mode.
+     * @return the edges of a negative cycle, in order, or null if there is none.
+     */
+    public Iterable<DirectedEdge> negativeCycle(Mode mode) {
+        ShortestPaths result = new ShortestPaths();
+        result.solve(NONE, mode);
+        return result.negativeCycle();
+    }
+
+    public class ShortestPaths {
+
+        /**
+         * @param v a vertex.
+         * @return the length of a shortest path from the source to v (+∞ if there is no path).
+         * @throws UnsupportedOperationException if there is a negative cycle.
+         */
+        public double distTo(int v) {
+            validateVertex(v);
+            checkNoNegativeCycle();
+            return dist[v];
+        }
+
+        public boolean hasPathTo(int v) {
+            validateVertex(v);
+            return dist[v] < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * @param v a vertex.
+         * @return the edges of a shortest path from the source to v (starting with the last), or null if there is no path.
+         * @throws UnsupportedOperationException if there is a negative cycle.
+         */
+        public Iterable<DirectedEdge> pathTo(int v) {
+            validateVertex(v);
+            checkNoNegativeCycle();
+            if (!hasPathTo(v)) return null;
+            Stack<DirectedEdge> path = new Stack<>();
+            for (int a = edgeTo[v]; a != NONE; a = edgeTo[edges[a].from()]) path.push(edges[a]);
+            return path;
+        }
+
+        /**
+         * @return true if there is a negative cycle reachable from the source.
+         */
+        public boolean hasNegativeCycle() {
+            return cycle != null;
+        }
+
+        /**
+         * @return the edges of a negative cycle (reachable from the source), in order, or null if there is none.
+         */
+        public Iterable<DirectedEdge> negativeCycle() {
+            return cycle;
+        }
+
+        /**
+         * @return the number of times that the distance of a vertex was lowered.
+         */
+        public long relaxations() {
+            return relaxations;
+        }
+
+        void solve(int s, Mode mode) {
+            Arrays.fill(dist, s == NONE ? 0.0 : Double.POSITIVE_INFINITY);
+            Arrays.fill(edgeTo, NONE);
+            if (s != NONE) dist[s] = 0.0;
+            if (mode == Mode.JACOBI) solveJacobi(s);
+            else solveQueue(s, mode == Mode.SLF);
+        }
+
+        private ShortestPaths() {
+            dist = new double[n];
+            edgeTo = new int[n];
+        }
+
+        /**
+         * The FIFO and SLF modes.
+         * The queue is a circular buffer of n vertices, which is enough because no vertex is ever on it twice.
+         */
+        private void solveQueue(int s, boolean slf) {
+            int[] queue = new int[Math.max(1, n)];
+            boolean[] onQueue = new boolean[n];
+            int head = 0, size = 0;
+            if (s == NONE) {
+                for (int v = 0; v < n; v++) {
+                    queue[v] = v;
+                    onQueue[v] = true;
+                }
+                size = n;
+            } else {
+                queue[0] = s;
+                onQueue[s] = true;
+                size = 1;
+            }
+            long check = n;
+            while (size > 0) {
+                int v = queue[head];
+                head = head + 1 == n ? 0 : head + 1;
+                size--;
+                onQueue[v] = false;
+                double d = dist[v];
+                for (int a = offsets[v], end = offsets[v + 1]; a < end; a++) {
+                    int w = targets[a];
+                    double x = d + weights[a];
+                    if (x < dist[w]) {
+                        dist[w] = x;
+                        edgeTo[w] = a;
+                        if (++relaxations >= check) {
+                            check += n;
+                            if (findNegativeCycle()) return;
+                        }
+                        if (!onQueue[w]) {
+                            onQueue[w] = true;
+                            if (slf && size > 0 && x < dist[queue[head]]) queue[head = head == 0 ? n - 1 : head - 1] = w;
+                            else queue[(head + size) % n] = w;
+                            size++;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * The JACOBI mode.
+         * In round r, a vertex considers only the arcs from vertices which changed in round r-1;
+         * changed[u] is the last round in which u changed (or 0 for the source(s), which are "changed" before round 1).
+         */
+        private void solveJacobi(int s) {
+            double[] next = new double[n];
+            int[] changed = new int[n];
+            Arrays.fill(changed, -1);
+            if (s == NONE) Arrays.fill(changed, 0);
+            else changed[s] = 0;
+            for (int round = 1; ; round++) {
+                AtomicInteger count = new AtomicInteger();
+                pool.invoke(new Round(next, changed, round, count, 0, n));
+                double[] t = dist;
+                dist = next;
+                next = t;
+                if (count.get() == 0) return;
+                relaxations += count.get();
+                if (findNegativeCycle()) return;
+            }
+        }
+
+        /**
+         * One JACOBI round for the vertices [lo..hi): each takes the best of its (relevant) incoming arcs,
+         * reading only dist (the previous round) and writing only its own elements of next, edgeTo and changed.
+         */
+        private class Round extends RecursiveAction {
+            Round(double[] next, int[] changed, int round, AtomicInteger count, int lo, int hi) {
+                this.next = next;
+                this.changed = changed;
+                this.round = round;
+                this.count = count;
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo > GRAIN) {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new Round(next, changed, round, count, lo, mid), new Round(next, changed, round, count, mid, hi));
+                    return;
+                }
+                int k = 0;
+                for (int v = lo; v < hi; v++) {
+                    double best = dist[v];
+                    int arc = NONE;
+                    for (int i = inOffsets[v], end = inOffsets[v + 1]; i < end; i++) {
+                        int a = inArcs[i];
+                        int u = edges[a].from();
+                        // changed[u] may be set to this round concurrently, which is harmless.
+                        if (changed[u] >= round - 1) {
+                            double x = dist[u] + weights[a];
+                            if (x < best) {
+                                best = x;
+                                arc = a;
+                            }
+                        }
+                    }
+                    next[v] = best;
+                    if (arc != NONE) {
+                        edgeTo[v] = arc;
+                        changed[v] = round;
+                        k++;
+                    }
+                }
+                if (k > 0) count.addAndGet(k);
+            }
+
+            private final double[] next;
+            private final int[] changed;
+            private final int round;
+            private final AtomicInteger count;
+            private final int lo;
+            private final int hi;
+        }
+
+        /**
+         * Search the graph of edgeTo for a cycle of negative weight, in O(V) time:
+         * from each vertex not yet seen, follow edgeTo until reaching either a vertex seen from an earlier start,
+         * or the source, or a vertex seen from this start (which closes a cycle).
+         *
+         * @return true if a negative cycle was found (in which case it is in cycle).
+         */
+        private boolean findNegativeCycle() {
+            int[] seen = new int[n];
+            for (int v = 0; v < n; v++) {
+                if (seen[v] != 0) continue;
+                int x = v;
+                while (x != NONE && seen[x] == 0) {
+                    seen[x] = v + 1;
+                    x = edgeTo[x] == NONE ? NONE : edges[edgeTo[x]].from();
+                }
+                if (x != NONE && seen[x] == v + 1) {
+                    Deque<DirectedEdge> edgesOfCycle = new ArrayDeque<>();
+                    double weight = 0;
+                    int y = x;
+                    do {
+                        DirectedEdge e = edges[edgeTo[y]];
+                        edgesOfCycle.addFirst(e);
+                        weight += e.weight();
+                        y = e.from();
+                    } while (y != x);
+                    if (weight < 0) {
+                        cycle = edgesOfCycle;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void checkNoNegativeCycle() {
+            if (hasNegativeCycle()) throw new UnsupportedOperationException("BellmanFordSP: negative cycle exists");
+        }
+
+        /**
+         * The distance of each vertex (in the JACOBI mode, this is swapped with the next distances after each round).
+         */
+        private double[] dist;
+        /**
+         * The arc number of the last edge on the current path to each vertex (NONE for the source and unreachable vertices).
+         */
+        private final int[] edgeTo;
+        private Deque<DirectedEdge> cycle = null;
+        private long relaxations = 0;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= n)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (n - 1));
+    }
+
+    private static final int NONE = -1;
+    /**
+     * The number of vertices below which a task is not split.
+     */
+    private static final int GRAIN = 1 << 10;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final DirectedEdge[] edges;
+    /**
+     * The incoming arcs of vertex v are inArcs[inOffsets[v]..inOffsets[v+1]) (as arc numbers).
+     */
+    private final int[] inOffsets;
+    private final int[] inArcs;
+}
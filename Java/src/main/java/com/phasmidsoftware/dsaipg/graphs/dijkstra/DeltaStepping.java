@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import java.util.Arrays;
+import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code DeltaStepping} class solves the single-source shortest paths problem in edge-weighted digraphs
+ * with non-negative weights, using the <em>delta-stepping</em> algorithm of U. Meyer and P. Sanders (2003),
+ * with the vertices of each bucket processed in parallel by fork-join.
+ * <p>
+ * The tentative distances are kept in buckets of width Δ (bucket i holds the vertices whose distance is in [iΔ, (i+1)Δ)).
+ * The edges of weight at most Δ are <em>light</em>; the others are <em>heavy</em>.
+ * The smallest non-empty bucket is processed in phases: all of its vertices relax their light edges in parallel,
+ * which may put vertices back into the same bucket, until the bucket stays empty;
+ * then all the vertices which were removed from it relax their heavy edges (which can only reach later buckets).
+ * <p>
+ * With Δ less than the smallest weight, this is Dijkstra's algorithm (with buckets as the priority queue);
+ * with Δ = ∞ it is the (parallel) Bellman-Ford algorithm.
+ * A Δ of about the maximum weight divided by the mean out-degree (the default) is usually a good compromise
+ * between the number of phases and the amount of wasted re-relaxation.
+ * <p>
+ * A ShortestPaths object has the same API as Dijkstra.ShortestPaths.
+ * The graph is copied into flat arrays (with the light edges of each vertex first), so a DeltaStepping
+ * should be constructed once and then used for many sources.
+ */
+public class DeltaStepping {
+
+    /**
+     * Constructor with the default Δ (see defaultDelta).
+     *
+     * @param G the graph.
+     * @throws IllegalArgumentException if any edge has a negative weight.
+     */
+    public DeltaStepping(EdgeWeightedDigraph G) {
+        this(G, defaultDelta(G));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param G     the graph.
+     * @param delta the width of each bucket (Δ).
+     * @throws IllegalArgumentException if delta is not positive or any edge has a negative weight.
+     */
+    public DeltaStepping(EdgeWeightedDigraph G, double delta) {
+        if (!(delta > 0)) throw new IllegalArgumentException("DeltaStepping: delta must be positive: " + delta);
+        this.delta = delta;
+        n = G.V();
+        int m = G.E();
+        offsets = new int[n + 1];
+        lightEnd = new int[n];
+        targets = new int[m];
+        weights = new double[m];
+        edges = new DirectedEdge[m];
+        double max = 0;
+        int a = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = a;
+            int heavy = a + G.outdegree(v);
+            for (DirectedEdge e : G.adj(v)) {
+                if (e.weight() < 0) throw new IllegalArgumentException("edge " + e + " has negative weight");
+                max = Math.max(max, e.weight());
+                int x = e.weight() <= delta ? a++ : --heavy;
+                targets[x] = e.to();
+                weights[x] = e.weight();
+                edges[x] = e;
+            }
+            lightEnd[v] = a;
+            a = offsets[v] + G.outdegree(v);
+        }
+        offsets[n] = a;
+        // Every tentative distance is less than max beyond the current bucket, so the buckets can be cyclic.
+        double span = Math.ceil(max / delta) + 2;
+        nBuckets = span < MAX_BUCKETS ? (int) span : MAX_BUCKETS;
+    }
+
+    /**
+     * Method to solve the shortest paths problem for the starting point s.
+     *
+     * @param s the starting point.
+     * @return a ShortestPaths object.
+     * @throws IllegalArgumentException if s is not a vertex.
+     */
+    public ShortestPaths shortestPaths(int s) {
+        ShortestPaths result = new ShortestPaths();
+        result.solve(s);
+        return result;
+    }
+
+    /**
+     * @return the width of each bucket (Δ).
+     */
+    public double delta() {
+        return delta;
+    }
+
+    /**
+     * The default Δ: the maximum edge weight divided by the mean out-degree (or 1 if all weights are zero).
+     *
+     * @param G the graph.
+     * @return the default value of Δ for G.
+     */
+    public static double defaultDelta(EdgeWeightedDigraph G) {
+        double max = 0;
+        for (int v = 0; v < G.V(); v++)
+            for (DirectedEdge e : G.adj(v)) max = Math.max(max, e.weight());
+        double degree = Math.max(1.0, (double) G.E() / Math.max(1, G.V()));
+        return max > 0 ? max / degree : 1.0;
+    }
+
+    public class ShortestPaths {
+
+        public double distTo(int v) {
+            validateVertex(v);
+            return distance(v);
+        }
+
+        public boolean hasPathTo(int v) {
+            validateVertex(v);
+            return distance(v) < Double.POSITIVE_INFINITY;
+        }
+
+        public Iterable<DirectedEdge> pathTo(int v) {
+            validateVertex(v);
+            if (!hasPathTo(v)) return null;
+            Stack<DirectedEdge> path = new Stack<>();
+            for (int a = edgeTo[v]; a != NONE; a = edgeTo[edges[a].from()]) path.push(edges[a]);
+            return path;
+        }
+
+        void solve(int s) {
+            validateVertex(s);
+            for (int v = 0; v < n; v++) dist.set(v, INFINITY);
+            Arrays.fill(edgeTo, NONE);
+            dist.set(s, Double.doubleToRawLongBits(0.0));
+            push(s, 0L);
+            int round = 0;
+            for (long current = nextBucket(0L); current >= 0; current = nextBucket(current + 1)) {
+                int slot = (int) (current % nBuckets);
+                int r = 0;
+                while (sizes[slot] > 0) {
+                    // Take the bucket, skipping stale and duplicate entries.
+                    int[] bucket = buckets[slot];
+                    int size = sizes[slot];
+                    buckets[slot] = spare;
+                    sizes[slot] = 0;
+                    spare = bucket;
+                    round++;
+                    int k = 0;
+                    for (int i = 0; i < size; i++) {
+                        int v = bucket[i];
+                        long b = bucketOf(distance(v));
+                        if (b > current) defer(v);
+                        else if (stamp[v] != round && b == current) {
+                            stamp[v] = round;
+                            bucket[k++] = v;
+                        }
+                    }
+                    pool.invoke(new Relax(bucket, true, 0, k));
+                    for (int i = 0; i < k; i++) {
+                        int v = bucket[i];
+                        if (removed[v] != current + 1) {
+                            removed[v] = current + 1;
+                            if (r == settled.length) settled = Arrays.copyOf(settled, 2 * r);
+                            settled[r++] = v;
+                        }
+                    }
+                }
+                pool.invoke(new Relax(settled, false, 0, r));
+                for (int i = 0; i < nDeferred; i++) push(deferred[i], bucketOf(distance(deferred[i])));
+                nDeferred = 0;
+            }
+        }
+
+        private ShortestPaths() {
+            dist = new AtomicLongArray(n);
+            edgeTo = new int[n];
+            stamp = new int[n];
+            removed = new long[n];
+            buckets = new int[nBuckets][];
+            sizes = new int[nBuckets];
+            for (int i = 0; i < nBuckets; i++) buckets[i] = new int[4];
+        }
+
+        /**
+         * Relax the light (or heavy) edges of the vertices vs[lo..hi), in parallel.
+         */
+        private class Relax extends RecursiveAction {
+            Relax(int[] vs, boolean light, int lo, int hi) {
+                this.vs = vs;
+                this.light = light;
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo > GRAIN) {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new Relax(vs, light, lo, mid), new Relax(vs, light, mid, hi));
+                    return;
+                }
+                int[] improved = new int[16];
+                long[] improvedBuckets = new long[16];
+                int k = 0;
+                for (int i = lo; i < hi; i++) {
+                    int v = vs[i];
+                    double d = distance(v);
+                    int from = light ? offsets[v] : lightEnd[v], to = light ? lightEnd[v] : offsets[v + 1];
+                    for (int a = from; a < to; a++) {
+                        int w = targets[a];
+                        double x = d + weights[a];
+                        if (relax(w, x, a)) {
+                            if (k == improved.length) {
+                                improved = Arrays.copyOf(improved, 2 * k);
+                                improvedBuckets = Arrays.copyOf(improvedBuckets, 2 * k);
+                            }
+                            improved[k] = w;
+                            improvedBuckets[k++] = bucketOf(x);
+                        }
+                    }
+                }
+                if (k > 0) synchronized (ShortestPaths.this) {
+                    for (int i = 0; i < k; i++) push(improved[i], improvedBuckets[i]);
+                }
+            }
+
+            private final int[] vs;
+            private final boolean light;
+            private final int lo;
+            private final int hi;
+        }
+
+        /**
+         * Lower the distance of w to x (via arc a) if x is less than its current distance.
+         * The distance is locked while edgeTo is updated, so that the two are always consistent.
+         *
+         * @return true if the distance of w was lowered.
+         */
+        private boolean relax(int w, double x, int a) {
+            long bits = Double.doubleToRawLongBits(x);
+            while (true) {
+                long current = dist.get(w);
+                if (current == LOCKED) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // non-negative doubles are ordered in the same way as their bits.
+                if (bits >= current) return false;
+                if (dist.compareAndSet(w, current, LOCKED)) {
+                    edgeTo[w] = a;
+                    dist.set(w, bits);
+                    return true;
+                }
+            }
+        }
+
+        private double distance(int v) {
+            long bits;
+            while ((bits = dist.get(v)) == LOCKED) Thread.onSpinWait();
+            return Double.longBitsToDouble(bits);
+        }
+
+        private long bucketOf(double d) {
+            return (long) (d / delta);
+        }
+
+        private void push(int v, long bucket) {
+            int slot = (int) (bucket % nBuckets);
+            if (sizes[slot] == buckets[slot].length) buckets[slot] = Arrays.copyOf(buckets[slot], 2 * sizes[slot]);
+            buckets[slot][sizes[slot]++] = v;
+        }
+
+        /**
+         * Defer vertex v, which belongs to a later bucket which shares its slot with the current bucket.
+         * This can only happen if the number of buckets was limited (because Δ is very small compared with the weights).
+         */
+        private void defer(int v) {
+            if (nDeferred == deferred.length) deferred = Arrays.copyOf(deferred, 2 * nDeferred);
+            deferred[nDeferred++] = v;
+        }
+
+        /**
+         * @return the number of the first non-empty bucket at or after bucket b (or -1 if all the buckets are empty).
+         */
+        private long nextBucket(long b) {
+            for (long i = b; i < b + nBuckets; i++)
+                if (sizes[(int) (i % nBuckets)] > 0) return i;
+            return -1;
+        }
+
+        private void validateVertex(int v) {
+            if (v < 0 || v >= n)
+                throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (n - 1));
+        }
+
+        /**
+         * The distance of each vertex (as the bits of a double), or LOCKED while its edgeTo is being updated.
+         */
+        private final AtomicLongArray dist;
+        /**
+         * The arc number of the last edge on the shortest path to each vertex (NONE for the source and unreachable vertices).
+         */
+        private final int[] edgeTo;
+        /**
+         * The last round in which each vertex was taken from a bucket (to skip duplicates).
+         */
+        private final int[] stamp;
+        /**
+         * One more than the last bucket from which each vertex was removed (to avoid relaxing its heavy edges twice).
+         */
+        private final long[] removed;
+        private final int[][] buckets;
+        private final int[] sizes;
+        private int[] spare = new int[16];
+        private int[] settled = new int[16];
+        private int[] deferred = new int[16];
+        private int nDeferred = 0;
+    }
+
+    private static final int NONE = -1;
+    private static final long INFINITY = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+    /**
+     * The bits of a negative NaN, which can never be the bits of a distance.
+     */
+    private static final long LOCKED = -1L;
+    /**
+     * The maximum number of (cyclic) buckets.
+     */
+    private static final int MAX_BUCKETS = 1 << 16;
+    /**
+     * The number of vertices below which a task is not split.
+     */
+    private static final int GRAIN = 1 << 10;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final double delta;
+    private final int n;
+    private final int nBuckets;
+    private final int[] offsets;
+    private final int[] lightEnd;
+    private final int[] targets;
+    private final double[] weights;
+    private final DirectedEdge[] edges;
+}
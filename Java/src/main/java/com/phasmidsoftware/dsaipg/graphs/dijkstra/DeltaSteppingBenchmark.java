@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Class to compare DeltaStepping (with several values of Δ) with sequential Dijkstra,
+ * on a large random graph (see DijkstraBenchmark.randomGraph) and a large square grid graph.
+ */
+public class DeltaSteppingBenchmark {
+
+    /**
+     * The main method is the entry point for the DeltaSteppingBenchmark application.
+     *
+     * @param args the number of vertices (default one million) and the mean out-degree of the random graph (default 4).
+     */
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Random random = new Random();
+        new DeltaSteppingBenchmark("random", DijkstraBenchmark.randomGraph(vertices, degree, 1000, random)).run(5);
+        int side = (int) Math.sqrt(vertices);
+        new DeltaSteppingBenchmark("grid", gridGraph(side, side, random)).run(5);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param description a description of the graph.
+     * @param graph       the graph on which to find shortest paths.
+     */
+    public DeltaSteppingBenchmark(String description, EdgeWeightedDigraph graph) {
+        this.description = description;
+        this.graph = graph;
+    }
+
+    /**
+     * Time Dijkstra and DeltaStepping (with the default Δ and with a quarter and four times the default),
+     * solving from the same nRuns random source vertices for each,
+     * and then check that DeltaStepping yields the same distances as Dijkstra from those sources.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each solver.
+     * @return the greatest difference between a distance found by DeltaStepping (with any Δ) and that found by Dijkstra.
+     */
+    double run(int nRuns) {
+        logger.info("DeltaSteppingBenchmark: " + description + " graph with " + graph.V() + " vertices and " + graph.E() + " edges");
+        int[] sources = DijkstraBenchmark.sources(graph.V(), nRuns, new Random(0L));
+        Dijkstra dijkstra = new Dijkstra(graph);
+        doBenchmark("Dijkstra", dijkstra::shortestPaths, sources, nRuns);
+        Dijkstra.ShortestPaths[] expected = new Dijkstra.ShortestPaths[sources.length];
+        for (int i = 0; i < sources.length; i++) expected[i] = dijkstra.shortestPaths(sources[i]);
+        double result = 0;
+        double delta = DeltaStepping.defaultDelta(graph);
+        for (double d : new double[]{delta / 4, delta, delta * 4}) {
+            DeltaStepping deltaStepping = new DeltaStepping(graph, d);
+            doBenchmark("DeltaStepping with delta=" + d, deltaStepping::shortestPaths, sources, nRuns);
+            for (int i = 0; i < sources.length; i++)
+                result = Math.max(result, DijkstraBenchmark.maxDifference(graph.V(), expected[i]::distTo, deltaStepping.shortestPaths(sources[i])::distTo));
+        }
+        return result;
+    }
+
+    private void doBenchmark(String description, IntConsumer solver, int[] sources, int nRuns) {
+        Benchmark<Integer> benchmark = new Benchmark_Timer<>(description, solver::accept);
+        double time = benchmark.runFromSupplier(DijkstraBenchmark.supplier(sources), nRuns);
+        logger.info(description + ": " + time + " mSec");
+    }
+
+    /**
+     * Build a grid digraph (each vertex has an edge to each of its four neighbors) with random integer weights from 1 to 100.
+     *
+     * @param rows    the number of rows.
+     * @param columns the number of columns.
+     * @param random  the source of randomness.
+     * @return a new EdgeWeightedDigraph whose vertex r * columns + c is at row r and column c.
+     */
+    static EdgeWeightedDigraph gridGraph(int rows, int columns, Random random) {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(rows * columns);
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < columns; c++) {
+                int v = r * columns + c;
+                if (c + 1 < columns) {
+                    graph.addEdge(new DirectedEdge(v, v + 1, 1 + random.nextInt(100)));
+                    graph.addEdge(new DirectedEdge(v + 1, v, 1 + random.nextInt(100)));
+                }
+                if (r + 1 < rows) {
+                    graph.addEdge(new DirectedEdge(v, v + columns, 1 + random.nextInt(100)));
+                    graph.addEdge(new DirectedEdge(v + columns, v, 1 + random.nextInt(100)));
+                }
+            }
+        return graph;
+    }
+
+    final static LazyLogger logger = new LazyLogger(DeltaSteppingBenchmark.class);
+
+    private final String description;
+    private final EdgeWeightedDigraph graph;
+}
@@ -33,8 +33,15 @@
 
 package com.phasmidsoftware.dsaipg.graphs.dijkstra;
 
+import com.phasmidsoftware.dsaipg.adt.pq.AddressablePQ;
+import com.phasmidsoftware.dsaipg.adt.pq.IndexMinPQDouble;
+import com.phasmidsoftware.dsaipg.adt.pq.PQException;
+import com.phasmidsoftware.dsaipg.adt.pq.PairingHeap;
+import com.phasmidsoftware.dsaipg.adt.pq.PooledFibonacciHeap;
+import com.phasmidsoftware.dsaipg.adt.pq.RadixHeap;
+
+import java.util.Arrays;
 import java.util.Stack;
-import java.util.function.BiConsumer;
 
 public class Dijkstra {
 
@@ -49,6 +56,45 @@ public class Dijkstra {
         return result;
     }
 
+    /**
+     * Method to solve Dijkstra's Shortest Paths algorithm for the starting point s, using the given kind of priority queue.
+     *
+     * @param s     the starting point.
+     * @param queue the kind of priority queue.
+     * @throws IllegalArgumentException if queue is RADIX_HEAP and some edge weight is not an integer.
+     */
+    public ShortestPaths shortestPaths(int s, Queue queue) {
+        ShortestPaths result = new ShortestPaths(queue);
+        result.solve(s, queue);
+        return result;
+    }
+
+    /**
+     * The kinds of priority queue which may be used by shortestPaths.
+     */
+    public enum Queue {
+        /**
+         * IndexMinPQDouble: a 4-ary heap indexed by vertex, with primitive double keys.
+         */
+        INDEX_MIN_PQ,
+        /**
+         * IndexMinPQ&lt;Double&gt;: a binary heap indexed by vertex, with boxed keys (for comparison only).
+         */
+        BOXED_INDEX_MIN_PQ,
+        /**
+         * PairingHeap: an addressable pairing heap.
+         */
+        PAIRING_HEAP,
+        /**
+         * PooledFibonacciHeap: an addressable Fibonacci heap.
+         */
+        FIBONACCI_HEAP,
+        /**
+         * RadixHeap: a monotone radix heap, which requires integer edge weights.
+         */
+        RADIX_HEAP
+    }
+
     public Dijkstra(EdgeWeightedDigraph G) {
         this.G = G;
         n = G.V();
@@ -80,8 +126,8 @@ public class Dijkstra {
         void solve(int s) {
             for (int v = 0; v < n; v++)
                 distTo[v] = Double.POSITIVE_INFINITY;
-            distTo[s] = 0.0;
             validateVertex(s);
+            distTo[s] = 0.0;
             pq.insert(s, distTo[s]);
             while (!pq.isEmpty()) {
                 int v = pq.delMin();
@@ -91,12 +137,117 @@ public class Dijkstra {
             assert check(G, s);
         }
 
-        ShortestPaths() {
-            pq = new IndexMinPQ<>(n);
+        /**
+         * Solve using the given kind of priority queue.
+         * For the addressable priority queues, each vertex w which has been reached (but not yet settled)
+         * has a handle (handle[w]) and the vertex of each handle h is vertex[h].
+         */
+        void solve(int s, Queue queue) {
+            validateVertex(s);
+            try {
+                switch (queue) {
+                    case PAIRING_HEAP -> solveAddressable(s, new PairingHeap<>(n, Double::compare));
+                    case FIBONACCI_HEAP -> solveAddressable(s, new PooledFibonacciHeap<>(n, Double::compare));
+                    case RADIX_HEAP -> solveRadix(s);
+                    case BOXED_INDEX_MIN_PQ -> solveBoxed(s);
+                    default -> solve(s);
+                }
+            } catch (PQException e) {
+                throw new IllegalStateException("Dijkstra: priority queue is unexpectedly empty", e);
+            }
+            assert check(G, s);
+        }
+
+        ShortestPaths(Queue queue) {
             distTo = new double[n];
             edgeTo = new DirectedEdge[n];
-            keyDecreaser = pq::decreaseKey;
-            keyInserter = pq::insert;
+            pq = queue == Queue.INDEX_MIN_PQ ? new IndexMinPQDouble(n) : null;
+        }
+
+        ShortestPaths() {
+            this(Queue.INDEX_MIN_PQ);
+        }
+
+        private void solveBoxed(int s) {
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            distTo[s] = 0.0;
+            IndexMinPQ<Double> boxed = new IndexMinPQ<>(n);
+            boxed.insert(s, distTo[s]);
+            while (!boxed.isEmpty()) {
+                int v = boxed.delMin();
+                for (DirectedEdge e : G.adj(v)) {
+                    int w = e.to();
+                    double d = distTo[v] + e.weight();
+                    if (distTo[w] > d) {
+                        distTo[w] = d;
+                        edgeTo[w] = e;
+                        if (boxed.contains(w)) boxed.decreaseKey(w, d);
+                        else boxed.insert(w, d);
+                    }
+                }
+            }
+        }
+
+        private void solveAddressable(int s, AddressablePQ<Double> heap) throws PQException {
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            distTo[s] = 0.0;
+            int[] handle = new int[n];
+            Arrays.fill(handle, NONE);
+            int[] vertex = new int[n]; // there are never more than n elements, so every handle is less than n.
+            handle[s] = heap.give(0.0);
+            vertex[handle[s]] = s;
+            while (!heap.isEmpty()) {
+                int v = vertex[heap.peekHandle()];
+                heap.take();
+                handle[v] = NONE;
+                for (DirectedEdge e : G.adj(v)) {
+                    int w = e.to();
+                    double d = distTo[v] + e.weight();
+                    if (distTo[w] > d) {
+                        distTo[w] = d;
+                        edgeTo[w] = e;
+                        if (handle[w] != NONE) heap.decreaseKey(handle[w], d);
+                        else {
+                            handle[w] = heap.give(d);
+                            vertex[handle[w]] = w;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void solveRadix(int s) throws PQException {
+            for (DirectedEdge e : G.edges())
+                if (e.weight() != Math.rint(e.weight()))
+                    throw new IllegalArgumentException("edge " + e + " does not have an integer weight (required by RadixHeap)");
+            RadixHeap heap = new RadixHeap(n);
+            long[] dist = new long[n];
+            Arrays.fill(dist, Long.MAX_VALUE);
+            dist[s] = 0;
+            int[] handle = new int[n];
+            Arrays.fill(handle, NONE);
+            int[] vertex = new int[n];
+            handle[s] = heap.giveLong(0);
+            vertex[handle[s]] = s;
+            while (!heap.isEmpty()) {
+                int v = vertex[heap.peekHandle()];
+                heap.takeLong();
+                handle[v] = NONE;
+                for (DirectedEdge e : G.adj(v)) {
+                    int w = e.to();
+                    long d = dist[v] + (long) e.weight();
+                    if (dist[w] > d) {
+                        dist[w] = d;
+                        edgeTo[w] = e;
+                        if (handle[w] != NONE) heap.decreaseKey(handle[w], d);
+                        else {
+                            handle[w] = heap.giveLong(d);
+                            vertex[handle[w]] = w;
+                        }
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) distTo[v] = dist[v] == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : dist[v];
         }
 
         private void relax(DirectedEdge e) {
@@ -106,7 +257,8 @@ public class Dijkstra {
             if (distTo[w] > eDistance) {
                 distTo[w] = eDistance;
                 edgeTo[w] = e;
-                (pq.contains(w) ? keyDecreaser : keyInserter).accept(w, distTo[w]);
+                if (pq.contains(w)) pq.decreaseKey(w, eDistance);
+                else pq.insert(w, eDistance);
             }
         }
 
@@ -158,13 +310,13 @@ public class Dijkstra {
                 throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
         }
 
-        private final BiConsumer<Integer, Double> keyDecreaser;
-        private final BiConsumer<Integer, Double> keyInserter;
         private final double[] distTo;          // distTo[v] = distance  of shortest s->v path
         private final DirectedEdge[] edgeTo;    // edgeTo[v] = last edge on shortest s->v path
-        private final IndexMinPQ<Double> pq;    // priority queue of vertices
+        private final IndexMinPQDouble pq;      // priority queue of vertices (null unless the queue is INDEX_MIN_PQ)
     }
 
+    private static final int NONE = -1;
+
     private final EdgeWeightedDigraph G;    // G is the original graph passed in to the constructor.
 
     private final int n;
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * Class to compare the priority queues available to Dijkstra (see Dijkstra.Queue) on large random graphs.
+ * Each graph has a Hamiltonian cycle (so that every vertex is reachable) plus random edges,
+ * and all weights are integers (so that the radix heap can be used).
+ */
+public class DijkstraBenchmark {
+
+    /**
+     * The main method is the entry point for the DijkstraBenchmark application.
+     *
+     * @param args the number of vertices (default one million) and the mean out-degree (default 4).
+     */
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        new DijkstraBenchmark(randomGraph(vertices, degree, 1000, new Random())).run(5);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param graph the graph on which to find shortest paths.
+     */
+    public DijkstraBenchmark(EdgeWeightedDigraph graph) {
+        this.dijkstra = new Dijkstra(graph);
+        this.vertices = graph.V();
+    }
+
+    /**
+     * Time each kind of priority queue, solving from the same nRuns random source vertices for each,
+     * and then check that every kind of queue yields the same distances as the default (INDEX_MIN_PQ) from those sources.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each kind of priority queue.
+     * @return the greatest difference between a distance found with any kind of queue and that found with INDEX_MIN_PQ.
+     */
+    double run(int nRuns) {
+        logger.info("DijkstraBenchmark: " + vertices + " vertices with " + nRuns + " runs");
+        int[] sources = sources(vertices, nRuns, new Random(0L));
+        for (Dijkstra.Queue queue : Dijkstra.Queue.values()) {
+            Benchmark<Integer> benchmark = new Benchmark_Timer<>("Dijkstra with " + queue, s -> dijkstra.shortestPaths(s, queue));
+            double time = benchmark.runFromSupplier(supplier(sources), nRuns);
+            logger.info("Dijkstra with " + queue + ": " + time + " mSec");
+        }
+        double result = 0;
+        for (int s : sources) {
+            Dijkstra.ShortestPaths expected = dijkstra.shortestPaths(s, Dijkstra.Queue.INDEX_MIN_PQ);
+            for (Dijkstra.Queue queue : Dijkstra.Queue.values())
+                result = Math.max(result, maxDifference(vertices, expected::distTo, dijkstra.shortestPaths(s, queue)::distTo));
+        }
+        return result;
+    }
+
+    /**
+     * Choose the source vertices for a benchmark.
+     *
+     * @param vertices the number of vertices.
+     * @param n        the number of sources.
+     * @param random   the source of randomness.
+     * @return an array of n random vertices.
+     */
+    static int[] sources(int vertices, int n, Random random) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) result[i] = random.nextInt(vertices);
+        return result;
+    }
+
+    /**
+     * @return a Supplier which cycles through the given sources (so that every solver is timed from the same sources).
+     */
+    static Supplier<Integer> supplier(int[] sources) {
+        int[] next = new int[1];
+        return () -> sources[next[0]++ % sources.length];
+    }
+
+    /**
+     * Compare two solutions of the shortest paths problem from the same source.
+     *
+     * @param vertices the number of vertices.
+     * @param expected the distance to each vertex in one solution.
+     * @param actual   the distance to each vertex in the other solution.
+     * @return the greatest difference between the distances to any vertex (vertices which neither solution reaches do not differ).
+     */
+    static double maxDifference(int vertices, IntToDoubleFunction expected, IntToDoubleFunction actual) {
+        double result = 0;
+        for (int v = 0; v < vertices; v++) {
+            double x = expected.applyAsDouble(v), y = actual.applyAsDouble(v);
+            if (x != y) result = Math.max(result, Math.abs(x - y));
+        }
+        return result;
+    }
+
+    /**
+     * Build a random digraph with integer weights.
+     *
+     * @param vertices  the number of vertices.
+     * @param degree    the mean out-degree (at least 1).
+     * @param maxWeight the maximum weight of an edge.
+     * @param random    the source of randomness.
+     * @return a new EdgeWeightedDigraph.
+     */
+    static EdgeWeightedDigraph randomGraph(int vertices, int degree, int maxWeight, Random random) {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(vertices);
+        for (int v = 0; v < vertices; v++) {
+            graph.addEdge(new DirectedEdge(v, (v + 1) % vertices, 1 + random.nextInt(maxWeight)));
+            for (int i = 1; i < degree; i++)
+                graph.addEdge(new DirectedEdge(v, random.nextInt(vertices), 1 + random.nextInt(maxWeight)));
+        }
+        return graph;
+    }
+
+    final static LazyLogger logger = new LazyLogger(DijkstraBenchmark.class);
+
+    private final Dijkstra dijkstra;
+    private final int vertices;
+}
@@ -4,54 +4,49 @@
 
 package com.phasmidsoftware.dsaipg.graphs.dynamicProgramming.knapsack;
 
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.BellmanFordSP;
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.DirectedEdge;
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.EdgeWeightedDigraph;
+
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
+import java.util.Map;
 
 public class BellmanFord {
     /**
      * Method to return the Maximum profit after selecting particular items using Bellman Ford Algorithm.
+     * <p>
+     * The vertices are numbered (in order of first appearance) so that the graph can be solved by BellmanFordSP.
      *
      * @param graph  the weights for each item.
      * @param source source Vertex.
      * @param target target Vertex.
-     * @return Maximum profit after selecting items from the list of items available.
+     * @return Maximum profit after selecting items from the list of items available
+     * (+∞ if the target cannot be reached from the source).
+     * @throws IllegalArgumentException      if the source or the target is not in the graph.
+     * @throws UnsupportedOperationException if there is a negative cycle reachable from the source.
      */
     public static double bellmanFordAlgorithm(Graph graph, Vertex source, Vertex target) {
-
-        int V = graph.V(), E = graph.E();
-
-        HashMap<Vertex, Double> shortestDistance = new HashMap<>();
-
-        shortestDistance.put(source, 0.0);
-
         HashMap<Vertex, LinkedList<Edge>> hm = graph.getAdjacent();
-        List<Edge> allEdges = new LinkedList<>();
+        Map<Vertex, Integer> ids = new HashMap<>();
+        for (Vertex vertex : hm.keySet()) {
+            ids.putIfAbsent(vertex, ids.size());
+            for (Edge edge : hm.get(vertex)) ids.putIfAbsent(edge.destination(), ids.size());
+        }
+        Integer s = ids.get(source), t = ids.get(target);
+        if (s == null) throw new IllegalArgumentException("BellmanFord: source " + source + " is not in the graph");
+        if (t == null) throw new IllegalArgumentException("BellmanFord: target " + target + " is not in the graph");
 
+        EdgeWeightedDigraph digraph = new EdgeWeightedDigraph(ids.size());
         for (Vertex vertex : hm.keySet()) {
             Iterator<Edge> it = graph.edges(vertex);
             while (it.hasNext()) {
                 Edge edge = it.next();
-                if (!allEdges.contains(edge))
-                    allEdges.add(edge);
-            }
-        }
-
-        for (int i = 1; i < V; ++i) {
-            for (int j = 0; j < E; ++j) {
-                Vertex v1 = allEdges.get(j).source();//u
-                Vertex v2 = allEdges.get(j).destination();//v
-                double weight = allEdges.get(j).getEdgeWeight();
-
-                if (shortestDistance.getOrDefault(v1, Double.MAX_VALUE) != Double.MAX_VALUE && (shortestDistance.get(v1) + weight) < shortestDistance.getOrDefault(v2, Double.MAX_VALUE)) {
-                    shortestDistance.put(v2, shortestDistance.get(v1) + weight);
-                }
+                digraph.addEdge(new DirectedEdge(ids.get(edge.source()), ids.get(edge.destination()), edge.getEdgeWeight()));
             }
         }
 
-        // Negating the shortest Distance
-        return (shortestDistance.get(target));
-
+        return new BellmanFordSP(digraph).shortestPaths(s).distTo(t);
     }
-}
\ No newline at end of file
+}
@@ -6,7 +6,6 @@ package com.phasmidsoftware.dsaipg.graphs.dynamicProgramming.knapsack;
 
 import com.google.common.collect.ImmutableList;
 import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary;
-import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary_Hash;
 
 import java.util.Arrays;
 import java.util.List;
@@ -121,8 +120,19 @@ public class Coins {
         return result;
     }
 
-    public Coins(List<Integer> coins) {
+    /**
+     * Constructor for Coins whose sub-solutions are memoized in the given kind of Dictionary.
+     *
+     * @param coins   the denominations.
+     * @param backend the implementation of the memo table.
+     */
+    public Coins(List<Integer> coins, Dictionary.Backend backend) {
         this.coins = coins;
+        this.memo = backend.create();
+    }
+
+    public Coins(List<Integer> coins) {
+        this(coins, Dictionary.Backend.HASH);
     }
 
     public Coins() {
@@ -146,6 +156,6 @@ public class Coins {
     private final List<Integer> coins;
 
     // The following is to memoize the sub-solutions: key is of type Key, and value is value (an Integer).
-    private final Dictionary<Integer, Solution> memo = new Dictionary_Hash<>();
+    private final Dictionary<Integer, Solution> memo;
 
 }
\ No newline at end of file
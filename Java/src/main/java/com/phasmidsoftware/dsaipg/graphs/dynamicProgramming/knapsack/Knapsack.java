@@ -6,7 +6,6 @@ package com.phasmidsoftware.dsaipg.graphs.dynamicProgramming.knapsack;
 
 import com.google.common.collect.ImmutableList;
 import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary;
-import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary_Hash;
 
 import java.util.List;
 import java.util.Objects;
@@ -55,13 +54,24 @@ public class Knapsack {
         return value;
     }
 
-    public Knapsack(List<Item> items) {
+    /**
+     * Constructor for a Knapsack whose sub-solutions are memoized in the given kind of Dictionary.
+     *
+     * @param items   the items which may be packed.
+     * @param backend the implementation of the memo table.
+     */
+    public Knapsack(List<Item> items, Dictionary.Backend backend) {
         this.items = items;
+        this.memo = backend.create();
+    }
+
+    public Knapsack(List<Item> items) {
+        this(items, Dictionary.Backend.HASH);
     }
 
     private final List<Item> items;
     // The following is to memoize the sub-solutions: key is of type Key, and value is value (an Integer).
-    private final Dictionary<Key, Solution> memo = new Dictionary_Hash<>();
+    private final Dictionary<Key, Solution> memo;
     final static Solution empty = new Solution(0, ImmutableList.of());
 
     /**
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * The Delaunay triangulation of a collection of GeoPoints, whose edges are the candidate edges of a minimum spanning tree:
+ * the MST by distance of any set of points is a subgraph of its Delaunay triangulation, which has only O(n) edges
+ * (at most 3n - 6), whereas the complete graph has n(n-1)/2.
+ * <p>
+ * The points are first projected onto a plane by the stereographic projection centred on their mean position.
+ * That projection maps circles on the sphere to circles in the plane, so the triangulation of the projected points
+ * is also the Delaunay triangulation on the sphere (whose empty circles are the ones which matter for great-circle distances).
+ * The points should lie well within a hemisphere.
+ * <p>
+ * The triangulation is built by a sweep (after Delaunator, by V. Agafonkin, and S-hull, by D. Sinclair):
+ * the points are added in order of their distance from the circumcentre of a small seed triangle,
+ * so that each new point lies outside the convex hull of the points so far; the new point is joined to every hull edge
+ * which it can see, and then the new edges are made Delaunay by flipping (Lawson's algorithm).
+ * The hull is a doubly-linked list, and a hash table of its vertices by angle (about the centre) finds a visible edge
+ * in (expected) constant time, so the whole triangulation takes O(n log n) time (for the sort).
+ * <p>
+ * The triangles are held as a flat array of vertex indices (three per triangle, counterclockwise),
+ * together with the array of halfedges: the twin of halfedge e (which goes from vertex triangles[e] to the next vertex
+ * of its triangle) is halfedges[e], or -1 if e is on the hull.
+ * <p>
+ * Points which coincide with an earlier point, and points which are all collinear, do not form triangles;
+ * they are joined to their neighbors by extra edges, so that edges() always connects all the points.
+ *
+ * @param <V> the vertex type (the positions must be Position_Spherical).
+ */
+public class Delaunay<V extends GeoPoint> {
+
+    /**
+     * Constructor which triangulates the points.
+     *
+     * @param points the points to be triangulated.
+     */
+    public Delaunay(Collection<V> points) {
+        vertices = new ArrayList<>(points);
+        n = vertices.size();
+        xs = new double[n];
+        ys = new double[n];
+        project();
+        int maxTriangles = Math.max(2 * n - 5, 0);
+        triangles = new int[maxTriangles * 3];
+        halfedges = new int[maxTriangles * 3];
+        triangulate();
+    }
+
+    /**
+     * @return the points (vertex i of the triangles and edges is element i of this list, which is in the order
+     * in which the points were given to the constructor).
+     */
+    public List<V> vertices() {
+        return vertices;
+    }
+
+    /**
+     * @return the vertex indices of the triangles (three per triangle, counterclockwise in the projected plane).
+     */
+    public int[] triangles() {
+        return Arrays.copyOf(triangles, trianglesLength);
+    }
+
+    /**
+     * @return the number of edges (of the triangles, plus the extra edges).
+     */
+    public int edgeCount() {
+        int result = nExtra;
+        for (int e = 0; e < trianglesLength; e++) if (halfedges[e] < e) result++;
+        return result;
+    }
+
+    /**
+     * @return the vertex indices of the edges (of the triangles, plus the extra edges),
+     * as pairs: edge k joins vertex result[2k] to vertex result[2k+1].
+     */
+    public int[] edges() {
+        int[] result = new int[2 * edgeCount()];
+        int k = 0;
+        for (int e = 0; e < trianglesLength; e++)
+            if (halfedges[e] < e) {
+                result[k++] = triangles[e];
+                result[k++] = triangles[next(e)];
+            }
+        System.arraycopy(extra, 0, result, k, 2 * nExtra);
+        return result;
+    }
+
+    /**
+     * Call consumer for each edge (of the triangles, plus the extra edges), once.
+     *
+     * @param consumer the function to be called with the two ends of each edge.
+     */
+    public void forEachEdge(BiConsumer<V, V> consumer) {
+        int[] edges = edges();
+        for (int k = 0; k < edges.length; k += 2) consumer.accept(vertices.get(edges[k]), vertices.get(edges[k + 1]));
+    }
+
+    /**
+     * Create the graph of the candidate edges, for GeoKruskal, GeoPrim, GeoFilterKruskal, etc.
+     * Its MST is the same as that of the complete graph, provided that attribute orders the edges by length.
+     *
+     * @param attribute a function to yield the attribute of the edge joining two points.
+     * @param <X>       the edge-attribute type.
+     * @return a new GeoGraphSpherical with the edges of this triangulation.
+     */
+    public <X> EdgeGraph<V, X> candidateGraph(BiFunction<V, V, X> attribute) {
+        GeoGraphSpherical<V, X> graph = new GeoGraphSpherical<>();
+        forEachEdge((v1, v2) -> graph.addEdge(new GeoEdge<>(v1, v2, attribute.apply(v1, v2))));
+        return graph;
+    }
+
+    /**
+     * Project the points stereographically, onto the plane which touches the sphere at their mean position.
+     */
+    private void project() {
+        double sx = 0, sy = 0, sz = 0;
+        for (V v : vertices) {
+            Position_Spherical p = (Position_Spherical) v.getPosition();
+            double lat = Math.toRadians(p.getLatitude()), lon = Math.toRadians(p.getLongitude());
+            sx += Math.cos(lat) * Math.cos(lon);
+            sy += Math.cos(lat) * Math.sin(lon);
+            sz += Math.sin(lat);
+        }
+        double lat0 = Math.atan2(sz, Math.hypot(sx, sy)), lon0 = Math.atan2(sy, sx);
+        double sinLat0 = Math.sin(lat0), cosLat0 = Math.cos(lat0);
+        for (int i = 0; i < n; i++) {
+            Position_Spherical p = (Position_Spherical) vertices.get(i).getPosition();
+            double lat = Math.toRadians(p.getLatitude()), dLon = Math.toRadians(p.getLongitude()) - lon0;
+            double sinLat = Math.sin(lat), cosLat = Math.cos(lat), cosDLon = Math.cos(dLon);
+            double k = 2.0 * GeoGraphSpherical.R / (1 + sinLat0 * sinLat + cosLat0 * cosLat * cosDLon);
+            xs[i] = k * cosLat * Math.sin(dLon);
+            ys[i] = k * (cosLat0 * sinLat - sinLat0 * cosLat * cosDLon);
+        }
+    }
+
+    private void triangulate() {
+        int[] ids = uniquePoints();
+        int m = ids.length;
+        if (m < 3) {
+            collinear(ids);
+            return;
+        }
+        // The seed triangle: the point nearest the middle of the bounding box, its nearest neighbor,
+        // and the point which makes the smallest circumcircle with them.
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i : ids) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        int i0 = nearest(ids, (minX + maxX) / 2, (minY + maxY) / 2, -1);
+        int i1 = nearest(ids, xs[i0], ys[i0], i0);
+        int i2 = -1;
+        double minRadius = Double.POSITIVE_INFINITY;
+        for (int i : ids) {
+            if (i == i0 || i == i1) continue;
+            double r = circumradius2(i0, i1, i);
+            if (r < minRadius) {
+                minRadius = r;
+                i2 = i;
+            }
+        }
+        if (i2 < 0) {
+            collinear(ids);
+            return;
+        }
+        if (orient(i0, i1, i2) < 0) {
+            int t = i1;
+            i1 = i2;
+            i2 = t;
+        }
+        circumcenter(i0, i1, i2);
+
+        double[] dists = new double[n];
+        for (int i : ids) dists[i] = (xs[i] - cx) * (xs[i] - cx) + (ys[i] - cy) * (ys[i] - cy);
+        sort(ids, dists, 0, m);
+
+        hullNext = new int[n];
+        hullPrev = new int[n];
+        hullTri = new int[n];
+        hashSize = (int) Math.ceil(Math.sqrt(m));
+        hullHash = new int[hashSize];
+        Arrays.fill(hullHash, -1);
+        hullNext[i0] = hullPrev[i2] = i1;
+        hullNext[i1] = hullPrev[i0] = i2;
+        hullNext[i2] = hullPrev[i1] = i0;
+        hullTri[i0] = 0;
+        hullTri[i1] = 1;
+        hullTri[i2] = 2;
+        hullHash[hashKey(i0)] = i0;
+        hullHash[hashKey(i1)] = i1;
+        hullHash[hashKey(i2)] = i2;
+        hullStart = i0;
+        addTriangle(i0, i1, i2);
+
+        for (int i : ids) {
+            if (i == i0 || i == i1 || i == i2) continue;
+            // Find a hull vertex near the angle of i (skipping vertices which are no longer on the hull),
+            // and then a hull edge which i can see.
+            int start = hullStart;
+            for (int j = 0, key = hashKey(i); j < hashSize; j++) {
+                int h = hullHash[(key + j) % hashSize];
+                if (h != -1 && h != hullNext[h]) {
+                    start = h;
+                    break;
+                }
+            }
+            start = hullPrev[start];
+            int e = start;
+            while (!visible(e, hullNext[e], i)) {
+                e = hullNext[e];
+                if (e == start) {
+                    e = -1;
+                    break;
+                }
+            }
+            if (e == -1) {
+                // This can only happen through rounding error (i is on, or within a hair of, the hull).
+                addExtra(i, start);
+                continue;
+            }
+            insert(i, e);
+        }
+        hullNext = hullPrev = hullTri = hullHash = null;
+    }
+
+    /**
+     * Add point i, which can see the hull edge from e, to the triangulation:
+     * join it to that edge and to all the hull edges on either side which it can also see; then legalize the new triangles.
+     */
+    private void insert(int i, int e) {
+        int w = hullNext[e];
+        int t = addTriangle(w, e, i);
+        link(t, hullTri[e]);
+        nStack = 0;
+        push(t);
+        // The halfedges from e to i and from i to the hull vertex after i.
+        int ei = t + 1, iw = t + 2;
+        int after = w;
+        for (int q = hullNext[after]; visible(after, q, i); q = hullNext[after]) {
+            int t2 = addTriangle(q, after, i);
+            link(t2, hullTri[after]);
+            link(t2 + 1, iw);
+            iw = t2 + 2;
+            push(t2);
+            hullNext[after] = after; // mark as removed from the hull
+            after = q;
+        }
+        for (int p = hullPrev[e]; visible(p, e, i); p = hullPrev[e]) {
+            int t3 = addTriangle(e, p, i);
+            link(t3, hullTri[p]);
+            link(t3 + 2, ei);
+            ei = t3 + 1;
+            push(t3);
+            hullNext[e] = e; // mark as removed from the hull
+            e = p;
+        }
+        hullPrev[i] = e;
+        hullNext[e] = i;
+        hullNext[i] = after;
+        hullPrev[after] = i;
+        hullTri[e] = ei;
+        hullTri[i] = iw;
+        hullStart = e;
+        hullHash[hashKey(i)] = i;
+        hullHash[hashKey(e)] = e;
+        legalize();
+    }
+
+    /**
+     * Flip the halfedges on the stack (each of which is opposite the new point in its triangle) until they are all Delaunay.
+     */
+    private void legalize() {
+        while (nStack > 0) {
+            int a = stack[--nStack];
+            int b = halfedges[a];
+            if (b < 0) continue;
+            int a1 = next(a), a2 = prev(a), b1 = next(b), b2 = prev(b);
+            // Triangle (A, B, C) with new point C, and across the edge AB, triangle (B, A, D).
+            int A = triangles[a], B = triangles[a1], C = triangles[a2], D = triangles[b2];
+            if (!inCircle(A, B, C, D)) continue;
+            // Flip AB to CD: the triangles become (D, B, C) and (C, A, D).
+            int ha2 = halfedges[a2], hb2 = halfedges[b2];
+            triangles[a] = D;
+            triangles[b] = C;
+            link(a, hb2);
+            link(b, ha2);
+            link(a2, b2);
+            if (hb2 < 0) hullTri[D] = a;
+            if (ha2 < 0) hullTri[C] = b;
+            push(a);
+            push(b1);
+        }
+    }
+
+    /**
+     * Join points (none of which can form a triangle) in order along their line.
+     */
+    private void collinear(int[] ids) {
+        if (ids.length < 2) return;
+        int first = ids[0];
+        double dx = 0, dy = 0;
+        for (int i : ids) {
+            dx = Math.max(dx, Math.abs(xs[i] - xs[first]));
+            dy = Math.max(dy, Math.abs(ys[i] - ys[first]));
+        }
+        double[] key = new double[n];
+        for (int i : ids) key[i] = dx >= dy ? xs[i] : ys[i];
+        sort(ids, key, 0, ids.length);
+        for (int k = 1; k < ids.length; k++) addExtra(ids[k], ids[k - 1]);
+    }
+
+    /**
+     * Find the points which coincide (in projection) with an earlier point, and join them to it with extra edges.
+     *
+     * @return the indices of the other points.
+     */
+    private int[] uniquePoints() {
+        int size = Integer.highestOneBit(Math.max(1, 2 * n)) << 1;
+        int[] table = new int[size];
+        Arrays.fill(table, -1);
+        int[] result = new int[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            long bits = Double.doubleToLongBits(xs[i]) * 31 + Double.doubleToLongBits(ys[i]);
+            int h = (int) ((bits * 0x9E3779B97F4A7C15L) >>> 40) & (size - 1);
+            while (table[h] >= 0 && (xs[table[h]] != xs[i] || ys[table[h]] != ys[i])) h = (h + 1) & (size - 1);
+            if (table[h] >= 0) addExtra(i, table[h]);
+            else {
+                table[h] = i;
+                result[m++] = i;
+            }
+        }
+        return Arrays.copyOf(result, m);
+    }
+
+    private int nearest(int[] ids, double x, double y, int except) {
+        int result = -1;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i : ids) {
+            if (i == except) continue;
+            double d = (xs[i] - x) * (xs[i] - x) + (ys[i] - y) * (ys[i] - y);
+            if (d < min) {
+                min = d;
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private int addTriangle(int i0, int i1, int i2) {
+        int t = trianglesLength;
+        triangles[t] = i0;
+        triangles[t + 1] = i1;
+        triangles[t + 2] = i2;
+        halfedges[t] = halfedges[t + 1] = halfedges[t + 2] = -1;
+        trianglesLength += 3;
+        return t;
+    }
+
+    private void link(int a, int b) {
+        halfedges[a] = b;
+        if (b >= 0) halfedges[b] = a;
+    }
+
+    private void push(int e) {
+        if (nStack == stack.length) stack = Arrays.copyOf(stack, 2 * nStack);
+        stack[nStack++] = e;
+    }
+
+    private void addExtra(int i, int j) {
+        if (2 * nExtra == extra.length) extra = Arrays.copyOf(extra, Math.max(16, 4 * nExtra));
+        extra[2 * nExtra] = i;
+        extra[2 * nExtra + 1] = j;
+        nExtra++;
+    }
+
+    private static int next(int e) {
+        return e % 3 == 2 ? e - 2 : e + 1;
+    }
+
+    private static int prev(int e) {
+        return e % 3 == 0 ? e + 2 : e - 1;
+    }
+
+    /**
+     * @return twice the signed area of triangle (a, b, c): positive if it is counterclockwise.
+     */
+    private double orient(int a, int b, int c) {
+        return (xs[b] - xs[a]) * (ys[c] - ys[a]) - (ys[b] - ys[a]) * (xs[c] - xs[a]);
+    }
+
+    /**
+     * @return true if point i is strictly to the right of the hull edge from a to b (so that it can see that edge).
+     */
+    private boolean visible(int a, int b, int i) {
+        return orient(a, b, i) < 0;
+    }
+
+    /**
+     * @return true if p is strictly inside the circumcircle of the counterclockwise triangle (a, b, c).
+     */
+    private boolean inCircle(int a, int b, int c, int p) {
+        double dx = xs[a] - xs[p], dy = ys[a] - ys[p];
+        double ex = xs[b] - xs[p], ey = ys[b] - ys[p];
+        double fx = xs[c] - xs[p], fy = ys[c] - ys[p];
+        double ap = dx * dx + dy * dy, bp = ex * ex + ey * ey, cp = fx * fx + fy * fy;
+        return dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx) > 0;
+    }
+
+    /**
+     * @return the square of the circumradius of (a, b, c) (infinite or NaN if they are collinear).
+     */
+    private double circumradius2(int a, int b, int c) {
+        double dx = xs[b] - xs[a], dy = ys[b] - ys[a];
+        double ex = xs[c] - xs[a], ey = ys[c] - ys[a];
+        double bl = dx * dx + dy * dy, cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        double x = (ey * bl - dy * cl) * d, y = (dx * cl - ex * bl) * d;
+        return x * x + y * y;
+    }
+
+    /**
+     * Set (cx, cy) to the circumcentre of (a, b, c).
+     */
+    private void circumcenter(int a, int b, int c) {
+        double dx = xs[b] - xs[a], dy = ys[b] - ys[a];
+        double ex = xs[c] - xs[a], ey = ys[c] - ys[a];
+        double bl = dx * dx + dy * dy, cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        cx = xs[a] + (ey * bl - dy * cl) * d;
+        cy = ys[a] + (dx * cl - ex * bl) * d;
+    }
+
+    /**
+     * @return the bucket of the hull hash for point i, by its pseudo-angle about the centre.
+     */
+    private int hashKey(int i) {
+        double dx = xs[i] - cx, dy = ys[i] - cy;
+        double p = dx / (Math.abs(dx) + Math.abs(dy));
+        double angle = (dy > 0 ? 3 - p : 1 + p) / 4; // between 0 and 1
+        return (int) Math.floor(angle * hashSize) % hashSize;
+    }
+
+    /**
+     * Sort ids[lo..hi) by key (quicksort with median-of-three pivots, and insertion sort for short ranges).
+     */
+    private static void sort(int[] ids, double[] key, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            double a = key[ids[lo]], b = key[ids[mid]], c = key[ids[hi - 1]];
+            double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int i = lo, j = hi - 1;
+            while (i <= j) {
+                while (key[ids[i]] < pivot) i++;
+                while (key[ids[j]] > pivot) j--;
+                if (i <= j) {
+                    int t = ids[i];
+                    ids[i++] = ids[j];
+                    ids[j--] = t;
+                }
+            }
+            // Recurse on the shorter part and iterate on the longer.
+            if (j - lo < hi - i) {
+                sort(ids, key, lo, j + 1);
+                lo = i;
+            } else {
+                sort(ids, key, i, hi);
+                hi = j + 1;
+            }
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            int id = ids[i];
+            double k = key[id];
+            int j = i - 1;
+            for (; j >= lo && key[ids[j]] > k; j--) ids[j + 1] = ids[j];
+            ids[j + 1] = id;
+        }
+    }
+
+    private final List<V> vertices;
+    private final int n;
+    /**
+     * The projected coordinates (in meters) of each point.
+     */
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] triangles;
+    private final int[] halfedges;
+    private int trianglesLength = 0;
+    /**
+     * The extra edges (for coincident and collinear points), as pairs of vertex indices.
+     */
+    private int[] extra = new int[0];
+    private int nExtra = 0;
+    /**
+     * The hull (only while triangulating): the next and previous vertex of each hull vertex (counterclockwise),
+     * the halfedge from each hull vertex to the next, and the hash table of hull vertices by angle.
+     */
+    private int[] hullNext;
+    private int[] hullPrev;
+    private int[] hullTri;
+    private int[] hullHash;
+    private int hashSize;
+    private int hullStart;
+    /**
+     * The circumcentre of the seed triangle.
+     */
+    private double cx;
+    private double cy;
+    private int[] stack = new int[64];
+    private int nStack = 0;
+}
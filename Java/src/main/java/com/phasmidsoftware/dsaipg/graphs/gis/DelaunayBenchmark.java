@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.traversal.FilterKruskal;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Position;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class to time the minimum spanning tree of a large number of random GeoPoints, using the edges of their
+ * Delaunay triangulation as the only candidates (rather than all n(n-1)/2 pairs).
+ */
+public class DelaunayBenchmark {
+
+    /**
+     * The main method is the entry point for the DelaunayBenchmark application.
+     *
+     * @param args the number of points (default one million).
+     */
+    public static void main(String[] args) {
+        int points = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        new DelaunayBenchmark(randomPoints(points, new Random())).run(3);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param points the points.
+     */
+    public DelaunayBenchmark(List<GeoPoint> points) {
+        this.points = points;
+    }
+
+    /**
+     * Time the triangulation, and the MST (by FilterKruskal) of its edges, weighted by great-circle distance.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs.
+     * @return the total length of the MST (in meters).
+     */
+    double run(int nRuns) {
+        logger.info("DelaunayBenchmark: " + points.size() + " points");
+        double result = 0;
+        for (int run = 0; run < nRuns; run++) {
+            long start = System.nanoTime();
+            Delaunay<GeoPoint> delaunay = new Delaunay<>(points);
+            long triangulated = System.nanoTime();
+            int[] edges = delaunay.edges();
+            int m = edges.length / 2;
+            int[] u = new int[m], v = new int[m];
+            double[] w = new double[m];
+            for (int k = 0; k < m; k++) {
+                u[k] = edges[2 * k];
+                v[k] = edges[2 * k + 1];
+                w[k] = GeoGraphSpherical.distance(points.get(u[k]).getPosition(), points.get(v[k]).getPosition());
+            }
+            FilterKruskal mst = new FilterKruskal(points.size(), u, v, w);
+            result = mst.weight();
+            long finish = System.nanoTime();
+            logger.info("Delaunay: " + m + " edges in " + (triangulated - start) / 1_000_000 + " mSec; MST: " + mst.edges().length + " edges of total length " + Math.round(result) + "m in " + (finish - triangulated) / 1_000_000 + " mSec");
+        }
+        return result;
+    }
+
+    /**
+     * Generate random points, uniformly (in latitude and longitude) in an area of about 40km by 40km around Boston.
+     *
+     * @param n      the number of points.
+     * @param random the source of randomness.
+     * @return a list of n new GeoPoints.
+     */
+    static List<GeoPoint> randomPoints(int n, Random random) {
+        List<GeoPoint> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Position position = new Position_Spherical(42.2 + random.nextDouble() * 0.36, -71.3 + random.nextDouble() * 0.48);
+            String name = "p" + i;
+            result.add(new GeoPoint() {
+                public String getName() {
+                    return name;
+                }
+
+                public Position getPosition() {
+                    return position;
+                }
+            });
+        }
+        return result;
+    }
+
+    final static LazyLogger logger = new LazyLogger(DelaunayBenchmark.class);
+
+    private final List<GeoPoint> points;
+}
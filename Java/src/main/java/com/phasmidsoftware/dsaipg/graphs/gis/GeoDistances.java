@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batch great-circle (haversine) distances for a set of points, held as a structure of arrays.
+ * <p>
+ * GeoGraphSpherical.distance calls toRadians, sin and cos several times for every pair of Position_Spherical objects.
+ * Here, the sines and cosines which the haversine formula needs are worked out once per point, when the points are loaded,
+ * using the identity sin((b - a) / 2) = sin(b / 2) cos(a / 2) - cos(b / 2) sin(a / 2).
+ * After that, the distance between two points costs a few multiplications, a square root and an arcsine.
+ * The one-to-many methods run as two tight loops over primitive arrays: the first (multiplications and additions only)
+ * is one that the JIT compiler can vectorize; the second applies the square root and arcsine.
+ * <p>
+ * The distances agree with those of GeoGraphSpherical to within rounding error (well under a millimeter).
+ */
+public class GeoDistances {
+
+    /**
+     * Constructor.
+     *
+     * @param latitudes  the latitudes of the points (in degrees).
+     * @param longitudes the longitudes of the points (in degrees).
+     */
+    public GeoDistances(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length)
+            throw new IllegalArgumentException("GeoDistances: latitudes and longitudes differ in length: " + latitudes.length + ", " + longitudes.length);
+        n = latitudes.length;
+        sinLat = new double[n];
+        cosLat = new double[n];
+        sinLon = new double[n];
+        cosLon = new double[n];
+        cos = new double[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(latitudes[i]), lon = Math.toRadians(longitudes[i]);
+            sinLat[i] = Math.sin(lat / 2);
+            cosLat[i] = Math.cos(lat / 2);
+            sinLon[i] = Math.sin(lon / 2);
+            cosLon[i] = Math.cos(lon / 2);
+            cos[i] = Math.cos(lat);
+        }
+    }
+
+    /**
+     * Method to create a GeoDistances from a collection of GeoPoints.
+     *
+     * @param points the points (whose positions must be Position_Spherical), in the order by which they will be indexed.
+     * @return a new GeoDistances.
+     */
+    public static GeoDistances create(Collection<? extends GeoPoint> points) {
+        double[] latitudes = new double[points.size()], longitudes = new double[points.size()];
+        int i = 0;
+        for (GeoPoint p : points) {
+            Position_Spherical position = (Position_Spherical) p.getPosition();
+            latitudes[i] = position.getLatitude();
+            longitudes[i++] = position.getLongitude();
+        }
+        return new GeoDistances(latitudes, longitudes);
+    }
+
+    /**
+     * @return the number of points.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Method to get the distance between two of the points.
+     *
+     * @param i the index of one point.
+     * @param j the index of the other point.
+     * @return the distance between points i and j in meters.
+     */
+    public double distance(int i, int j) {
+        double dLat = sinLat[j] * cosLat[i] - cosLat[j] * sinLat[i];
+        double dLon = sinLon[j] * cosLon[i] - cosLon[j] * sinLon[i];
+        return arc(dLat * dLat + cos[i] * cos[j] * dLon * dLon);
+    }
+
+    /**
+     * Method to get the distances from one of the points to all the points.
+     *
+     * @param i      the index of a point.
+     * @param result an array of length size() which, on return, holds the distance (in meters) from point i to each point.
+     */
+    public void distancesFrom(int i, double[] result) {
+        distancesFrom(sinLat[i], cosLat[i], sinLon[i], cosLon[i], cos[i], result);
+    }
+
+    /**
+     * Method to get the distances from any position to all the points.
+     *
+     * @param latitude  the latitude (in degrees).
+     * @param longitude the longitude (in degrees).
+     * @param result    an array of length size() which, on return, holds the distance (in meters) to each point.
+     */
+    public void distancesFrom(double latitude, double longitude, double[] result) {
+        double lat = Math.toRadians(latitude), lon = Math.toRadians(longitude);
+        distancesFrom(Math.sin(lat / 2), Math.cos(lat / 2), Math.sin(lon / 2), Math.cos(lon / 2), Math.cos(lat), result);
+    }
+
+    /**
+     * Method to get the matrix of distances between all the points.
+     * The rows are computed in parallel.
+     *
+     * @return an n by n matrix whose [i][j] element is the distance (in meters) between points i and j.
+     */
+    public double[][] distanceMatrix() {
+        double[][] result = new double[n][n];
+        pool.invoke(new Rows(result, 0, n));
+        return result;
+    }
+
+    private void distancesFrom(double sinLatI, double cosLatI, double sinLonI, double cosLonI, double cosI, double[] result) {
+        if (result.length != n)
+            throw new IllegalArgumentException("GeoDistances.distancesFrom: result has length " + result.length + " but there are " + n + " points");
+        for (int j = 0; j < n; j++) {
+            double dLat = sinLat[j] * cosLatI - cosLat[j] * sinLatI;
+            double dLon = sinLon[j] * cosLonI - cosLon[j] * sinLonI;
+            result[j] = dLat * dLat + cosI * cos[j] * dLon * dLon;
+        }
+        for (int j = 0; j < n; j++) result[j] = arc(result[j]);
+    }
+
+    /**
+     * Convert the haversine of the central angle between two points into the distance between them.
+     *
+     * @param a the haversine of the angle.
+     * @return the distance in meters.
+     */
+    private static double arc(double a) {
+        return 2 * GeoGraphSpherical.R * Math.asin(Math.sqrt(Math.min(a, 1)));
+    }
+
+    private class Rows extends RecursiveAction {
+        Rows(double[][] result, int lo, int hi) {
+            this.result = result;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (hi - lo) * n > GRAIN && hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Rows(result, lo, mid), new Rows(result, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++) distancesFrom(i, result[i]);
+        }
+
+        private final double[][] result;
+        private final int lo;
+        private final int hi;
+    }
+
+    private static final int GRAIN = 1 << 14;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private final int n;
+    // The sines and cosines of half of each latitude and longitude, and the cosine of each latitude.
+    private final double[] sinLat;
+    private final double[] cosLat;
+    private final double[] sinLon;
+    private final double[] cosLon;
+    private final double[] cos;
+}
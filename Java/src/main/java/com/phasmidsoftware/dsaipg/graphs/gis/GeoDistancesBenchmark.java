@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.Position;
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.GeoConversions;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Class to compare the batch (structure-of-arrays) geodesic kernels with their one-point-at-a-time equivalents:
+ * GeoDistances.distancesFrom with GeoGraphSpherical.distance; and GeoConversions.positions2UTM with GeoConversions.position2UTM.
+ */
+public class GeoDistancesBenchmark {
+
+    /**
+     * The main method is the entry point for the GeoDistancesBenchmark application.
+     *
+     * @param args the number of points (default one million).
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        new GeoDistancesBenchmark(n, new Random()).run(20);
+    }
+
+    /**
+     * Constructor which generates n random points around Boston.
+     *
+     * @param n      the number of points.
+     * @param random the source of randomness.
+     */
+    public GeoDistancesBenchmark(int n, Random random) {
+        latitudes = new double[n];
+        longitudes = new double[n];
+        positions = new Position[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = 42.2 + random.nextDouble() * 0.36;
+            longitudes[i] = -71.3 + random.nextDouble() * 0.48;
+            positions[i] = new Position_Spherical(latitudes[i], longitudes[i]);
+        }
+    }
+
+    /**
+     * Time the distances from one point to all the points, and the conversion of all the points to UTM, both ways;
+     * and then check that the distances found by GeoDistances.distancesFrom agree with those of GeoGraphSpherical.distance.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs of each.
+     * @return the greatest difference between the distances (in meters) found in the two ways.
+     */
+    double run(int nRuns) {
+        int n = latitudes.length;
+        logger.info("GeoDistancesBenchmark: " + n + " points");
+        double[] expected = new double[n], actual = new double[n];
+        doBenchmark("GeoGraphSpherical.distance", x -> {
+            for (int j = 0; j < n; j++) expected[j] = GeoGraphSpherical.distance(positions[0], positions[j]);
+        }, nRuns);
+        GeoDistances distances = new GeoDistances(latitudes, longitudes);
+        doBenchmark("GeoDistances.distancesFrom", x -> distances.distancesFrom(0, actual), nRuns);
+        doBenchmark("GeoConversions.position2UTM", x -> {
+            for (int i = 0; i < n; i++) GeoConversions.position2UTM(new GeoConversions.Position(latitudes[i], longitudes[i]));
+        }, nRuns);
+        int[] eastings = new int[n], northings = new int[n], zones = new int[n];
+        char[] letters = new char[n];
+        doBenchmark("GeoConversions.positions2UTM", x -> GeoConversions.positions2UTM(latitudes, longitudes, eastings, northings, zones, letters), nRuns);
+        double result = 0;
+        for (int j = 0; j < n; j++) result = Math.max(result, Math.abs(expected[j] - actual[j]));
+        return result;
+    }
+
+    private void doBenchmark(String description, Consumer<Object> solver, int nRuns) {
+        Benchmark<Object> benchmark = new Benchmark_Timer<>(description, solver);
+        double time = benchmark.runFromSupplier(Object::new, nRuns);
+        logger.info(description + ": " + time + " mSec");
+    }
+
+    final static LazyLogger logger = new LazyLogger(GeoDistancesBenchmark.class);
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Position[] positions;
+}
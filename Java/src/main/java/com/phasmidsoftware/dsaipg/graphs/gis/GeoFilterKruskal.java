@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+
+public class GeoFilterKruskal<V extends GeoPoint, X extends Comparable<X> & Sequenced> extends KruskalFiltered<V, X> implements GeoMST<V, X> {
+    public GeoFilterKruskal(EdgeGraph<V, X> graph) {
+        super(graph);
+    }
+
+    /**
+     * Method to generate a graph of the MST, given an empty BaseGeoGraph
+     *
+     * @param geoGraph an empty GeoGraph which will be filled with edges (in order of increasing attribute) before being returned.
+     * @return the geoGraph that was passed as the parameter, but filled with the MST edges.
+     */
+    public Geo<V, X> getGeoMST(Geo<V, X> geoGraph) {
+        int sequence = 0;
+        for (Edge<V, X> e : mst) {
+            e.getAttribute().setSequence(sequence++);
+            geoGraph.addEdge(createEdge(e));
+        }
+        return geoGraph;
+    }
+
+    public Edge<V, X> createEdge(Edge<V, X> edge) {
+        V v = edge.get();
+        return new GeoEdge<>(v, edge.getOther(v), edge.getAttribute());
+    }
+
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A static spatial index (a k-d tree) over a collection of GeoPoints, for radius and k-nearest-neighbor queries
+ * by great-circle distance (as measured by GeoGraphSpherical).
+ * <p>
+ * Each point is placed in three-dimensional (Earth-centred) Cartesian coordinates on a sphere of the same radius
+ * as that of GeoGraphSpherical. The straight-line (chord) distance between two points is a monotonic function of their
+ * great-circle distance, so a query by great-circle distance is exactly a query by chord distance;
+ * and, unlike a map projection, there are no zone boundaries or distortion to worry about.
+ * <p>
+ * The tree is implicit: the points are arranged in an array so that the point at the middle of each range is the
+ * median of that range along its widest dimension (which is its splitting dimension), with the points on one side
+ * before it and the points on the other side after it. It is built in O(n log n) time (by quickselect at each level).
+ * A radius query takes O(log n + k) time for k results (for reasonably distributed points),
+ * and so all the pairs of points within a given distance can be found in O(n log n + k) time.
+ *
+ * @param <V> the vertex type (the positions must be Position_Spherical).
+ */
+public class GeoIndex<V extends GeoPoint> {
+
+    /**
+     * Constructor which builds the index.
+     *
+     * @param points the points to be indexed (in an order which is remembered by forEachPairWithin).
+     */
+    public GeoIndex(Collection<V> points) {
+        n = points.size();
+        int[] order = new int[n];
+        double[][] xyz = new double[3][n];
+        double[] q = new double[3];
+        List<V> list = new ArrayList<>(points);
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            toCartesian((Position_Spherical) list.get(i).getPosition(), q);
+            for (int a = 0; a < 3; a++) xyz[a][i] = q[a];
+        }
+        axis = new byte[n];
+        build(order, xyz, 0, n);
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        index = order;
+        vertices = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int j = order[i];
+            x[i] = xyz[0][j];
+            y[i] = xyz[1][j];
+            z[i] = xyz[2][j];
+            vertices.add(list.get(j));
+        }
+    }
+
+    /**
+     * @return the number of points in the index.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Radius query.
+     *
+     * @param p      a point (which need not be in the index).
+     * @param meters the maximum great-circle distance.
+     * @return the points which are within meters of p (in no particular order), including p itself if it is in the index.
+     */
+    public List<V> withinDistance(GeoPoint p, double meters) {
+        double[] q = new double[3];
+        toCartesian((Position_Spherical) p.getPosition(), q);
+        double r = chord(meters);
+        List<V> result = new ArrayList<>();
+        if (r < 0) return result;
+        Found found = new Found();
+        within(q[0], q[1], q[2], r * r, 0, n, found);
+        for (int i = 0; i < found.size; i++) result.add(vertices.get(found.positions[i]));
+        return result;
+    }
+
+    /**
+     * k-nearest-neighbor query.
+     *
+     * @param p a point (which need not be in the index).
+     * @param k the number of neighbors.
+     * @return the (at most) k points nearest to p, nearest first, including p itself if it is in the index.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<V> nearest(GeoPoint p, int k) {
+        if (k < 0) throw new IllegalArgumentException("GeoIndex: negative k: " + k);
+        double[] q = new double[3];
+        toCartesian((Position_Spherical) p.getPosition(), q);
+        Neighbors neighbors = new Neighbors(Math.min(k, n));
+        if (neighbors.capacity > 0) nearest(q[0], q[1], q[2], 0, n, neighbors);
+        // Remove the farthest repeatedly, and then reverse.
+        List<V> result = new ArrayList<>(neighbors.size);
+        while (neighbors.size > 0) result.add(vertices.get(neighbors.pop()));
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Find every pair of points which are within the given great-circle distance of each other,
+     * in O(n log n + k) time (for k pairs), rather than the O(n^2) time of testing every pair.
+     * Each pair is passed to consumer once, as (earlier, later) according to the order of the points given to the constructor;
+     * and the pairs are passed in the order in which a double loop over the points would find them.
+     *
+     * @param meters   the maximum great-circle distance.
+     * @param consumer the function to be called with each pair.
+     */
+    public void forEachPairWithin(double meters, BiConsumer<V, V> consumer) {
+        double r = chord(meters);
+        if (r < 0) return;
+        double r2 = r * r;
+        // The position of each point (by its original index) in the tree.
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) position[index[i]] = i;
+        Found found = new Found();
+        for (int i = 0; i < n; i++) {
+            int t = position[i];
+            found.size = 0;
+            within(x[t], y[t], z[t], r2, 0, n, found);
+            // Keep the later points (by original index), in original order.
+            int[] later = found.positions;
+            int m = 0;
+            for (int j = 0; j < found.size; j++) if (index[later[j]] > i) later[m++] = index[later[j]];
+            Arrays.sort(later, 0, m);
+            for (int j = 0; j < m; j++) consumer.accept(vertices.get(t), vertices.get(position[later[j]]));
+        }
+    }
+
+    /**
+     * Arrange order[lo..hi) as a subtree: the median (along the widest dimension) in the middle.
+     */
+    private void build(int[] order, double[][] xyz, int lo, int hi) {
+        while (hi - lo > 1) {
+            int a = widest(order, xyz, lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(order, xyz[a], lo, hi, mid);
+            axis[mid] = (byte) a;
+            // Recurse on the lower half and iterate on the upper half.
+            build(order, xyz, lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    private static int widest(int[] order, double[][] xyz, int lo, int hi) {
+        int result = 0;
+        double best = -1;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double c = xyz[a][order[i]];
+                if (c < min) min = c;
+                if (c > max) max = c;
+            }
+            if (max - min > best) {
+                best = max - min;
+                result = a;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Quickselect: rearrange order[lo..hi) so that order[k] has the coordinate of rank k,
+     * with no greater coordinates before it and no lesser coordinates after it.
+     */
+    private static void select(int[] order, double[] c, int lo, int hi, int k) {
+        hi--;
+        while (lo < hi) {
+            double pivot = c[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (c[order[i]] < pivot) i++;
+                while (c[order[j]] > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    /**
+     * Add to found the tree positions in [lo..hi) within squared chord distance r2 of (qx, qy, qz).
+     */
+    private void within(double qx, double qy, double qz, double r2, int lo, int hi, Found found) {
+        while (hi > lo) {
+            if (hi - lo <= LEAF) {
+                for (int i = lo; i < hi; i++) if (distance2(qx, qy, qz, i) <= r2) found.add(i);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (distance2(qx, qy, qz, mid) <= r2) found.add(mid);
+            double d = coordinate(axis[mid], qx, qy, qz) - coordinate(axis[mid], mid);
+            // The far side is searched (by recursion) only if it could be within range; the near side by iteration.
+            if (d < 0) {
+                if (d * d <= r2) within(qx, qy, qz, r2, mid + 1, hi, found);
+                hi = mid;
+            } else {
+                if (d * d <= r2) within(qx, qy, qz, r2, lo, mid, found);
+                lo = mid + 1;
+            }
+        }
+    }
+
+    /**
+     * The tree positions found by a radius query.
+     */
+    private static class Found {
+        void add(int position) {
+            if (size == positions.length) positions = Arrays.copyOf(positions, 2 * size);
+            positions[size++] = position;
+        }
+
+        private int[] positions = new int[16];
+        private int size = 0;
+    }
+
+    private void nearest(double qx, double qy, double qz, int lo, int hi, Neighbors neighbors) {
+        if (hi <= lo) return;
+        if (hi - lo <= LEAF) {
+            for (int i = lo; i < hi; i++) neighbors.offer(i, distance2(qx, qy, qz, i));
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        neighbors.offer(mid, distance2(qx, qy, qz, mid));
+        double d = coordinate(axis[mid], qx, qy, qz) - coordinate(axis[mid], mid);
+        if (d < 0) {
+            nearest(qx, qy, qz, lo, mid, neighbors);
+            if (d * d <= neighbors.bound()) nearest(qx, qy, qz, mid + 1, hi, neighbors);
+        } else {
+            nearest(qx, qy, qz, mid + 1, hi, neighbors);
+            if (d * d <= neighbors.bound()) nearest(qx, qy, qz, lo, mid, neighbors);
+        }
+    }
+
+    /**
+     * The best neighbors so far, as a binary max-heap of tree positions keyed by squared chord distance.
+     */
+    private static class Neighbors {
+        Neighbors(int capacity) {
+            this.capacity = capacity;
+            positions = new int[capacity];
+            keys = new double[capacity];
+        }
+
+        /**
+         * @return the squared distance beyond which no point can be a neighbor.
+         */
+        double bound() {
+            return size < capacity ? Double.POSITIVE_INFINITY : keys[0];
+        }
+
+        void offer(int position, double key) {
+            if (size < capacity) {
+                int i = size++;
+                for (int parent; i > 0 && keys[parent = (i - 1) / 2] < key; i = parent) {
+                    positions[i] = positions[parent];
+                    keys[i] = keys[parent];
+                }
+                positions[i] = position;
+                keys[i] = key;
+            } else if (key < keys[0]) siftDown(position, key);
+        }
+
+        /**
+         * @return the farthest neighbor (which is removed).
+         */
+        int pop() {
+            int result = positions[0];
+            size--;
+            if (size > 0) {
+                int position = positions[size];
+                double key = keys[size];
+                siftDown(position, key);
+            }
+            return result;
+        }
+
+        /**
+         * Replace the root with (position, key) and restore the heap.
+         */
+        private void siftDown(int position, double key) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] > keys[child]) child++;
+                if (keys[child] <= key) break;
+                positions[i] = positions[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            positions[i] = position;
+            keys[i] = key;
+        }
+
+        private final int capacity;
+        private final int[] positions;
+        private final double[] keys;
+        private int size = 0;
+    }
+
+    private double distance2(double qx, double qy, double qz, int i) {
+        double dx = qx - x[i], dy = qy - y[i], dz = qz - z[i];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private double coordinate(int a, int i) {
+        return a == 0 ? x[i] : a == 1 ? y[i] : z[i];
+    }
+
+    private static double coordinate(int a, double qx, double qy, double qz) {
+        return a == 0 ? qx : a == 1 ? qy : qz;
+    }
+
+    /**
+     * @return the chord length corresponding to a great-circle distance of meters (or -1 if meters is negative).
+     */
+    private static double chord(double meters) {
+        if (meters < 0) return -1;
+        double angle = meters / GeoGraphSpherical.R;
+        // A tiny allowance for rounding, so that a point at exactly the given distance is not missed.
+        return angle >= Math.PI ? 2.0 * GeoGraphSpherical.R * (1 + 1E-12) : 2.0 * GeoGraphSpherical.R * Math.sin(angle / 2) * (1 + 1E-12) + 1E-6;
+    }
+
+    /**
+     * Set q to the Cartesian coordinates of p, in meters.
+     */
+    private static void toCartesian(Position_Spherical p, double[] q) {
+        double lat = Math.toRadians(p.getLatitude()), lon = Math.toRadians(p.getLongitude());
+        q[0] = GeoGraphSpherical.R * Math.cos(lat) * Math.cos(lon);
+        q[1] = GeoGraphSpherical.R * Math.cos(lat) * Math.sin(lon);
+        q[2] = GeoGraphSpherical.R * Math.sin(lat);
+    }
+
+    /**
+     * The number of points below which a range is simply scanned.
+     */
+    private static final int LEAF = 8;
+
+    private final int n;
+    /**
+     * The Cartesian coordinates (in meters) of the point at each position of the tree.
+     */
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    /**
+     * The splitting dimension (0, 1 or 2) of the subtree whose middle is at each position.
+     */
+    private final byte[] axis;
+    /**
+     * The original index (in the collection given to the constructor) of the point at each position of the tree.
+     */
+    private final int[] index;
+    private final List<V> vertices;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A GeoWriter for GeoJSON (RFC 7946): each point and line is a Feature (with name and description properties)
+ * in a single FeatureCollection, one Feature per line of the file.
+ *
+ * @param <V> the vertex type.
+ */
+public class GeoJsonWriter<V extends GeoPoint> extends GeoWriter<V> {
+
+    /**
+     * Constructor.
+     *
+     * @param file        the (first) file (a ".gz" file is compressed).
+     * @param name        the name of the collection.
+     * @param description the description of the collection.
+     * @param chunkSize   the maximum number of features in each file (or zero for no maximum).
+     * @throws IOException if the file cannot be opened.
+     */
+    public GeoJsonWriter(File file, String name, String description, int chunkSize) throws IOException {
+        super(file, name, description, chunkSize);
+    }
+
+    @Override
+    void preamble(StringBuilder sb, String name, String description) {
+        sb.append("{\"type\":\"FeatureCollection\",\"name\":");
+        quote(sb, name);
+        sb.append(",\"description\":");
+        quote(sb, description);
+        sb.append(",\"features\":[\n");
+    }
+
+    @Override
+    void point(StringBuilder sb, V vertex) {
+        sb.append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[");
+        appendCoordinates(sb, vertex);
+        sb.append("]},\"properties\":{\"name\":");
+        quote(sb, vertex.getName());
+        sb.append(",\"description\":");
+        quote(sb, vertex.toString());
+        sb.append("}}");
+    }
+
+    @Override
+    void line(StringBuilder sb, V v1, V v2, String description) {
+        sb.append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[");
+        appendCoordinates(sb, v1);
+        sb.append("],[");
+        appendCoordinates(sb, v2);
+        sb.append("]]},\"properties\":{\"name\":\"");
+        escape(sb, v1.getName());
+        sb.append("--");
+        escape(sb, v2.getName());
+        sb.append("\",\"description\":");
+        quote(sb, description);
+        sb.append("}}");
+    }
+
+    @Override
+    void separator(StringBuilder sb) {
+        sb.append(",\n");
+    }
+
+    @Override
+    void colophon(StringBuilder sb) {
+        sb.append("\n]}\n");
+    }
+
+    /**
+     * Append s to sb as a JSON string.
+     */
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        escape(sb, s);
+        sb.append('"');
+    }
+
+    /**
+     * Append s to sb, escaping the characters which are special in a JSON string.
+     */
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c == '\n') sb.append("\\n");
+            else if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+    }
+}
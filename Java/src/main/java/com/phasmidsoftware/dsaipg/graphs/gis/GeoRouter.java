@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.adt.pq.IndexMinPQDouble;
+import com.phasmidsoftware.dsaipg.graphs.csr.CSRGraph;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point-to-point shortest paths (routes) over a graph of GeoPoints, whose edge weights are (at least) the great-circle
+ * distances between their vertices (as they are for a Geo graph).
+ * <p>
+ * Unlike ShortestPaths, which always computes a whole shortest-paths tree, a route search stops as soon as the
+ * shortest path to the target is known, and it only touches the part of the graph near that path.
+ * The search is one of (see Mode):
+ * <dl>
+ *     <dt>DIJKSTRA</dt><dd>Dijkstra's algorithm, stopping when the target is settled;</dd>
+ *     <dt>BIDIRECTIONAL</dt><dd>Dijkstra's algorithm from both ends at once (backwards from the target),
+ *     stopping when the two searches have met and cannot find anything better;</dd>
+ *     <dt>ASTAR</dt><dd>the A* algorithm, whose lower bound on the distance to the target is the great-circle distance;</dd>
+ *     <dt>ALT</dt><dd>the A* algorithm with Landmarks and the Triangle inequality (A. Goldberg and C. Harrelson, 2005):
+ *     the lower bound is also the best of |d(L, t) - d(L, v)| over a set of landmarks L, whose distances are precomputed
+ *     (see selectLandmarks). Where the graph is much longer than the crow flies, this is far tighter than the great-circle bound.</dd>
+ * </dl>
+ * The landmark tables are kept as float arrays, arranged so that the distances of one vertex from all landmarks are adjacent.
+ * <p>
+ * A GeoRouter reuses its working arrays from one search to the next (so a search does not need O(V) initialization),
+ * so it is not thread-safe: each thread should use its own GeoRouter.
+ *
+ * @param <V> the vertex type.
+ */
+public class GeoRouter<V extends GeoPoint> {
+
+    /**
+     * The kinds of route search.
+     */
+    public enum Mode {
+        DIJKSTRA, BIDIRECTIONAL, ASTAR, ALT
+    }
+
+    /**
+     * Create a GeoRouter for a Geo graph, whose edge weights are the lengths of its edges.
+     *
+     * @param geo the graph.
+     * @param <V> the vertex type.
+     * @param <E> the edge-attribute type.
+     * @return a new GeoRouter.
+     */
+    public static <V extends GeoPoint, E> GeoRouter<V> create(Geo<V, E> geo) {
+        CSRGraph.Builder<V> builder = new CSRGraph.Builder<>(false);
+        for (V v : geo.vertices()) builder.addVertex(v);
+        for (Edge<V, E> e : geo.edges()) {
+            V v = e.get();
+            builder.addEdge(v, e.getOther(v), geo.length(e));
+        }
+        return new GeoRouter<>(builder.build());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param graph a graph whose vertex positions are Position_Spherical and in which the weight of every arc
+     *              is at least the great-circle distance between its vertices.
+     */
+    public GeoRouter(CSRGraph<V> graph) {
+        this.graph = graph;
+        n = graph.V();
+        positions = new Position[n];
+        for (int v = 0; v < n; v++) positions[v] = graph.vertex(v).getPosition();
+        forward = new Search(graph);
+        backward = new Search(graph.reverse());
+    }
+
+    /**
+     * Find a shortest route.
+     *
+     * @param from the start.
+     * @param to   the destination.
+     * @param mode the kind of search.
+     * @return a Route (which is empty if there is no route).
+     * @throws IllegalArgumentException if from or to is not a vertex of the graph.
+     */
+    public Route route(V from, V to, Mode mode) {
+        int s = graph.id(from), t = graph.id(to);
+        if (s < 0 || t < 0) throw new IllegalArgumentException("GeoRouter: no such vertex: " + (s < 0 ? from : to));
+        return mode == Mode.BIDIRECTIONAL ? bidirectional(s, t) : unidirectional(s, t, mode);
+    }
+
+    /**
+     * Choose k landmarks for the ALT mode and compute their distance tables.
+     * Each landmark is the vertex which is farthest from the landmarks already chosen (the first is the farthest from vertex 0).
+     * This takes k (or 2k, for a directed graph) complete single-source searches.
+     *
+     * @param k the number of landmarks.
+     */
+    public void selectLandmarks(int k) {
+        k = Math.min(k, n);
+        int[] chosen = new int[k];
+        double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        float[] from = new float[n * k];
+        float[] to = graph.isDirected() ? new float[n * k] : from;
+        if (k > 0) {
+            forward.run(0, -1, null);
+            chosen[0] = farthest(null);
+        }
+        for (int i = 0; i < k; i++) {
+            int landmark = chosen[i];
+            forward.run(landmark, -1, null);
+            for (int v = 0; v < n; v++) {
+                double d = forward.dist(v);
+                from[v * k + i] = (float) d;
+                if (d < nearest[v]) nearest[v] = d;
+            }
+            if (to != from) {
+                backward.run(landmark, -1, null);
+                for (int v = 0; v < n; v++) to[v * k + i] = (float) backward.dist(v);
+            }
+            if (i + 1 < k) chosen[i + 1] = farthest(nearest);
+        }
+        landmarks = chosen;
+        fromLandmark = from;
+        toLandmark = to;
+    }
+
+    /**
+     * @return the vertices chosen as landmarks.
+     */
+    public List<V> landmarks() {
+        List<V> result = new ArrayList<>();
+        for (int landmark : landmarks) result.add(graph.vertex(landmark));
+        return result;
+    }
+
+    /**
+     * A route found by a GeoRouter.
+     */
+    public class Route {
+        /**
+         * @return true if there is a route.
+         */
+        public boolean exists() {
+            return cost < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * @return the total weight of the route (infinite if there is none).
+         */
+        public double cost() {
+            return cost;
+        }
+
+        /**
+         * @return the vertices of the route, from the start to the destination (empty if there is none).
+         */
+        public List<V> vertices() {
+            List<V> result = new ArrayList<>();
+            for (int v : path) result.add(graph.vertex(v));
+            return result;
+        }
+
+        /**
+         * @return the number of vertices settled (removed from a priority queue) by the search: a measure of its work.
+         */
+        public int settled() {
+            return settled;
+        }
+
+        @Override
+        public String toString() {
+            return "Route{cost=" + cost + ", vertices=" + vertices() + ", settled=" + settled + "}";
+        }
+
+        private Route(double cost, List<Integer> path, int settled) {
+            this.cost = cost;
+            this.path = path;
+            this.settled = settled;
+        }
+
+        private final double cost;
+        private final List<Integer> path;
+        private final int settled;
+    }
+
+    private Route unidirectional(int s, int t, Mode mode) {
+        double[] potential = null;
+        if (mode != Mode.DIJKSTRA) potential = mode == Mode.ALT && landmarks.length > 0 ? targetRow(t) : new double[0];
+        int settled = forward.run(s, t, potential);
+        double cost = forward.dist(t);
+        List<Integer> path = new ArrayList<>();
+        if (cost < Double.POSITIVE_INFINITY) {
+            for (int v = t; v != s; v = forward.parent[v]) path.add(v);
+            path.add(s);
+            Collections.reverse(path);
+        }
+        return new Route(cost, path, settled);
+    }
+
+    /**
+     * Bidirectional Dijkstra: expand the search whose next key is smaller,
+     * until the sum of the two next keys is at least the length of the best path found so far (mu).
+     */
+    private Route bidirectional(int s, int t) {
+        forward.reset(s);
+        backward.reset(t);
+        double mu = s == t ? 0.0 : Double.POSITIVE_INFINITY;
+        int meet = s == t ? s : -1;
+        int settled = 0;
+        while (!forward.pq.isEmpty() && !backward.pq.isEmpty()) {
+            if (forward.pq.minKey() + backward.pq.minKey() >= mu) break;
+            Search search = forward.pq.minKey() <= backward.pq.minKey() ? forward : backward;
+            Search other = search == forward ? backward : forward;
+            int v = search.pq.delMin();
+            settled++;
+            double g = search.dist(v);
+            CSRGraph<V> arcs = search.graph;
+            for (int a = arcs.begin(v), end = arcs.end(v); a < end; a++) {
+                int w = arcs.target(a);
+                double x = g + arcs.weight(a);
+                if (x < search.dist(w)) {
+                    search.update(w, x, v, x);
+                    double y = x + other.dist(w);
+                    if (y < mu) {
+                        mu = y;
+                        meet = w;
+                    }
+                }
+            }
+        }
+        List<Integer> path = new ArrayList<>();
+        if (meet >= 0) {
+            for (int v = meet; v != s; v = forward.parent[v]) path.add(v);
+            path.add(s);
+            Collections.reverse(path);
+            for (int v = meet; v != t; ) {
+                v = backward.parent[v];
+                path.add(v);
+            }
+        }
+        return new Route(mu, path, settled);
+    }
+
+    /**
+     * Compute the lower-bound data for target t: its distances from each landmark, followed by its distances to each landmark
+     * (see Search.potential).
+     */
+    private double[] targetRow(int t) {
+        int k = landmarks.length;
+        double[] result = new double[2 * k];
+        for (int i = 0; i < k; i++) {
+            result[i] = fromLandmark[t * k + i];
+            result[k + i] = toLandmark[t * k + i];
+        }
+        return result;
+    }
+
+    /**
+     * @param nearest the distance of each vertex from its nearest landmark (or null to use the current forward search).
+     * @return the reachable vertex with the greatest distance.
+     */
+    private int farthest(double[] nearest) {
+        int result = 0;
+        double max = -1;
+        for (int v = 0; v < n; v++) {
+            double d = nearest == null ? forward.dist(v) : nearest[v];
+            if (d < Double.POSITIVE_INFINITY && d > max) {
+                max = d;
+                result = v;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The state of a search in one direction.
+     * The distance and parent of a vertex are only valid if its stamp is the current version.
+     */
+    private class Search {
+        Search(CSRGraph<V> graph) {
+            this.graph = graph;
+            dist = new double[n];
+            parent = new int[n];
+            stamp = new int[n];
+            pq = new IndexMinPQDouble(n);
+        }
+
+        double dist(int v) {
+            return stamp[v] == version ? dist[v] : Double.POSITIVE_INFINITY;
+        }
+
+        void reset(int s) {
+            while (!pq.isEmpty()) pq.delMin();
+            version++;
+            update(s, 0.0, s, 0.0);
+        }
+
+        void update(int w, double d, int v, double key) {
+            stamp[w] = version;
+            dist[w] = d;
+            parent[w] = v;
+            if (pq.contains(w)) pq.changeKey(w, key);
+            else pq.insert(w, key);
+        }
+
+        /**
+         * Run a search from s (to t, or to every vertex if t is negative).
+         *
+         * @param potential null for no lower bound (Dijkstra); otherwise the landmark data for t (see targetRow),
+         *                  which may be empty for the great-circle bound alone.
+         * @return the number of vertices settled.
+         */
+        int run(int s, int t, double[] potential) {
+            reset(s);
+            if (potential != null) pq.changeKey(s, potential(s, t, potential));
+            int settled = 0;
+            while (!pq.isEmpty()) {
+                int v = pq.delMin();
+                settled++;
+                if (v == t) break;
+                double g = dist[v];
+                for (int a = graph.begin(v), end = graph.end(v); a < end; a++) {
+                    int w = graph.target(a);
+                    double x = g + graph.weight(a);
+                    if (x < dist(w)) update(w, x, v, potential == null ? x : x + potential(w, t, potential));
+                }
+            }
+            return settled;
+        }
+
+        /**
+         * A lower bound on the distance from v to t: the great-circle distance and (if there are landmarks) the landmark bounds.
+         * The bounds are reduced very slightly to allow for rounding (of the float tables in particular),
+         * so that they never exceed the true distance.
+         */
+        double potential(int v, int t, double[] row) {
+            double result = GeoGraphSpherical.distance(positions[v], positions[t]) * (1 - 1E-9);
+            int k = row.length / 2;
+            for (int i = 0; i < k; i++) {
+                double fromT = row[i], fromV = fromLandmark[v * k + i];
+                if (fromT < Double.POSITIVE_INFINITY && fromV < Double.POSITIVE_INFINITY)
+                    result = Math.max(result, fromT - fromV - SLACK * (fromT + fromV));
+                double toV = toLandmark[v * k + i], toT = row[k + i];
+                if (toV < Double.POSITIVE_INFINITY && toT < Double.POSITIVE_INFINITY)
+                    result = Math.max(result, toV - toT - SLACK * (toV + toT));
+            }
+            return result;
+        }
+
+        private final CSRGraph<V> graph;
+        private final double[] dist;
+        private final int[] parent;
+        private final int[] stamp;
+        private final IndexMinPQDouble pq;
+        private int version = 0;
+    }
+
+    /**
+     * The relative rounding error allowed for two float distances (each has a relative error of at most 2^-24).
+     */
+    private static final double SLACK = 1.2E-7;
+
+    private final CSRGraph<V> graph;
+    private final int n;
+    private final Position[] positions;
+    private final Search forward;
+    private final Search backward;
+    private int[] landmarks = new int[0];
+    private float[] fromLandmark = new float[0];
+    private float[] toLandmark = new float[0];
+}
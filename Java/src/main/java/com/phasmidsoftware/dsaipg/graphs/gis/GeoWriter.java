@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A streaming writer of GeoPoints (as points) and edges (as lines) to a geographic file format (see KmlWriter and GeoJsonWriter).
+ * <p>
+ * Each feature is written, as soon as it is given, into a single StringBuilder which is reused throughout;
+ * the StringBuilder is copied into a reused character array (and so to the file) whenever it grows beyond BUFFER_SIZE.
+ * Nothing else is retained, so that a graph of any size can be written in bounded memory.
+ * <p>
+ * The format is determined by the name of the file (see create): ".kml" and ".kmz" (zipped KML) files are written as KML;
+ * ".geojson" and ".json" as GeoJSON; and any of these may be followed by ".gz" for GZIP compression.
+ * <p>
+ * If chunkSize is positive, the output is split into separate, complete, files of at most chunkSize features each:
+ * the first has the given name and the others the same name with "-1", "-2", etc. inserted before the extension.
+ * <p>
+ * The positions of the GeoPoints must be Position_Spherical.
+ *
+ * @param <V> the vertex type.
+ */
+public abstract class GeoWriter<V extends GeoPoint> implements Closeable {
+
+    /**
+     * Method to create a GeoWriter of a format according to the name of the file, without chunks.
+     *
+     * @param file        the file to be written.
+     * @param name        the name of the document.
+     * @param description the description of the document.
+     * @param <V>         the vertex type.
+     * @return a new, open, GeoWriter.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static <V extends GeoPoint> GeoWriter<V> create(File file, String name, String description) throws IOException {
+        return create(file, name, description, 0);
+    }
+
+    /**
+     * Method to create a GeoWriter of a format according to the name of the file.
+     *
+     * @param file        the (first) file to be written.
+     * @param name        the name of the document.
+     * @param description the description of the document.
+     * @param chunkSize   the maximum number of features in each file (or zero for no maximum).
+     * @param <V>         the vertex type.
+     * @return a new, open, GeoWriter.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static <V extends GeoPoint> GeoWriter<V> create(File file, String name, String description, int chunkSize) throws IOException {
+        String extension = extension(file.getName().toLowerCase(Locale.ENGLISH));
+        switch (extension) {
+            case ".kml":
+            case ".kmz":
+                return new KmlWriter<>(file, name, description, chunkSize);
+            case ".geojson":
+            case ".json":
+                return new GeoJsonWriter<>(file, name, description, chunkSize);
+            default:
+                throw new IllegalArgumentException("GeoWriter: unknown type of file: " + file);
+        }
+    }
+
+    /**
+     * Write a vertex as a point.
+     *
+     * @param vertex the vertex.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writePoint(V vertex) throws IOException {
+        beginFeature();
+        point(sb, vertex);
+        endFeature();
+    }
+
+    /**
+     * Write a line between two vertices.
+     *
+     * @param v1          one vertex.
+     * @param v2          the other vertex.
+     * @param description the description of the line.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeLine(V v1, V v2, String description) throws IOException {
+        beginFeature();
+        line(sb, v1, v2, description);
+        endFeature();
+    }
+
+    /**
+     * Write an edge as a line (described by the edge itself).
+     *
+     * @param edge the edge.
+     * @param <E>  the edge attribute type.
+     * @throws IOException if the file cannot be written.
+     */
+    public <E> void writeEdge(Edge<V, E> edge) throws IOException {
+        V v1 = edge.get();
+        writeLine(v1, edge.getOther(v1), edge.toString());
+    }
+
+    /**
+     * Write edges (for example, those of a minimum spanning tree) as lines, in the order given.
+     *
+     * @param edges the edges.
+     * @param <E>   the edge attribute type.
+     * @throws IOException if the file cannot be written.
+     */
+    public <E> void writeEdges(Iterable<Edge<V, E>> edges) throws IOException {
+        for (Edge<V, E> edge : edges) writeEdge(edge);
+    }
+
+    /**
+     * Write all the vertices of a graph as points, followed by all its edges as lines.
+     *
+     * @param graph the graph.
+     * @param <E>   the edge attribute type.
+     * @throws IOException if the file cannot be written.
+     */
+    public <E> void writeGraph(EdgeGraph<V, E> graph) throws IOException {
+        for (V vertex : graph.vertices()) writePoint(vertex);
+        writeEdges(graph.edges());
+    }
+
+    /**
+     * @return the number of features written so far (in all files).
+     */
+    public long features() {
+        return features;
+    }
+
+    /**
+     * @return the number of files written (or being written) so far.
+     */
+    public int files() {
+        return chunk + 1;
+    }
+
+    /**
+     * Complete the current file and close it.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void close() throws IOException {
+        if (writer == null) return;
+        colophon(sb);
+        drain();
+        writer.close();
+        writer = null;
+    }
+
+    /**
+     * Constructor which opens the first file and writes its preamble.
+     *
+     * @param file        the (first) file.
+     * @param name        the name of the document.
+     * @param description the description of the document.
+     * @param chunkSize   the maximum number of features in each file (or zero for no maximum).
+     * @throws IOException if the file cannot be opened.
+     */
+    GeoWriter(File file, String name, String description, int chunkSize) throws IOException {
+        if (chunkSize < 0) throw new IllegalArgumentException("GeoWriter: negative chunkSize: " + chunkSize);
+        this.file = file;
+        this.name = name;
+        this.description = description;
+        this.chunkSize = chunkSize;
+        open(file);
+    }
+
+    /**
+     * Append the start of the document.
+     */
+    abstract void preamble(StringBuilder sb, String name, String description);
+
+    /**
+     * Append a point.
+     */
+    abstract void point(StringBuilder sb, V vertex);
+
+    /**
+     * Append a line.
+     */
+    abstract void line(StringBuilder sb, V v1, V v2, String description);
+
+    /**
+     * Append whatever must come between two features (by default, nothing).
+     */
+    void separator(StringBuilder sb) {
+    }
+
+    /**
+     * Append the end of the document.
+     */
+    abstract void colophon(StringBuilder sb);
+
+    /**
+     * Append the longitude and latitude of a vertex, separated by a comma.
+     */
+    static void appendCoordinates(StringBuilder sb, GeoPoint vertex) {
+        Position_Spherical position = (Position_Spherical) vertex.getPosition();
+        sb.append(position.getLongitude()).append(',').append(position.getLatitude());
+    }
+
+    private void beginFeature() throws IOException {
+        if (writer == null) throw new IOException("GeoWriter: closed");
+        if (chunkSize > 0 && inChunk == chunkSize) {
+            close();
+            open(chunkFile(file, ++chunk));
+        }
+        if (inChunk > 0) separator(sb);
+    }
+
+    private void endFeature() throws IOException {
+        inChunk++;
+        features++;
+        if (sb.length() >= BUFFER_SIZE) drain();
+    }
+
+    private void open(File f) throws IOException {
+        String fileName = f.getName().toLowerCase(Locale.ENGLISH);
+        OutputStream stream = new BufferedOutputStream(Files.newOutputStream(f.toPath()), BUFFER_SIZE);
+        if (fileName.endsWith(".gz")) stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        else if (fileName.endsWith(".kmz")) {
+            ZipOutputStream zip = new ZipOutputStream(stream);
+            zip.putNextEntry(new ZipEntry("doc.kml"));
+            stream = zip;
+        }
+        writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        inChunk = 0;
+        preamble(sb, name, description);
+    }
+
+    /**
+     * Write the contents of sb to the file (by way of chars) and empty it.
+     */
+    private void drain() throws IOException {
+        for (int i = 0, n = sb.length(); i < n; i += chars.length) {
+            int length = Math.min(chars.length, n - i);
+            sb.getChars(i, i + length, chars, 0);
+            writer.write(chars, 0, length);
+        }
+        sb.setLength(0);
+    }
+
+    /**
+     * @return the name of the file for the given chunk.
+     * NOTE: this is package-private because it is used by unit tests.
+     */
+    static File chunkFile(File file, int chunk) {
+        if (chunk == 0) return file;
+        String fileName = file.getName(), lower = fileName.toLowerCase(Locale.ENGLISH);
+        int dot = lower.length() - extension(lower).length() - (lower.endsWith(".gz") ? 3 : 0);
+        return new File(file.getParentFile(), fileName.substring(0, dot) + "-" + chunk + fileName.substring(dot));
+    }
+
+    /**
+     * @return the extension of a (lower-case) file name, ignoring any ".gz" suffix.
+     */
+    private static String extension(String fileName) {
+        String base = fileName.endsWith(".gz") ? fileName.substring(0, fileName.length() - 3) : fileName;
+        int dot = base.lastIndexOf('.');
+        return dot < 0 ? "" : base.substring(dot);
+    }
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final StringBuilder sb = new StringBuilder(BUFFER_SIZE + 1024);
+    private final char[] chars = new char[BUFFER_SIZE];
+    private final File file;
+    private final String name;
+    private final String description;
+    private final int chunkSize;
+    private Writer writer;
+    private int chunk = 0;
+    private int inChunk = 0;
+    private long features = 0;
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.traversal.FilterKruskal;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class to time the export of a large network (the minimum spanning tree of random points, found by way of Delaunay)
+ * in each of the formats supported by GeoWriter.
+ */
+public class GeoWriterBenchmark {
+
+    /**
+     * The main method is the entry point for the GeoWriterBenchmark application.
+     *
+     * @param args the number of points (default one million), and the directory for the output files (default the temporary directory).
+     * @throws IOException if a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File directory = new File(args.length > 1 ? args[1] : System.getProperty("java.io.tmpdir"));
+        new GeoWriterBenchmark(DelaunayBenchmark.randomPoints(n, new Random())).run(directory, 0);
+    }
+
+    /**
+     * Constructor which finds the minimum spanning tree of the given points.
+     *
+     * @param points the points.
+     */
+    public GeoWriterBenchmark(List<GeoPoint> points) {
+        this.points = points;
+        int[] edges = new Delaunay<>(points).edges();
+        int m = edges.length / 2;
+        int[] u = new int[m], v = new int[m];
+        double[] w = new double[m];
+        for (int k = 0; k < m; k++) {
+            u[k] = edges[2 * k];
+            v[k] = edges[2 * k + 1];
+            w[k] = GeoGraphSpherical.distance(points.get(u[k]).getPosition(), points.get(v[k]).getPosition());
+        }
+        FilterKruskal mst = new FilterKruskal(points.size(), u, v, w);
+        int[] tree = mst.edges();
+        from = new int[tree.length];
+        to = new int[tree.length];
+        for (int k = 0; k < tree.length; k++) {
+            from[k] = u[tree[k]];
+            to[k] = v[tree[k]];
+        }
+    }
+
+    /**
+     * Write the points and the tree to a file of each type, and delete it.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param directory the directory for the files.
+     * @param chunkSize the maximum number of features in each file (or zero for no maximum).
+     * @throws IOException if a file cannot be written.
+     */
+    void run(File directory, int chunkSize) throws IOException {
+        logger.info("GeoWriterBenchmark: " + points.size() + " points and " + from.length + " lines");
+        for (String fileName : new String[]{"network.kml", "network.kmz", "network.geojson", "network.geojson.gz"}) {
+            File file = new File(directory, fileName);
+            long start = System.nanoTime();
+            int files;
+            try (GeoWriter<GeoPoint> writer = GeoWriter.create(file, "Network", "The minimum spanning tree of " + points.size() + " points", chunkSize)) {
+                for (GeoPoint point : points) writer.writePoint(point);
+                for (int k = 0; k < from.length; k++)
+                    writer.writeLine(points.get(from[k]), points.get(to[k]), "");
+                files = writer.files();
+            }
+            long time = (System.nanoTime() - start) / 1_000_000;
+            long length = 0;
+            for (int chunk = 0; chunk < files; chunk++) {
+                File chunkFile = GeoWriter.chunkFile(file, chunk);
+                length += chunkFile.length();
+                if (!chunkFile.delete()) logger.warn("GeoWriterBenchmark: could not delete " + chunkFile);
+            }
+            logger.info(fileName + ": " + files + " file(s) of " + length / 1024 + " KB in total, in " + time + " mSec");
+        }
+    }
+
+    final static LazyLogger logger = new LazyLogger(GeoWriterBenchmark.class);
+
+    private final List<GeoPoint> points;
+    private final int[] from;
+    private final int[] to;
+}
@@ -7,13 +7,19 @@ package com.phasmidsoftware.dsaipg.graphs.gis;
 import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
 import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 
+/**
+ * Class to write an EdgeGraph (typically a minimum spanning tree) as a KML file (by way of KmlWriter),
+ * with the edges in order of their sequence numbers.
+ * A file whose name ends with ".kmz" is zipped, and one whose name ends with ".gz" is compressed.
+ *
+ * @param <V> the vertex type.
+ * @param <E> the edge attribute type.
+ */
 public class Kml<V extends GeoPoint, E extends Sequenced> {
 
     private final EdgeGraph<V, E> graph;
@@ -22,79 +28,38 @@ public class Kml<V extends GeoPoint, E extends Sequenced> {
         this.graph = graph;
     }
 
+    /**
+     * Write the vertices and then the edges of the graph to file.
+     * If the edges are already in sequence, they are streamed directly from the graph;
+     * otherwise, they have first to be collected and sorted.
+     *
+     * @param file the file.
+     * @throws IOException if the file cannot be written.
+     */
     public void createKML(File file) throws IOException {
-        boolean x = file.createNewFile();
-        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-        writer.write(preamble);
-        Iterable<V> vertices = graph.vertices();
-        for (V vertex : vertices) writer.write(asPoint(vertex));
-
-        Iterable<Edge<V, E>> edges = graph.edges();
-        ArrayList<Edge<V, E>> arrayList = new ArrayList<>();
-        for (Edge<V, E> edge : edges) arrayList.add(edge);
-        arrayList.sort(Comparator.comparingInt(o -> o.getAttribute().getSequence()));
-        for (Edge<V, E> edge : arrayList) writer.write(asLine(edge));
-        writer.write(colophon);
-        writer.close();
-
+        try (KmlWriter<V> writer = new KmlWriter<>(file, name, description, 0)) {
+            for (V vertex : graph.vertices()) writer.writePoint(vertex);
+            Iterable<Edge<V, E>> edges = graph.edges();
+            if (!inSequence(edges)) {
+                ArrayList<Edge<V, E>> arrayList = new ArrayList<>();
+                for (Edge<V, E> edge : edges) arrayList.add(edge);
+                arrayList.sort(Comparator.comparingInt(o -> o.getAttribute().getSequence()));
+                edges = arrayList;
+            }
+            writer.writeEdges(edges);
+        }
     }
 
-    private String asPoint(V vertex) {
-        return "      <Placemark>\n" + "      <name>" + vertex.getName() +
-                "</name>\n" +
-                "      <description>" + vertex +
-                "</description>\n" +
-//                "      <styleUrl>#icon-1899-0288D1-nodesc</styleUrl>\n" +
-                "      <Point>\n" +
-                "        <coordinates>\n" + vertex.getPosition() +
-                "         \n" +
-                "        </coordinates>\n" +
-                "      </Point>\n" +
-                "      </Placemark>\n";
+    private boolean inSequence(Iterable<Edge<V, E>> edges) {
+        int last = Integer.MIN_VALUE;
+        for (Edge<V, E> edge : edges) {
+            int sequence = edge.getAttribute().getSequence();
+            if (sequence < last) return false;
+            last = sequence;
+        }
+        return true;
     }
 
-    private String asLine(Edge<V, E> edge) {
-        V v1 = edge.get();
-        V v2 = edge.getOther(v1);
-
-        // TODO understand why this doesn't work
-//        Tunnel e = (Tunnel) edge;
-//        Building v1 = e.get();
-//        Building v2 = e.getOther(v1);
-
-        return "      <Placemark>\n" + "      <name>" + v1.getName() + "--" + v2.getName() +
-                "</name>\n" +
-                "      <description>" + edge +
-                "</description>\n" +
-                "      <LineString>\n" +
-                "        <tessellate>1</tessellate>\n" +
-                "        <coordinates>\n" +
-                v1.getPosition() +
-                "\n" +
-                v2.getPosition() +
-                "\n" +
-                "        </coordinates>\n" +
-                "      </LineString>\n" +
-                "      </Placemark>\n";
-    }
-
-    private final static String preamble = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
-            "<kml xmlns=\"http://www.opengis.net/kml/2.2\">\n" +
-            "  <Document>\n" +
-            "    <name>NEU Tunnel System</name>\n" +
-            "    <description>A possible design for a future tunnel system for the Northeastern University Campus in Boston, MA.</description>\n"
-//            "    <Style id=\"yellowLineGreenPoly\">\n" +
-//            "      <LineStyle>\n" +
-//            "        <color>7f00ffff</color>\n" +
-//            "        <width>4</width>\n" +
-//            "      </LineStyle>\n" +
-//            "      <PolyStyle>\n" +
-//            "        <color>7f00ff00</color>\n" +
-//            "      </PolyStyle>\n" +
-//            "    </Style>"
-            ;
-
-    private final static String colophon = "  </Document>\n" +
-            "</kml>\n";
+    private final static String name = "NEU Tunnel System";
+    private final static String description = "A possible design for a future tunnel system for the Northeastern University Campus in Boston, MA.";
 }
-
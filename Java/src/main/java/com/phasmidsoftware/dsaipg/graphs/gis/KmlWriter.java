@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A GeoWriter for KML (Keyhole Markup Language): each point and line is a Placemark in a single Document.
+ *
+ * @param <V> the vertex type.
+ */
+public class KmlWriter<V extends GeoPoint> extends GeoWriter<V> {
+
+    /**
+     * Constructor.
+     *
+     * @param file        the (first) file (a ".kmz" file is zipped; a ".gz" file is compressed).
+     * @param name        the name of the document.
+     * @param description the description of the document.
+     * @param chunkSize   the maximum number of placemarks in each file (or zero for no maximum).
+     * @throws IOException if the file cannot be opened.
+     */
+    public KmlWriter(File file, String name, String description, int chunkSize) throws IOException {
+        super(file, name, description, chunkSize);
+    }
+
+    @Override
+    void preamble(StringBuilder sb, String name, String description) {
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<kml xmlns=\"http://www.opengis.net/kml/2.2\">\n  <Document>\n    <name>");
+        escape(sb, name);
+        sb.append("</name>\n    <description>");
+        escape(sb, description);
+        sb.append("</description>\n");
+    }
+
+    @Override
+    void point(StringBuilder sb, V vertex) {
+        sb.append("      <Placemark>\n      <name>");
+        escape(sb, vertex.getName());
+        sb.append("</name>\n      <description>");
+        escape(sb, vertex.toString());
+        sb.append("</description>\n      <Point>\n        <coordinates>");
+        appendCoordinates(sb, vertex);
+        sb.append(",0</coordinates>\n      </Point>\n      </Placemark>\n");
+    }
+
+    @Override
+    void line(StringBuilder sb, V v1, V v2, String description) {
+        sb.append("      <Placemark>\n      <name>");
+        escape(sb, v1.getName());
+        sb.append("--");
+        escape(sb, v2.getName());
+        sb.append("</name>\n      <description>");
+        escape(sb, description);
+        sb.append("</description>\n      <LineString>\n        <tessellate>1</tessellate>\n        <coordinates>\n");
+        appendCoordinates(sb, v1);
+        sb.append(",0\n");
+        appendCoordinates(sb, v2);
+        sb.append(",0\n        </coordinates>\n      </LineString>\n      </Placemark>\n");
+    }
+
+    @Override
+    void colophon(StringBuilder sb) {
+        sb.append("  </Document>\n</kml>\n");
+    }
+
+    /**
+     * Append s to sb, escaping the characters which are special in XML.
+     */
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.traversal.FilterKruskal;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Graph_Edges;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a generic solution for Kruskal's algorithm to find the minimum spanning tree of an edge-weighted graph
+ * which, instead of taking every edge from a priority queue, uses Filter-Kruskal
+ * (see FilterKruskal, which works on primitive edge arrays).
+ * This is much faster for dense graphs (such as the graph of all possible tunnels between buildings)
+ * because most of the heavy edges are filtered out without ever being sorted.
+ * <p>
+ * The result is the same as that of Kruskal (other than the order of edges with equal attributes).
+ *
+ * @param <V> is the type of each vertex.
+ * @param <X> is the type of each edge attribute.
+ */
+public class KruskalFiltered<V, X extends Comparable<X> & Sequenced> extends MST<V, X> {
+
+    public KruskalFiltered(EdgeGraph<V, X> graph) {
+        Map<V, Integer> index = new HashMap<>();
+        for (V vertex : graph.vertices()) index.putIfAbsent(vertex, index.size());
+        List<Edge<V, X>> edges = new ArrayList<>();
+        for (Edge<V, X> edge : graph.edges()) edges.add(edge);
+        int[] u = new int[edges.size()], v = new int[edges.size()];
+        for (int i = 0; i < u.length; i++) {
+            Edge<V, X> edge = edges.get(i);
+            V s1 = edge.get();
+            u[i] = index.computeIfAbsent(s1, x -> index.size());
+            v[i] = index.computeIfAbsent(edge.getOther(s1), x -> index.size());
+        }
+        FilterKruskal filterKruskal = new FilterKruskal(index.size(), u, v, (e, f) -> edges.get(e).getAttribute().compareTo(edges.get(f).getAttribute()));
+        List<Edge<V, X>> result = new ArrayList<>();
+        for (int e : filterKruskal.edges()) result.add(edges.get(e));
+        mst = result;
+    }
+
+    public EdgeGraph<V, X> getMST() {
+        int sequence = 0;
+        EdgeGraph<V, X> result = new Graph_Edges<>();
+        for (Edge<V, X> edge : mst) {
+            edge.getAttribute().setSequence(sequence++);
+            result.addEdge(edge);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+/*
+ *  For additional documentation, see <a href="https://algs4.cs.princeton.edu/43mst">Section 4.3</a> of
+ *  <i>Algorithms, 4th Edition</i> by Robert Sedgewick and Kevin Wayne.
+ *
+ *  @author Robert Sedgewick
+ *  @author Kevin Wayne
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import com.phasmidsoftware.dsaipg.adt.pq.IndexMinPQDouble;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+/**
+ * Eager version of Prim's algorithm: rather than keeping every crossing edge on a priority queue (as Prims does),
+ * it keeps only the best edge to each non-tree vertex, in an indexed priority queue with primitive keys.
+ * The priority queue therefore holds at most V entries (rather than E)
+ * and there is no allocation for each edge considered.
+ * If the graph is not connected, the result is a minimum spanning forest.
+ */
+public class EagerPrims {
+    private final Edge[] edgeTo;        // edgeTo[v] = shortest edge from tree vertex to non-tree vertex
+    private final double[] distTo;      // distTo[v] = weight of shortest such edge
+    private final boolean[] marked;     // marked[v] = true if v on tree, false otherwise
+    private final IndexMinPQDouble pq;
+
+    public EagerPrims(EdgeWeightedGraph G) {
+        edgeTo = new Edge[G.V()];
+        distTo = new double[G.V()];
+        marked = new boolean[G.V()];
+        pq = new IndexMinPQDouble(G.V());
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        for (int v = 0; v < G.V(); v++) // run from each vertex to find minimum spanning forest
+            if (!marked[v]) prim(G, v);
+    }
+
+    private void prim(EdgeWeightedGraph G, int s) {
+        distTo[s] = 0.0;
+        pq.insert(s, distTo[s]);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            scan(G, v);
+        }
+    }
+
+    private void scan(EdgeWeightedGraph G, int v) { // Add v to tree and update the best edge to each non-tree neighbor.
+        marked[v] = true;
+        for (Edge e : G.adj(v)) {
+            int w = e.other(v);
+            if (marked[w]) continue; // v-w is obsolete edge
+            if (e.weight() < distTo[w]) {
+                distTo[w] = e.weight();
+                edgeTo[w] = e;
+                if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
+                else pq.insert(w, distTo[w]);
+            }
+        }
+    }
+
+    public Iterable<Edge> edges() {
+        Queue<Edge> mst = new LinkedList<>();
+        for (Edge e : edgeTo)
+            if (e != null) mst.add(e);
+        return mst;
+    }
+
+    public double weight() {
+        double weight = 0.0;
+        for (Edge e : edges())
+            weight += e.weight();
+        return weight;
+    }
+}
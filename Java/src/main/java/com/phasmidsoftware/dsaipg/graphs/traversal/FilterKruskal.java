@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filter-Kruskal (V. Osipov, P. Sanders and J. Singler, 2009): Kruskal's algorithm for the minimum spanning forest
+ * of an undirected graph given as a primitive edge list (edge i joins vertices u[i] and v[i]),
+ * in which the edges are never completely sorted.
+ * <p>
+ * Instead, the edges are partitioned (as in quicksort) around a random pivot edge;
+ * the light part is solved first (recursively); then the heavy part is <em>filtered</em>,
+ * that is to say every edge whose ends are already connected is dropped, before it too is partitioned and solved.
+ * Small parts are sorted by insertion sort and then scanned as in Kruskal's algorithm.
+ * In a dense graph, most of the heavy edges are filtered out long before they would have been sorted,
+ * and the algorithm stops altogether as soon as the forest has V-1 edges.
+ * <p>
+ * Large partitions and filters are run in parallel (by fork-join), while the union-find itself is only updated
+ * by the (sequential) Kruskal scans, so it needs no synchronization.
+ * <p>
+ * The edges are ordered by an EdgeOrder (normally by weight) with ties broken by edge id,
+ * so the result is the same as that of any other algorithm with the same tie-breaking.
+ */
+public class FilterKruskal {
+
+    /**
+     * The order of two edges, given by their ids.
+     */
+    @FunctionalInterface
+    public interface EdgeOrder {
+        /**
+         * @param e the id of an edge.
+         * @param f the id of another edge.
+         * @return a negative integer, zero, or a positive integer as edge e is lighter than, the same as, or heavier than edge f.
+         */
+        int compare(int e, int f);
+    }
+
+    /**
+     * Constructor which finds the minimum spanning forest of a graph whose edges have weights.
+     *
+     * @param n the number of vertices.
+     * @param u the first vertex of each edge.
+     * @param v the second vertex of each edge.
+     * @param w the weight of each edge.
+     * @throws IllegalArgumentException if the arrays differ in length or a vertex is not in the range 0 through n-1.
+     */
+    public FilterKruskal(int n, int[] u, int[] v, double[] w) {
+        this(n, u, v, w, (e, f) -> Double.compare(w[e], w[f]));
+    }
+
+    /**
+     * Constructor which finds the minimum spanning forest of a graph whose edges are ordered by order.
+     *
+     * @param n     the number of vertices.
+     * @param u     the first vertex of each edge.
+     * @param v     the second vertex of each edge.
+     * @param order the order of the edges.
+     * @throws IllegalArgumentException if the arrays differ in length or a vertex is not in the range 0 through n-1.
+     */
+    public FilterKruskal(int n, int[] u, int[] v, EdgeOrder order) {
+        this(n, u, v, null, order);
+    }
+
+    private FilterKruskal(int n, int[] u, int[] v, double[] w, EdgeOrder order) {
+        int m = u.length;
+        if (v.length != m || (w != null && w.length != m))
+            throw new IllegalArgumentException("FilterKruskal: arrays differ in length");
+        for (int i = 0; i < m; i++)
+            if (u[i] < 0 || u[i] >= n || v[i] < 0 || v[i] >= n)
+                throw new IllegalArgumentException("FilterKruskal: edge " + i + " has no such vertex: " + u[i] + " or " + v[i]);
+        this.n = n;
+        this.u = u;
+        this.v = v;
+        this.w = w;
+        this.order = order;
+        parent = new int[n];
+        sizes = new int[n];
+        for (int x = 0; x < n; x++) {
+            parent[x] = x;
+            sizes[x] = 1;
+        }
+        forest = new int[Math.max(0, n - 1)];
+        ids = new int[m];
+        for (int i = 0; i < m; i++) ids[i] = i;
+        scratch = m > GRAIN ? new int[m] : null;
+        solve(0, m);
+    }
+
+    /**
+     * @return the ids of the edges in the minimum spanning forest, lightest first.
+     */
+    public int[] edges() {
+        return Arrays.copyOf(forest, count);
+    }
+
+    /**
+     * @return the total weight of the minimum spanning forest.
+     * @throws IllegalStateException if this FilterKruskal was constructed with an EdgeOrder rather than weights.
+     */
+    public double weight() {
+        if (w == null) throw new IllegalStateException("FilterKruskal: no weights");
+        double result = 0;
+        for (int i = 0; i < count; i++) result += w[forest[i]];
+        return result;
+    }
+
+    /**
+     * @return the number of trees in the minimum spanning forest (1 if the graph is connected).
+     */
+    public int components() {
+        return n - count;
+    }
+
+    /**
+     * @return the number of edges which were sorted and scanned by Kruskal's algorithm
+     * (the others were either pivots, filtered out, or never needed at all).
+     */
+    public int sorted() {
+        return sorted;
+    }
+
+    /**
+     * Solve for the edges ids[lo..hi), which are all heavier than every edge already considered.
+     * The light part is solved recursively; the heavy part by iteration.
+     */
+    private void solve(int lo, int hi) {
+        while (hi > lo && count < n - 1) {
+            if (hi - lo <= BASE) {
+                insertionSort(lo, hi);
+                sorted += hi - lo;
+                for (int i = lo; i < hi && count < n - 1; i++) consider(ids[i]);
+                return;
+            }
+            int mid = partition(lo, hi);
+            solve(lo, mid);
+            if (count == n - 1) return;
+            consider(ids[mid]);
+            lo = mid + 1;
+            hi = filter(lo, hi);
+        }
+    }
+
+    /**
+     * Add edge e to the forest if its ends are not yet connected.
+     */
+    private void consider(int e) {
+        int a = find(u[e]), b = find(v[e]);
+        if (a == b) return;
+        if (sizes[a] < sizes[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        sizes[a] += sizes[b];
+        forest[count++] = e;
+    }
+
+    /**
+     * Partition ids[lo..hi) around a random pivot edge.
+     *
+     * @return the index of the pivot, such that the edges before it are lighter and the edges after it are heavier.
+     */
+    private int partition(int lo, int hi) {
+        int p = pivot(lo, hi);
+        if (hi - lo > GRAIN) {
+            lights.set(0);
+            heavies.set(0);
+            pool.invoke(new Partition(p, lo, hi, lo, hi));
+            int mid = lo + lights.get();
+            scratch[mid] = p;
+            System.arraycopy(scratch, lo, ids, lo, hi - lo);
+            return mid;
+        }
+        int j = lo;
+        while (ids[j] != p) j++;
+        swap(j, hi - 1);
+        int i = lo;
+        for (j = lo; j < hi - 1; j++) if (less(ids[j], p)) swap(i++, j);
+        swap(i, hi - 1);
+        return i;
+    }
+
+    /**
+     * Filter ids[lo..hi), keeping only the edges whose ends are not yet connected, at the start of the range.
+     *
+     * @return the end of the kept edges.
+     */
+    private int filter(int lo, int hi) {
+        if (hi - lo > GRAIN) {
+            lights.set(0);
+            pool.invoke(new Filter(lo, hi, lo));
+            int k = lights.get();
+            System.arraycopy(scratch, lo, ids, lo, k);
+            return lo + k;
+        }
+        int k = lo;
+        for (int i = lo; i < hi; i++) if (!connected(ids[i])) ids[k++] = ids[i];
+        return k;
+    }
+
+    /**
+     * Copy the edges of ids[lo..hi) (other than the pivot) into scratch[from..to): the lighter ones from the start,
+     * the heavier ones from the end.
+     */
+    private class Partition extends RecursiveAction {
+        Partition(int pivot, int from, int to, int lo, int hi) {
+            this.pivot = pivot;
+            this.from = from;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Partition(pivot, from, to, lo, mid), new Partition(pivot, from, to, mid, hi));
+                return;
+            }
+            int[] light = new int[hi - lo];
+            int[] heavy = new int[hi - lo];
+            int l = 0, h = 0;
+            for (int i = lo; i < hi; i++) {
+                int e = ids[i];
+                if (e == pivot) continue;
+                if (less(e, pivot)) light[l++] = e;
+                else heavy[h++] = e;
+            }
+            if (l > 0) System.arraycopy(light, 0, scratch, from + lights.getAndAdd(l), l);
+            if (h > 0) System.arraycopy(heavy, 0, scratch, to - heavies.addAndGet(h), h);
+        }
+
+        private final int pivot;
+        private final int from;
+        private final int to;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Copy the edges of ids[lo..hi) whose ends are not yet connected into scratch (from index from).
+     * NOTE: the union-find is only read here, so the tasks need no synchronization.
+     */
+    private class Filter extends RecursiveAction {
+        Filter(int lo, int hi, int from) {
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Filter(lo, mid, from), new Filter(mid, hi, from));
+                return;
+            }
+            int[] keep = new int[hi - lo];
+            int k = 0;
+            for (int i = lo; i < hi; i++) if (!connected(ids[i])) keep[k++] = ids[i];
+            if (k > 0) System.arraycopy(keep, 0, scratch, from + lights.getAndAdd(k), k);
+        }
+
+        private final int lo;
+        private final int hi;
+        private final int from;
+    }
+
+    /**
+     * @return the median (in edge order) of three edges of ids[lo..hi), chosen at random.
+     */
+    private int pivot(int lo, int hi) {
+        int a = ids[lo + random.nextInt(hi - lo)], b = ids[lo + random.nextInt(hi - lo)], c = ids[lo + random.nextInt(hi - lo)];
+        if (less(b, a)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        return less(c, a) ? a : less(c, b) ? c : b;
+    }
+
+    private void insertionSort(int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int e = ids[i];
+            int j = i;
+            for (; j > lo && less(e, ids[j - 1]); j--) ids[j] = ids[j - 1];
+            ids[j] = e;
+        }
+    }
+
+    /**
+     * @return true if edge e is lighter than edge f (ties are broken by id).
+     */
+    private boolean less(int e, int f) {
+        int cf = order.compare(e, f);
+        return cf < 0 || (cf == 0 && e < f);
+    }
+
+    /**
+     * Find with path halving (only called by the sequential Kruskal scans).
+     */
+    private int find(int x) {
+        while (parent[x] != x) x = parent[x] = parent[parent[x]];
+        return x;
+    }
+
+    /**
+     * @return true if the ends of edge e are already connected (without changing the union-find, so that it is safe
+     * to call from parallel tasks).
+     */
+    private boolean connected(int e) {
+        int a = u[e], b = v[e];
+        while (parent[a] != a) a = parent[a];
+        while (parent[b] != b) b = parent[b];
+        return a == b;
+    }
+
+    private void swap(int i, int j) {
+        int t = ids[i];
+        ids[i] = ids[j];
+        ids[j] = t;
+    }
+
+    /**
+     * The number of edges at or below which a part is sorted rather than partitioned.
+     */
+    private static final int BASE = 32;
+    /**
+     * The number of edges above which a partition or filter is run in parallel (and below which a task is not split).
+     */
+    private static final int GRAIN = 1 << 12;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final Random random = new Random(0L);
+    private final int n;
+    private final int[] u;
+    private final int[] v;
+    private final double[] w;
+    private final EdgeOrder order;
+    private final int[] parent;
+    private final int[] sizes;
+    private final int[] forest;
+    /**
+     * The edge ids, which are partitioned and filtered in place.
+     */
+    private final int[] ids;
+    /**
+     * The target of the parallel partitions and filters (null if there are too few edges to need it).
+     */
+    private final int[] scratch;
+    /**
+     * The number of light (or kept) and heavy edges copied to scratch by the current parallel partition or filter.
+     */
+    private final AtomicInteger lights = new AtomicInteger();
+    private final AtomicInteger heavies = new AtomicInteger();
+    private int count = 0;
+    private int sorted = 0;
+}
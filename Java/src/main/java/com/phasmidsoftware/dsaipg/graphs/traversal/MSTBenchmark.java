@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import com.phasmidsoftware.dsaipg.util.Benchmark;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Class to compare the minimum spanning tree algorithms on a large random graph:
+ * ParallelBoruvka and FilterKruskal (on the primitive edge list), a simple Kruskal (sorting the edges, then using a union-find array),
+ * and the lazy (Prims) and eager (EagerPrims) versions of Prim's algorithm (on an EdgeWeightedGraph).
+ */
+public class MSTBenchmark {
+
+    /**
+     * The main method is the entry point for the MSTBenchmark application.
+     *
+     * @param args the number of vertices (default one million) and the number of edges (default ten million).
+     */
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        new MSTBenchmark(vertices, edges, new Random()).run(3);
+    }
+
+    /**
+     * Constructor which builds a random connected graph (a random spanning tree plus random edges) with random weights.
+     *
+     * @param vertices the number of vertices.
+     * @param edges    the number of edges (at least vertices - 1).
+     * @param random   the source of randomness.
+     */
+    public MSTBenchmark(int vertices, int edges, Random random) {
+        n = vertices;
+        u = new int[edges];
+        v = new int[edges];
+        w = new double[edges];
+        for (int i = 0; i < edges; i++) {
+            v[i] = i + 1 < vertices ? i + 1 : random.nextInt(vertices);
+            u[i] = i + 1 < vertices ? random.nextInt(i + 1) : random.nextInt(vertices);
+            w[i] = random.nextDouble();
+        }
+    }
+
+    /**
+     * Time each algorithm.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nRuns the number of runs for each algorithm.
+     */
+    void run(int nRuns) {
+        logger.info("MSTBenchmark: " + n + " vertices and " + u.length + " edges with " + nRuns + " runs");
+        doBenchmark("ParallelBoruvka", x -> new ParallelBoruvka(n, u, v, w).weight(), nRuns);
+        doBenchmark("FilterKruskal", x -> new FilterKruskal(n, u, v, w).weight(), nRuns);
+        doBenchmark("Kruskal", x -> kruskal(n, u, v, w), nRuns);
+        EdgeWeightedGraph graph = new EdgeWeightedGraph(n);
+        for (int i = 0; i < u.length; i++) graph.addEdge(new Edge(u[i], v[i], w[i]));
+        doBenchmark("EagerPrims", x -> new EagerPrims(graph).weight(), nRuns);
+        doBenchmark("Prims", x -> new Prims(graph).edges(), nRuns);
+    }
+
+    private void doBenchmark(String description, Consumer<Integer> function, int nRuns) {
+        Benchmark<Integer> benchmark = new Benchmark_Timer<>(description, function);
+        double time = benchmark.runFromSupplier(() -> 0, nRuns);
+        logger.info(description + ": " + time + " mSec");
+    }
+
+    /**
+     * Kruskal's algorithm over a primitive edge list, for comparison: sort the edge ids by weight, then add each edge
+     * which joins two components.
+     *
+     * @return the total weight of the minimum spanning forest.
+     */
+    static double kruskal(int n, int[] u, int[] v, double[] w) {
+        Integer[] ids = new Integer[u.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+        Arrays.sort(ids, Comparator.comparingDouble(i -> w[i]));
+        int[] parent = new int[n];
+        for (int x = 0; x < n; x++) parent[x] = x;
+        double result = 0;
+        int edges = 0;
+        for (int i = 0; i < ids.length && edges < n - 1; i++) {
+            int e = ids[i];
+            int a = find(parent, u[e]), b = find(parent, v[e]);
+            if (a != b) {
+                parent[a] = b;
+                result += w[e];
+                edges++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find with path halving (UF_HWQUPC is not used because its find is left as an exercise).
+     */
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) x = parent[x] = parent[parent[x]];
+        return x;
+    }
+
+    final static LazyLogger logger = new LazyLogger(MSTBenchmark.class);
+
+    private final int n;
+    private final int[] u;
+    private final int[] v;
+    private final double[] w;
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import com.phasmidsoftware.dsaipg.graphs.union_find.UF_Concurrent;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel version of Borůvka's algorithm for the minimum spanning forest of an undirected graph
+ * given as a primitive edge list: edge i joins vertices u[i] and v[i] and has weight w[i].
+ * <p>
+ * Each round has three parallel (fork-join) steps:
+ * <ol>
+ *     <li>each remaining edge whose ends are in different components offers itself as the cheapest edge of both components
+ *     (by compare-and-set on the component's best edge id); edges within a component are dropped from the edge list;</li>
+ *     <li>the best edge of each component is added to the forest, by a union in a lock-free union-find (UF_Concurrent)
+ *     (an edge which is the best for both its components is only added once, because the second union fails);</li>
+ *     <li>every vertex is relabeled with the root of its component.</li>
+ * </ol>
+ * Each round at least halves the number of components, so there are at most lg V rounds,
+ * and the edge list shrinks as components are contracted.
+ * Ties between equal weights are broken by edge id, so the chosen edges never form a cycle
+ * and the result is the same as that of a sequential algorithm with the same tie-breaking.
+ * <p>
+ * NOTE: the best edge of a component is an edge id (rather than a packed weight and id)
+ * so that the weights can be compared exactly as doubles.
+ */
+public class ParallelBoruvka {
+
+    /**
+     * Constructor which finds the minimum spanning forest.
+     *
+     * @param n the number of vertices.
+     * @param u the first vertex of each edge.
+     * @param v the second vertex of each edge.
+     * @param w the weight of each edge.
+     * @throws IllegalArgumentException if the arrays differ in length or a vertex is not in the range 0 through n-1.
+     */
+    public ParallelBoruvka(int n, int[] u, int[] v, double[] w) {
+        int m = u.length;
+        if (v.length != m || w.length != m) throw new IllegalArgumentException("ParallelBoruvka: arrays differ in length");
+        for (int i = 0; i < m; i++)
+            if (u[i] < 0 || u[i] >= n || v[i] < 0 || v[i] >= n)
+                throw new IllegalArgumentException("ParallelBoruvka: edge " + i + " has no such vertex: " + u[i] + " or " + v[i]);
+        this.n = n;
+        this.u = u;
+        this.v = v;
+        this.w = w;
+        uf = new UF_Concurrent(n, new Random(0L));
+        component = new int[n];
+        best = new AtomicIntegerArray(n);
+        forest = new int[Math.max(0, n - 1)];
+        for (int x = 0; x < n; x++) {
+            component[x] = x;
+            best.set(x, NONE);
+        }
+        solve();
+    }
+
+    /**
+     * Find the minimum spanning forest of an EdgeWeightedGraph.
+     *
+     * @param G the graph.
+     * @return a new ParallelBoruvka whose edge ids are the positions of the edges in G.edges().
+     */
+    public static ParallelBoruvka create(EdgeWeightedGraph G) {
+        int[] u = new int[G.E()], v = new int[G.E()];
+        double[] w = new double[G.E()];
+        int i = 0;
+        for (Edge e : G.edges()) {
+            u[i] = e.either();
+            v[i] = e.other(u[i]);
+            w[i++] = e.weight();
+        }
+        return new ParallelBoruvka(G.V(), u, v, w);
+    }
+
+    /**
+     * @return the ids of the edges in the minimum spanning forest.
+     */
+    public int[] edges() {
+        return Arrays.copyOf(forest, size.get());
+    }
+
+    /**
+     * @return the total weight of the minimum spanning forest.
+     */
+    public double weight() {
+        double result = 0;
+        for (int i = 0, k = size.get(); i < k; i++) result += w[forest[i]];
+        return result;
+    }
+
+    /**
+     * @return the number of trees in the minimum spanning forest (1 if the graph is connected).
+     */
+    public int components() {
+        return n - size.get();
+    }
+
+    /**
+     * @return the number of Borůvka rounds.
+     */
+    public int rounds() {
+        return rounds;
+    }
+
+    private void solve() {
+        int[] edges = new int[u.length];
+        for (int i = 0; i < edges.length; i++) edges[i] = i;
+        int[] next = new int[u.length];
+        int m = edges.length;
+        while (m > 0) {
+            cursor.set(0);
+            pool.invoke(new FindBest(edges, next, 0, m));
+            m = cursor.get();
+            int[] list = edges;
+            edges = next;
+            next = list;
+            if (m == 0) break;
+            rounds++;
+            pool.invoke(new Contract(0, n));
+            pool.invoke(new Relabel(0, n));
+        }
+    }
+
+    /**
+     * Step 1: offer each edge of edges[lo..hi) which joins two components as the best edge of each,
+     * copying those edges to next (at cursor).
+     */
+    private class FindBest extends RecursiveAction {
+        FindBest(int[] edges, int[] next, int lo, int hi) {
+            this.edges = edges;
+            this.next = next;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new FindBest(edges, next, lo, mid), new FindBest(edges, next, mid, hi));
+                return;
+            }
+            int[] keep = new int[hi - lo];
+            int k = 0;
+            for (int i = lo; i < hi; i++) {
+                int e = edges[i];
+                int a = component[u[e]], b = component[v[e]];
+                if (a == b) continue;
+                keep[k++] = e;
+                offer(a, e);
+                offer(b, e);
+            }
+            if (k > 0) System.arraycopy(keep, 0, next, cursor.getAndAdd(k), k);
+        }
+
+        private final int[] edges;
+        private final int[] next;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Step 2: add the best edge of each component root in [lo..hi) to the forest.
+     */
+    private class Contract extends RecursiveAction {
+        Contract(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Contract(lo, mid), new Contract(mid, hi));
+                return;
+            }
+            for (int x = lo; x < hi; x++) {
+                int e = best.get(x);
+                if (e == NONE) continue;
+                best.set(x, NONE);
+                if (uf.merge(u[e], v[e])) forest[size.getAndIncrement()] = e;
+            }
+        }
+
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Step 3: relabel each vertex in [lo..hi) with the root of its component.
+     */
+    private class Relabel extends RecursiveAction {
+        Relabel(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relabel(lo, mid), new Relabel(mid, hi));
+                return;
+            }
+            for (int x = lo; x < hi; x++) component[x] = uf.find(x);
+        }
+
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * Make edge e the best edge of component c, if it is cheaper than the current best edge.
+     */
+    private void offer(int c, int e) {
+        while (true) {
+            int current = best.get(c);
+            if (current != NONE && !less(e, current)) return;
+            if (best.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    /**
+     * @return true if edge e is cheaper than edge f (ties are broken by id).
+     */
+    private boolean less(int e, int f) {
+        return w[e] < w[f] || (w[e] == w[f] && e < f);
+    }
+
+    private static final int NONE = -1;
+    /**
+     * The number of edges (or vertices) below which a task is not split.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final int n;
+    private final int[] u;
+    private final int[] v;
+    private final double[] w;
+    private final UF_Concurrent uf;
+    /**
+     * The root of the component of each vertex, as of the start of the current round.
+     */
+    private final int[] component;
+    /**
+     * The id of the best edge of each component (NONE if none has been offered).
+     */
+    private final AtomicIntegerArray best;
+    private final int[] forest;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private int rounds = 0;
+}
@@ -42,8 +42,7 @@ public class Tunnels_Boruvka implements Iterable<Edge<Building, TunnelProperties
     public Tunnels_Boruvka(List<Building> buildings) {
         setupZones();
         setupTunnels();
-        // We arbitrarily limit the the length of any tunnel to 250m
-        Boruvka = new GeoBoruvka<>(createGraph(buildings, e -> e.getAttribute().length <= 250));
+        Boruvka = new GeoBoruvka<>(createGraph(buildings, MAX_LENGTH + 1, e -> e.getAttribute().length <= MAX_LENGTH));
     }
 
     public Graph<Building, Edge<Building, TunnelProperties>> getMst() {
@@ -69,23 +68,20 @@ public class Tunnels_Boruvka implements Iterable<Edge<Building, TunnelProperties
 
     /**
      * Create a graph consisting of all possible edges connection the buildings.
-     * The resulting graph should contain N(N-1)/2 edges where N is length of the list buildings.
+     * Only the pairs of buildings within maxDistance of each other are considered (they are found by a GeoIndex,
+     * so that this takes O(N log N) time rather than the O(N^2) time of considering all N(N-1)/2 pairs).
      *
-     * @param buildings a list of Buildings.
-     * @param predicate the predicate: only edges satisfying this predicate will be added to the graph.
+     * @param buildings   a list of Buildings.
+     * @param maxDistance the greatest distance (in meters) between two buildings which can satisfy the predicate.
+     * @param predicate   the predicate: only edges satisfying this predicate will be added to the graph.
      * @return a Geo&lt;Building, TunnelProperties&gt;
      */
-    private static EdgeGraph<Building, TunnelProperties> createGraph(List<Building> buildings, Predicate<Edge<Building, TunnelProperties>> predicate) {
+    private static EdgeGraph<Building, TunnelProperties> createGraph(List<Building> buildings, double maxDistance, Predicate<Edge<Building, TunnelProperties>> predicate) {
         GeoGraphSpherical<Building, TunnelProperties> graph = new GeoGraphSpherical<>();
-        int len = buildings.size();
-        for (int i = 0; i < len; i++) {
-            Building b1 = buildings.get(i);
-            for (int j = i + 1; j < len; j++) {
-                Building b2 = buildings.get(j);
-                double length = graph.getDistance(b1, b2);
-                graph.addEdge(b1, b2, getTunnelProperties(b1, b2, length), predicate);
-            }
-        }
+        new GeoIndex<>(buildings).forEachPairWithin(maxDistance, (b1, b2) -> {
+            double length = graph.getDistance(b1, b2);
+            graph.addEdge(b1, b2, getTunnelProperties(b1, b2, length), predicate);
+        });
         SizedIterable<Edge<Building, TunnelProperties>> edges = graph.edges();
         System.out.println("created " + edges.size() + " edges");
         return graph;
@@ -173,6 +169,12 @@ public class Tunnels_Boruvka implements Iterable<Edge<Building, TunnelProperties
         }
     }
 
+    /**
+     * We arbitrarily limit the length of any tunnel to 250m (the length of a tunnel is rounded to the nearest meter,
+     * so the buildings at each end may be a little more than 250m apart).
+     */
+    private static final int MAX_LENGTH = 250;
+
     private static final ZoneCross railroad = new ZoneCross(0, 8, 3000);
     private static final ZoneCross huntAve1 = new ZoneCross(0, 2, 2500);
     private static final ZoneCross huntAve2 = new ZoneCross(10, 11, 2500);
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import java.util.Arrays;
+
+/**
+ * Offline dynamic connectivity: given a stream of connections which are added and removed at various times,
+ * and a batch of queries "were p and q connected at time t?", answer all the queries at once.
+ * <p>
+ * Each connection is present during an interval of time (from when it is added until it is removed).
+ * The query times, in order, are the leaves of a segment tree, and each interval is stored in the O(log q) nodes
+ * which exactly cover it.
+ * A depth-first walk of the segment tree then does the unions of each node on the way down and rolls them back
+ * (with UF_Rollback) on the way up, so that at each leaf the union-find holds exactly the connections present at
+ * the time of that query.
+ * For m connections and q queries, this takes O(m log q log n + q log n) time.
+ * <p>
+ * A connection added at time t is present at time t; a connection removed at time t is absent at time t.
+ * Events with the same time take effect in the order in which they were recorded.
+ * The same connection may be added more than once, in which case it is present until it has been removed as
+ * many times as it was added.
+ */
+public class DynamicConnectivity {
+
+    /**
+     * Constructor.
+     *
+     * @param n the number of sites.
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public DynamicConnectivity(int n) {
+        if (n < 0) throw new IllegalArgumentException("DynamicConnectivity: negative number of sites: " + n);
+        this.n = n;
+    }
+
+    /**
+     * Record that site {@code p} is connected to site {@code q} from time {@code t}.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @param t the time of the connection
+     * @throws IllegalArgumentException unless both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public void connect(int p, int q, long t) {
+        event(p, q, t, true);
+    }
+
+    /**
+     * Record that the connection between site {@code p} and site {@code q} is removed at time {@code t}.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @param t the time of the disconnection
+     * @throws IllegalArgumentException unless both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public void disconnect(int p, int q, long t) {
+        event(p, q, t, false);
+    }
+
+    /**
+     * Record the query: is site {@code p} connected to site {@code q} at time {@code t}?
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @param t the time of the query
+     * @return the number of this query (the index of its answer in the result of solve).
+     * @throws IllegalArgumentException unless both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public int isConnected(int p, int q, long t) {
+        validate(p);
+        validate(q);
+        if (nQueries == queryP.length) {
+            int length = Math.max(16, 2 * nQueries);
+            queryP = Arrays.copyOf(queryP, length);
+            queryQ = Arrays.copyOf(queryQ, length);
+            queryTime = Arrays.copyOf(queryTime, length);
+        }
+        queryP[nQueries] = p;
+        queryQ[nQueries] = q;
+        queryTime[nQueries] = t;
+        return nQueries++;
+    }
+
+    /**
+     * Answer all the queries recorded so far.
+     *
+     * @return an array of the answers, indexed by query number.
+     * @throws IllegalArgumentException if a connection is removed more often than it was added.
+     */
+    public boolean[] solve() {
+        // Sort the queries by time (the sort is stable, so that queries at the same time keep their order).
+        Integer[] byTime = new Integer[nQueries];
+        for (int i = 0; i < nQueries; i++) byTime[i] = i;
+        Arrays.sort(byTime, (i, j) -> Long.compare(queryTime[i], queryTime[j]));
+        long[] times = new long[nQueries];
+        for (int i = 0; i < nQueries; i++) times[i] = queryTime[byTime[i]];
+        int leaves = Math.max(1, nQueries);
+        head = new int[4 * leaves];
+        Arrays.fill(head, NONE);
+        entryEvent = new int[16];
+        entryNext = new int[16];
+        nEntries = 0;
+        // Pair each disconnection with an earlier connection of the same sites, and store each interval in the tree.
+        Integer[] byEdge = new Integer[nEvents];
+        for (int i = 0; i < nEvents; i++) byEdge[i] = i;
+        Arrays.sort(byEdge, (i, j) -> {
+            int cf = Long.compare(eventKey[i], eventKey[j]);
+            if (cf != 0) return cf;
+            cf = Long.compare(eventTime[i], eventTime[j]);
+            return cf != 0 ? cf : Integer.compare(i, j);
+        });
+        int[] open = new int[16];
+        for (int k = 0; k < nEvents; ) {
+            long key = eventKey[byEdge[k]];
+            int nOpen = 0;
+            for (; k < nEvents && eventKey[byEdge[k]] == key; k++) {
+                int e = byEdge[k];
+                if (eventAdd[e]) {
+                    if (nOpen == open.length) open = Arrays.copyOf(open, 2 * nOpen);
+                    open[nOpen++] = e;
+                } else {
+                    if (nOpen == 0)
+                        throw new IllegalArgumentException("DynamicConnectivity: " + eventP[e] + "-" + eventQ[e] + " disconnected at time " + eventTime[e] + " but not connected");
+                    int a = open[--nOpen];
+                    insert(a, lowerBound(times, eventTime[a]), lowerBound(times, eventTime[e]));
+                }
+            }
+            while (nOpen > 0) {
+                int a = open[--nOpen];
+                insert(a, lowerBound(times, eventTime[a]), nQueries);
+            }
+        }
+        boolean[] result = new boolean[nQueries];
+        if (nQueries > 0) walk(new UF_Rollback(n), 1, 0, nQueries, byTime, result);
+        head = null;
+        entryEvent = null;
+        entryNext = null;
+        return result;
+    }
+
+    /**
+     * Do the unions stored at this node; then either answer the query (at a leaf) or walk the children; then roll back.
+     */
+    private void walk(UF_Rollback uf, int node, int lo, int hi, Integer[] byTime, boolean[] result) {
+        int snapshot = uf.snapshot();
+        for (int x = head[node]; x != NONE; x = entryNext[x]) uf.union(eventP[entryEvent[x]], eventQ[entryEvent[x]]);
+        if (hi - lo == 1) {
+            int i = byTime[lo];
+            result[i] = uf.isConnected(queryP[i], queryQ[i]);
+        } else {
+            int mid = (lo + hi) >>> 1;
+            walk(uf, 2 * node, lo, mid, byTime, result);
+            walk(uf, 2 * node + 1, mid, hi, byTime, result);
+        }
+        uf.rollback(snapshot);
+    }
+
+    /**
+     * Store event e in the nodes which cover the leaves [from..to).
+     */
+    private void insert(int e, int from, int to) {
+        if (from < to) insert(e, from, to, 1, 0, nQueries);
+    }
+
+    private void insert(int e, int from, int to, int node, int lo, int hi) {
+        if (from <= lo && hi <= to) {
+            if (nEntries == entryEvent.length) {
+                entryEvent = Arrays.copyOf(entryEvent, 2 * nEntries);
+                entryNext = Arrays.copyOf(entryNext, 2 * nEntries);
+            }
+            entryEvent[nEntries] = e;
+            entryNext[nEntries] = head[node];
+            head[node] = nEntries++;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (from < mid) insert(e, from, to, 2 * node, lo, mid);
+        if (to > mid) insert(e, from, to, 2 * node + 1, mid, hi);
+    }
+
+    /**
+     * @return the index of the first time which is not less than t.
+     */
+    private static int lowerBound(long[] times, long t) {
+        int lo = 0, hi = times.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void event(int p, int q, long t, boolean add) {
+        validate(p);
+        validate(q);
+        if (nEvents == eventP.length) {
+            int length = Math.max(16, 2 * nEvents);
+            eventP = Arrays.copyOf(eventP, length);
+            eventQ = Arrays.copyOf(eventQ, length);
+            eventTime = Arrays.copyOf(eventTime, length);
+            eventKey = Arrays.copyOf(eventKey, length);
+            eventAdd = Arrays.copyOf(eventAdd, length);
+        }
+        eventP[nEvents] = p;
+        eventQ[nEvents] = q;
+        eventTime[nEvents] = t;
+        eventKey[nEvents] = ((long) Math.min(p, q) << 32) | Math.max(p, q);
+        eventAdd[nEvents++] = add;
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+
+    private static final int NONE = -1;
+
+    private final int n;
+    private int[] eventP = new int[0];
+    private int[] eventQ = new int[0];
+    private long[] eventTime = new long[0];
+    /**
+     * The unordered pair of sites of each event, packed into a long.
+     */
+    private long[] eventKey = new long[0];
+    private boolean[] eventAdd = new boolean[0];
+    private int nEvents = 0;
+    private int[] queryP = new int[0];
+    private int[] queryQ = new int[0];
+    private long[] queryTime = new long[0];
+    private int nQueries = 0;
+    /**
+     * The segment tree (only while solving): the first entry of each node, and the event and next entry of each entry.
+     */
+    private int[] head;
+    private int[] entryEvent;
+    private int[] entryNext;
+    private int nEntries;
+}
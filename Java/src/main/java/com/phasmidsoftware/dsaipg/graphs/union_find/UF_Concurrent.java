@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Concurrent (lock-free) Quick Union with randomized linking and path splitting,
+ * after R. Anderson and H. Woll (1991) and S. Jayanti and R. Tarjan (2016).
+ * <p>
+ * All the methods may be called from many threads at once without any locking:
+ * <ul>
+ *     <li>the parents are held in an AtomicIntegerArray, and a root is linked to another root by compare-and-set
+ *     (which fails if the first root has been linked meanwhile, in which case the union is retried);</li>
+ *     <li>each site has a fixed random priority, and the root with the lower priority is always linked to the other,
+ *     so no cycle can ever be formed, and the trees have logarithmic height in expectation (instead of by height or size,
+ *     which cannot be maintained atomically with the link);</li>
+ *     <li>find does path splitting: each site on the path is pointed at its grandparent by compare-and-set
+ *     (a failed compare-and-set is simply ignored, because another thread has already moved that site closer to the root).</li>
+ * </ul>
+ * Because two finds are not atomic, isConnected finds both roots again until either they are the same
+ * or the first one is still a root (in which case the two sites really were not connected at that moment).
+ */
+public class UF_Concurrent implements UF {
+
+    /**
+     * Initializes an empty union–find data structure with {@code n} sites
+     * {@code 0} through {@code n-1}. Each site is initially in its own
+     * component.
+     *
+     * @param n      the number of sites
+     * @param random the source of the priorities of the sites
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public UF_Concurrent(int n, Random random) {
+        if (n < 0) throw new IllegalArgumentException("UF_Concurrent: negative number of sites: " + n);
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.set(i, i);
+        count = new AtomicInteger(n);
+        seed = random.nextLong();
+    }
+
+    /**
+     * Initializes an empty union–find data structure with {@code n} sites
+     * {@code 0} through {@code n-1}. Each site is initially in its own
+     * component.
+     *
+     * @param n the number of sites
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public UF_Concurrent(int n) {
+        this(n, new Random());
+    }
+
+    /**
+     * Ensure that site {@code p} is connected to site {@code q}.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     */
+    public void connect(int p, int q) {
+        merge(p, q);
+    }
+
+    /**
+     * Returns the number of components.
+     * NOTE: while other threads are calling union, this is only a snapshot.
+     *
+     * @return the number of components (between {@code 1} and {@code n})
+     */
+    public int components() {
+        return count.get();
+    }
+
+    /**
+     * Returns the component identifier for the component containing site {@code p}.
+     * NOTE: while other threads are calling union, the component may be linked to another one immediately afterwards.
+     *
+     * @param p the integer representing one site
+     * @return the component identifier for the component containing site {@code p}
+     * @throws IllegalArgumentException unless {@code 0 <= p < n}
+     */
+    public int find(int p) {
+        validate(p);
+        while (true) {
+            int x = parent.get(p);
+            if (x == p) return p;
+            int y = parent.get(x);
+            if (y != x) parent.compareAndSet(p, x, y);
+            p = x;
+        }
+    }
+
+    /**
+     * Returns true if the two sites are in the same component.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @return {@code true} if the two sites {@code p} and {@code q} are in the same component;
+     * {@code false} otherwise
+     * @throws IllegalArgumentException unless
+     *                                  both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean isConnected(int p, int q) {
+        while (true) {
+            int rootP = find(p), rootQ = find(q);
+            if (rootP == rootQ) return true;
+            // If rootP is still a root, then p and q were in different components when rootQ was found.
+            if (parent.get(rootP) == rootP) return false;
+        }
+    }
+
+    /**
+     * Returns true if the two sites are in the same component.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @return {@code true} if the two sites {@code p} and {@code q} are in the same component;
+     * {@code false} otherwise
+     * @throws IllegalArgumentException unless
+     *                                  both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean connected(int p, int q) {
+        return isConnected(p, q);
+    }
+
+    /**
+     * Merges the component containing site {@code p} with the
+     * component containing site {@code q}.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @throws IllegalArgumentException unless
+     *                                  both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public void union(int p, int q) {
+        merge(p, q);
+    }
+
+    /**
+     * Merges the component containing site {@code p} with the
+     * component containing site {@code q}, reporting whether this call did the merge.
+     * If several threads merge the same two components at once, exactly one of them returns true.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @return {@code true} if {@code p} and {@code q} were in different components.
+     * @throws IllegalArgumentException unless
+     *                                  both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean merge(int p, int q) {
+        while (true) {
+            int rootP = find(p), rootQ = find(q);
+            if (rootP == rootQ) return false;
+            if (priority(rootP) > priority(rootQ)) {
+                int t = rootP;
+                rootP = rootQ;
+                rootQ = t;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements in the Union–Find data structure.
+     *
+     * @return the number of sites in the union–find data structure.
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    @Override
+    public String toString() {
+        return "UF_Concurrent:" + "\n  count: " + count +
+                "\n  parents: " + parent;
+    }
+
+    /**
+     * The random (but fixed) priority of a site, which defines a total order of the sites.
+     */
+    private long priority(int p) {
+        long h = (p ^ seed) * 0x9E3779B97F4A7C15L;
+        return ((h ^ (h >>> 32)) << 32) | p;
+    }
+
+    private void validate(int p) {
+        int n = parent.length();
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+
+    private final AtomicIntegerArray parent;   // parent.get(i) = parent of i
+    private final AtomicInteger count;  // number of components
+    private final long seed;
+}
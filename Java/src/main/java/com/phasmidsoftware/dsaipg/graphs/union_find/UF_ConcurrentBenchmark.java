@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Class to compare the throughput of UF_Concurrent with that of a synchronized WQUPC, for 1, 2, 4, ... threads.
+ * <p>
+ * The workload is a fixed total number of operations on random pairs of sites, shared equally between the threads:
+ * each thread alternates between connect and isConnected.
+ */
+public class UF_ConcurrentBenchmark {
+
+    /**
+     * The main method is the entry point for the UF_ConcurrentBenchmark application.
+     *
+     * @param args the number of sites (default ten million), the total number of operations (default 100 million)
+     *             and the maximum number of threads (default: twice the number of processors).
+     */
+    public static void main(String[] args) {
+        int sites = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long nOps = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 2 * Runtime.getRuntime().availableProcessors();
+        new UF_ConcurrentBenchmark(sites).run(maxThreads, nOps);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sites the number of sites.
+     */
+    public UF_ConcurrentBenchmark(int sites) {
+        this.sites = sites;
+    }
+
+    /**
+     * Measure the throughput for each number of threads.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param maxThreads the maximum number of threads.
+     * @param nOps       the total number of operations.
+     */
+    void run(int maxThreads, long nOps) {
+        logger.info("UF_ConcurrentBenchmark: " + sites + " sites with " + nOps + " operations");
+        for (int nThreads = 1; nThreads <= maxThreads; nThreads *= 2) {
+            doBenchmark("UF_Concurrent", () -> new UF_Concurrent(sites), nThreads, nOps);
+            doBenchmark("SynchronizedWQUPC", () -> new SynchronizedWQUPC(sites), nThreads, nOps);
+        }
+    }
+
+    /**
+     * @return the throughput (operations per microsecond).
+     */
+    private double doBenchmark(String description, Supplier<Connections> factory, int nThreads, long nOps) {
+        Connections connections = factory.get();
+        double throughput = throughput(connections, nThreads, nOps / nThreads);
+        String components = connections instanceof UF ? "; components: " + ((UF) connections).components() : "";
+        logger.info(description + " with " + nThreads + " threads: " + String.format("%.2f", throughput) + " operations per microsecond" + components);
+        return throughput;
+    }
+
+    private double throughput(Connections connections, int nThreads, long nOps) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(nThreads);
+        SplittableRandom seeds = new SplittableRandom(0L);
+        for (int t = 0; t < nThreads; t++) {
+            SplittableRandom random = seeds.split();
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (long i = 0; i < nOps; i++) {
+                        int p = random.nextInt(sites), q = random.nextInt(sites);
+                        if ((i & 1) == 0) connections.connect(p, q);
+                        else connections.isConnected(p, q);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finish.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            finish.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        return 1000.0 * nOps * nThreads / (System.nanoTime() - begin);
+    }
+
+    /**
+     * The baseline: a sequential union-find, with every operation synchronized.
+     */
+    private static class SynchronizedWQUPC implements Connections {
+        SynchronizedWQUPC(int n) {
+            uf = new WQUPC(n);
+        }
+
+        public synchronized boolean isConnected(int p, int q) {
+            return uf.connected(p, q);
+        }
+
+        public synchronized void connect(int p, int q) {
+            uf.union(p, q);
+        }
+
+        private final WQUPC uf;
+    }
+
+    final static LazyLogger logger = new LazyLogger(UF_ConcurrentBenchmark.class);
+
+    private final int sites;
+}
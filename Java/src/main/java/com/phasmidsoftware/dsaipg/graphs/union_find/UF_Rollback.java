@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import java.util.Arrays;
+
+/**
+ * Rank-weighted Quick Union without path compression, but with an undo log, so that unions can be rolled back.
+ * <p>
+ * Without path compression, find only reads the parents, and each union changes exactly one parent (and perhaps one rank);
+ * so a union can be undone in constant time by restoring them.
+ * Union by rank alone keeps the height of every tree at most lg n, so find (and therefore union and isConnected)
+ * take O(log n) time in the worst case (not just amortized, which would not survive rollback).
+ * <p>
+ * Call snapshot to mark the current state, and rollback to return to a marked state
+ * (snapshots must be rolled back in the reverse order in which they were taken, as with a stack).
+ */
+public class UF_Rollback implements UF {
+
+    /**
+     * Initializes an empty union–find data structure with {@code n} sites
+     * {@code 0} through {@code n-1}. Each site is initially in its own
+     * component.
+     *
+     * @param n the number of sites
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public UF_Rollback(int n) {
+        if (n < 0) throw new IllegalArgumentException("UF_Rollback: negative number of sites: " + n);
+        count = n;
+        parent = new int[n];
+        rank = new byte[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+    }
+
+    /**
+     * Ensure that site {@code p} is connected to site {@code q}.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     */
+    public void connect(int p, int q) {
+        union(p, q);
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of components (between {@code 1} and {@code n})
+     */
+    public int components() {
+        return count;
+    }
+
+    /**
+     * Returns the component identifier for the component containing site {@code p}.
+     *
+     * @param p the integer representing one site
+     * @return the component identifier for the component containing site {@code p}
+     * @throws IllegalArgumentException unless {@code 0 <= p < n}
+     */
+    public int find(int p) {
+        validate(p);
+        while (p != parent[p]) p = parent[p];
+        return p;
+    }
+
+    /**
+     * Merges the component containing site {@code p} with the
+     * component containing site {@code q}, recording the change in the undo log.
+     * Nothing is recorded if they are already in the same component.
+     *
+     * @param p the integer representing one site
+     * @param q the integer representing the other site
+     * @throws IllegalArgumentException unless
+     *                                  both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public void union(int p, int q) {
+        int i = find(p), j = find(q);
+        if (i == j) return;
+        if (rank[i] > rank[j]) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        // make the root of lower rank (i) point to the other (j)
+        parent[i] = j;
+        boolean taller = rank[i] == rank[j];
+        if (taller) rank[j]++;
+        count--;
+        if (size == log.length) log = Arrays.copyOf(log, Math.max(16, 2 * size));
+        log[size++] = taller ? ~i : i;
+    }
+
+    /**
+     * Returns the number of elements in the Union–Find data structure.
+     *
+     * @return the number of sites in the union–find data structure.
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Mark the current state.
+     *
+     * @return a snapshot (in fact, the number of unions in the undo log) which can be passed to rollback.
+     */
+    public int snapshot() {
+        return size;
+    }
+
+    /**
+     * Undo every union since the given snapshot was taken.
+     *
+     * @param snapshot a value returned by snapshot (since which no earlier snapshot has been rolled back).
+     * @throws IllegalArgumentException if snapshot is not between 0 and the current snapshot.
+     */
+    public void rollback(int snapshot) {
+        if (snapshot < 0 || snapshot > size)
+            throw new IllegalArgumentException("UF_Rollback: invalid snapshot: " + snapshot + " (current: " + size + ")");
+        while (size > snapshot) undo();
+    }
+
+    /**
+     * Undo the last union which changed anything.
+     *
+     * @throws IllegalStateException if there is nothing to undo.
+     */
+    public void undo() {
+        if (size == 0) throw new IllegalStateException("UF_Rollback: nothing to undo");
+        int x = log[--size];
+        int i = x < 0 ? ~x : x;
+        if (x < 0) rank[parent[i]]--;
+        parent[i] = i;
+        count++;
+    }
+
+    @Override
+    public String toString() {
+        return "UF_Rollback:" + "\n  count: " + count +
+                "\n  parents: " + Arrays.toString(parent) +
+                "\n  undo log: " + size;
+    }
+
+    private void validate(int p) {
+        int n = parent.length;
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n - 1));
+        }
+    }
+
+    private final int[] parent;   // parent[i] = parent of i
+    private final byte[] rank;   // rank[i] = upper bound on the height of the subtree rooted at i (at most lg n)
+    /**
+     * The root which was linked by each union in the undo log (complemented if the rank of its new parent was incremented).
+     */
+    private int[] log = new int[16];
+    private int size = 0;  // the number of unions in the undo log
+    private int count;  // number of components
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary;
+import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary_Cuckoo;
+import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary_Hash;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
+
+/**
+ * Class to compare the lookup latency of Dictionary_Cuckoo with that of Dictionary_Hash
+ * when the cuckoo table is loaded almost to its maximum load factor.
+ * Both successful lookups (hits) and unsuccessful lookups (misses) are measured.
+ */
+public class DictionaryBenchmark {
+
+    /**
+     * The main method is the entry point for the DictionaryBenchmark application.
+     *
+     * @param args the (approximate) numbers of entries for which to run the benchmark;
+     *             if no arguments are provided, one million is used.
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{1_000_000};
+        for (int n : sizes) new DictionaryBenchmark(n, 0.93, new Random()).run(100_000, 100);
+    }
+
+    /**
+     * Constructor to build the dictionaries.
+     * The number of entries is chosen so that the cuckoo table (which holds at least n entries) is filled to the given load.
+     *
+     * @param n      the minimum number of entries.
+     * @param load   the target load factor of the cuckoo table (less than its maximum load factor).
+     * @param random the random source for the keys.
+     */
+    public DictionaryBenchmark(int n, double load, Random random) {
+        this.random = random;
+        Dictionary_Cuckoo<Integer, Integer> cuckoo = new Dictionary_Cuckoo<>(n);
+        int entries = (int) (cuckoo.capacity() * load);
+        keys = new Integer[entries];
+        Dictionary<Integer, Integer> hash = new Dictionary_Hash<>();
+        for (int i = 0; i < entries; i++) {
+            Integer key;
+            do key = random.nextInt();
+            while (hash.containsKey(key));
+            keys[i] = key;
+            hash.put(key, i);
+            cuckoo.put(key, i);
+        }
+        this.cuckoo = cuckoo;
+        this.hash = hash;
+    }
+
+    /**
+     * Run the lookup benchmarks, checking the result of every lookup
+     * (each hit should find its key in the dictionary and each miss should not).
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param nLookups the number of lookups in each run.
+     * @param nRuns    the number of runs.
+     * @return the number of lookups (over all benchmarks, including warmup runs) which gave the wrong result.
+     */
+    long run(int nLookups, int nRuns) {
+        logger.info("DictionaryBenchmark: " + cuckoo + " (load factor " + String.format("%.3f", cuckoo.loadFactor()) + ") with " + formatWhole(nRuns) + " runs of " + formatWhole(nLookups) + " lookups");
+        long result = benchmark("Dictionary_Cuckoo hits", cuckoo, this::hits, true, nLookups, nRuns);
+        result += benchmark("Dictionary_Hash hits", hash, this::hits, true, nLookups, nRuns);
+        result += benchmark("Dictionary_Cuckoo misses", cuckoo, this::misses, false, nLookups, nRuns);
+        result += benchmark("Dictionary_Hash misses", hash, this::misses, false, nLookups, nRuns);
+        if (result > 0) logger.warn("DictionaryBenchmark: " + result + " lookups gave the wrong result");
+        return result;
+    }
+
+    private long benchmark(String description, Dictionary<Integer, Integer> dictionary, IntFunction<Integer[]> supplier, boolean present, int nLookups, int nRuns) {
+        long[] wrong = new long[1];
+        Benchmark<Integer[]> benchmark = new Benchmark_Timer<>(description, xs -> wrong[0] += lookup(dictionary, xs, present));
+        double time = benchmark.runFromSupplier(() -> supplier.apply(nLookups), nRuns);
+        for (TimeLogger timeLogger : timeLoggers) timeLogger.log(description, time, nLookups);
+        return wrong[0];
+    }
+
+    /**
+     * Look up each of xs in dictionary.
+     *
+     * @param present true if each of xs should be found; false if none should be.
+     * @return the number of lookups which gave the wrong result (which also keeps the lookups from being optimized away).
+     */
+    private static int lookup(Dictionary<Integer, Integer> dictionary, Integer[] xs, boolean present) {
+        int result = 0;
+        for (Integer x : xs) if ((dictionary.get(x) != null) != present) result++;
+        return result;
+    }
+
+    private Integer[] hits(int n) {
+        Integer[] result = new Integer[n];
+        for (int i = 0; i < n; i++) result[i] = keys[random.nextInt(keys.length)];
+        return result;
+    }
+
+    private Integer[] misses(int n) {
+        Integer[] result = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Integer key;
+            do key = random.nextInt();
+            while (hash.containsKey(key));
+            result[i] = key;
+        }
+        return result;
+    }
+
+    /**
+     * The raw time for each run and the time for each lookup (in nanoseconds).
+     */
+    public final static TimeLogger[] timeLoggers = {
+            new TimeLogger("Raw time per run (mSec): ", null),
+            new TimeLogger("Time per lookup (nSec): ", n -> (double) n)
+    };
+
+    final static LazyLogger logger = new LazyLogger(DictionaryBenchmark.class);
+
+    private final Random random;
+    private final Integer[] keys;
+    private final Dictionary_Cuckoo<Integer, Integer> cuckoo;
+    private final Dictionary<Integer, Integer> hash;
+}
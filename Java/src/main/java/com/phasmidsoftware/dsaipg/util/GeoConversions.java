@@ -146,6 +146,52 @@ public class GeoConversions {
         return new UTM(round(easting), round(northing), zone, letter);
     }
 
+    /**
+     * Converts many geographic positions, given as parallel arrays of latitudes and longitudes, into UTM coordinates,
+     * which are written into parallel arrays (of at least the same length).
+     * The results are the same as those of position2UTM, but no objects are created,
+     * and the sines, cosines and logarithms which position2UTM evaluates more than once are evaluated once per point.
+     *
+     * @param latitudes  the latitudes in decimal degrees.
+     * @param longitudes the longitudes in decimal degrees.
+     * @param eastings   the array into which the eastings will be written.
+     * @param northings  the array into which the northings will be written.
+     * @param zones      the array into which the zones will be written.
+     * @param letters    the array into which the hemisphere letters will be written.
+     */
+    public static void positions2UTM(double[] latitudes, double[] longitudes, int[] eastings, int[] northings, int[] zones, char[] letters) {
+        int n = latitudes.length;
+        if (longitudes.length != n || eastings.length < n || northings.length < n || zones.length < n || letters.length < n)
+            throw new IllegalArgumentException("positions2UTM: arrays are inconsistent in length");
+        double eConstantSqr = E_constant * E_constant;
+        for (int i = 0; i < n; i++) {
+            double latitude = latitudes[i];
+            int zone = (int) Math.floor(longitudes[i] / DEG_ZONE + 31);
+            double adjustedLon = adjustLongitude(longitudes[i], zone);
+            double radiansLat = latitude * DEG2RAD;
+            double cosLat = Math.cos(radiansLat);
+            double cosLatSqr = cosLat * cosLat;
+            double product = cosLat * Math.sin(adjustedLon);
+            double logValue = Math.log((1 + product) / (1 - product));
+            double halfLog = 0.5 * logValue;
+            double halfLogSqr = halfLog * halfLog;
+            double sine = sineOfHalfDegrees(latitude);
+            double easting = halfLog * K_0 * RADIUS_P / Math.sqrt(1 + eConstantSqr * cosLatSqr) * (1 + eConstantSqr / 2 * halfLogSqr * cosLatSqr / 3) + E_0;
+            double var4 = radiansLat + sine / 2;
+            double var5 = 3 * var4 + sine * cosLatSqr;
+            double northing = (Math.atan(Math.tan(radiansLat) / Math.cos(adjustedLon)) - radiansLat) * K_0 * RADIUS_P / Math.sqrt(1 + N_constant * cosLatSqr) * (1 + N_constant / 2 * halfLogSqr * cosLatSqr) + K_0 * RADIUS_P * (radiansLat - N_constant_2 * var4 + N_constant3 * var5 / 4 - 1.674057895e-07 * (5 * var5 / 4 + sine * cosLatSqr * cosLatSqr) / 3);
+            char letter = 'N';
+            if (getLetter(latitude) < 'M') {
+                northing = northing + N_0;
+                letter = 'S';
+            }
+            eastings[i] = round(easting);
+            northings[i] = round(northing);
+            zones[i] = zone;
+            letters[i] = letter;
+        }
+    }
+
     /**
      * Represents a geographical position with latitude and longitude values.
      */
@@ -3,6 +3,7 @@
  */
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.adt.pq.IntHeap;
 import com.phasmidsoftware.dsaipg.adt.pq.PQException;
 import com.phasmidsoftware.dsaipg.adt.pq.PriorityQueue;
 
@@ -47,8 +48,82 @@ public class PQBenchmark {
         PQBenchmark benchmark = new PQBenchmark(config);
         System.out.println("with floyd: " + benchmark.insertDeleteN(10000, 1000, true));
         System.out.println("no floyd: " + benchmark.insertDeleteN(10000, 1000, false));
+        for (int d : ARITIES) {
+            System.out.println(d + "-ary IntHeap with floyd: " + benchmark.insertDeleteN(1000000, 20, d, true));
+            System.out.println(d + "-ary IntHeap no floyd: " + benchmark.insertDeleteN(1000000, 20, d, false));
+        }
+        System.out.println("best arity: " + benchmark.bestArity(1000000, 20, true));
+    }
+
+    /**
+     * Determine which of the ARITIES gives the fastest IntHeap on this hardware for the insert/delete workload.
+     * The answer depends mostly on the size of a cache line relative to the size of the elements.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param n     the number of random integers to be generated and processed.
+     * @param m     the number of times the benchmark test is repeated.
+     * @param floyd whether take uses Floyd's bounce.
+     * @return the best arity.
+     */
+    int bestArity(int n, int m, boolean floyd) {
+        int best = ARITIES[0];
+        double bestTime = Double.POSITIVE_INFINITY;
+        for (int d : ARITIES) {
+            double time = insertDeleteN(n, m, d, floyd);
+            logger.info("PQBenchmark: " + d + "-ary IntHeap (floyd=" + floyd + "): " + time + " mSec");
+            if (time < bestTime) {
+                bestTime = time;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Performs the insert/delete benchmark on an IntHeap of the given arity.
+     *
+     * @param n     the number of random integers to be generated and processed.
+     * @param m     the number of times the benchmark test is repeated.
+     * @param d     the arity of the heap.
+     * @param floyd whether take uses Floyd's bounce.
+     * @return the average execution time for the benchmark process, in milliseconds.
+     */
+    double insertDeleteN(final int n, int m, int d, final boolean floyd) {
+        final Random ran = new Random();
+        int[] random = new int[n];
+        for (int i = 0; i < n; i++) random[i] = ran.nextInt(n);
+        Benchmark<Boolean> bm = new Benchmark_Timer<>("IntHeap d=" + d + " floyd=" + floyd, null, b -> insertArray(random, d, floyd), null);
+        return bm.run(true, m);
+    }
+
+    /**
+     * Inserts and conditionally deletes elements from an IntHeap of the given arity.
+     *
+     * @param a     the array of integers to be inserted into the heap.
+     * @param d     the arity of the heap.
+     * @param floyd whether take uses Floyd's bounce.
+     */
+    private static void insertArray(int[] a, int d, boolean floyd) {
+        IntHeap heap = new IntHeap(d, 16, floyd);
+        final Random random = new Random(0L);
+        for (int j : a) {
+            heap.give(j);
+            if (random.nextBoolean()) {
+                try {
+                    heap.take();
+                } catch (PQException e) {
+                    throw new RuntimeException(e); // cannot happen: the heap is not empty.
+                }
+            }
+        }
     }
 
+    /**
+     * The arities which are compared: with 4-byte ints, eight children fill half of a 64-byte cache line.
+     */
+    static final int[] ARITIES = {2, 4, 8};
+
     /**
      * Inserts and conditionally deletes elements from a priority queue using Floyd insertion or standard insertion.
      * This method processes an integer array by inserting elements into a priority queue and, based on a random condition,
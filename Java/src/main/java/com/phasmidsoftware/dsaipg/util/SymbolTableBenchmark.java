@@ -3,9 +3,23 @@
  */
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.FrequencyCounter;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.HashTable_LP;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.HashTable_Mapped;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.STMap;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.tree.BST;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.tree.BSTSimple;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.tree.SkipListBST;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.tree.SynchronizedBST;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.phasmidsoftware.dsaipg.util.SortBenchmarkHelper.getWords;
@@ -70,8 +84,175 @@ public class SymbolTableBenchmark {
         Random random = new Random();
         runHashTableBenchmark(words, nWords, nRuns, random);
         runRBTreeBenchmark(words, nWords, nRuns, random);
+        if (isConfigBenchmark("coldopen")) runColdOpenBenchmark(words, nWords, nRuns, random);
+        if (isConfigBenchmark("concurrent")) runConcurrentBenchmark(words, nWords, MAX_THREADS);
+    }
+
+    /**
+     * Compare the throughput of SkipListBST (lock-free) with that of a BSTSimple wrapped in a SynchronizedBST,
+     * for 1, 2, 4, ... maxThreads threads.
+     * Each thread performs nWords operations on randomly chosen words, of which one in ten is a put and the rest are gets.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param words      the word source.
+     * @param nWords     the number of operations performed by each thread.
+     * @param maxThreads the maximum number of threads.
+     */
+    void runConcurrentBenchmark(String[] words, int nWords, int maxThreads) {
+        logger.info("Testing concurrent symbol tables with " + formatWhole(nWords) + " operations per thread");
+        for (int nThreads = 1; nThreads <= maxThreads; nThreads *= 2) {
+            doConcurrentBenchmark("SkipListBST", SkipListBST::new, words, nWords, nThreads);
+            doConcurrentBenchmark("SynchronizedBST(BSTSimple)", () -> new SynchronizedBST<String, Integer>(new BSTSimple<>()), words, nWords, nThreads);
+        }
+    }
+
+    /**
+     * Run the mixed get/put workload on a freshly built symbol table with nThreads threads and log the throughput.
+     *
+     * @param description the description of the symbol table.
+     * @param supplier    a supplier of an empty symbol table.
+     * @param words       the word source.
+     * @param nWords      the number of operations performed by each thread.
+     * @param nThreads    the number of threads.
+     * @return the throughput (operations per microsecond).
+     */
+    private static double doConcurrentBenchmark(String description, Supplier<BST<String, Integer>> supplier, String[] words, int nWords, int nThreads) {
+        BST<String, Integer> table = supplier.get();
+        for (int i = 0; i < words.length; i += 2) table.put(words[i], i);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < nWords; i++) {
+                        String word = words[random.nextInt(words.length)];
+                        if (random.nextInt(10) == 0) table.put(word, i);
+                        else table.get(word);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finish.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            finish.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        double throughput = 1000.0 * nWords * nThreads / (System.nanoTime() - begin);
+        logger.info(description + " with " + nThreads + " threads: " + String.format("%.2f", throughput) + " operations per microsecond");
+        return throughput;
+    }
+
+    /**
+     * Compare the latency of a warm restart from a memory-mapped word count table (HashTable_Mapped)
+     * with that of rebuilding the counts in a HashTable_LP.
+     * The mapped table is built (and timed) from a FrequencyCounter of the words by HashTable_Mapped.build.
+     * In each case, the nWords randomly chosen words are then looked up.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param words  the word source (the corpus which is counted).
+     * @param nWords the number of words to be looked up in each run.
+     * @param nRuns  the number of runs.
+     * @param random the random number generator for choosing words.
+     * @return the total of the counts in the mapped table (which should equal the number of words), or -1 if it could not be created.
+     */
+    long runColdOpenBenchmark(String[] words, int nWords, int nRuns, Random random) {
+        logger.info("Testing cold open with " + formatWhole(nRuns) + " runs of looking up " + formatWhole(nWords) + " words");
+        STMap<String, Integer> counts = new STMap<>();
+        for (String word : words) counts.put(word, counts.getOrDefault(word, () -> 0) + 1);
+        FrequencyCounter<String> counter = new FrequencyCounter<>(counts);
+        Path path = null;
+        try {
+            path = Files.createTempFile("SymbolTableBenchmark", ".stmm");
+            final Path file = path;
+            double time = new Benchmark_Timer<FrequencyCounter<String>>("build HashTable_Mapped", c -> build(file, c)).runFromSupplier(() -> counter, nRuns);
+            logger.info("build HashTable_Mapped of " + formatWhole(counter.size()) + " words: " + String.format("%.2f", time) + " ms");
+            long result = 0;
+            try (HashTable_Mapped table = HashTable_Mapped.open(file)) {
+                for (String key : table.keys()) result += table.get(key);
+            }
+            Benchmark<String[]> coldOpen = new Benchmark_Timer<>("coldOpen HashTable_Mapped", xs -> openAndLookup(file, xs));
+            doPureBenchmark(words, nWords, nRuns, random, coldOpen);
+            Benchmark<String[]> rebuild = new Benchmark_Timer<>("rebuild HashTable_LP", xs -> rebuildAndLookup(words, xs));
+            doPureBenchmark(words, nWords, nRuns, random, rebuild);
+            return result;
+        } catch (IOException e) {
+            logger.warn("Unable to create mapped symbol table", e);
+            return -1;
+        } finally {
+            if (path != null) path.toFile().delete();
+        }
     }
 
+    /**
+     * Build the word count table in file from counter.
+     *
+     * @param file    the file.
+     * @param counter the word counts.
+     */
+    private static void build(Path file, FrequencyCounter<String> counter) {
+        try {
+            HashTable_Mapped.build(file, counter).close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Map the word count table in file and look up each of xs.
+     *
+     * @param file the file containing a HashTable_Mapped.
+     * @param xs   the words to look up.
+     */
+    private static void openAndLookup(Path file, String[] xs) {
+        try (HashTable_Mapped table = HashTable_Mapped.open(file)) {
+            for (String x : xs) table.get(x);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Count all the words in a new HashTable_LP and look up each of xs.
+     *
+     * @param words the corpus.
+     * @param xs    the words to look up.
+     */
+    private static void rebuildAndLookup(String[] words, String[] xs) {
+        HashTable_LP<String, Long> table = new HashTable_LP<>(2 * words.length + 2);
+        for (String word : words) {
+            Long count = table.get(word);
+            table.put(word, count != null ? count + 1 : 1L);
+        }
+        for (String x : xs) table.get(x);
+    }
+
+    /**
+     * Determine whether an optional benchmark is enabled in the symboltablebenchmark section of the configuration.
+     *
+     * @param option the name of the benchmark.
+     * @return true if the option is set to true.
+     */
+    private boolean isConfigBenchmark(String option) {
+        return Boolean.parseBoolean(config.getString(SYMBOLTABLEBENCHMARK, option, "false"));
+    }
+
+    public static final String SYMBOLTABLEBENCHMARK = "symboltablebenchmark";
+
+    private static final int MAX_THREADS = 64;
+
     /**
      * Executes a benchmark test for building and rendering a hash table with the given parameters.
      *
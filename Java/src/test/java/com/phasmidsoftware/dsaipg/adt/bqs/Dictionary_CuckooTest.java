@@ -0,0 +1,110 @@
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Dictionary_CuckooTest {
+
+    @Test
+    public void testPutAndGet() {
+        Dictionary<String, String> dictionary = new Dictionary_Cuckoo<>();
+        assertTrue(dictionary.isEmpty());
+        dictionary.put("key1", "value1");
+        dictionary.put("key2", "value2");
+        dictionary.put("key1", "newValue1");
+        assertEquals("newValue1", dictionary.get("key1"));
+        assertEquals("value2", dictionary.get("key2"));
+        assertNull(dictionary.get("key3"));
+        assertEquals(2, dictionary.size());
+        assertTrue(dictionary.containsKey("key2"));
+        assertFalse(dictionary.containsKey("key3"));
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        Dictionary<String, String> dictionary = new Dictionary_Cuckoo<>();
+        dictionary.put(null, "value1");
+        dictionary.put("key1", null);
+        assertEquals("value1", dictionary.get(null));
+        assertNull(dictionary.get("key1"));
+        assertTrue(dictionary.containsKey("key1"));
+        assertTrue(dictionary.containsKey(null));
+        assertEquals(2, dictionary.size());
+        assertEquals(2, dictionary.keySet().size());
+        assertTrue(dictionary.keySet().contains(null));
+    }
+
+    @Test
+    public void testHighLoad() {
+        Dictionary_Cuckoo<Integer, Integer> dictionary = new Dictionary_Cuckoo<>(10000);
+        int capacity = dictionary.capacity();
+        int n = (int) (capacity * 0.94);
+        Random random = new Random(0L);
+        Map<Integer, Integer> expected = new HashMap<>();
+        while (expected.size() < n) {
+            int key = random.nextInt();
+            expected.put(key, -key);
+            dictionary.put(key, -key);
+        }
+        assertEquals(capacity, dictionary.capacity());
+        assertTrue(dictionary.loadFactor() > 0.9);
+        assertEquals(expected.size(), dictionary.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+            assertEquals(entry.getValue(), dictionary.get(entry.getKey()));
+        assertEquals(expected.keySet(), new HashSet<>(dictionary.keySet()));
+    }
+
+    @Test
+    public void testGrowth() {
+        Dictionary_Cuckoo<String, Integer> dictionary = new Dictionary_Cuckoo<>(1);
+        int initialCapacity = dictionary.capacity();
+        for (int i = 0; i < 100000; i++) dictionary.put("k" + i, i);
+        assertTrue(dictionary.capacity() > initialCapacity);
+        assertEquals(100000, dictionary.size());
+        for (int i = 0; i < 100000; i++) assertEquals(Integer.valueOf(i), dictionary.get("k" + i));
+        assertNull(dictionary.get("k100000"));
+    }
+
+    @Test
+    public void testPoorHashCode() {
+        // All keys have the same hash code, so they share two buckets: the stash and then resizing must cope.
+        Dictionary<Object, Integer> dictionary = new Dictionary_Cuckoo<>();
+        Object[] keys = new Object[20];
+        for (int i = 0; i < keys.length; i++) {
+            final int id = i;
+            keys[i] = new Object() {
+                public int hashCode() {
+                    return 42;
+                }
+
+                public String toString() {
+                    return "key" + id;
+                }
+            };
+            dictionary.put(keys[i], i);
+        }
+        assertEquals(keys.length, dictionary.size());
+        for (int i = 0; i < keys.length; i++) assertEquals(Integer.valueOf(i), dictionary.get(keys[i]));
+    }
+
+    @Test
+    public void testClear() {
+        Dictionary<Integer, Integer> dictionary = Dictionary.Backend.CUCKOO.create();
+        for (int i = 0; i < 100; i++) dictionary.put(i, i);
+        dictionary.clear();
+        assertTrue(dictionary.isEmpty());
+        assertNull(dictionary.get(1));
+        assertFalse(dictionary.keySet().iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMaxLoad() {
+        new Dictionary_Cuckoo<Integer, Integer>(10, 1.5);
+    }
+}
@@ -0,0 +1,120 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class AddressablePQTest {
+
+    @Test
+    public void testPairingHeap() throws PQException {
+        checkBasics(() -> new PairingHeap<>(2, Long::compare));
+        checkRandom(() -> new PairingHeap<>(2, Long::compare));
+    }
+
+    @Test
+    public void testPooledFibonacciHeap() throws PQException {
+        checkBasics(() -> new PooledFibonacciHeap<>(2, Long::compare));
+        checkRandom(() -> new PooledFibonacciHeap<>(2, Long::compare));
+    }
+
+    @Test
+    public void testRadixHeap() throws PQException {
+        checkBasics(() -> new RadixHeap(2));
+        checkRandom(() -> new RadixHeap(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadixHeapNotMonotone() throws PQException {
+        RadixHeap heap = new RadixHeap(4);
+        heap.giveLong(10);
+        heap.giveLong(20);
+        heap.takeLong();
+        heap.giveLong(5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKey() {
+        AddressablePQ<Long> heap = new PairingHeap<>(4, Long::compare);
+        int h = heap.give(10L);
+        heap.decreaseKey(h, 11L);
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new PooledFibonacciHeap<Long>(4, Long::compare).take();
+    }
+
+    private static void checkBasics(Supplier<AddressablePQ<Long>> supplier) throws PQException {
+        AddressablePQ<Long> heap = supplier.get();
+        assertTrue(heap.isEmpty());
+        int a = heap.give(30L);
+        int b = heap.give(20L);
+        int c = heap.give(40L);
+        int d = heap.give(50L);
+        assertEquals(4, heap.size());
+        heap.decreaseKey(c, 10L);
+        assertEquals(c, heap.peekHandle());
+        assertEquals(Long.valueOf(10L), heap.key(c));
+        heap.remove(a);
+        assertEquals(3, heap.size());
+        assertEquals(Long.valueOf(10L), heap.take());
+        assertEquals(b, heap.peekHandle());
+        assertEquals(Long.valueOf(20L), heap.take());
+        assertEquals(d, heap.peekHandle());
+        assertEquals(Long.valueOf(50L), heap.take());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Simulate a Dijkstra-like (monotone) workload and compare with a TreeSet of (key, handle) pairs.
+     */
+    private static void checkRandom(Supplier<AddressablePQ<Long>> supplier) throws PQException {
+        Random random = new Random(0L);
+        AddressablePQ<Long> heap = supplier.get();
+        TreeSet<long[]> expected = new TreeSet<>((x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+        Map<Integer, long[]> live = new HashMap<>();
+        long last = 0;
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 4) {
+                long key = last + random.nextInt(1000);
+                int h = heap.give(key);
+                assertFalse(live.containsKey(h));
+                long[] entry = {key, h};
+                live.put(h, entry);
+                expected.add(entry);
+            } else if (op < 7 && !live.isEmpty()) {
+                long[] entry = randomEntry(live, random);
+                long key = last + (entry[0] - last) / 2;
+                expected.remove(entry);
+                heap.decreaseKey((int) entry[1], key);
+                entry[0] = key;
+                expected.add(entry);
+            } else if (op < 8 && !live.isEmpty()) {
+                long[] entry = randomEntry(live, random);
+                expected.remove(entry);
+                live.remove((int) entry[1]);
+                heap.remove((int) entry[1]);
+            } else if (!expected.isEmpty()) {
+                int h = heap.peekHandle();
+                long[] entry = live.remove(h);
+                assertEquals(expected.first()[0], entry[0]);
+                expected.remove(entry);
+                long key = heap.take();
+                assertEquals(entry[0], key);
+                last = key;
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+    }
+
+    private static long[] randomEntry(Map<Integer, long[]> live, Random random) {
+        List<long[]> entries = new ArrayList<>(live.values());
+        entries.sort(Comparator.comparingLong(x -> x[1]));
+        return entries.get(random.nextInt(entries.size()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DaryHeapTest {
+
+    @Test
+    public void testGiveAndTake() throws PQException {
+        DaryHeap<String> pq = new DaryHeap<>(4, Comparator.<String>naturalOrder());
+        assertTrue(pq.isEmpty());
+        pq.give("C");
+        pq.give("A");
+        pq.give("B");
+        assertEquals(3, pq.size());
+        assertEquals("A", pq.peek());
+        assertEquals("A", pq.take());
+        assertEquals("B", pq.take());
+        assertEquals("C", pq.take());
+        assertTrue(pq.isEmpty());
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new DaryHeap<>(2, Comparator.<String>naturalOrder()).take();
+    }
+
+    @Test
+    public void testMaxHeapGrows() throws PQException {
+        DaryHeap<Integer> pq = new DaryHeap<>(8, 1, true, Integer::compare, false);
+        for (int i = 0; i < 100; i++) pq.give(i);
+        assertEquals(100, pq.size());
+        for (int i = 99; i >= 0; i--) assertEquals(Integer.valueOf(i), pq.take());
+    }
+
+    @Test
+    public void testRandomAllArities() throws PQException {
+        for (int d : new int[]{2, 3, 4, 8}) {
+            for (boolean floyd : new boolean[]{false, true}) {
+                Random random = new Random(d);
+                DaryHeap<Integer> pq = new DaryHeap<>(d, 4, false, Integer::compare, floyd);
+                java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+                for (int i = 0; i < 5000; i++) {
+                    if (random.nextInt(3) == 0 && !expected.isEmpty()) assertEquals(expected.poll(), pq.take());
+                    else {
+                        int x = random.nextInt(1000);
+                        pq.give(x);
+                        expected.add(x);
+                    }
+                }
+                List<Integer> remaining = new ArrayList<>();
+                for (Integer x : pq) remaining.add(x);
+                assertEquals(expected.size(), remaining.size());
+                while (!expected.isEmpty()) assertEquals(expected.poll(), pq.take());
+                assertTrue(pq.isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void testFourAryHeap() throws PQException {
+        FourAryHeap<Integer> pq = new FourAryHeap<>(2, true, Integer::compare, true);
+        assertEquals(4, pq.getArity());
+        for (int i = 0; i < 10; i++) pq.give(i * 7 % 10);
+        for (int i = 9; i >= 0; i--) assertEquals(Integer.valueOf(i), pq.take());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadArity() {
+        new DaryHeap<Integer>(1, Integer::compare);
+    }
+}
@@ -0,0 +1,94 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.*;
+
+public class EventQueueTest {
+
+    @Test
+    public void testTimingWheel() throws PQException {
+        checkQueue(HierarchicalTimingWheel::new);
+    }
+
+    @Test
+    public void testCalendarQueue() throws PQException {
+        checkQueue(CalendarQueue::new);
+    }
+
+    @Test
+    public void testSameTimeIsFirstInFirstOut() throws PQException {
+        for (Factory factory : new Factory[]{HierarchicalTimingWheel::new, CalendarQueue::new}) {
+            PriorityQueueInterface<Event> pq = factory.create(4, Event::time);
+            for (int i = 0; i < 1000; i++) pq.give(new Event(i / 10 * 1000L, i));
+            for (int i = 0; i < 1000; i++) assertEquals(i, pq.take().sequence());
+        }
+    }
+
+    @Test
+    public void testCalendarQueueResizes() throws PQException {
+        CalendarQueue<Long> pq = new CalendarQueue<>(4, Long::longValue);
+        for (long t = 0; t < 10000; t++) pq.give(t * 10);
+        assertTrue(pq.buckets() >= 2048);
+        assertEquals(30, pq.width());
+        for (long t = 0; t < 9990; t++) assertEquals(Long.valueOf(t * 10), pq.take());
+        assertTrue(pq.buckets() <= 32);
+    }
+
+    @Test(expected = PQException.class)
+    public void testTimingWheelEmpty() throws PQException {
+        new HierarchicalTimingWheel<Long>(4, Long::longValue).take();
+    }
+
+    @Test(expected = PQException.class)
+    public void testCalendarQueueEmpty() throws PQException {
+        new CalendarQueue<Long>(4, Long::longValue).take();
+    }
+
+    @Test
+    public void testBenchmark() {
+        new EventQueueBenchmark(10000, 10000).run(2);
+    }
+
+    interface Factory {
+        PriorityQueueInterface<Event> create(int capacity, ToLongFunction<Event> time);
+    }
+
+    /**
+     * Compare the times taken from a queue with those from a reference PriorityQueue_BinaryHeap on several workloads.
+     */
+    private static void checkQueue(Factory factory) throws PQException {
+        Random random = new Random(0L);
+        // Each workload is: {maximum increment, percentage of late events, percentage of takes}.
+        long[][] workloads = {{10, 0, 50}, {1000, 5, 50}, {1L << 40, 10, 40}, {3, 20, 60}, {100000, 0, 30}};
+        for (long[] workload : workloads) {
+            PriorityQueueInterface<Event> pq = factory.create(4, Event::time);
+            PriorityQueue_BinaryHeap<Event> reference = new PriorityQueue_BinaryHeap<>(16, false, Comparator.comparingLong(Event::time));
+            long now = -1000;
+            int sequence = 0;
+            for (int i = 0; i < 20000; i++) {
+                if (!reference.isEmpty() && random.nextInt(100) < workload[2]) {
+                    Event expected = reference.take();
+                    Event actual = pq.take();
+                    assertEquals(expected.time(), actual.time());
+                    now = actual.time();
+                } else {
+                    long t = random.nextInt(100) < workload[1] ? now - random.nextInt(50) : now + (long) (random.nextDouble() * workload[0]);
+                    Event event = new Event(t, sequence++);
+                    pq.give(event);
+                    reference.give(event);
+                }
+                assertEquals(reference.size(), pq.size());
+            }
+            while (!reference.isEmpty()) assertEquals(reference.take().time(), pq.take().time());
+            assertTrue(pq.isEmpty());
+        }
+    }
+
+    record Event(long time, int sequence) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexMinPQDoubleTest {
+
+    @Test
+    public void testInsertAndDelMin() {
+        IndexMinPQDouble pq = new IndexMinPQDouble(10);
+        assertTrue(pq.isEmpty());
+        pq.insert(3, 3.5);
+        pq.insert(7, 1.5);
+        pq.insert(0, 2.5);
+        assertEquals(3, pq.size());
+        assertTrue(pq.contains(7));
+        assertFalse(pq.contains(1));
+        assertEquals(7, pq.minIndex());
+        assertEquals(1.5, pq.minKey(), 0.0);
+        assertEquals(2.5, pq.keyOf(0), 0.0);
+        assertEquals(7, pq.delMin());
+        assertEquals(0, pq.delMin());
+        assertEquals(3, pq.delMin());
+        assertTrue(pq.isEmpty());
+        assertFalse(pq.contains(7));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        int maxN = 500;
+        Random random = new Random(0L);
+        IndexMinPQDouble pq = new IndexMinPQDouble(maxN);
+        double[] reference = new double[maxN];
+        boolean[] present = new boolean[maxN];
+        for (int step = 0; step < 20000; step++) {
+            int i = random.nextInt(maxN);
+            double key = random.nextDouble();
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    if (!present[i]) {
+                        pq.insert(i, key);
+                        reference[i] = key;
+                        present[i] = true;
+                    }
+                }
+                case 2 -> {
+                    if (present[i] && key < reference[i]) {
+                        pq.decreaseKey(i, key);
+                        reference[i] = key;
+                    }
+                }
+                case 3 -> {
+                    if (present[i]) {
+                        pq.changeKey(i, key);
+                        reference[i] = key;
+                    }
+                }
+                case 4 -> {
+                    if (present[i]) {
+                        pq.delete(i);
+                        present[i] = false;
+                    }
+                }
+                default -> {
+                    if (!pq.isEmpty()) {
+                        int best = -1;
+                        for (int j = 0; j < maxN; j++)
+                            if (present[j] && (best < 0 || reference[j] < reference[best])) best = j;
+                        assertEquals(reference[best], pq.minKey(), 0.0);
+                        int min = pq.delMin();
+                        assertEquals(reference[best], reference[min], 0.0);
+                        present[min] = false;
+                    }
+                }
+            }
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (!pq.isEmpty()) {
+            double key = pq.minKey();
+            assertTrue(key >= last);
+            assertTrue(present[pq.delMin()]);
+            last = key;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertDuplicate() {
+        IndexMinPQDouble pq = new IndexMinPQDouble(2);
+        pq.insert(1, 1.0);
+        pq.insert(1, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyGreater() {
+        IndexMinPQDouble pq = new IndexMinPQDouble(2);
+        pq.insert(1, 1.0);
+        pq.decreaseKey(1, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexOutOfRange() {
+        new IndexMinPQDouble(2).insert(2, 1.0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testDelMinEmpty() {
+        new IndexMinPQDouble(2).delMin();
+    }
+
+    @Test
+    public void testLong() {
+        IndexMinPQLong pq = new IndexMinPQLong(100);
+        for (int i = 0; i < 100; i++) pq.insert(i, (i * 37L) % 101);
+        pq.decreaseKey(50, -1L);
+        pq.increaseKey(0, 1000L);
+        pq.delete(1);
+        assertEquals(50, pq.delMin());
+        long last = Long.MIN_VALUE;
+        int count = 1;
+        while (!pq.isEmpty()) {
+            long key = pq.minKey();
+            assertTrue(key >= last);
+            last = key;
+            pq.delMin();
+            count++;
+        }
+        assertEquals(99, count);
+        assertEquals(1000L, last);
+    }
+}
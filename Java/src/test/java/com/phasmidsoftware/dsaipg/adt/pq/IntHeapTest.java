@@ -0,0 +1,50 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntHeapTest {
+
+    @Test
+    public void testGiveAndTake() throws PQException {
+        IntHeap heap = new IntHeap();
+        heap.give(3);
+        heap.give(-1);
+        heap.give(2);
+        assertEquals(3, heap.size());
+        assertEquals(-1, heap.peek());
+        assertEquals(-1, heap.take());
+        assertEquals(2, heap.take());
+        assertEquals(3, heap.take());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new IntHeap().take();
+    }
+
+    @Test
+    public void testRandomAllArities() throws PQException {
+        for (int d : new int[]{2, 4, 8}) {
+            for (boolean floyd : new boolean[]{false, true}) {
+                Random random = new Random(d);
+                IntHeap heap = new IntHeap(d, 1, floyd);
+                java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+                for (int i = 0; i < 10000; i++) {
+                    if (random.nextInt(3) == 0 && !expected.isEmpty()) assertEquals(expected.poll().intValue(), heap.take());
+                    else {
+                        int x = random.nextInt();
+                        heap.give(x);
+                        expected.add(x);
+                    }
+                }
+                while (!expected.isEmpty()) assertEquals(expected.poll().intValue(), heap.take());
+                assertTrue(heap.isEmpty());
+            }
+        }
+    }
+}
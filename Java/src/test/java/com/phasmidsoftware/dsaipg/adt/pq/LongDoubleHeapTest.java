@@ -0,0 +1,52 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongDoubleHeapTest {
+
+    @Test
+    public void testGiveAndTake() throws PQException {
+        LongDoubleHeap heap = new LongDoubleHeap();
+        heap.give(2.5, 25L);
+        heap.give(0.5, 5L);
+        heap.give(1.5, 15L);
+        assertEquals(3, heap.size());
+        assertEquals(0.5, heap.peekPriority(), 0.0);
+        assertEquals(5L, heap.peekPayload());
+        assertEquals(5L, heap.take());
+        assertEquals(15L, heap.take());
+        assertEquals(25L, heap.take());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new LongDoubleHeap().take();
+    }
+
+    @Test
+    public void testRandomAllArities() throws PQException {
+        for (int d : new int[]{2, 4, 8}) {
+            for (boolean floyd : new boolean[]{false, true}) {
+                Random random = new Random(d);
+                LongDoubleHeap heap = new LongDoubleHeap(d, 1, floyd);
+                for (int i = 0; i < 10000; i++) {
+                    long payload = random.nextInt(1000000);
+                    heap.give(payload / 1000.0, payload);
+                }
+                double last = Double.NEGATIVE_INFINITY;
+                while (!heap.isEmpty()) {
+                    double priority = heap.peekPriority();
+                    long payload = heap.take();
+                    assertEquals(payload / 1000.0, priority, 0.0);
+                    assertTrue(priority >= last);
+                    last = priority;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.*;
+
+public class MultiQueueTest {
+
+    @Test
+    public void testGiveAndTake() throws PQException {
+        MultiQueue<Integer> pq = new MultiQueue<>(2, false, Comparator.<Integer>naturalOrder());
+        assertEquals(4, pq.heaps());
+        assertTrue(pq.isEmpty());
+        for (int i = 0; i < 100; i++) pq.give(i);
+        assertEquals(100, pq.size());
+        List<Integer> taken = new ArrayList<>();
+        while (!pq.isEmpty()) taken.add(pq.take());
+        Collections.sort(taken);
+        for (int i = 0; i < 100; i++) assertEquals(Integer.valueOf(i), taken.get(i));
+        assertEquals(0, pq.size());
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new MultiQueue<>(4, false, Comparator.<String>naturalOrder()).take();
+    }
+
+    @Test
+    public void testSingleHeapIsExact() throws PQException {
+        MultiQueue<Integer> pq = new MultiQueue<>(1, 1, true, Comparator.<Integer>naturalOrder());
+        for (int i = 0; i < 50; i++) pq.give(i);
+        for (int i = 49; i >= 0; i--) assertEquals(Integer.valueOf(i), pq.take());
+    }
+
+    @Test
+    public void testRankErrorIsSmall() {
+        double[] multi = MultiQueueBenchmark.rankError(new MultiQueue<>(4, false, Comparator.<Integer>naturalOrder()), 10000, new Random(0L));
+        assertTrue(multi[0] < 100);
+        double[] exact = MultiQueueBenchmark.rankError(new PriorityQueue_BinaryHeap<>(16, false, Comparator.<Integer>naturalOrder()), 10000, new Random(0L));
+        assertEquals(0.0, exact[0], 0.0);
+        assertEquals(0.0, exact[1], 0.0);
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        MultiQueue<Integer> pq = new MultiQueue<>(4, false, Comparator.<Integer>naturalOrder());
+        int nThreads = 4;
+        int perThread = 10000;
+        ConcurrentLinkedQueue<Integer> taken = new ConcurrentLinkedQueue<>();
+        Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            int base = t * perThread;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    pq.give(base + i);
+                    if ((i & 1) == 1) try {
+                        taken.add(pq.take());
+                    } catch (PQException e) {
+                        fail("unexpected PQException");
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(nThreads * perThread / 2, pq.size());
+        try {
+            while (!pq.isEmpty()) taken.add(pq.take());
+        } catch (PQException e) {
+            fail("unexpected PQException");
+        }
+        List<Integer> all = new ArrayList<>(taken);
+        Collections.sort(all);
+        assertEquals(nThreads * perThread, all.size());
+        for (int i = 0; i < all.size(); i++) assertEquals(Integer.valueOf(i), all.get(i));
+    }
+
+    @Test
+    public void testBenchmark() {
+        new MultiQueueBenchmark(10000).run(4, 10000);
+    }
+}
@@ -1,5 +1,6 @@
 package com.phasmidsoftware.dsaipg.adt.pq;
 
+import com.phasmidsoftware.dsaipg.sort.Instrumenter;
 import com.phasmidsoftware.dsaipg.util.PrivateMethodTester;
 import org.junit.Test;
 
@@ -17,7 +18,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[1] = "A";
         binHeap[2] = "B";
         boolean max = false;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 2, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 2, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(max, tester.invokePrivate("inverted", 1, 2));
     }
@@ -28,7 +29,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[0] = "A";
         binHeap[1] = "B";
         boolean max = false;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 0, 2, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 0, 2, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(max, tester.invokePrivate("inverted", 0, 1));
     }
@@ -39,7 +40,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[1] = "A";
         binHeap[2] = "B";
         boolean max = true;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 2, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 2, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(max, tester.invokePrivate("inverted", 1, 2));
     }
@@ -52,7 +53,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[0] = a;
         binHeap[1] = b;
         // Create PQ which uses the 0th index.
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 0, 2, Comparator.comparing(String::toString), true);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 0, 2, Comparator.comparing(String::toString), true);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(a, tester.invokePrivate("peek", 0));
         tester.invokePrivate("swimUp", 1);
@@ -67,7 +68,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[1] = a;
         binHeap[2] = b;
         // Create PQ which does not use the 0th index.
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 2, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 2, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(a, tester.invokePrivate("peek", 1));
         tester.invokePrivate("swimUp", 2);
@@ -82,7 +83,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[3] = "B";
         binHeap[4] = "C";
         // Create PQ as a max-heap.
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 4, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 4, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         tester.invokePrivate("swimUp", 4); // Swim "C" upward.
         assertEquals("C", tester.invokePrivate("peek", 2)); // Peek at root.
@@ -96,7 +97,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[3] = "E";
         binHeap[4] = "B";
         // Create PQ as a min-heap.
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(false, binHeap, 1, 4, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(false, binHeap, 1, 4, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         tester.invokePrivate("swimUp", 4); // Swim "B" upward.
         assertEquals("B", tester.invokePrivate("peek", 1)); // Peek at root.
@@ -111,7 +112,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[0] = b;
         binHeap[1] = c;
         binHeap[2] = a;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 0, 3, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 0, 3, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         tester.invokePrivate("sink", 0);
         assertEquals(c, tester.invokePrivate("peek", 0));
@@ -127,7 +128,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[1] = a;
         binHeap[2] = b;
         binHeap[3] = c;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 3, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 3, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         tester.invokePrivate("sink", 1);
         assertEquals(c, tester.invokePrivate("peek", 1));
@@ -143,7 +144,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[1] = a;
         binHeap[2] = b;
         binHeap[3] = c;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 3, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 3, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         tester.invokePrivate("sink", 1);
         assertEquals(c, tester.invokePrivate("peek", 1));
@@ -152,7 +153,7 @@ public class PriorityQueueBinaryHeapTest {
 
     @Test
     public void testGive1() {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
         String key = "A";
         pq.give(key);
         assertEquals(1, pq.size());
@@ -161,22 +162,24 @@ public class PriorityQueueBinaryHeapTest {
     }
 
     @Test
-    public void testGive2() {
-        // Test that we can comfortably give more elements than the the PQ has capacity for
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(1, Comparator.comparing(String::toString));
-        final PrivateMethodTester tester = new PrivateMethodTester(pq);
-        String key = "A";
-        pq.give(null); // This will never survive so it might as well be null
-        assertEquals(1, pq.size());
-        assertNull(tester.invokePrivate("peek", 0));
-        pq.give(key);
+    public void testGive2() throws PQException {
+        // Test that we can comfortably give more elements than the the PQ has capacity for (the array grows)
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(1, Comparator.comparing(String::toString));
+        pq.give("A");
         assertEquals(1, pq.size());
-        assertEquals(key, tester.invokePrivate("peek", 0));
+        pq.give("C");
+        pq.give("B");
+        assertEquals(3, pq.size());
+        final PrivateMethodTester tester = new PrivateMethodTester(pq);
+        assertEquals("C", tester.invokePrivate("peek", 0));
+        assertEquals("C", pq.take());
+        assertEquals("B", pq.take());
+        assertEquals("A", pq.take());
     }
 
     @Test
     public void testTake1() throws PQException {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
         String key = "A";
         pq.give(key);
         assertEquals(key, pq.take());
@@ -185,7 +188,7 @@ public class PriorityQueueBinaryHeapTest {
 
     @Test
     public void testTake2() throws PQException {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
         String a = "A";
         String b = "B";
         pq.give(a);
@@ -201,7 +204,7 @@ public class PriorityQueueBinaryHeapTest {
 
     @Test(expected = PQException.class)
     public void testTake3() throws PQException {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, Comparator.comparing(String::toString));
         pq.give("A");
         pq.take();
         pq.take();
@@ -209,13 +212,13 @@ public class PriorityQueueBinaryHeapTest {
 
     @Test
     public void isEmpty() {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, false, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, false, Comparator.comparing(String::toString));
         assertTrue(pq.isEmpty());
     }
 
     @Test
     public void size() throws PQException {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(10, false, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(10, false, Comparator.comparing(String::toString));
         assertEquals(0, pq.size());
         pq.give("A");
         assertEquals(1, pq.size());
@@ -323,7 +326,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[2] = "A";
         binHeap[3] = "C";
         binHeap[4] = "B";
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 4, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(true, binHeap, 1, 4, Comparator.comparing(String::toString), false);
         String takenValue = pq.take();
         assertEquals("D", takenValue); // Ensure the max-heap returns the largest element.
         assertEquals(3, pq.size()); // Ensure size is reduced after take.
@@ -336,7 +339,7 @@ public class PriorityQueueBinaryHeapTest {
         binHeap[2] = "C";
         binHeap[3] = "B";
         binHeap[4] = "Z";
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(false, binHeap, 1, 4, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(false, binHeap, 1, 4, Comparator.comparing(String::toString), false);
         String takenValue = pq.take();
         assertEquals("A", takenValue); // Ensure the min-heap returns the smallest element.
         assertEquals(3, pq.size()); // Ensure size is reduced after take.
@@ -344,7 +347,7 @@ public class PriorityQueueBinaryHeapTest {
 
     @Test(expected = PQException.class)
     public void testTake6() throws PQException {
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(5, Comparator.comparing(String::toString));
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(5, Comparator.comparing(String::toString));
         pq.take(); // Attempting to take from an empty queue should throw PQException.
     }
 
@@ -353,7 +356,7 @@ public class PriorityQueueBinaryHeapTest {
         Integer[] binHeap = new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
         List<Integer> list = Arrays.asList(binHeap);
         shuffle(list, new Random());
-        PriorityQueue<Integer> pq = new PriorityQueue_BinaryHeap<>(list, Integer::compare);
+        PriorityQueue_BinaryHeap<Integer> pq = new PriorityQueue_BinaryHeap<>(list, Integer::compare);
         assertEquals(Integer.valueOf(19), pq.take());
         assertEquals(Integer.valueOf(18), pq.take());
         assertEquals(Integer.valueOf(17), pq.take());
@@ -381,7 +384,7 @@ public class PriorityQueueBinaryHeapTest {
         Integer[] binHeap = new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19};
         List<Integer> list = Arrays.asList(binHeap);
         shuffle(list, new Random());
-        PriorityQueue<Integer> pq = new PriorityQueue_BinaryHeap<>(true, list.toArray(new Integer[0]), 0, binHeap.length, Integer::compare, false);
+        PriorityQueue_BinaryHeap<Integer> pq = new PriorityQueue_BinaryHeap<>(true, list.toArray(new Integer[0]), 0, binHeap.length, Integer::compare, false);
         pq.heapConstructor();
         assertEquals(Integer.valueOf(19), pq.take());
         assertEquals(Integer.valueOf(18), pq.take());
@@ -409,7 +412,7 @@ public class PriorityQueueBinaryHeapTest {
     public void testDoHeapifya() throws PQException {
         String[] binHeap = new String[]{null, "C", "D", "A", "E", "B"};
         boolean max = false;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 5, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 1, 5, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(5, tester.invokePrivate("doHeapifyStandard", 2));
         assertEquals(3, tester.invokePrivate("doHeapifyStandard", 1));
@@ -420,10 +423,114 @@ public class PriorityQueueBinaryHeapTest {
     public void testDoHeapifyb() throws PQException {
         String[] binHeap = new String[]{"C", "D", "A", "E", "B"};
         boolean max = false;
-        PriorityQueue<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 0, 5, Comparator.comparing(String::toString), false);
+        PriorityQueue_BinaryHeap<String> pq = new PriorityQueue_BinaryHeap<>(max, binHeap, 0, 5, Comparator.comparing(String::toString), false);
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(4, tester.invokePrivate("doHeapifyStandard", 1));
         assertEquals(2, tester.invokePrivate("doHeapifyStandard", 0));
 
     }
-}
\ No newline at end of file
+    @Test
+    public void testGiveAll() throws PQException {
+        for (int first = 0; first <= 1; first++)
+            for (boolean max : new boolean[]{false, true})
+                for (int[] sizes : new int[][]{{0, 100}, {1000, 5}, {1000, 20}, {100, 1000}, {37, 101}}) {
+                    PriorityQueue_BinaryHeap<Integer> pq = new PriorityQueue_BinaryHeap<>(4, first, max, Integer::compare, false);
+                    Random random = new Random(sizes[0] + sizes[1]);
+                    List<Integer> all = new ArrayList<>();
+                    for (int i = 0; i < sizes[0]; i++) {
+                        int x = random.nextInt(1000);
+                        pq.give(x);
+                        all.add(x);
+                    }
+                    List<Integer> batch = new ArrayList<>();
+                    for (int i = 0; i < sizes[1]; i++) batch.add(random.nextInt(1000));
+                    pq.giveAll(batch);
+                    all.addAll(batch);
+                    checkDrain(pq, all, max);
+                }
+    }
+
+    @Test
+    public void testMerge() throws PQException {
+        for (int first = 0; first <= 1; first++) {
+            PriorityQueue_BinaryHeap<Integer> pq1 = new PriorityQueue_BinaryHeap<>(10, first, false, Integer::compare, false);
+            PriorityQueue_BinaryHeap<Integer> pq2 = new PriorityQueue_BinaryHeap<>(10, 1 - first, false, Integer::compare, false);
+            List<Integer> all = new ArrayList<>();
+            Random random = new Random(first);
+            for (int i = 0; i < 300; i++) {
+                int x = random.nextInt();
+                if (i % 3 == 0) pq1.give(x);
+                else pq2.give(x);
+                all.add(x);
+            }
+            pq1.merge(pq2);
+            assertEquals(200, pq2.size());
+            checkDrain(pq1, all, false);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentOrdering() {
+        new PriorityQueue_BinaryHeap<>(10, false, Integer::compare).merge(new PriorityQueue_BinaryHeap<>(10, true, Integer::compare));
+    }
+
+    @Test
+    public void testTakeN() throws PQException {
+        for (int first = 0; first <= 1; first++)
+            for (boolean max : new boolean[]{false, true})
+                for (int k : new int[]{0, 1, 2, 7, 50, 99, 100}) {
+                    PriorityQueue_BinaryHeap<Integer> pq = new PriorityQueue_BinaryHeap<>(100, first, max, Integer::compare, false);
+                    Random random = new Random(k);
+                    List<Integer> all = new ArrayList<>();
+                    for (int i = 0; i < 100; i++) {
+                        int x = random.nextInt(50);
+                        pq.give(x);
+                        all.add(x);
+                    }
+                    all.sort(max ? Comparator.reverseOrder() : Comparator.naturalOrder());
+                    assertEquals(all.subList(0, k), pq.takeN(k));
+                    assertEquals(100 - k, pq.size());
+                    checkDrain(pq, all.subList(k, 100), max);
+                }
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeNTooMany() throws PQException {
+        PriorityQueue_BinaryHeap<Integer> pq = new PriorityQueue_BinaryHeap<>(10, false, Integer::compare);
+        pq.give(1);
+        pq.takeN(2);
+    }
+
+    @Test
+    public void testBatchCompares() throws PQException {
+        int n = 10000;
+        int k = 100;
+        // Ascending keys are the worst case for give into a max-PQ: each one swims to the root.
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < n; i++) keys.add(i);
+        Instrumenter one = new Instrumenter(false, false, true, false, false, false, false);
+        PriorityQueue_BinaryHeap<Integer> pq1 = new PriorityQueue_BinaryHeap<>(n, true, Integer::compare);
+        pq1.setInstrumenter(one);
+        for (int key : keys) pq1.give(key);
+        Instrumenter bulk = new Instrumenter(false, false, true, false, false, false, false);
+        PriorityQueue_BinaryHeap<Integer> pq2 = new PriorityQueue_BinaryHeap<>(n, true, Integer::compare);
+        pq2.setInstrumenter(bulk);
+        pq2.giveAll(keys);
+        assertTrue(bulk.getCompares() < one.getCompares() / 4);
+        long before = one.getCompares();
+        for (int i = 0; i < k; i++) pq1.take();
+        long takes = one.getCompares() - before;
+        before = bulk.getCompares();
+        pq2.takeN(k);
+        assertTrue(bulk.getCompares() - before < takes);
+        checkDrain(pq2, keys.subList(0, n - k), true);
+    }
+
+    private static void checkDrain(PriorityQueue_BinaryHeap<Integer> pq, List<Integer> expected, boolean max) throws PQException {
+        List<Integer> sorted = new ArrayList<>(expected);
+        sorted.sort(max ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        assertEquals(sorted.size(), pq.size());
+        for (Integer x : sorted) assertEquals(x, pq.take());
+        assertTrue(pq.isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HashTable_MappedTest {
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("HashTable_MappedTest", ".stmm");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        try (HashTable_Mapped table = HashTable_Mapped.create(path, 10)) {
+            assertTrue(table.isEmpty());
+            assertNull(table.put("hello", 1L));
+            assertNull(table.put("goodbye", 2L));
+            assertEquals(Long.valueOf(1L), table.put("hello", 3L));
+            assertEquals(Long.valueOf(3L), table.get("hello"));
+            assertEquals(Long.valueOf(2L), table.get("goodbye"));
+            assertNull(table.get("world"));
+            assertEquals(2, table.size());
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        try (HashTable_Mapped table = HashTable_Mapped.create(path, 10)) {
+            table.increment("a", 1);
+            table.increment("b", 5);
+            table.increment("a", 1);
+            table.put("été", 42L);
+        }
+        try (HashTable_Mapped table = HashTable_Mapped.open(path)) {
+            assertEquals(3, table.size());
+            assertEquals(Long.valueOf(2L), table.get("a"));
+            assertEquals(Long.valueOf(5L), table.get("b"));
+            assertEquals(Long.valueOf(42L), table.get("été"));
+            Set<String> keys = table.keys();
+            assertEquals(3, keys.size());
+            assertTrue(keys.contains("b"));
+        }
+    }
+
+    @Test
+    public void testGrowth() throws IOException {
+        Random random = new Random(0L);
+        Map<String, Long> expected = new HashMap<>();
+        try (HashTable_Mapped table = HashTable_Mapped.create(path, 1)) {
+            int initialCapacity = table.capacity();
+            for (int i = 0; i < 20000; i++) {
+                String key = "key-" + random.nextInt(5000) + "-" + "x".repeat(random.nextInt(40));
+                long value = random.nextLong();
+                assertEquals(expected.put(key, value), table.put(key, value));
+            }
+            assertTrue(table.capacity() > initialCapacity);
+            assertEquals(expected.size(), table.size());
+            assertEquals(expected.keySet(), table.keys());
+            for (Map.Entry<String, Long> entry : expected.entrySet())
+                assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+        // The table grows within its own file: no other file is created (or renamed over the mapped one).
+        try (var siblings = Files.list(path.getParent())) {
+            assertEquals(0, siblings.filter(p -> p.getFileName().toString().startsWith(path.getFileName().toString() + ".")).count());
+        }
+        try (HashTable_Mapped table = HashTable_Mapped.open(path)) {
+            for (Map.Entry<String, Long> entry : expected.entrySet())
+                assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testInterruptedResize() throws IOException {
+        Map<String, Long> expected = new HashMap<>();
+        int capacity;
+        try (HashTable_Mapped table = HashTable_Mapped.create(path, 100)) {
+            capacity = table.capacity();
+            for (int i = 0; i < 100; i++) {
+                expected.put("key" + i, (long) i);
+                table.put("key" + i, (long) i);
+            }
+            // The process dies after the new slot array has been built but before the table switches to it.
+            table.buildSlots(capacity * 2);
+        }
+        try (HashTable_Mapped table = HashTable_Mapped.open(path)) {
+            assertEquals(capacity, table.capacity());
+            assertEquals(expected.keySet(), table.keys());
+            for (Map.Entry<String, Long> entry : expected.entrySet())
+                assertEquals(entry.getValue(), table.get(entry.getKey()));
+            // The abandoned array is simply part of the heap: the table carries on (and resizes) as usual.
+            for (int i = 100; i < capacity; i++) {
+                expected.put("key" + i, (long) i);
+                table.put("key" + i, (long) i);
+            }
+            assertTrue(table.capacity() > capacity);
+        }
+        try (HashTable_Mapped table = HashTable_Mapped.open(path)) {
+            assertEquals(expected.size(), table.size());
+            for (Map.Entry<String, Long> entry : expected.entrySet())
+                assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testBuild() throws IOException {
+        STMap<String, Integer> counts = new STMap<>();
+        counts.put("the", 7);
+        counts.put("cat", 2);
+        FrequencyCounter<String> counter = new FrequencyCounter<>(counts);
+        try (HashTable_Mapped table = HashTable_Mapped.build(path, counter)) {
+            assertEquals(2, table.size());
+            assertEquals(Long.valueOf(7L), table.get("the"));
+            assertEquals(Long.valueOf(2L), table.get("cat"));
+        }
+    }
+
+    @Test(expected = HashTable_Mapped.MappedTableException.class)
+    public void testOpenNotATable() throws IOException {
+        Files.write(path, "this is not a symbol table at all".getBytes());
+        HashTable_Mapped.open(path);
+    }
+
+    @Test(expected = HashTable_Mapped.MappedTableException.class)
+    public void testPutNull() throws IOException {
+        try (HashTable_Mapped table = HashTable_Mapped.create(path, 10)) {
+            table.put("x", null);
+        }
+    }
+
+    private Path path;
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BPlusTreeTest {
+
+    @Test
+    public void testPutAndGet() {
+        BPlusTree<Integer, String> tree = new BPlusTree<>(4);
+        assertNull(tree.put(10, "A"));
+        assertNull(tree.put(5, "B"));
+        assertEquals("A", tree.put(10, "C"));
+        assertEquals("C", tree.get(10));
+        assertEquals("B", tree.get(5));
+        assertNull(tree.get(7));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    public void testSplits() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(3);
+        for (int i = 0; i < 1000; i++) tree.put(i, i * i);
+        tree.validate();
+        assertEquals(1000, tree.size());
+        assertTrue(tree.height() > 1);
+        for (int i = 0; i < 1000; i++) assertEquals(Integer.valueOf(i * i), tree.get(i));
+    }
+
+    @Test
+    public void testDelete() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(4);
+        for (int i = 0; i < 200; i++) tree.put(i, i);
+        for (int i = 0; i < 200; i += 2) tree.delete(i);
+        tree.validate();
+        assertEquals(100, tree.size());
+        assertNull(tree.get(0));
+        assertEquals(Integer.valueOf(1), tree.get(1));
+        for (int i = 1; i < 200; i += 2) tree.delete(i);
+        tree.validate();
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+        tree.delete(42);
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    public void testContainsKeyWithNullValue() {
+        BPlusTree<String, Integer> tree = new BPlusTree<>();
+        tree.put("x", null);
+        assertTrue(tree.containsKey("x"));
+        assertTrue(tree.keySet().contains("x"));
+        assertFalse(tree.containsKey("y"));
+    }
+
+    @Test
+    public void testRandomAgainstTreeMap() {
+        Random random = new Random(0L);
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(5);
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int k = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                tree.delete(k);
+                map.remove(k);
+            } else assertEquals(map.put(k, i), tree.put(k, i));
+        }
+        tree.validate();
+        assertEquals(map.size(), tree.size());
+        assertEquals(new ArrayList<>(map.keySet()), new ArrayList<>(tree.keySet()));
+        assertEquals(map.firstKey(), tree.min());
+        assertEquals(map.lastKey(), tree.max());
+    }
+
+    @Test
+    public void testBulkLoad() {
+        Integer[] keys = new Integer[1000];
+        String[] values = new String[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 2 * i;
+            values[i] = "v" + i;
+        }
+        BPlusTree<Integer, String> tree = BPlusTree.bulkLoad(keys, values, 8);
+        tree.validate();
+        assertEquals(1000, tree.size());
+        assertEquals("v500", tree.get(1000));
+        assertNull(tree.get(1001));
+        tree.put(1001, "new");
+        tree.validate();
+        assertEquals(1001, tree.size());
+        assertEquals("new", tree.get(1001));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBulkLoadUnsorted() {
+        BPlusTree.bulkLoad(new Integer[]{1, 3, 2}, new String[]{"a", "b", "c"}, 4);
+    }
+
+    @Test
+    public void testPutAllBulkLoads() {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 5000; i++) map.put("k" + i, i);
+        BPlusTree<String, Integer> tree = new BPlusTree<>(16);
+        tree.putAll(map);
+        tree.validate();
+        assertEquals(5000, tree.size());
+        for (Map.Entry<String, Integer> entry : map.entrySet()) assertEquals(entry.getValue(), tree.get(entry.getKey()));
+        tree.putAll(Collections.singletonMap("extra", -1));
+        assertEquals(5001, tree.size());
+    }
+
+    @Test
+    public void testRangeScan() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(4);
+        for (int i = 0; i < 100; i++) tree.put(i * 10, i);
+        List<Integer> keys = new ArrayList<>();
+        for (Integer k : tree.keys(95, 150)) keys.add(k);
+        assertEquals(Arrays.asList(100, 110, 120, 130, 140, 150), keys);
+        final List<Integer> values = new ArrayList<>();
+        tree.forEachInRange(0, 25, (k, v) -> values.add(v));
+        assertEquals(Arrays.asList(0, 1, 2), values);
+        assertFalse(tree.keys(991, 2000).iterator().hasNext());
+    }
+
+    @Test
+    public void testKeySetStream() {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(4);
+        for (int i = 50; i > 0; i--) tree.put(i, i);
+        Set<Integer> keySet = tree.keySet();
+        assertEquals(50, keySet.size());
+        assertEquals(Integer.valueOf(1), keySet.iterator().next());
+        assertEquals(1275, keySet.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(Arrays.asList(1, 2, 3), keySet.stream().limit(3).collect(Collectors.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderTooSmall() {
+        new BPlusTree<Integer, Integer>(2);
+    }
+}
@@ -2,8 +2,9 @@ package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import java.util.*;
+
+import static org.junit.Assert.*;
 
 public class BSTOptimisedDeletionTest {
 
@@ -126,4 +127,132 @@ public class BSTOptimisedDeletionTest {
         assertEquals("RightLeft", bst.get(35));
         assertEquals("RightRight", bst.get(50));
     }
+
+    /**
+     * Test rank, select and countRange against a sorted list of the keys.
+     */
+    @Test
+    public void testRankSelectCountRange() {
+        BSTOptimisedDeletion<Integer, String> bst = new BSTOptimisedDeletion<>();
+        Random random = new Random(0L);
+        TreeSet<Integer> keys = new TreeSet<>();
+        for (int i = 0; i < 500; i++) {
+            int k = random.nextInt(2000);
+            keys.add(k);
+            bst.put(k, "v" + k);
+        }
+        List<Integer> sorted = new ArrayList<>(keys);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), bst.select(i));
+            assertEquals(i, bst.rank(sorted.get(i)));
+        }
+        assertEquals(0, bst.rank(-1));
+        assertEquals(sorted.size(), bst.rank(5000));
+        assertEquals(keys.subSet(100, true, 900, true).size(), bst.countRange(100, 900));
+        assertEquals(0, bst.countRange(900, 100));
+        assertEquals(sorted.get(sorted.size() / 2), bst.quantile(0.5));
+        assertEquals(sorted.get(sorted.size() - 1), bst.quantile(1.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        BSTOptimisedDeletion<Integer, String> bst = new BSTOptimisedDeletion<>();
+        bst.put(1, "A");
+        bst.select(1);
+    }
+
+    /**
+     * Test that putAll builds a perfectly balanced tree from sorted input.
+     */
+    @Test
+    public void testPutAllBalanced() {
+        SortedMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 0; i < 1023; i++) map.put(i, i * i);
+        BSTOptimisedDeletion<Integer, Integer> bst = new BSTOptimisedDeletion<>();
+        bst.putAll(map);
+        bst.validate();
+        assertEquals(1023, bst.size());
+        assertEquals(10, bst.depth());
+        assertEquals(Integer.valueOf(100), bst.get(10));
+        Map<Integer, Integer> more = new HashMap<>();
+        more.put(10, -1);
+        more.put(2000, 4);
+        bst.putAll(more);
+        bst.validate();
+        assertEquals(1024, bst.size());
+        assertEquals(Integer.valueOf(-1), bst.get(10));
+        assertEquals(Integer.valueOf(4), bst.get(2000));
+    }
+
+    /**
+     * Test split and join.
+     */
+    @Test
+    public void testSplitAndJoin() {
+        BSTOptimisedDeletion<Integer, String> bst = new BSTOptimisedDeletion<>();
+        for (int i = 0; i < 100; i++) bst.put((i * 37) % 100, "v");
+        BSTOptimisedDeletion<Integer, String> upper = bst.split(60);
+        bst.validate();
+        upper.validate();
+        assertEquals(60, bst.size());
+        assertEquals(40, upper.size());
+        assertEquals(Integer.valueOf(60), upper.select(0));
+        assertEquals(Integer.valueOf(59), bst.select(59));
+        assertNull(bst.get(60));
+        bst.join(upper);
+        bst.validate();
+        assertEquals(100, bst.size());
+        assertEquals(0, upper.size());
+        for (int i = 0; i < 100; i++) assertEquals(Integer.valueOf(i), bst.select(i));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJoinOverlapping() {
+        BSTOptimisedDeletion<Integer, String> a = new BSTOptimisedDeletion<>();
+        BSTOptimisedDeletion<Integer, String> b = new BSTOptimisedDeletion<>();
+        a.put(5, "A");
+        b.put(3, "B");
+        a.join(b);
+    }
+
+    /**
+     * Test union and intersection on trees large enough to be processed in parallel.
+     */
+    @Test
+    public void testUnionAndIntersection() {
+        Random random = new Random(1L);
+        BSTOptimisedDeletion<Integer, Integer> a = new BSTOptimisedDeletion<>();
+        BSTOptimisedDeletion<Integer, Integer> b = new BSTOptimisedDeletion<>();
+        BSTOptimisedDeletion<Integer, Integer> c = new BSTOptimisedDeletion<>();
+        BSTOptimisedDeletion<Integer, Integer> d = new BSTOptimisedDeletion<>();
+        Map<Integer, Integer> mapA = new HashMap<>();
+        Map<Integer, Integer> mapB = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int ka = random.nextInt(50000);
+            int kb = random.nextInt(50000);
+            mapA.put(ka, 1);
+            mapB.put(kb, 2);
+        }
+        a.putAll(mapA);
+        c.putAll(mapA);
+        b.putAll(mapB);
+        d.putAll(mapB);
+        a.union(b);
+        a.validate();
+        Set<Integer> union = new TreeSet<>(mapA.keySet());
+        union.addAll(mapB.keySet());
+        assertEquals(union.size(), a.size());
+        assertEquals(0, b.size());
+        for (Integer k : mapB.keySet()) assertEquals(Integer.valueOf(2), a.get(k));
+        c.intersection(d);
+        c.validate();
+        Set<Integer> intersection = new TreeSet<>(mapA.keySet());
+        intersection.retainAll(mapB.keySet());
+        assertEquals(intersection.size(), c.size());
+        int i = 0;
+        for (Integer k : intersection) {
+            assertEquals(k, c.select(i++));
+            assertEquals(Integer.valueOf(1), c.get(k));
+        }
+    }
 }
\ No newline at end of file
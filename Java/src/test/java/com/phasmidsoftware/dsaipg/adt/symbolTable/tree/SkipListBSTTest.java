@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SkipListBSTTest {
+
+    @Test
+    public void testPutAndGet() {
+        SkipListBST<String, Integer> st = new SkipListBST<>();
+        assertTrue(st.isEmpty());
+        assertNull(st.put("b", 1));
+        assertNull(st.put("a", 2));
+        assertEquals(Integer.valueOf(1), st.put("b", 3));
+        assertEquals(Integer.valueOf(3), st.get("b"));
+        assertEquals(Integer.valueOf(2), st.get("a"));
+        assertNull(st.get("c"));
+        assertEquals(2, st.size());
+    }
+
+    @Test
+    public void testNullValue() {
+        SkipListBST<String, Integer> st = new SkipListBST<>();
+        st.put("x", null);
+        assertTrue(st.containsKey("x"));
+        assertNull(st.get("x"));
+        assertEquals(1, st.size());
+        st.delete("x");
+        assertFalse(st.containsKey("x"));
+    }
+
+    @Test
+    public void testDelete() {
+        SkipListBST<Integer, Integer> st = new SkipListBST<>();
+        for (int i = 0; i < 100; i++) st.put(i, i);
+        for (int i = 0; i < 100; i += 2) st.delete(i);
+        assertEquals(50, st.size());
+        assertNull(st.get(0));
+        assertEquals(Integer.valueOf(1), st.get(1));
+        st.delete(0);
+        assertEquals(50, st.size());
+        st.put(0, 42);
+        assertEquals(Integer.valueOf(42), st.get(0));
+    }
+
+    @Test
+    public void testFloorCeilingMin() {
+        SkipListBST<Integer, String> st = new SkipListBST<>();
+        assertNull(st.min());
+        assertNull(st.floor(5));
+        for (int i = 10; i <= 50; i += 10) st.put(i, "v" + i);
+        assertEquals(Integer.valueOf(10), st.min());
+        assertEquals(Integer.valueOf(20), st.floor(25));
+        assertEquals(Integer.valueOf(20), st.floor(20));
+        assertNull(st.floor(9));
+        assertEquals(Integer.valueOf(30), st.ceiling(25));
+        assertEquals(Integer.valueOf(30), st.ceiling(30));
+        assertNull(st.ceiling(51));
+        st.delete(20);
+        assertEquals(Integer.valueOf(10), st.floor(25));
+    }
+
+    @Test
+    public void testRandomAgainstTreeMap() {
+        Random random = new Random(0L);
+        SkipListBST<Integer, Integer> st = new SkipListBST<>();
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int k = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                st.delete(k);
+                map.remove(k);
+            } else assertEquals(map.put(k, i), st.put(k, i));
+        }
+        assertEquals(map.size(), st.size());
+        assertEquals(new ArrayList<>(map.keySet()), new ArrayList<>(st.keySet()));
+        for (int k = -1; k <= 1000; k++) {
+            assertEquals(map.floorKey(k), st.floor(k));
+            assertEquals(map.ceilingKey(k), st.ceiling(k));
+        }
+    }
+
+    @Test
+    public void testConcurrentPutAndDelete() throws InterruptedException {
+        final SkipListBST<Integer, Integer> st = new SkipListBST<>();
+        final int nThreads = 8;
+        final int nKeys = 10000;
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            final int offset = t;
+            new Thread(() -> {
+                // each thread inserts its own residue class, then deletes half of the keys it inserted.
+                for (int k = offset; k < nKeys; k += nThreads) st.put(k, k);
+                for (int k = offset; k < nKeys; k += 2 * nThreads) st.delete(k);
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        int expected = 0;
+        for (int k = 0; k < nKeys; k++) {
+            boolean present = k % (2 * nThreads) >= nThreads;
+            if (present) expected++;
+            assertEquals(present ? Integer.valueOf(k) : null, st.get(k));
+        }
+        assertEquals(expected, st.size());
+        List<Integer> keys = new ArrayList<>(st.keySet());
+        assertEquals(expected, keys.size());
+        for (int i = 1; i < keys.size(); i++) assertTrue(keys.get(i - 1) < keys.get(i));
+    }
+}
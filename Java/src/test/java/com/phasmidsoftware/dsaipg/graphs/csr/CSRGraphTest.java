@@ -0,0 +1,146 @@
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.DirectedEdge;
+import com.phasmidsoftware.dsaipg.graphs.dijkstra.EdgeWeightedDigraph;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+import com.phasmidsoftware.dsaipg.util.SizedIterable;
+import com.phasmidsoftware.dsaipg.util.SizedIterableImpl;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class CSRGraphTest {
+
+    @Test
+    public void testBuilderDirected() {
+        CSRGraph.Builder<String> builder = new CSRGraph.Builder<>(true);
+        builder.addEdge("B", "C", 2.0).addEdge("A", "B", 1.0).addEdge("B", "A", 3.0);
+        assertEquals(3, builder.addVertex("D"));
+        CSRGraph<String> graph = builder.build();
+        assertTrue(graph.isDirected());
+        assertEquals(4, graph.V());
+        assertEquals(3, graph.E());
+        int b = graph.id("B");
+        assertEquals(0, b);
+        assertEquals("B", graph.vertex(b));
+        assertEquals(2, graph.degree(b));
+        assertEquals(0, graph.degree(graph.id("D")));
+        assertEquals(-1, graph.id("Z"));
+        // Arcs leaving a vertex are kept in the order in which they were added.
+        assertEquals(graph.id("C"), graph.target(graph.begin(b)));
+        assertEquals(2.0, graph.weight(graph.begin(b)), 0.0);
+        assertEquals(graph.id("A"), graph.target(graph.begin(b) + 1));
+        assertEquals(graph.begin(b) + 2, graph.end(b));
+    }
+
+    @Test
+    public void testReverse() {
+        CSRGraph.Builder<Integer> builder = new CSRGraph.Builder<>(true);
+        builder.addEdge(0, 1, 1.0).addEdge(0, 2, 2.0).addEdge(2, 1, 3.0);
+        CSRGraph<Integer> reverse = builder.build().reverse();
+        assertEquals(3, reverse.E());
+        int one = reverse.id(1);
+        assertEquals(2, reverse.degree(one));
+        assertEquals(0, reverse.degree(reverse.id(0)));
+        Set<Integer> sources = new HashSet<>();
+        for (int a = reverse.begin(one); a < reverse.end(one); a++) sources.add(reverse.vertex(reverse.target(a)));
+        assertEquals(Set.of(0, 2), sources);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderBadId() {
+        new CSRGraph.Builder<String>(true).addEdgeByIds(0, 1, 1.0);
+    }
+
+    @Test
+    public void testFromEdgeGraph() {
+        ListEdgeGraph graph = new ListEdgeGraph();
+        graph.addEdge("A", "B", 5);
+        graph.addEdge("B", "C", 7);
+        CSRGraph<String> csr = CSRGraph.fromEdgeGraph(graph, Integer::doubleValue);
+        assertFalse(csr.isDirected());
+        assertEquals(3, csr.V());
+        assertEquals(4, csr.E());
+        assertSame(csr, csr.reverse());
+        int b = csr.id("B");
+        assertEquals(2, csr.degree(b));
+        double total = 0;
+        for (int a = csr.begin(b); a < csr.end(b); a++) total += csr.weight(a);
+        assertEquals(12.0, total, 0.0);
+        assertEquals(4, CSRGraph.fromEdgeGraph(graph).E());
+    }
+
+    @Test
+    public void testFromEdgeWeightedDigraph() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(4);
+        graph.addEdge(new DirectedEdge(0, 1, 0.5));
+        graph.addEdge(new DirectedEdge(0, 2, 1.5));
+        graph.addEdge(new DirectedEdge(2, 3, 2.5));
+        CSRGraph<Integer> csr = CSRGraph.fromEdgeWeightedDigraph(graph);
+        assertEquals(4, csr.V());
+        assertEquals(3, csr.E());
+        for (int v = 0; v < 4; v++) {
+            assertEquals(v, csr.id(v));
+            assertEquals(graph.outdegree(v), csr.degree(v));
+            int a = csr.begin(v);
+            for (DirectedEdge e : graph.adj(v)) {
+                assertEquals(e.to(), csr.target(a));
+                assertEquals(e.weight(), csr.weight(a++), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testFromArcs() {
+        CSRGraph<Integer> graph = CSRGraph.fromArcs(3, new int[]{2, 0}, new int[]{0, 1}, null, false);
+        assertEquals(3, graph.V());
+        assertEquals(4, graph.E());
+        assertEquals(2, graph.degree(0));
+        assertEquals(1.0, graph.weight(graph.begin(0)), 0.0);
+        assertEquals(Integer.valueOf(2), graph.vertex(2));
+        assertEquals(1, graph.id(1));
+        assertEquals(-1, graph.id(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArcsBadVertex() {
+        CSRGraph.fromArcs(2, new int[]{0}, new int[]{2}, null, true);
+    }
+
+    /**
+     * A minimal EdgeGraph backed by lists.
+     */
+    static class ListEdgeGraph implements EdgeGraph<String, Integer> {
+        public SizedIterable<String> vertices() {
+            return SizedIterableImpl.create(vertices);
+        }
+
+        public Iterable<Edge<String, Integer>> adjacent(String vertex) {
+            List<Edge<String, Integer>> result = new ArrayList<>();
+            for (Edge<String, Integer> e : edges) if (e.get().equals(vertex)) result.add(e);
+            return result;
+        }
+
+        public SizedIterable<Edge<String, Integer>> edges() {
+            return SizedIterableImpl.create(edges);
+        }
+
+        public void addEdge(Edge<String, Integer> edge, Predicate<Edge<String, Integer>> predicate) {
+            if (!predicate.test(edge)) return;
+            edges.add(edge);
+            vertices.add(edge.get());
+            vertices.add(edge.getOther(edge.get()));
+        }
+
+        public void addEdge(String from, String to, Integer attribute, Predicate<Edge<String, Integer>> predicate) {
+            addEdge(new Edge<>(from, to, attribute), predicate);
+        }
+
+        private final Set<String> vertices = new LinkedHashSet<>();
+        private final List<Edge<String, Integer>> edges = new ArrayList<>();
+    }
+}
@@ -0,0 +1,15 @@
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelBFSBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        assertEquals(0, new ParallelBFSBenchmark(ParallelBFSBenchmark.randomGraph(10_000, 8, true, new Random(0L))).run(2));
+    }
+}
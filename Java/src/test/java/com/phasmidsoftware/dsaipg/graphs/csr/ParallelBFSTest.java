@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ParallelBFSTest {
+
+    @Test
+    public void testSmall() {
+        CSRGraph<Integer> graph = CSRGraph.fromArcs(5, new int[]{0, 1, 0, 3}, new int[]{1, 2, 2, 0}, null, true);
+        ParallelBFS bfs = new ParallelBFS(graph, 0);
+        assertArrayEquals(new int[]{0, 1, 1, -1, -1}, bfs.distances());
+        assertArrayEquals(new int[]{0, 0, 0, -1, -1}, bfs.parents());
+        assertEquals(3, bfs.reached());
+        assertTrue(bfs.hasPathTo(2));
+        assertFalse(bfs.hasPathTo(3));
+        assertEquals(List.of(0, 2), bfs.pathTo(2));
+        assertTrue(bfs.pathTo(4).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSource() {
+        new ParallelBFS(CSRGraph.fromArcs(2, new int[]{0}, new int[]{1}, null, true), 2);
+    }
+
+    @Test
+    public void testRandomDirected() {
+        Random random = new Random(0L);
+        for (int n : new int[]{1, 63, 64, 65, 1000, 20000}) {
+            CSRGraph<Integer> graph = ParallelBFSBenchmark.randomGraph(n, 3, true, random);
+            check(graph, new ParallelBFS(graph, random.nextInt(n)));
+        }
+    }
+
+    @Test
+    public void testRandomUndirected() {
+        Random random = new Random(1L);
+        for (int n : new int[]{2, 100, 5000, 50000}) {
+            CSRGraph<Integer> graph = ParallelBFSBenchmark.randomGraph(n, 2, false, random);
+            check(graph, new ParallelBFS(graph, random.nextInt(n)));
+        }
+    }
+
+    @Test
+    public void testBottomUp() {
+        Random random = new Random(2L);
+        CSRGraph<Integer> graph = ParallelBFSBenchmark.randomGraph(100_000, 16, true, random);
+        CSRGraph<Integer> reverse = graph.reverse();
+        ParallelBFS bfs = new ParallelBFS(graph, reverse, 0);
+        assertTrue(bfs.bottomUpLevels() > 0);
+        check(graph, bfs);
+        check(graph, new ParallelBFS(graph, reverse, 99_999));
+    }
+
+    /**
+     * Check the distances against a simple sequential BFS, and check that each parent is a valid BFS parent.
+     */
+    private static void check(CSRGraph<Integer> graph, ParallelBFS bfs) {
+        int[] parents = bfs.parents();
+        int s = -1;
+        for (int v = 0; v < graph.V(); v++) if (bfs.distTo(v) == 0) s = v;
+        int[] expected = ParallelBFSBenchmark.sequentialBFS(graph, s);
+        assertArrayEquals(expected, bfs.distances());
+        int reached = 0;
+        for (int v = 0; v < graph.V(); v++) {
+            if (expected[v] < 0) {
+                assertEquals(-1, parents[v]);
+                continue;
+            }
+            reached++;
+            if (v == s) assertEquals(s, parents[v]);
+            else {
+                int p = parents[v];
+                assertEquals(expected[v] - 1, expected[p]);
+                boolean found = false;
+                for (int a = graph.begin(p); a < graph.end(p); a++) found |= graph.target(a) == v;
+                assertTrue(found);
+            }
+        }
+        assertEquals(reached, bfs.reached());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ParallelTopologicalSortTest {
+
+    @Test
+    public void testSmall() {
+        CSRGraph<Integer> graph = CSRGraph.fromArcs(5, new int[]{3, 3, 0, 1, 4}, new int[]{0, 1, 2, 2, 2}, null, true);
+        ParallelTopologicalSort sort = new ParallelTopologicalSort(graph);
+        assertTrue(sort.isDAG());
+        assertEquals(3, sort.levels());
+        int[] order = sort.order();
+        assertEquals(5, order.length);
+        assertEquals(2, order[4]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCycle() {
+        CSRGraph<Integer> graph = CSRGraph.fromArcs(3, new int[]{0, 1, 2}, new int[]{1, 2, 1}, null, true);
+        ParallelTopologicalSort sort = new ParallelTopologicalSort(graph);
+        assertFalse(sort.isDAG());
+        sort.order();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUndirected() {
+        new ParallelTopologicalSort(CSRGraph.fromArcs(2, new int[]{0}, new int[]{1}, null, false));
+    }
+
+    @Test
+    public void testRandomDAG() {
+        Random random = new Random(0L);
+        for (int n : new int[]{1, 100, 100_000}) {
+            // Arcs only go from a lower to a higher position in a random permutation.
+            int[] permutation = new int[n];
+            for (int i = 0; i < n; i++) permutation[i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = t;
+            }
+            int m = 4 * n;
+            int[] froms = new int[m], tos = new int[m];
+            for (int i = 0; i < m; i++) {
+                int a = random.nextInt(n), b = random.nextInt(n);
+                froms[i] = permutation[Math.min(a, b)];
+                tos[i] = permutation[Math.max(a, b)];
+                if (a == b) tos[i] = permutation[n - 1];
+                if (froms[i] == tos[i]) froms[i] = permutation[0];
+            }
+            if (n == 1) m = 0;
+            CSRGraph<Integer> graph = CSRGraph.fromArcs(n, Arrays.copyOf(froms, m), Arrays.copyOf(tos, m), null, true);
+            int[] order = new ParallelTopologicalSort(graph).order();
+            assertEquals(n, order.length);
+            int[] position = new int[n];
+            for (int i = 0; i < n; i++) position[order[i]] = i;
+            for (int i = 0; i < m; i++) assertTrue(position[froms[i]] < position[tos[i]]);
+            assertEquals(n, new StronglyConnectedComponents(graph).count());
+        }
+    }
+
+    @Test
+    public void testStandardDAG() {
+        // The path of DAG_Impl.sortedParallel (by way of CSRGraph.fromDiGraph) for the standard DAG of DAGTest.
+        CSRGraph<Integer> graph = standardDAG(false);
+        List<Integer> sorted = new ArrayList<>();
+        for (int v : new ParallelTopologicalSort(graph).order()) sorted.add(graph.vertex(v));
+        assertEquals(7, sorted.size());
+        for (int v = 0; v < graph.V(); v++)
+            for (int a = graph.begin(v); a < graph.end(v); a++)
+                assertTrue(sorted.indexOf(graph.vertex(v)) < sorted.indexOf(graph.vertex(graph.target(a))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStandardDAGWithCycle() {
+        new ParallelTopologicalSort(standardDAG(true)).order();
+    }
+
+    @Test
+    public void testStandardDAGKernels() {
+        // The components of DiGraph.kernelDAG for the standard DAG of DAGTest, with the edge 4->3 added (cycles through 0, 1, 3, 4 and 6).
+        CSRGraph<Integer> graph = standardDAG(true);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+        assertEquals(3, components.count());
+        int[] cycle = {0, 1, 3, 4, 6};
+        for (int v : cycle) assertTrue(components.stronglyConnected(graph.id(0), graph.id(v)));
+        assertFalse(components.stronglyConnected(graph.id(2), graph.id(5)));
+        // Kernel {0, 1, 3, 4, 6} precedes 5, which precedes 2.
+        assertTrue(components.component(graph.id(0)) < components.component(graph.id(5)));
+        assertTrue(components.component(graph.id(5)) < components.component(graph.id(2)));
+    }
+
+    /**
+     * Build the standard DAG of DAGTest, vertex by vertex and edge by edge, just as CSRGraph.fromDiGraph does
+     * (DAGTest itself cannot build it until Bag_Array.growFrom is implemented).
+     *
+     * @param cycle true if the edge 4->3 should be added (making a cycle).
+     * @return a new CSRGraph.
+     */
+    private static CSRGraph<Integer> standardDAG(boolean cycle) {
+        int[][] edges = {{0, 1}, {0, 2}, {0, 5}, {1, 4}, {3, 2}, {3, 4}, {3, 5}, {3, 6}, {5, 2}, {6, 0}, {6, 4}};
+        CSRGraph.Builder<Integer> builder = new CSRGraph.Builder<>(true);
+        for (int v = 0; v < 7; v++) builder.addVertex(v);
+        for (int[] edge : edges) builder.addEdge(edge[0], edge[1], 1.0);
+        if (cycle) builder.addEdge(4, 3, 1.0);
+        return builder.build();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.csr;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StronglyConnectedComponentsTest {
+
+    @Test
+    public void testSmall() {
+        // A->B->C->A, A->D, D->E->D, D->F (as in DiGraphTest), with A..F numbered 0..5.
+        int[] froms = {0, 1, 2, 0, 3, 4, 3};
+        int[] tos = {1, 2, 0, 3, 4, 3, 5};
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(CSRGraph.fromArcs(6, froms, tos, null, true));
+        assertEquals(3, scc.count());
+        assertTrue(scc.stronglyConnected(0, 2));
+        assertTrue(scc.stronglyConnected(3, 4));
+        assertFalse(scc.stronglyConnected(0, 3));
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1, 2}, scc.components());
+        assertArrayEquals(new int[]{3, 2, 1}, scc.sizes());
+    }
+
+    @Test
+    public void testLongPath() {
+        // A path (closed into a cycle) far too deep for a recursive depth-first search.
+        int n = 1_000_000;
+        int[] froms = new int[n], tos = new int[n];
+        for (int i = 0; i < n; i++) {
+            froms[i] = i;
+            tos[i] = i + 1 < n ? i + 1 : 0;
+        }
+        CSRGraph<Integer> graph = CSRGraph.fromArcs(n, froms, tos, null, true);
+        assertEquals(1, new StronglyConnectedComponents(graph).count());
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(CSRGraph.fromArcs(n, froms, tos, null, true).reverse());
+        assertEquals(1, scc.count());
+        froms[n - 1] = 0;
+        tos[n - 1] = 0;
+        scc = new StronglyConnectedComponents(CSRGraph.fromArcs(n, froms, tos, null, true));
+        assertEquals(n, scc.count());
+        for (int i = 0; i < n; i++) assertEquals(i, scc.component(i));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0L);
+        for (int trial = 0; trial < 10; trial++) {
+            int n = 1 + random.nextInt(60);
+            int m = random.nextInt(2 * n);
+            int[] froms = new int[m], tos = new int[m];
+            boolean[][] reach = new boolean[n][n];
+            for (int i = 0; i < n; i++) reach[i][i] = true;
+            for (int i = 0; i < m; i++) {
+                froms[i] = random.nextInt(n);
+                tos[i] = random.nextInt(n);
+                reach[froms[i]][tos[i]] = true;
+            }
+            for (int k = 0; k < n; k++)
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < n; j++) reach[i][j] |= reach[i][k] && reach[k][j];
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(CSRGraph.fromArcs(n, froms, tos, null, true));
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    assertEquals(reach[i][j] && reach[j][i], scc.stronglyConnected(i, j));
+            // The components are in topological order.
+            for (int i = 0; i < m; i++) assertTrue(scc.component(froms[i]) <= scc.component(tos[i]));
+        }
+    }
+}
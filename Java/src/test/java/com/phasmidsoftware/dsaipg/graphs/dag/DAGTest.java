@@ -7,10 +7,12 @@ package com.phasmidsoftware.dsaipg.graphs.dag;
 import com.phasmidsoftware.dsaipg.adt.bqs.BQSException;
 import com.phasmidsoftware.dsaipg.adt.bqs.Stack;
 import com.phasmidsoftware.dsaipg.adt.bqs.Stack_LinkedList;
+import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 import java.util.function.Consumer;
@@ -136,6 +138,24 @@ public class DAGTest {
         assertFalse(iterator.hasNext());
     }
 
+    @Ignore("needs Bag_Array.growFrom (for the adjacency bags of DAG_Impl), which is not implemented; see ParallelTopologicalSortTest.testStandardDAG")
+    @Test
+    public void testSortedParallel() {
+        DAG_Impl<Integer, Double> target = setupStandardDAG(new Random(0L));
+        List<Integer> sorted = target.sortedParallel();
+        assertEquals(7, sorted.size());
+        for (Edge<Integer, Double> edge : target.edges())
+            assertTrue(sorted.indexOf(edge.getFrom()) < sorted.indexOf(edge.getTo()));
+    }
+
+    @Ignore("needs Bag_Array.growFrom (for the adjacency bags of DAG_Impl), which is not implemented; see ParallelTopologicalSortTest.testStandardDAGWithCycle")
+    @Test(expected = IllegalStateException.class)
+    public void testSortedParallelWithCycle() {
+        DAG_Impl<Integer, Double> target = setupStandardDAG(new Random(0L));
+        target.addEdge(new Edge<>(4, 3, 1.0));
+        target.sortedParallel();
+    }
+
     /**
      * Test method for sorted with cycle.
      * TODO reinstate this test but it the result is not really predictable.
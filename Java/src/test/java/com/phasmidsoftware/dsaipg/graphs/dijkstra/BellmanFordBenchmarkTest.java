@@ -0,0 +1,25 @@
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BellmanFordBenchmarkTest {
+
+    @Test
+    public void testRunNegativeCycle() {
+        double[] weights = new BellmanFordBenchmark("arbitrage", BellmanFordBenchmark.arbitrageGraph(1000, 10, true, new Random(0L))).runNegativeCycle(2);
+        assertEquals(BellmanFordSP.Mode.values().length, weights.length);
+        for (double weight : weights) assertTrue("weight: " + weight, weight < 0);
+    }
+
+    @Test
+    public void testRunNoArbitrage() {
+        BellmanFordBenchmark benchmark = new BellmanFordBenchmark("no arbitrage", BellmanFordBenchmark.arbitrageGraph(1000, 10, false, new Random(0L)));
+        for (double weight : benchmark.runNegativeCycle(2)) assertTrue(Double.isNaN(weight));
+        assertEquals(0.0, benchmark.runShortestPaths(2), 1E-9);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BellmanFordSPTest {
+
+    @Test
+    public void testNegativeWeights() {
+        // tinyEWDn (Sedgewick and Wayne, Algorithms, 4th edition).
+        EdgeWeightedDigraph graph = tinyEWDn(0.35);
+        double[] expected = {0.0, 0.93, 0.26, 0.99, 0.26, 0.61, 1.51, 0.60};
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values()) {
+            BellmanFordSP.ShortestPaths shortestPaths = new BellmanFordSP(graph).shortestPaths(0, mode);
+            assertFalse(shortestPaths.hasNegativeCycle());
+            for (int v = 0; v < 8; v++) assertEquals(mode.toString(), expected[v], shortestPaths.distTo(v), 1E-9);
+            StringBuilder sb = new StringBuilder();
+            for (DirectedEdge e : shortestPaths.pathTo(1)) sb.append(e.from()).append(' ');
+            assertEquals("5 4 6 3 7 2 0 ", sb.toString());
+        }
+    }
+
+    @Test
+    public void testNegativeCycle() {
+        // tinyEWDnc: as tinyEWDn, but with the edge 5->4 of weight -0.66, so that 4->5->4 has weight -0.31.
+        EdgeWeightedDigraph graph = tinyEWDn(-0.66);
+        BellmanFordSP bellmanFord = new BellmanFordSP(graph);
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values()) {
+            BellmanFordSP.ShortestPaths shortestPaths = bellmanFord.shortestPaths(0, mode);
+            assertTrue(shortestPaths.hasNegativeCycle());
+            assertEquals(-0.31, checkCycle(shortestPaths.negativeCycle()), 1E-9);
+            assertEquals(-0.31, checkCycle(bellmanFord.negativeCycle(mode)), 1E-9);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDistToWithNegativeCycle() {
+        new BellmanFordSP(tinyEWDn(-0.66)).shortestPaths(0).distTo(1);
+    }
+
+    @Test
+    public void testUnreachable() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(3);
+        graph.addEdge(new DirectedEdge(0, 1, -1.0));
+        graph.addEdge(new DirectedEdge(2, 2, -1.0));
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values()) {
+            BellmanFordSP.ShortestPaths shortestPaths = new BellmanFordSP(graph).shortestPaths(0, mode);
+            // the negative cycle at 2 is not reachable from 0.
+            assertFalse(shortestPaths.hasNegativeCycle());
+            assertEquals(-1.0, shortestPaths.distTo(1), 0.0);
+            assertFalse(shortestPaths.hasPathTo(2));
+            assertEquals(Double.POSITIVE_INFINITY, shortestPaths.distTo(2), 0.0);
+            assertNull(shortestPaths.pathTo(2));
+            assertFalse(shortestPaths.pathTo(0).iterator().hasNext());
+        }
+        assertEquals(-1.0, checkCycle(new BellmanFordSP(graph).negativeCycle()), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSource() {
+        new BellmanFordSP(new EdgeWeightedDigraph(3)).shortestPaths(3);
+    }
+
+    @Test
+    public void testRandomAgainstDijkstra() {
+        // Reweighting the edges of a non-negative graph by random potentials introduces negative weights but no negative cycle;
+        // and the distances change by the difference of the potentials of the source and the target.
+        Random random = new Random(0L);
+        EdgeWeightedDigraph graph = DijkstraBenchmark.randomGraph(5000, 4, 1000, random);
+        double[] potential = new double[graph.V()];
+        for (int v = 0; v < graph.V(); v++) potential[v] = random.nextInt(2000);
+        EdgeWeightedDigraph reweighted = new EdgeWeightedDigraph(graph.V());
+        for (DirectedEdge e : graph.edges())
+            reweighted.addEdge(new DirectedEdge(e.from(), e.to(), e.weight() + potential[e.from()] - potential[e.to()]));
+        Dijkstra.ShortestPaths expected = new Dijkstra(graph).shortestPaths(0);
+        BellmanFordSP bellmanFord = new BellmanFordSP(reweighted);
+        assertNull(bellmanFord.negativeCycle());
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values()) {
+            BellmanFordSP.ShortestPaths actual = bellmanFord.shortestPaths(0, mode);
+            assertFalse(actual.hasNegativeCycle());
+            for (int v = 0; v < graph.V(); v++) {
+                assertEquals(expected.distTo(v) + potential[0] - potential[v], actual.distTo(v), 1E-6);
+                double length = 0;
+                for (DirectedEdge e : actual.pathTo(v)) length += e.weight();
+                assertEquals(actual.distTo(v), length, 1E-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSLF() {
+        EdgeWeightedDigraph graph = DeltaSteppingBenchmark.gridGraph(100, 100, new Random(1L));
+        BellmanFordSP bellmanFord = new BellmanFordSP(graph);
+        BellmanFordSP.ShortestPaths fifo = bellmanFord.shortestPaths(0, BellmanFordSP.Mode.FIFO);
+        BellmanFordSP.ShortestPaths slf = bellmanFord.shortestPaths(0, BellmanFordSP.Mode.SLF);
+        for (int v = 0; v < graph.V(); v++) assertEquals(fifo.distTo(v), slf.distTo(v), 0.0);
+        assertTrue(slf.relaxations() < fifo.relaxations());
+    }
+
+    @Test
+    public void testArbitrage() {
+        for (BellmanFordSP.Mode mode : BellmanFordSP.Mode.values()) {
+            EdgeWeightedDigraph none = BellmanFordBenchmark.arbitrageGraph(10_000, 10, false, new Random(2L));
+            assertNull(new BellmanFordSP(none).negativeCycle(mode));
+            EdgeWeightedDigraph some = BellmanFordBenchmark.arbitrageGraph(10_000, 10, true, new Random(2L));
+            assertTrue(checkCycle(new BellmanFordSP(some).negativeCycle(mode)) < 0);
+        }
+    }
+
+    /**
+     * Check that the edges form a cycle.
+     *
+     * @return the weight of the cycle.
+     */
+    private static double checkCycle(Iterable<DirectedEdge> cycle) {
+        assertNotNull(cycle);
+        double weight = 0;
+        DirectedEdge first = null, last = null;
+        for (DirectedEdge e : cycle) {
+            if (first == null) first = e;
+            else assertEquals(last.to(), e.from());
+            last = e;
+            weight += e.weight();
+        }
+        assertNotNull(first);
+        assertEquals(last.to(), first.from());
+        return weight;
+    }
+
+    private static EdgeWeightedDigraph tinyEWDn(double weight54) {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(8);
+        graph.addEdge(new DirectedEdge(4, 5, 0.35));
+        graph.addEdge(new DirectedEdge(5, 4, weight54));
+        graph.addEdge(new DirectedEdge(4, 7, 0.37));
+        graph.addEdge(new DirectedEdge(5, 7, 0.28));
+        graph.addEdge(new DirectedEdge(7, 5, 0.28));
+        graph.addEdge(new DirectedEdge(5, 1, 0.32));
+        graph.addEdge(new DirectedEdge(0, 4, 0.38));
+        graph.addEdge(new DirectedEdge(0, 2, 0.26));
+        graph.addEdge(new DirectedEdge(7, 3, 0.39));
+        graph.addEdge(new DirectedEdge(1, 3, 0.29));
+        graph.addEdge(new DirectedEdge(2, 7, 0.34));
+        graph.addEdge(new DirectedEdge(6, 2, -1.20));
+        graph.addEdge(new DirectedEdge(3, 6, 0.52));
+        graph.addEdge(new DirectedEdge(6, 0, -1.40));
+        graph.addEdge(new DirectedEdge(6, 4, -1.25));
+        return graph;
+    }
+}
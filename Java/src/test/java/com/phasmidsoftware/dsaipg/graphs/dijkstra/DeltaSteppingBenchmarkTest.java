@@ -0,0 +1,20 @@
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeltaSteppingBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        assertEquals(0.0, new DeltaSteppingBenchmark("grid", DeltaSteppingBenchmark.gridGraph(100, 100, new Random(0L))).run(2), 0.0);
+    }
+
+    @Test
+    public void testRunRandom() {
+        assertEquals(0.0, new DeltaSteppingBenchmark("random", DijkstraBenchmark.randomGraph(10000, 4, 1000, new Random(0L))).run(2), 0.0);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DeltaSteppingTest {
+
+    @Test
+    public void testSmallGraph() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(5);
+        graph.addEdge(new DirectedEdge(0, 1, 2.0));
+        graph.addEdge(new DirectedEdge(0, 2, 4.0));
+        graph.addEdge(new DirectedEdge(1, 2, 1.0));
+        graph.addEdge(new DirectedEdge(1, 3, 7.0));
+        graph.addEdge(new DirectedEdge(2, 4, 3.0));
+        DeltaStepping.ShortestPaths shortestPaths = new DeltaStepping(graph, 2.0).shortestPaths(0);
+        assertEquals(0.0, shortestPaths.distTo(0), 0.0);
+        assertEquals(2.0, shortestPaths.distTo(1), 0.0);
+        assertEquals(3.0, shortestPaths.distTo(2), 0.0);
+        assertEquals(9.0, shortestPaths.distTo(3), 0.0);
+        assertEquals(6.0, shortestPaths.distTo(4), 0.0);
+        StringBuilder sb = new StringBuilder();
+        for (DirectedEdge e : shortestPaths.pathTo(4)) sb.append(e.from()).append(' ');
+        assertEquals("2 1 0 ", sb.toString());
+        assertFalse(shortestPaths.pathTo(0).iterator().hasNext());
+    }
+
+    @Test
+    public void testUnreachable() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(3);
+        graph.addEdge(new DirectedEdge(0, 1, 1.0));
+        DeltaStepping.ShortestPaths shortestPaths = new DeltaStepping(graph).shortestPaths(0);
+        assertFalse(shortestPaths.hasPathTo(2));
+        assertEquals(Double.POSITIVE_INFINITY, shortestPaths.distTo(2), 0.0);
+        assertNull(shortestPaths.pathTo(2));
+    }
+
+    @Test
+    public void testZeroWeightCycle() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(4);
+        graph.addEdge(new DirectedEdge(0, 1, 1.0));
+        graph.addEdge(new DirectedEdge(1, 2, 0.0));
+        graph.addEdge(new DirectedEdge(2, 1, 0.0));
+        graph.addEdge(new DirectedEdge(2, 3, 0.0));
+        DeltaStepping.ShortestPaths shortestPaths = new DeltaStepping(graph).shortestPaths(0);
+        assertEquals(1.0, shortestPaths.distTo(3), 0.0);
+        int edges = 0;
+        for (DirectedEdge ignored : shortestPaths.pathTo(3)) edges++;
+        assertEquals(3, edges);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(2);
+        graph.addEdge(new DirectedEdge(0, 1, -1.0));
+        new DeltaStepping(graph, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDelta() {
+        new DeltaStepping(new EdgeWeightedDigraph(2), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSource() {
+        new DeltaStepping(new EdgeWeightedDigraph(2)).shortestPaths(2);
+    }
+
+    @Test
+    public void testAgainstDijkstra() {
+        Random random = new Random(0L);
+        EdgeWeightedDigraph graph = new EdgeWeightedDigraph(20000);
+        for (int i = 0; i < 80000; i++)
+            graph.addEdge(new DirectedEdge(random.nextInt(20000), random.nextInt(20000), random.nextDouble()));
+        Dijkstra dijkstra = new Dijkstra(graph);
+        for (double delta : new double[]{DeltaStepping.defaultDelta(graph), 0.01, 0.5, 100.0, 1E-5}) {
+            DeltaStepping deltaStepping = new DeltaStepping(graph, delta);
+            for (int s : new int[]{0, 12345}) check(graph, dijkstra.shortestPaths(s), deltaStepping.shortestPaths(s));
+        }
+    }
+
+    @Test
+    public void testGridAgainstDijkstra() {
+        EdgeWeightedDigraph graph = DeltaSteppingBenchmark.gridGraph(100, 100, new Random(1L));
+        check(graph, new Dijkstra(graph).shortestPaths(0), new DeltaStepping(graph).shortestPaths(0));
+    }
+
+    private static void check(EdgeWeightedDigraph graph, Dijkstra.ShortestPaths expected, DeltaStepping.ShortestPaths actual) {
+        for (int v = 0; v < graph.V(); v++) {
+            assertEquals(expected.distTo(v), actual.distTo(v), 0.0);
+            if (!actual.hasPathTo(v)) continue;
+            double length = 0;
+            int to = -1;
+            for (DirectedEdge e : actual.pathTo(v)) {
+                if (to < 0) to = e.to();
+                length += e.weight();
+            }
+            if (to >= 0) assertEquals(v, to);
+            assertEquals(actual.distTo(v), length, 1E-9);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.phasmidsoftware.dsaipg.graphs.dijkstra;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DijkstraBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        assertEquals(0.0, new DijkstraBenchmark(DijkstraBenchmark.randomGraph(10000, 4, 1000, new Random(0L))).run(2), 0.0);
+    }
+}
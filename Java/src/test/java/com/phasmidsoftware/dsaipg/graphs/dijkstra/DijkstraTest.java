@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -209,4 +210,27 @@ public class DijkstraTest {
         Dijkstra dijkstra = new Dijkstra(ewd);
         dijkstra.shortestPaths(0);
     }
+
+    @Test
+    public void testQueues() {
+        EdgeWeightedDigraph ewd = DijkstraBenchmark.randomGraph(2000, 4, 100, new Random(0L));
+        Dijkstra dijkstra = new Dijkstra(ewd);
+        Dijkstra.ShortestPaths expected = dijkstra.shortestPaths(0);
+        for (Dijkstra.Queue queue : Dijkstra.Queue.values()) {
+            Dijkstra.ShortestPaths actual = dijkstra.shortestPaths(0, queue);
+            for (int v = 0; v < ewd.V(); v++) {
+                assertEquals(queue.toString(), expected.distTo(v), actual.distTo(v), 0);
+                double total = 0;
+                for (DirectedEdge e : actual.pathTo(v)) total += e.weight();
+                assertEquals(queue.toString(), expected.distTo(v), total, 0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadixHeapNonIntegerWeight() {
+        EdgeWeightedDigraph ewd = new EdgeWeightedDigraph(2);
+        ewd.addEdge(new DirectedEdge(0, 1, 0.5));
+        new Dijkstra(ewd).shortestPaths(0, Dijkstra.Queue.RADIX_HEAP);
+    }
 }
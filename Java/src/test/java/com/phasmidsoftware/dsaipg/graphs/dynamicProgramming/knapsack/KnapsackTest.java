@@ -1,6 +1,7 @@
 package com.phasmidsoftware.dsaipg.graphs.dynamicProgramming.knapsack;
 
 import com.google.common.collect.ImmutableList;
+import com.phasmidsoftware.dsaipg.adt.bqs.Dictionary;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -152,6 +153,19 @@ public class KnapsackTest {
         checkKnapsack(knapsack, n, 80, 164);
     }
 
+    @Test
+    public void valueRandom200Cuckoo() {
+        Random random = new Random(0L);
+        int n = 200;
+        Knapsack.Item[] items = new Knapsack.Item[n];
+        for (int i = 0; i < n; i++)
+            items[i] = new Knapsack.Item("Item " + i, random.nextInt(25), random.nextInt(10));
+        Knapsack knapsack = new Knapsack(Arrays.asList(items), Dictionary.Backend.CUCKOO);
+        checkKnapsack(knapsack, n, 5, 48);
+        checkKnapsack(knapsack, n, 10, 63);
+        checkKnapsack(knapsack, n, 80, 164);
+    }
+
     private static void checkKnapsack(Knapsack knapsack, int n, int w, int expected) {
         assertEquals(expected, knapsack.value(w).value);
         double expected40 = w * n;
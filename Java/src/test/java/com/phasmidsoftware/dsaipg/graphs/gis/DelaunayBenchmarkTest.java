@@ -0,0 +1,16 @@
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class DelaunayBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        double length = new DelaunayBenchmark(DelaunayBenchmark.randomPoints(10_000, new Random(0L))).run(2);
+        assertTrue(length > 0);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.traversal.FilterKruskal;
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DelaunayTest {
+
+    @Test
+    public void testSquare() {
+        List<MockGeoPoint> points = Arrays.asList(point(0, 0), point(0, 0.001), point(0.001, 0.001), point(0.001, 0));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        assertEquals(6, delaunay.triangles().length);
+        assertEquals(5, delaunay.edgeCount());
+    }
+
+    @Test
+    public void testEmptyCircles() {
+        List<MockGeoPoint> points = randomPoints(500, new Random(0L));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        assertEquals(500 - 1, delaunay.edgeCount() - delaunay.triangles().length / 3);
+        checkDelaunay(delaunay, points);
+    }
+
+    @Test
+    public void testGrid() {
+        // Many co-circular points.
+        List<MockGeoPoint> points = new ArrayList<>();
+        for (int i = 0; i < 30; i++) for (int j = 0; j < 30; j++) points.add(point(42.3 + i * 0.001, -71.1 + j * 0.001));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        // Euler's formula: 3n - 3 - h edges and 2n - 2 - h triangles, where h is the number of points on the hull.
+        assertEquals(900 - 1, delaunay.edgeCount() - delaunay.triangles().length / 3);
+        checkDelaunay(delaunay, points);
+        checkMST(points, delaunay);
+    }
+
+    @Test
+    public void testMST() {
+        for (long seed = 1; seed <= 5; seed++) {
+            List<MockGeoPoint> points = randomPoints(800, new Random(seed));
+            checkMST(points, new Delaunay<>(points));
+        }
+    }
+
+    @Test
+    public void testDuplicates() {
+        List<MockGeoPoint> points = new ArrayList<>(randomPoints(100, new Random(6L)));
+        for (int i = 0; i < 20; i++) {
+            MockGeoPoint p = points.get(i * 3);
+            points.add(new MockGeoPoint("copy" + i, p.getPosition()));
+        }
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        checkMST(points, delaunay);
+    }
+
+    @Test
+    public void testCollinear() {
+        List<MockGeoPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) points.add(point(0, (i * 7 % 10) * 0.001));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        assertEquals(0, delaunay.triangles().length);
+        assertEquals(9, delaunay.edgeCount());
+        checkMST(points, delaunay);
+    }
+
+    @Test
+    public void testSmall() {
+        assertEquals(0, new Delaunay<MockGeoPoint>(Collections.emptyList()).edgeCount());
+        assertEquals(0, new Delaunay<>(Collections.singletonList(point(1, 1))).edgeCount());
+        assertEquals(1, new Delaunay<>(Arrays.asList(point(1, 1), point(1, 1.001))).edgeCount());
+        assertEquals(3, new Delaunay<>(Arrays.asList(point(1, 1), point(1, 1.001), point(1.001, 1))).edgeCount());
+    }
+
+    @Test
+    public void testForEachEdge() {
+        // The edges which candidateGraph adds to its graph (which, unlike candidateGraph, needs no Bag_Array).
+        List<MockGeoPoint> points = randomPoints(200, new Random(7L));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        GeoGraphSpherical<MockGeoPoint, Double> complete = new GeoGraphSpherical<>();
+        List<Edge<MockGeoPoint, Double>> edges = new ArrayList<>();
+        delaunay.forEachEdge((v1, v2) -> edges.add(new GeoEdge<>(v1, v2, complete.getDistance(v1, v2))));
+        assertEquals(delaunay.edgeCount(), edges.size());
+        int[] expected = delaunay.edges();
+        assertEquals(2 * edges.size(), expected.length);
+        Set<MockGeoPoint> vertices = new HashSet<>();
+        for (int k = 0; k < edges.size(); k++) {
+            Edge<MockGeoPoint, Double> edge = edges.get(k);
+            assertSame(points.get(expected[2 * k]), edge.get());
+            assertSame(points.get(expected[2 * k + 1]), edge.getOther(edge.get()));
+            assertEquals(distance(edge.get(), edge.getOther(edge.get())), edge.getAttribute(), 1E-9);
+            vertices.add(edge.get());
+            vertices.add(edge.getOther(edge.get()));
+        }
+        assertEquals(200, vertices.size());
+    }
+
+    @Ignore("needs Bag_Array.growFrom (for the edges of GeoGraphSpherical), which is not implemented; see testForEachEdge")
+    @Test
+    public void testCandidateGraph() {
+        List<MockGeoPoint> points = randomPoints(8, new Random(7L));
+        Delaunay<MockGeoPoint> delaunay = new Delaunay<>(points);
+        GeoGraphSpherical<MockGeoPoint, Double> complete = new GeoGraphSpherical<>();
+        EdgeGraph<MockGeoPoint, Double> graph = delaunay.candidateGraph(complete::getDistance);
+        assertEquals(delaunay.edgeCount(), graph.edges().size());
+        assertEquals(8, graph.vertices().size());
+        for (Edge<MockGeoPoint, Double> edge : graph.edges())
+            assertEquals(distance(edge.get(), edge.getOther(edge.get())), edge.getAttribute(), 1E-9);
+    }
+
+    /**
+     * Check that no point is strictly inside the circumcircle of any triangle (allowing for rounding),
+     * where the circumcircle is the circle on the (unit) sphere through its three vertices.
+     */
+    private static void checkDelaunay(Delaunay<MockGeoPoint> delaunay, List<MockGeoPoint> points) {
+        int[] triangles = delaunay.triangles();
+        assertEquals(points.size(), new HashSet<>(delaunay.vertices()).size());
+        double[][] xyz = new double[points.size()][];
+        for (int i = 0; i < points.size(); i++) xyz[i] = cartesian(points.get(i));
+        for (int t = 0; t < triangles.length; t += 3) {
+            double[] a = xyz[triangles[t]], b = xyz[triangles[t + 1]], c = xyz[triangles[t + 2]];
+            // On the unit sphere, p is inside the circumcircle of (a, b, c) if it is on the far side of their plane from the origin.
+            double[] normal = cross(minus(b, a), minus(c, a));
+            double offset = dot(normal, a);
+            for (int i = 0; i < points.size(); i++) {
+                if (i == triangles[t] || i == triangles[t + 1] || i == triangles[t + 2]) continue;
+                double side = dot(normal, xyz[i]) - offset;
+                assertTrue("point " + i + " is inside triangle " + t / 3, side * Math.signum(offset) <= 1E-18);
+            }
+        }
+    }
+
+    private static void checkMST(List<? extends GeoPoint> points, Delaunay<? extends GeoPoint> delaunay) {
+        int[] edges = delaunay.edges();
+        int m = edges.length / 2;
+        int[] u = new int[m], v = new int[m];
+        double[] w = new double[m];
+        for (int k = 0; k < m; k++) {
+            u[k] = edges[2 * k];
+            v[k] = edges[2 * k + 1];
+            w[k] = distance(points.get(u[k]), points.get(v[k]));
+        }
+        FilterKruskal mst = new FilterKruskal(points.size(), u, v, w);
+        assertEquals(1, mst.components());
+        assertEquals(primMST(points), mst.weight(), 1E-6);
+    }
+
+    /**
+     * @return the length of the MST of the complete graph, by the O(n^2) version of Prim's algorithm.
+     */
+    private static double primMST(List<? extends GeoPoint> points) {
+        int n = points.size();
+        double[] best = new double[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+        double result = 0;
+        for (int k = 0; k < n; k++) {
+            int v = -1;
+            for (int i = 0; i < n; i++) if (!done[i] && (v < 0 || best[i] < best[v])) v = i;
+            done[v] = true;
+            result += best[v];
+            for (int i = 0; i < n; i++) if (!done[i]) best[i] = Math.min(best[i], distance(points.get(v), points.get(i)));
+        }
+        return result;
+    }
+
+    private static double distance(GeoPoint p, GeoPoint q) {
+        return GeoGraphSpherical.distance(p.getPosition(), q.getPosition());
+    }
+
+    private static double[] cartesian(GeoPoint p) {
+        Position_Spherical position = (Position_Spherical) p.getPosition();
+        double lat = Math.toRadians(position.getLatitude()), lon = Math.toRadians(position.getLongitude());
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double[] minus(double[] a, double[] b) {
+        return new double[]{a[0] - b[0], a[1] - b[1], a[2] - b[2]};
+    }
+
+    private static double[] cross(double[] a, double[] b) {
+        return new double[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    private static MockGeoPoint point(double latitude, double longitude) {
+        return new MockGeoPoint(latitude + "," + longitude, new Position_Spherical(latitude, longitude));
+    }
+
+    private static List<MockGeoPoint> randomPoints(int n, Random random) {
+        List<MockGeoPoint> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) result.add(point(42.3 + random.nextDouble() * 0.1, -71.1 + random.nextDouble() * 0.1));
+        return result;
+    }
+}
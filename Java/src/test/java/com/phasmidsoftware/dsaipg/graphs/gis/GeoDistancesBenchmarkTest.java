@@ -0,0 +1,15 @@
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GeoDistancesBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        assertEquals(0.0, new GeoDistancesBenchmark(10_000, new Random(0L)).run(2), 1E-6);
+    }
+}
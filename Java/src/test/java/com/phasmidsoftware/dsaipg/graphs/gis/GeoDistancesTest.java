@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GeoDistancesTest {
+
+    @Test
+    public void testDistance() {
+        List<MockGeoPoint> points = randomPoints(500, 180, new Random(0L));
+        GeoDistances distances = GeoDistances.create(points);
+        assertEquals(500, distances.size());
+        for (int i = 0; i < points.size(); i++)
+            for (int j = 0; j < points.size(); j += 7)
+                assertEquals(distance(points.get(i), points.get(j)), distances.distance(i, j), 1E-3);
+        assertEquals(0, distances.distance(3, 3), 0);
+    }
+
+    @Test
+    public void testDistanceNearby() {
+        // Points within a few meters of each other.
+        List<MockGeoPoint> points = randomPoints(200, 0.0001, new Random(1L));
+        GeoDistances distances = GeoDistances.create(points);
+        for (int i = 0; i < points.size(); i++)
+            for (int j = 0; j < points.size(); j++)
+                assertEquals(distance(points.get(i), points.get(j)), distances.distance(i, j), 1E-6);
+    }
+
+    @Test
+    public void testDistancesFrom() {
+        List<MockGeoPoint> points = randomPoints(1000, 1, new Random(2L));
+        GeoDistances distances = GeoDistances.create(points);
+        double[] result = new double[1000];
+        distances.distancesFrom(17, result);
+        for (int j = 0; j < points.size(); j++) assertEquals(distances.distance(17, j), result[j], 0);
+        distances.distancesFrom(42.34, -71.09, result);
+        MockGeoPoint p = new MockGeoPoint("p", new Position_Spherical(42.34, -71.09));
+        for (int j = 0; j < points.size(); j++) assertEquals(distance(p, points.get(j)), result[j], 1E-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistancesFromBad() {
+        GeoDistances.create(randomPoints(10, 1, new Random(3L))).distancesFrom(0, new double[9]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorBad() {
+        new GeoDistances(new double[3], new double[2]);
+    }
+
+    @Test
+    public void testDistanceMatrix() {
+        List<MockGeoPoint> points = randomPoints(300, 10, new Random(4L));
+        GeoDistances distances = GeoDistances.create(points);
+        double[][] matrix = distances.distanceMatrix();
+        assertEquals(300, matrix.length);
+        for (int i = 0; i < points.size(); i++)
+            for (int j = 0; j < points.size(); j++) {
+                assertEquals(distances.distance(i, j), matrix[i][j], 0);
+                assertEquals(matrix[j][i], matrix[i][j], 1E-6);
+            }
+    }
+
+    private static double distance(GeoPoint p, GeoPoint q) {
+        return GeoGraphSpherical.distance(p.getPosition(), q.getPosition());
+    }
+
+    private static List<MockGeoPoint> randomPoints(int n, double spread, Random random) {
+        List<MockGeoPoint> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double latitude = Math.max(-89, Math.min(89, 42.34 + (random.nextDouble() - 0.5) * spread));
+            result.add(new MockGeoPoint("p" + i, new Position_Spherical(latitude, -71.09 + (random.nextDouble() - 0.5) * spread * 2)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GeoIndexTest {
+
+    @Test
+    public void testWithinDistance() {
+        List<MockGeoPoint> points = randomPoints(2000, 42.34, -71.09, 0.02, new Random(0L));
+        GeoIndex<MockGeoPoint> index = new GeoIndex<>(points);
+        assertEquals(2000, index.size());
+        Random random = new Random(1L);
+        for (int i = 0; i < 50; i++) {
+            MockGeoPoint p = i % 2 == 0 ? points.get(random.nextInt(points.size())) : randomPoints(1, 42.34, -71.09, 0.02, random).get(0);
+            double meters = random.nextDouble() * 500;
+            Set<MockGeoPoint> expected = new HashSet<>();
+            for (MockGeoPoint q : points) if (distance(p, q) <= meters) expected.add(q);
+            List<MockGeoPoint> actual = index.withinDistance(p, meters);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, new HashSet<>(actual));
+        }
+    }
+
+    @Test
+    public void testNearest() {
+        List<MockGeoPoint> points = randomPoints(2000, 42.34, -71.09, 0.02, new Random(2L));
+        GeoIndex<MockGeoPoint> index = new GeoIndex<>(points);
+        Random random = new Random(3L);
+        for (int i = 0; i < 50; i++) {
+            MockGeoPoint p = randomPoints(1, 42.34, -71.09, 0.03, random).get(0);
+            int k = 1 + random.nextInt(20);
+            List<MockGeoPoint> expected = new ArrayList<>(points);
+            expected.sort(Comparator.comparingDouble(q -> distance(p, q)));
+            List<MockGeoPoint> actual = index.nearest(p, k);
+            assertEquals(k, actual.size());
+            for (int j = 0; j < k; j++) assertEquals(distance(p, expected.get(j)), distance(p, actual.get(j)), 1E-6);
+        }
+        MockGeoPoint first = points.get(0);
+        assertSame(first, index.nearest(first, 1).get(0));
+        assertEquals(2000, index.nearest(first, 5000).size());
+        assertTrue(index.nearest(first, 0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNearestNegative() {
+        new GeoIndex<>(randomPoints(10, 0, 0, 1, new Random(0L))).nearest(new MockGeoPoint("p", new Position_Spherical(0, 0)), -1);
+    }
+
+    @Test
+    public void testForEachPairWithin() {
+        List<MockGeoPoint> points = randomPoints(1000, 42.34, -71.09, 0.02, new Random(4L));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < points.size(); i++)
+            for (int j = i + 1; j < points.size(); j++)
+                if (distance(points.get(i), points.get(j)) <= 250) expected.append(i).append('-').append(j).append(' ');
+        StringBuilder actual = new StringBuilder();
+        Map<MockGeoPoint, Integer> indices = new HashMap<>();
+        for (int i = 0; i < points.size(); i++) indices.put(points.get(i), i);
+        new GeoIndex<>(points).forEachPairWithin(250, (p, q) -> actual.append(indices.get(p)).append('-').append(indices.get(q)).append(' '));
+        assertTrue(expected.length() > 0);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testAntimeridian() {
+        // Points either side of longitude 180 (which a map projection would put far apart).
+        MockGeoPoint west = new MockGeoPoint("west", new Position_Spherical(0, 179.9995));
+        MockGeoPoint east = new MockGeoPoint("east", new Position_Spherical(0, -179.9995));
+        MockGeoPoint far = new MockGeoPoint("far", new Position_Spherical(0, 179.99));
+        GeoIndex<MockGeoPoint> index = new GeoIndex<>(Arrays.asList(west, east, far));
+        assertEquals(2, index.withinDistance(west, 200).size());
+        assertEquals(Arrays.asList(west, east), index.nearest(west, 2));
+    }
+
+    @Test
+    public void testEmpty() {
+        GeoIndex<MockGeoPoint> index = new GeoIndex<>(Collections.emptyList());
+        MockGeoPoint p = new MockGeoPoint("p", new Position_Spherical(0, 0));
+        assertTrue(index.withinDistance(p, 1000).isEmpty());
+        assertTrue(index.nearest(p, 3).isEmpty());
+        index.forEachPairWithin(1000, (a, b) -> fail());
+    }
+
+    private static double distance(GeoPoint p, GeoPoint q) {
+        return GeoGraphSpherical.distance(p.getPosition(), q.getPosition());
+    }
+
+    private static List<MockGeoPoint> randomPoints(int n, double latitude, double longitude, double spread, Random random) {
+        List<MockGeoPoint> result = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            result.add(new MockGeoPoint("p" + i, new Position_Spherical(latitude + (random.nextDouble() - 0.5) * spread, longitude + (random.nextDouble() - 0.5) * spread)));
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.csr.CSRGraph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GeoRouterTest {
+
+    @Test
+    public void testSmall() {
+        GeoPoint a = point("A", 0, 0), b = point("B", 0, 1), c = point("C", 1, 1), d = point("D", 5, 5);
+        CSRGraph.Builder<GeoPoint> builder = new CSRGraph.Builder<>(false);
+        addEdge(builder, a, b);
+        addEdge(builder, b, c);
+        addEdge(builder, a, c);
+        builder.addVertex(d);
+        GeoRouter<GeoPoint> router = new GeoRouter<>(builder.build());
+        for (GeoRouter.Mode mode : GeoRouter.Mode.values()) {
+            GeoRouter<GeoPoint>.Route route = router.route(a, c, mode);
+            assertTrue(route.exists());
+            assertEquals(List.of(a, c), route.vertices());
+            assertEquals(distance(a, c), route.cost(), 1E-6);
+            assertFalse(router.route(a, d, mode).exists());
+            assertTrue(router.route(a, d, mode).vertices().isEmpty());
+            assertEquals(List.of(b), router.route(b, b, mode).vertices());
+            assertEquals(0.0, router.route(b, b, mode).cost(), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSuchVertex() {
+        CSRGraph.Builder<GeoPoint> builder = new CSRGraph.Builder<>(false);
+        builder.addVertex(point("A", 0, 0));
+        new GeoRouter<>(builder.build()).route(point("B", 0, 0), point("B", 0, 0), GeoRouter.Mode.ASTAR);
+    }
+
+    @Test
+    public void testGrid() {
+        Random random = new Random(0L);
+        int side = 60;
+        CSRGraph<GeoPoint> graph = grid(side, random);
+        GeoRouter<GeoPoint> router = new GeoRouter<>(graph);
+        router.selectLandmarks(8);
+        assertEquals(8, router.landmarks().size());
+        int[] settled = new int[GeoRouter.Mode.values().length];
+        for (int i = 0; i < 50; i++) {
+            GeoPoint from = graph.vertex(random.nextInt(graph.V())), to = graph.vertex(random.nextInt(graph.V()));
+            GeoRouter<GeoPoint>.Route expected = router.route(from, to, GeoRouter.Mode.DIJKSTRA);
+            for (GeoRouter.Mode mode : GeoRouter.Mode.values()) {
+                GeoRouter<GeoPoint>.Route route = router.route(from, to, mode);
+                assertEquals(mode.toString(), expected.cost(), route.cost(), 1E-6);
+                List<GeoPoint> vertices = route.vertices();
+                assertEquals(from, vertices.get(0));
+                assertEquals(to, vertices.get(vertices.size() - 1));
+                double cost = 0;
+                for (int j = 1; j < vertices.size(); j++) cost += weight(graph, vertices.get(j - 1), vertices.get(j));
+                assertEquals(route.cost(), cost, 1E-6);
+                settled[mode.ordinal()] += route.settled();
+            }
+        }
+        assertTrue(settled[GeoRouter.Mode.ASTAR.ordinal()] < settled[GeoRouter.Mode.DIJKSTRA.ordinal()]);
+        assertTrue(settled[GeoRouter.Mode.ALT.ordinal()] < settled[GeoRouter.Mode.ASTAR.ordinal()]);
+        assertTrue(settled[GeoRouter.Mode.BIDIRECTIONAL.ordinal()] < settled[GeoRouter.Mode.DIJKSTRA.ordinal()]);
+    }
+
+    /**
+     * A grid of points about 100m apart, in which each edge is longer than the distance between its ends by a random factor.
+     */
+    private static CSRGraph<GeoPoint> grid(int side, Random random) {
+        GeoPoint[][] points = new GeoPoint[side][side];
+        for (int i = 0; i < side; i++)
+            for (int j = 0; j < side; j++) points[i][j] = point(i + "," + j, 42.3 + i * 0.001, -71.1 + j * 0.001);
+        CSRGraph.Builder<GeoPoint> builder = new CSRGraph.Builder<>(false);
+        for (int i = 0; i < side; i++)
+            for (int j = 0; j < side; j++) {
+                if (i + 1 < side)
+                    builder.addEdge(points[i][j], points[i + 1][j], distance(points[i][j], points[i + 1][j]) * (1 + 2 * random.nextDouble()));
+                if (j + 1 < side)
+                    builder.addEdge(points[i][j], points[i][j + 1], distance(points[i][j], points[i][j + 1]) * (1 + 2 * random.nextDouble()));
+            }
+        return builder.build();
+    }
+
+    private static double weight(CSRGraph<GeoPoint> graph, GeoPoint from, GeoPoint to) {
+        int v = graph.id(from), w = graph.id(to);
+        double result = Double.POSITIVE_INFINITY;
+        for (int a = graph.begin(v); a < graph.end(v); a++) if (graph.target(a) == w) result = Math.min(result, graph.weight(a));
+        return result;
+    }
+
+    private static void addEdge(CSRGraph.Builder<GeoPoint> builder, GeoPoint from, GeoPoint to) {
+        builder.addEdge(from, to, distance(from, to));
+    }
+
+    private static double distance(GeoPoint from, GeoPoint to) {
+        return new GeoGraphSpherical<>().getDistance(from, to);
+    }
+
+    private static GeoPoint point(String name, double latitude, double longitude) {
+        return new MockGeoPoint(name, new Position_Spherical(latitude, longitude));
+    }
+}
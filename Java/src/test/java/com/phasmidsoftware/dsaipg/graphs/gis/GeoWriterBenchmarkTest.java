@@ -0,0 +1,22 @@
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GeoWriterBenchmarkTest {
+
+    @Test
+    public void testRun() throws IOException {
+        File directory = Files.createTempDirectory("GeoWriterBenchmarkTest").toFile();
+        new GeoWriterBenchmark(DelaunayBenchmark.randomPoints(10_000, new Random(0L))).run(directory, 4_000);
+        String[] remaining = directory.list();
+        assertEquals(0, remaining == null ? -1 : remaining.length);
+        Files.delete(directory.toPath());
+    }
+}
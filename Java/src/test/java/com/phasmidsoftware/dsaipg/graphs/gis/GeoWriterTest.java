@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+public class GeoWriterTest {
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("GeoWriterTest");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) for (File file : files) Files.delete(file.toPath());
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testKml() throws IOException {
+        File file = directory.resolve("test.kml").toFile();
+        try (GeoWriter<MockGeoPoint> writer = GeoWriter.create(file, "Test", "A & B")) {
+            assertTrue(writer instanceof KmlWriter);
+            writer.writePoint(a);
+            writer.writeLine(a, b, "a <to> b");
+            assertEquals(2, writer.features());
+        }
+        String kml = Files.readString(file.toPath());
+        assertTrue(kml.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<kml xmlns=\"http://www.opengis.net/kml/2.2\">"));
+        assertTrue(kml.contains("<description>A &amp; B</description>"));
+        assertTrue(kml.contains("<coordinates>-71.09,42.34,0</coordinates>"));
+        assertTrue(kml.contains("<name>a--b&amp;c</name>"));
+        assertTrue(kml.contains("<description>a &lt;to&gt; b</description>"));
+        assertTrue(kml.contains("-71.09,42.34,0\n-71.1,42.35,0\n"));
+        assertTrue(kml.endsWith("  </Document>\n</kml>\n"));
+        assertEquals(2, count(kml, "<Placemark>"));
+    }
+
+    @Test
+    public void testKmz() throws IOException {
+        File file = directory.resolve("test.kmz").toFile();
+        try (GeoWriter<MockGeoPoint> writer = GeoWriter.create(file, "Test", "Zipped")) {
+            writer.writePoint(a);
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file.toPath()))) {
+            ZipEntry entry = zip.getNextEntry();
+            assertNotNull(entry);
+            assertEquals("doc.kml", entry.getName());
+            String kml = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(kml.contains("<description>Zipped</description>"));
+            assertTrue(kml.endsWith("</kml>\n"));
+        }
+    }
+
+    @Test
+    public void testGeoJson() throws IOException {
+        File file = directory.resolve("test.geojson").toFile();
+        try (GeoWriter<MockGeoPoint> writer = GeoWriter.create(file, "Test", "say \"hello\"")) {
+            assertTrue(writer instanceof GeoJsonWriter);
+            writer.writePoint(a);
+            writer.writePoint(b);
+            writer.writeLine(a, b, "line\\1");
+        }
+        String json = Files.readString(file.toPath());
+        assertEquals("{\"type\":\"FeatureCollection\",\"name\":\"Test\",\"description\":\"say \\\"hello\\\"\",\"features\":[\n" +
+                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-71.09,42.34]},\"properties\":{\"name\":\"a\",\"description\":\"" + a + "\"}},\n" +
+                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-71.1,42.35]},\"properties\":{\"name\":\"b&c\",\"description\":\"" + b + "\"}},\n" +
+                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[-71.09,42.34],[-71.1,42.35]]},\"properties\":{\"name\":\"a--b&c\",\"description\":\"line\\\\1\"}}\n" +
+                "]}\n", json);
+    }
+
+    @Test
+    public void testEmptyGeoJson() throws IOException {
+        File file = directory.resolve("empty.json").toFile();
+        GeoWriter.<MockGeoPoint>create(file, "Empty", "").close();
+        assertEquals("{\"type\":\"FeatureCollection\",\"name\":\"Empty\",\"description\":\"\",\"features\":[\n\n]}\n", Files.readString(file.toPath()));
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        File file = directory.resolve("test.geojson.gz").toFile();
+        int n = 20_000;
+        try (GeoWriter<MockGeoPoint> writer = GeoWriter.create(file, "Test", "Compressed")) {
+            for (int i = 0; i < n; i++) writer.writeLine(a, b, "edge " + i);
+        }
+        String json;
+        try (InputStream stream = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(json.length() > 10 * GeoWriter.BUFFER_SIZE);
+        assertEquals(n, count(json, "\"LineString\""));
+        assertTrue(json.contains("\"description\":\"edge " + (n - 1) + "\"}}\n]}\n"));
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        File file = directory.resolve("chunked.kml").toFile();
+        List<Edge<MockGeoPoint, String>> edges = new ArrayList<>();
+        for (int i = 0; i < 25; i++) edges.add(new Edge<>(a, b, "edge " + i));
+        try (GeoWriter<MockGeoPoint> writer = GeoWriter.create(file, "Test", "Chunked", 10)) {
+            writer.writeEdges(edges);
+            assertEquals(25, writer.features());
+            assertEquals(3, writer.files());
+        }
+        int total = 0;
+        for (int chunk = 0; chunk < 3; chunk++) {
+            String kml = Files.readString(GeoWriter.chunkFile(file, chunk).toPath());
+            assertTrue(kml.startsWith("<?xml"));
+            assertTrue(kml.endsWith("</kml>\n"));
+            total += count(kml, "<Placemark>");
+        }
+        assertEquals(25, total);
+        assertTrue(Files.readString(GeoWriter.chunkFile(file, 2).toPath()).contains("edge 24"));
+        assertFalse(GeoWriter.chunkFile(file, 3).exists());
+    }
+
+    @Test
+    public void testChunkFile() {
+        File file = new File("output", "tunnels.kml.gz");
+        assertSame(file, GeoWriter.chunkFile(file, 0));
+        assertEquals(new File("output", "tunnels-2.kml.gz"), GeoWriter.chunkFile(file, 2));
+        assertEquals(new File("my.tunnels-1.geojson"), GeoWriter.chunkFile(new File("my.tunnels.geojson"), 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() throws IOException {
+        GeoWriter.create(directory.resolve("test.txt").toFile(), "Test", "");
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosed() throws IOException {
+        GeoWriter<MockGeoPoint> writer = GeoWriter.create(directory.resolve("closed.kml").toFile(), "Test", "");
+        writer.close();
+        writer.writePoint(a);
+    }
+
+    private static int count(String s, String pattern) {
+        int result = 0;
+        for (int i = s.indexOf(pattern); i >= 0; i = s.indexOf(pattern, i + 1)) result++;
+        return result;
+    }
+
+    private final MockGeoPoint a = new MockGeoPoint("a", new Position_Spherical(42.34, -71.09));
+    private final MockGeoPoint b = new MockGeoPoint("b&c", new Position_Spherical(42.35, -71.1));
+    private Path directory;
+}
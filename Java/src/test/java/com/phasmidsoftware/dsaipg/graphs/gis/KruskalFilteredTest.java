@@ -0,0 +1,84 @@
+package com.phasmidsoftware.dsaipg.graphs.gis;
+
+import com.phasmidsoftware.dsaipg.graphs.undirected.Edge;
+import com.phasmidsoftware.dsaipg.graphs.undirected.EdgeGraph;
+import com.phasmidsoftware.dsaipg.util.SizedIterable;
+import com.phasmidsoftware.dsaipg.util.SizedIterableImpl;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+
+public class KruskalFilteredTest {
+
+    @Test
+    public void testIterator() {
+        ListEdgeGraph graph = new ListEdgeGraph();
+        graph.addEdge("A", "B", new Cost(28));
+        graph.addEdge("A", "C", new Cost(10));
+        graph.addEdge("B", "F", new Cost(14));
+        graph.addEdge("B", "G", new Cost(16));
+        graph.addEdge("E", "G", new Cost(12));
+        graph.addEdge("F", "E", new Cost(18));
+        graph.addEdge("D", "E", new Cost(22));
+        graph.addEdge("D", "F", new Cost(24));
+        graph.addEdge("C", "D", new Cost(25));
+        KruskalFiltered<String, Cost> kruskal = new KruskalFiltered<>(graph);
+        List<Integer> costs = new ArrayList<>();
+        for (Edge<String, Cost> edge : kruskal) costs.add(edge.getAttribute().cost);
+        assertEquals(Arrays.asList(10, 12, 14, 16, 22, 25), costs);
+    }
+
+    static class Cost implements Comparable<Cost>, Sequenced {
+        Cost(int cost) {
+            this.cost = cost;
+        }
+
+        public int compareTo(Cost o) {
+            return Integer.compare(cost, o.cost);
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public void setSequence(int sequence) {
+            this.sequence = sequence;
+        }
+
+        final int cost;
+        int sequence;
+    }
+
+    static class ListEdgeGraph implements EdgeGraph<String, Cost> {
+        public SizedIterable<String> vertices() {
+            return SizedIterableImpl.create(vertices);
+        }
+
+        public Iterable<Edge<String, Cost>> adjacent(String vertex) {
+            List<Edge<String, Cost>> result = new ArrayList<>();
+            for (Edge<String, Cost> e : edges) if (e.get().equals(vertex)) result.add(e);
+            return result;
+        }
+
+        public SizedIterable<Edge<String, Cost>> edges() {
+            return SizedIterableImpl.create(edges);
+        }
+
+        public void addEdge(Edge<String, Cost> edge, Predicate<Edge<String, Cost>> predicate) {
+            if (!predicate.test(edge)) return;
+            edges.add(edge);
+            vertices.add(edge.get());
+            vertices.add(edge.getOther(edge.get()));
+        }
+
+        public void addEdge(String from, String to, Cost attribute, Predicate<Edge<String, Cost>> predicate) {
+            addEdge(new Edge<>(from, to, attribute), predicate);
+        }
+
+        private final Set<String> vertices = new LinkedHashSet<>();
+        private final List<Edge<String, Cost>> edges = new ArrayList<>();
+    }
+}
@@ -0,0 +1,54 @@
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class EagerPrimsTest {
+
+    @Test
+    public void test1() {
+        EdgeWeightedGraph edgeWeightedGraph = new EdgeWeightedGraph(7);
+        edgeWeightedGraph.addEdge(new Edge(0, 1, 28));
+        edgeWeightedGraph.addEdge(new Edge(0, 2, 10));
+        edgeWeightedGraph.addEdge(new Edge(1, 5, 14));
+        edgeWeightedGraph.addEdge(new Edge(1, 6, 16));
+        edgeWeightedGraph.addEdge(new Edge(4, 6, 12));
+        edgeWeightedGraph.addEdge(new Edge(5, 4, 18));
+        edgeWeightedGraph.addEdge(new Edge(3, 4, 22));
+        edgeWeightedGraph.addEdge(new Edge(3, 5, 24));
+        edgeWeightedGraph.addEdge(new Edge(2, 3, 25));
+        EagerPrims prims = new EagerPrims(edgeWeightedGraph);
+        assertEquals(99.0, prims.weight(), 0.1);
+        int count = 0;
+        for (Edge ignored : prims.edges()) count++;
+        assertEquals(6, count);
+    }
+
+    @Test
+    public void testAgreesWithLazyPrims() {
+        Random random = new Random(0L);
+        for (int trial = 0; trial < 10; trial++) {
+            int vertices = 50 + random.nextInt(100);
+            EdgeWeightedGraph graph = new EdgeWeightedGraph(vertices);
+            for (int v = 1; v < vertices; v++) graph.addEdge(new Edge(random.nextInt(v), v, random.nextDouble()));
+            for (int i = 0; i < 3 * vertices; i++)
+                graph.addEdge(new Edge(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble()));
+            double expected = 0;
+            for (Edge e : new Prims(graph).edges()) expected += e.weight();
+            assertEquals(expected, new EagerPrims(graph).weight(), 1E-9);
+        }
+    }
+
+    @Test
+    public void testForest() {
+        EdgeWeightedGraph edgeWeightedGraph = new EdgeWeightedGraph(5);
+        edgeWeightedGraph.addEdge(new Edge(0, 1, 1));
+        edgeWeightedGraph.addEdge(new Edge(1, 2, 2));
+        edgeWeightedGraph.addEdge(new Edge(0, 2, 3));
+        edgeWeightedGraph.addEdge(new Edge(3, 4, 4));
+        assertEquals(7.0, new EagerPrims(edgeWeightedGraph).weight(), 0.0);
+    }
+}
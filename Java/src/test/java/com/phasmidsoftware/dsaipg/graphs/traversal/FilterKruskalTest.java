@@ -0,0 +1,94 @@
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterKruskalTest {
+
+    @Test
+    public void test1() {
+        int[] u = {0, 0, 1, 1, 4, 5, 3, 3, 2};
+        int[] v = {1, 2, 5, 6, 6, 4, 4, 5, 3};
+        double[] w = {28, 10, 14, 16, 12, 18, 22, 24, 25};
+        FilterKruskal kruskal = new FilterKruskal(7, u, v, w);
+        assertEquals(99.0, kruskal.weight(), 0.1);
+        assertArrayEquals(new int[]{1, 4, 2, 3, 6, 8}, kruskal.edges());
+        assertEquals(1, kruskal.components());
+    }
+
+    @Test
+    public void testForestWithTiesAndSelfLoops() {
+        int[] u = {0, 1, 0, 2, 3, 3};
+        int[] v = {1, 2, 2, 2, 4, 4};
+        double[] w = {1, 1, 1, 0, 5, 5};
+        FilterKruskal kruskal = new FilterKruskal(6, u, v, w);
+        assertEquals(7.0, kruskal.weight(), 0.0);
+        assertArrayEquals(new int[]{0, 1, 4}, kruskal.edges());
+        assertEquals(3, kruskal.components());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadVertex() {
+        new FilterKruskal(2, new int[]{0}, new int[]{2}, new double[]{1});
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEdgeOrder() {
+        int[] u = {0, 1, 0};
+        int[] v = {1, 2, 2};
+        String[] names = {"c", "a", "b"};
+        FilterKruskal kruskal = new FilterKruskal(3, u, v, (e, f) -> names[e].compareTo(names[f]));
+        assertArrayEquals(new int[]{1, 2}, kruskal.edges());
+        kruskal.weight();
+    }
+
+    @Test
+    public void testAgreesWithParallelBoruvka() {
+        Random random = new Random(0L);
+        for (int trial = 0; trial < 5; trial++) {
+            int n = 1000 + random.nextInt(20000);
+            int m = 5 * n;
+            int[] u = new int[m], v = new int[m];
+            double[] w = new double[m];
+            for (int i = 0; i < m; i++) {
+                u[i] = random.nextInt(n);
+                v[i] = random.nextInt(n);
+                w[i] = random.nextInt(100); // lots of ties
+            }
+            FilterKruskal kruskal = new FilterKruskal(n, u, v, w);
+            int[] edges = kruskal.edges();
+            for (int i = 1; i < edges.length; i++)
+                assertTrue(w[edges[i - 1]] < w[edges[i]] || (w[edges[i - 1]] == w[edges[i]] && edges[i - 1] < edges[i]));
+            int[] expected = new ParallelBoruvka(n, u, v, w).edges();
+            Arrays.sort(expected);
+            Arrays.sort(edges);
+            assertArrayEquals(expected, edges);
+        }
+    }
+
+    @Test
+    public void testDenseGraphIsFiltered() {
+        Random random = new Random(1L);
+        int n = 300;
+        int m = n * (n - 1) / 2;
+        int[] u = new int[m], v = new int[m];
+        double[] w = new double[m];
+        int i = 0;
+        for (int x = 0; x < n; x++)
+            for (int y = x + 1; y < n; y++) {
+                u[i] = x;
+                v[i] = y;
+                w[i++] = random.nextDouble();
+            }
+        FilterKruskal kruskal = new FilterKruskal(n, u, v, w);
+        assertEquals(n - 1, kruskal.edges().length);
+        assertEquals(MSTBenchmark.kruskal(n, u, v, w), kruskal.weight(), 1E-9);
+        assertTrue(kruskal.sorted() < m / 10);
+    }
+}
@@ -0,0 +1,70 @@
+package com.phasmidsoftware.dsaipg.graphs.traversal;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBoruvkaTest {
+
+    @Test
+    public void test1() {
+        EdgeWeightedGraph graph = new EdgeWeightedGraph(7);
+        graph.addEdge(new Edge(0, 1, 28));
+        graph.addEdge(new Edge(0, 2, 10));
+        graph.addEdge(new Edge(1, 5, 14));
+        graph.addEdge(new Edge(1, 6, 16));
+        graph.addEdge(new Edge(4, 6, 12));
+        graph.addEdge(new Edge(5, 4, 18));
+        graph.addEdge(new Edge(3, 4, 22));
+        graph.addEdge(new Edge(3, 5, 24));
+        graph.addEdge(new Edge(2, 3, 25));
+        ParallelBoruvka boruvka = ParallelBoruvka.create(graph);
+        assertEquals(99.0, boruvka.weight(), 0.1);
+        assertEquals(6, boruvka.edges().length);
+        assertEquals(1, boruvka.components());
+    }
+
+    @Test
+    public void testForestWithTiesAndSelfLoops() {
+        int[] u = {0, 1, 0, 2, 3, 3};
+        int[] v = {1, 2, 2, 2, 4, 4};
+        double[] w = {1, 1, 1, 0, 5, 5};
+        ParallelBoruvka boruvka = new ParallelBoruvka(6, u, v, w);
+        assertEquals(7.0, boruvka.weight(), 0.0);
+        assertEquals(3, boruvka.edges().length);
+        assertEquals(3, boruvka.components());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadVertex() {
+        new ParallelBoruvka(2, new int[]{0}, new int[]{2}, new double[]{1});
+    }
+
+    @Test
+    public void testAgreesWithKruskal() {
+        Random random = new Random(0L);
+        for (int trial = 0; trial < 5; trial++) {
+            int n = 1000 + random.nextInt(20000);
+            int m = 5 * n;
+            int[] u = new int[m], v = new int[m];
+            double[] w = new double[m];
+            for (int i = 0; i < m; i++) {
+                u[i] = random.nextInt(n);
+                v[i] = random.nextInt(n);
+                w[i] = random.nextInt(100); // lots of ties
+            }
+            ParallelBoruvka boruvka = new ParallelBoruvka(n, u, v, w);
+            assertEquals(MSTBenchmark.kruskal(n, u, v, w), boruvka.weight(), 1E-6);
+            assertEquals(n - boruvka.components(), boruvka.edges().length);
+            assertTrue(boruvka.rounds() <= 32 - Integer.numberOfLeadingZeros(n));
+        }
+    }
+
+    @Test
+    public void testBenchmark() {
+        new MSTBenchmark(1000, 5000, new Random(0L)).run(1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DynamicConnectivityTest {
+
+    @Test
+    public void testSolve() {
+        DynamicConnectivity dc = new DynamicConnectivity(4);
+        dc.connect(0, 1, 1);
+        dc.connect(1, 2, 2);
+        int q0 = dc.isConnected(0, 2, 1);
+        int q1 = dc.isConnected(0, 2, 2);
+        dc.disconnect(1, 0, 3);
+        int q2 = dc.isConnected(0, 2, 3);
+        int q3 = dc.isConnected(1, 2, 5);
+        int q4 = dc.isConnected(3, 3, 0);
+        int q5 = dc.isConnected(0, 2, 0);
+        boolean[] answers = dc.solve();
+        assertEquals(6, answers.length);
+        assertFalse(answers[q0]);
+        assertTrue(answers[q1]);
+        assertFalse(answers[q2]);
+        assertTrue(answers[q3]);
+        assertTrue(answers[q4]);
+        assertFalse(answers[q5]);
+    }
+
+    @Test
+    public void testSameTime() {
+        DynamicConnectivity dc = new DynamicConnectivity(2);
+        dc.connect(0, 1, 1);
+        dc.disconnect(0, 1, 1);
+        dc.connect(0, 1, 2);
+        dc.connect(0, 1, 2);
+        dc.disconnect(0, 1, 3);
+        int q1 = dc.isConnected(0, 1, 1);
+        int q2 = dc.isConnected(0, 1, 2);
+        int q3 = dc.isConnected(0, 1, 3);
+        boolean[] answers = dc.solve();
+        assertFalse(answers[q1]);
+        assertTrue(answers[q2]);
+        assertTrue(answers[q3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDisconnectWithoutConnect() {
+        DynamicConnectivity dc = new DynamicConnectivity(2);
+        dc.disconnect(0, 1, 0);
+        dc.solve();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSite() {
+        new DynamicConnectivity(2).isConnected(0, 2, 0);
+    }
+
+    @Test
+    public void testNoQueries() {
+        DynamicConnectivity dc = new DynamicConnectivity(2);
+        dc.connect(0, 1, 0);
+        assertEquals(0, dc.solve().length);
+    }
+
+    @Test
+    public void testAgreesWithBruteForce() {
+        Random random = new Random(0L);
+        int n = 50;
+        DynamicConnectivity dc = new DynamicConnectivity(n);
+        List<int[]> present = new ArrayList<>();
+        List<long[]> events = new ArrayList<>(); // p, q, time, +1 or -1
+        List<long[]> queries = new ArrayList<>(); // p, q, time
+        long time = 0;
+        for (int i = 0; i < 3000; i++) {
+            time += random.nextInt(3);
+            int r = random.nextInt(3);
+            if (r == 0 || present.isEmpty()) {
+                int p = random.nextInt(n), q = random.nextInt(n);
+                present.add(new int[]{p, q});
+                dc.connect(p, q, time);
+                events.add(new long[]{p, q, time, 1});
+            } else if (r == 1) {
+                int[] edge = present.remove(random.nextInt(present.size()));
+                dc.disconnect(edge[1], edge[0], time);
+                events.add(new long[]{edge[0], edge[1], time, -1});
+            } else {
+                // Queries may be in the past as well as the future.
+                long t = random.nextInt((int) time + 10);
+                int p = random.nextInt(n), q = random.nextInt(n);
+                assertEquals(queries.size(), dc.isConnected(p, q, t));
+                queries.add(new long[]{p, q, t});
+            }
+        }
+        boolean[] answers = dc.solve();
+        for (int i = 0; i < queries.size(); i++) {
+            long[] query = queries.get(i);
+            int[][] count = new int[n][n];
+            for (long[] e : events)
+                if (e[2] <= query[2]) {
+                    int p = (int) Math.min(e[0], e[1]), q = (int) Math.max(e[0], e[1]);
+                    count[p][q] += (int) e[3];
+                }
+            WQUPC uf = new WQUPC(n);
+            for (int p = 0; p < n; p++)
+                for (int q = p; q < n; q++) if (count[p][q] > 0) uf.union(p, q);
+            assertEquals("query " + i, uf.connected((int) query[0], (int) query[1]), answers[i]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class UF_Concurrent_Test {
+
+    @Test
+    public void testIsConnected01() {
+        Connections h = new UF_Concurrent(2);
+        assertFalse(h.isConnected(0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsConnected02() {
+        Connections h = new UF_Concurrent(1);
+        h.isConnected(0, 1);
+    }
+
+    @Test
+    public void testConnect() {
+        UF_Concurrent h = new UF_Concurrent(4, new Random(0L));
+        h.connect(0, 1);
+        h.connect(2, 3);
+        assertTrue(h.connected(1, 0));
+        assertFalse(h.connected(1, 2));
+        assertEquals(2, h.components());
+        assertTrue(h.merge(0, 3));
+        assertFalse(h.merge(1, 2));
+        assertEquals(1, h.components());
+        assertEquals(h.find(0), h.find(2));
+        assertEquals(4, h.size());
+    }
+
+    @Test
+    public void testAgreesWithWQUPC() {
+        Random random = new Random(0L);
+        int n = 1000;
+        UF_Concurrent h = new UF_Concurrent(n, random);
+        WQUPC expected = new WQUPC(n);
+        for (int i = 0; i < 2000; i++) {
+            int p = random.nextInt(n), q = random.nextInt(n);
+            if (random.nextBoolean()) {
+                h.union(p, q);
+                expected.union(p, q);
+            } else assertEquals(expected.connected(p, q), h.isConnected(p, q));
+        }
+        assertEquals(expected.count(), h.components());
+    }
+
+    @Test
+    public void testManyThreads() throws InterruptedException {
+        int n = 100_000, nThreads = 4;
+        UF_Concurrent h = new UF_Concurrent(n, new Random(0L));
+        AtomicInteger merges = new AtomicInteger();
+        CountDownLatch finish = new CountDownLatch(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            int offset = t;
+            new Thread(() -> {
+                // Every thread links the same chain (in a different order), so most merges are contended.
+                for (int i = 0; i < n - 1; i++) {
+                    int p = (i * 7919 + offset * 104729) % (n - 1);
+                    if (h.merge(p, p + 1)) merges.incrementAndGet();
+                }
+                finish.countDown();
+            }).start();
+        }
+        finish.await();
+        assertEquals(n - 1, merges.get());
+        assertEquals(1, h.components());
+        for (int p = 1; p < n; p++) assertTrue(h.isConnected(0, p));
+    }
+
+    @Test
+    public void testBenchmark() {
+        new UF_ConcurrentBenchmark(1000).run(2, 10_000);
+    }
+}
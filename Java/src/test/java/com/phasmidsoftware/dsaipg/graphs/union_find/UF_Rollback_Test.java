@@ -0,0 +1,77 @@
+package com.phasmidsoftware.dsaipg.graphs.union_find;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UF_Rollback_Test {
+
+    @Test
+    public void testIsConnected01() {
+        Connections h = new UF_Rollback(2);
+        assertFalse(h.isConnected(0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsConnected02() {
+        Connections h = new UF_Rollback(1);
+        h.isConnected(0, 1);
+    }
+
+    @Test
+    public void testRollback() {
+        UF_Rollback h = new UF_Rollback(4);
+        h.connect(0, 1);
+        int snapshot = h.snapshot();
+        h.connect(2, 3);
+        h.connect(1, 2);
+        h.connect(0, 3); // already connected: nothing to undo
+        assertEquals(1, h.components());
+        assertTrue(h.isConnected(0, 3));
+        h.undo();
+        assertEquals(2, h.components());
+        assertTrue(h.isConnected(2, 3));
+        assertFalse(h.isConnected(0, 3));
+        h.rollback(snapshot);
+        assertEquals(3, h.components());
+        assertTrue(h.isConnected(0, 1));
+        assertFalse(h.isConnected(2, 3));
+        h.rollback(0);
+        assertEquals(4, h.components());
+        assertFalse(h.isConnected(0, 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUndoEmpty() {
+        new UF_Rollback(2).undo();
+    }
+
+    @Test
+    public void testRandomRollbacks() {
+        Random random = new Random(0L);
+        int n = 1000;
+        UF_Rollback h = new UF_Rollback(n);
+        for (int round = 0; round < 20; round++) {
+            int snapshot = h.snapshot();
+            String before = h.toString();
+            WQUPC expected = new WQUPC(n);
+            for (int p = 0; p < n; p++) expected.union(p, h.find(p));
+            for (int i = 0; i < 500; i++) {
+                int p = random.nextInt(n), q = random.nextInt(n);
+                h.union(p, q);
+                expected.union(p, q);
+            }
+            for (int i = 0; i < 500; i++) {
+                int p = random.nextInt(n), q = random.nextInt(n);
+                assertEquals(expected.connected(p, q), h.isConnected(p, q));
+            }
+            assertTrue(h.find(random.nextInt(n)) >= 0);
+            if (random.nextBoolean()) {
+                h.rollback(snapshot);
+                assertEquals(before, h.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DictionaryBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        assertEquals(0, new DictionaryBenchmark(1000, 0.93, new Random(0L)).run(1000, 10));
+    }
+}
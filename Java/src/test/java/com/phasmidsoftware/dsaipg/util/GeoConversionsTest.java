@@ -2,6 +2,8 @@ package com.phasmidsoftware.dsaipg.util;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static com.phasmidsoftware.dsaipg.util.GeoConversions.Degrees;
 import static com.phasmidsoftware.dsaipg.util.GeoConversions.UTM;
 import static org.junit.Assert.assertEquals;
@@ -119,4 +121,30 @@ public class GeoConversionsTest {
         GeoConversions.Position position = GeoConversions.getPosition(31, 'N', 361034, 5679935);
         assertEquals(new GeoConversions.Position(51.2538193, 1.0085989), position);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPositions2UTM() {
+        int n = 100_000;
+        Random random = new Random(0L);
+        double[] latitudes = new double[n], longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = random.nextDouble() * 160 - 80;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+        int[] eastings = new int[n], northings = new int[n], zones = new int[n];
+        char[] letters = new char[n];
+        GeoConversions.positions2UTM(latitudes, longitudes, eastings, northings, zones, letters);
+        for (int i = 0; i < n; i++) {
+            UTM utm = GeoConversions.position2UTM(new GeoConversions.Position(latitudes[i], longitudes[i]));
+            assertEquals(utm.Easting, eastings[i]);
+            assertEquals(utm.Northing, northings[i]);
+            assertEquals(utm.Zone, zones[i]);
+            assertEquals(utm.Letter, letters[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPositions2UTMBad() {
+        GeoConversions.positions2UTM(new double[2], new double[2], new int[2], new int[1], new int[2], new char[2]);
+    }
+}
@@ -0,0 +1,18 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertTrue;
+
+public class PQBenchmarkTest {
+
+    @Test
+    public void testBestArity() throws IOException {
+        PQBenchmark benchmark = new PQBenchmark(Config.load(PQBenchmark.class));
+        int best = benchmark.bestArity(10_000, 2, true);
+        assertTrue(Arrays.stream(PQBenchmark.ARITIES).anyMatch(d -> d == best));
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+
 public class SymbolTableBenchmarkTest {
 
     @Test
@@ -75,4 +77,18 @@ public class SymbolTableBenchmarkTest {
         // Act & Assert
         benchmark.benchmarkStringSorters(words, nWords, nRuns);
     }
+
+    @Test
+    public void testRunColdOpenBenchmark() throws IOException {
+        String[] words = {"the", "cat", "sat", "on", "the", "mat"};
+        SymbolTableBenchmark benchmark = new SymbolTableBenchmark(Config.load());
+        assertEquals(words.length, benchmark.runColdOpenBenchmark(words, 3, 5, new Random(0L)));
+    }
+
+    @Test
+    public void testRunConcurrentBenchmark() throws IOException {
+        String[] words = {"the", "cat", "sat", "on", "the", "mat"};
+        SymbolTableBenchmark benchmark = new SymbolTableBenchmark(Config.load());
+        benchmark.runConcurrentBenchmark(words, 1000, 4);
+    }
 }
\ No newline at end of file